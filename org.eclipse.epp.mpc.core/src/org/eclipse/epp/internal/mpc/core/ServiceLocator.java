@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2020 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.epp.internal.mpc.core;
 
+import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -24,12 +25,15 @@ import java.util.Map;
 
 import org.eclipse.core.runtime.IProduct;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.epp.internal.mpc.core.service.CachingCatalogService;
 import org.eclipse.epp.internal.mpc.core.service.CachingMarketplaceService;
 import org.eclipse.epp.internal.mpc.core.service.DefaultCatalogService;
 import org.eclipse.epp.internal.mpc.core.service.DefaultMarketplaceService;
 import org.eclipse.epp.internal.mpc.core.service.MarketplaceStorageService;
 import org.eclipse.epp.internal.mpc.core.service.UserFavoritesService;
 import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientService;
+import org.eclipse.epp.internal.mpc.core.util.ConfigurationAreaUtil;
+import org.eclipse.epp.internal.mpc.core.util.PersistentCache;
 import org.eclipse.epp.internal.mpc.core.util.ServiceUtil;
 import org.eclipse.epp.internal.mpc.core.util.URLUtil;
 import org.eclipse.epp.mpc.core.service.ICatalogService;
@@ -73,6 +77,16 @@ public class ServiceLocator implements IMarketplaceServiceLocator {
 
 	private static final String DEBUG_FAKE_CLIENT_OPTION = "/client/fakeVersion"; //$NON-NLS-1$
 
+	/**
+	 * System property to configure the maximum size in bytes of the persistent response cache. Set to 0 to disable
+	 * persistent caching.
+	 */
+	public static final String RESPONSE_CACHE_SIZE_PROPERTY = "org.eclipse.epp.mpc.core.responseCache.size"; //$NON-NLS-1$
+
+	private static final long DEFAULT_RESPONSE_CACHE_SIZE = 20 * 1024 * 1024;
+
+	private static final String RESPONSE_CACHE_DIR = "responses"; //$NON-NLS-1$
+
 	@Component(name = "org.eclipse.epp.mpc.core.debug.options", property = {
 			"listener.symbolic.name=org.eclipse.epp.mpc.core" })
 	public static class DebugOptionsInitializer implements DebugOptionsListener {
@@ -150,6 +164,10 @@ public class ServiceLocator implements IMarketplaceServiceLocator {
 
 	private HttpClientService httpClient;
 
+	private PersistentCache responseCache;
+
+	private boolean responseCacheInitialized;
+
 	public ServiceLocator() {
 		defaultMarketplaceUrl = DefaultMarketplaceService.DEFAULT_SERVICE_URL;
 		defaultCatalogUrl = DefaultCatalogService.DEFAULT_CATALOG_SERVICE_URL;
@@ -288,10 +306,27 @@ public class ServiceLocator implements IMarketplaceServiceLocator {
 		IUserFavoritesService favoritesService = getFavoritesService(baseUrl);
 		defaultService.setUserFavoritesService(favoritesService);//FIXME this should be a service reference!
 		defaultService.setHttpClient(httpClient);
+		defaultService.setResponseCache(getResponseCache());
 		service = new CachingMarketplaceService(defaultService);
 		return service;
 	}
 
+	/**
+	 * @return the persistent cache shared by all marketplace services, or null if persistent caching is disabled or
+	 *         there is no local configuration area
+	 */
+	protected synchronized PersistentCache getResponseCache() {
+		if (!responseCacheInitialized) {
+			responseCacheInitialized = true;
+			long cacheSize = Long.getLong(RESPONSE_CACHE_SIZE_PROPERTY, DEFAULT_RESPONSE_CACHE_SIZE);
+			File cacheArea = ConfigurationAreaUtil.getConfigurationArea(MarketplaceClientCore.BUNDLE_ID);
+			if (cacheSize > 0 && cacheArea != null) {
+				responseCache = new PersistentCache(new File(cacheArea, RESPONSE_CACHE_DIR), cacheSize);
+			}
+		}
+		return responseCache;
+	}
+
 	@Override
 	public IMarketplaceStorageService getStorageService(String marketplaceUrl) {
 		return getService(storageServiceTracker, marketplaceUrl);
@@ -599,7 +634,10 @@ public class ServiceLocator implements IMarketplaceServiceLocator {
 		if (catalogService != null) {
 			return catalogService;
 		}
-		ICatalogService catalogService = new DefaultCatalogService(defaultCatalogUrl);
+		DefaultCatalogService defaultCatalogService = new DefaultCatalogService(defaultCatalogUrl);
+		//the persistent response cache keeps the last known catalogs across restarts
+		defaultCatalogService.setResponseCache(getResponseCache());
+		ICatalogService catalogService = new CachingCatalogService(defaultCatalogService);
 		registerService(null, ICatalogService.class, catalogService);
 		return catalogService;
 	}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.epp.internal.mpc.core.service.AbstractDataStorageService.NotAuthorizedException;
+import org.eclipse.epp.internal.mpc.core.service.RequestCoalescer.Request;
+import org.eclipse.epp.mpc.core.service.IAsyncMarketplaceService;
+
+/**
+ * Runs blocking marketplace requests in the background for the {@link IAsyncMarketplaceService} implementations.
+ * <p>
+ * Each request gets its own progress monitor, which is canceled when the returned future is canceled. The transport
+ * aborts a running HTTP request when it sees its monitor canceled.
+ */
+public final class AsyncMarketplaceRequests {
+
+	/**
+	 * Maximum number of concurrent background requests. This stays below the connection limit per route, so
+	 * synchronous requests can still get a connection.
+	 */
+	private static final int MAX_THREADS = 8;
+
+	private static final ThreadPoolExecutor executor = createExecutor("Marketplace Service Request", MAX_THREADS); //$NON-NLS-1$
+
+	/**
+	 * A request for the user's data, which fails if the user isn't logged in.
+	 */
+	public interface UserRequest<T> {
+		T execute(IProgressMonitor monitor) throws CoreException, NotAuthorizedException;
+	}
+
+	private AsyncMarketplaceRequests() {
+	}
+
+	/**
+	 * Create a bounded pool of daemon threads, which are discarded when idle.
+	 */
+	static ThreadPoolExecutor createExecutor(String name, int maxThreads) {
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, name + " " + threadCount.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	public static <T> CompletableFuture<T> submit(Request<T> request) {
+		MonitoredFuture<T> future = new MonitoredFuture<>();
+		executor.execute(() -> future.run(request));
+		return future;
+	}
+
+	/**
+	 * Like {@link #submit(Request)}, but a {@link NotAuthorizedException} completes the future with the original
+	 * exception, so callers can prompt for login.
+	 */
+	public static <T> CompletableFuture<T> submitUserRequest(UserRequest<T> request) {
+		return submit(monitor -> {
+			try {
+				return request.execute(monitor);
+			} catch (NotAuthorizedException e) {
+				throw new CompletionException(e);
+			}
+		});
+	}
+
+	private static final class MonitoredFuture<T> extends CompletableFuture<T> {
+
+		private final NullProgressMonitor monitor = new NullProgressMonitor();
+
+		void run(Request<T> request) {
+			if (isDone()) {
+				return;
+			}
+			try {
+				complete(request.execute(monitor));
+			} catch (OperationCanceledException e) {
+				cancel(false);
+			} catch (CoreException e) {
+				if (e.getStatus().getSeverity() == IStatus.CANCEL) {
+					cancel(false);
+				} else {
+					completeExceptionally(e);
+				}
+			} catch (RuntimeException | Error e) {
+				completeExceptionally(e);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			monitor.setCanceled(true);
+			return super.cancel(mayInterruptIfRunning);
+		}
+	}
+}
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
+import org.eclipse.epp.mpc.core.model.ICatalog;
+import org.eclipse.epp.mpc.core.model.ICatalogBranding;
+import org.eclipse.epp.mpc.core.model.INews;
+import org.eclipse.epp.mpc.core.service.ICatalogService;
+
+/**
+ * A catalog service that remembers the last known catalogs, so they don't have to be requested again every time they
+ * are needed.
+ * <p>
+ * Once catalogs have been listed, later calls to {@link #listCatalogs(IProgressMonitor)} return them right away. They
+ * are refreshed in the background once they get older than {@link #REFRESH_INTERVAL}, or on {@link #refresh()
+ * request}, and listeners are notified if the refreshed catalogs differ from the previous ones. The persistent snapshot
+ * that survives restarts is kept by the delegate, e.g. in the response cache of a {@link DefaultCatalogService}.
+ */
+public class CachingCatalogService implements ICatalogService {
+
+	/**
+	 * Catalogs older than this are refreshed in the background the next time they are listed
+	 */
+	static final long REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(30);
+
+	private final ICatalogService delegate;
+
+	private final List<Consumer<List<? extends ICatalog>>> listeners = new CopyOnWriteArrayList<>();
+
+	private final Job refreshJob;
+
+	private List<? extends ICatalog> catalogs;
+
+	private long timestamp;
+
+	public CachingCatalogService(ICatalogService delegate) {
+		this.delegate = delegate;
+		this.refreshJob = new Job(Messages.CachingCatalogService_refreshingCatalogs) {
+
+			{
+				setPriority(DECORATE);
+				setUser(false);
+				setSystem(true);
+			}
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					load(monitor);
+				} catch (CoreException e) {
+					if (e.getStatus().getSeverity() == IStatus.CANCEL) {
+						return Status.CANCEL_STATUS;
+					}
+					//keep the last known catalogs - we'll try again on the next refresh
+					MarketplaceClientCore.getLog().log(e.getStatus());
+				}
+				return Status.OK_STATUS;
+			}
+		};
+	}
+
+	public ICatalogService getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public List<? extends ICatalog> listCatalogs(IProgressMonitor monitor) throws CoreException {
+		List<? extends ICatalog> cachedCatalogs;
+		boolean stale;
+		synchronized (this) {
+			cachedCatalogs = catalogs;
+			stale = System.currentTimeMillis() - timestamp > REFRESH_INTERVAL;
+		}
+		if (cachedCatalogs == null) {
+			return load(monitor);
+		}
+		if (stale) {
+			refresh();
+		}
+		monitor.done();
+		return cachedCatalogs;
+	}
+
+	/**
+	 * @return the last known catalogs, or null if none have been listed yet
+	 */
+	public synchronized List<? extends ICatalog> getCachedCatalogs() {
+		return catalogs;
+	}
+
+	/**
+	 * Request the catalogs again in the background. Listeners are notified if they have changed. This does nothing if
+	 * a refresh is already pending.
+	 */
+	public void refresh() {
+		refreshJob.schedule();
+	}
+
+	/**
+	 * @return the job that refreshes the catalogs in the background, e.g. to join it
+	 */
+	public Job getRefreshJob() {
+		return refreshJob;
+	}
+
+	/**
+	 * Add a listener that is notified with the new catalogs whenever they have changed. Listeners are called on the
+	 * thread that loaded the catalogs, usually a background thread.
+	 */
+	public void addCatalogListener(Consumer<List<? extends ICatalog>> listener) {
+		listeners.add(listener);
+	}
+
+	public void removeCatalogListener(Consumer<List<? extends ICatalog>> listener) {
+		listeners.remove(listener);
+	}
+
+	private List<? extends ICatalog> load(IProgressMonitor monitor) throws CoreException {
+		List<? extends ICatalog> result = delegate.listCatalogs(monitor);
+		List<? extends ICatalog> previous;
+		synchronized (this) {
+			previous = catalogs;
+			catalogs = result;
+			timestamp = System.currentTimeMillis();
+		}
+		//a new response doesn't mean new content, e.g. after the persistent cache was revalidated
+		if (previous != null && !sameCatalogs(previous, result)) {
+			for (Consumer<List<? extends ICatalog>> listener : listeners) {
+				try {
+					listener.accept(result);
+				} catch (RuntimeException e) {
+					MarketplaceClientCore.error(e);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compare everything about the catalogs that is shown or used to connect to them. Catalogs themselves only compare
+	 * by id.
+	 */
+	private static boolean sameCatalogs(List<? extends ICatalog> catalogs, List<? extends ICatalog> otherCatalogs) {
+		if (catalogs == otherCatalogs) {
+			return true;
+		}
+		if (catalogs == null || otherCatalogs == null || catalogs.size() != otherCatalogs.size()) {
+			return false;
+		}
+		for (int i = 0; i < catalogs.size(); i++) {
+			ICatalog catalog = catalogs.get(i);
+			ICatalog other = otherCatalogs.get(i);
+			if (!Objects.equals(catalog.getId(), other.getId()) || !Objects.equals(catalog.getName(), other.getName())
+					|| !Objects.equals(catalog.getUrl(), other.getUrl())
+					|| !Objects.equals(catalog.getDescription(), other.getDescription())
+					|| !Objects.equals(catalog.getImageUrl(), other.getImageUrl())
+					|| catalog.isSelfContained() != other.isSelfContained()
+					|| !Objects.equals(catalog.getDependencyRepository(), other.getDependencyRepository())
+					|| !sameBranding(catalog.getBranding(), other.getBranding())
+					|| !sameNews(catalog.getNews(), other.getNews())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean sameBranding(ICatalogBranding branding, ICatalogBranding other) {
+		if (branding == other) {
+			return true;
+		}
+		if (branding == null || other == null) {
+			return false;
+		}
+		return Objects.equals(branding.getId(), other.getId()) && Objects.equals(branding.getName(), other.getName())
+				&& Objects.equals(branding.getWizardIcon(), other.getWizardIcon())
+				&& Objects.equals(branding.getWizardTitle(), other.getWizardTitle())
+				&& branding.hasSearchTab() == other.hasSearchTab()
+				&& Objects.equals(branding.getSearchTabName(), other.getSearchTabName())
+				&& branding.hasPopularTab() == other.hasPopularTab()
+				&& Objects.equals(branding.getPopularTabName(), other.getPopularTabName())
+				&& branding.hasRecentTab() == other.hasRecentTab()
+				&& Objects.equals(branding.getRecentTabName(), other.getRecentTabName())
+				&& branding.hasRelatedTab() == other.hasRelatedTab()
+				&& Objects.equals(branding.getRelatedTabName(), other.getRelatedTabName())
+				&& branding.hasFeaturedMarketTab() == other.hasFeaturedMarketTab()
+				&& Objects.equals(branding.getFeaturedMarketTabName(), other.getFeaturedMarketTabName())
+				&& branding.hasFavoritesTab() == other.hasFavoritesTab()
+				&& Objects.equals(branding.getFavoritesTabName(), other.getFavoritesTabName())
+				&& Objects.equals(branding.getFavoritesServer(), other.getFavoritesServer())
+				&& Objects.equals(branding.getFavoritesApiKey(), other.getFavoritesApiKey());
+	}
+
+	private static boolean sameNews(INews news, INews other) {
+		if (news == other) {
+			return true;
+		}
+		if (news == null || other == null) {
+			return false;
+		}
+		return Objects.equals(news.getUrl(), other.getUrl())
+				&& Objects.equals(news.getShortTitle(), other.getShortTitle())
+				&& Objects.equals(news.getTimestamp(), other.getTimestamp());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -13,25 +13,25 @@
  *******************************************************************************/
 package org.eclipse.epp.internal.mpc.core.service;
 
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.SoftReference;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.epp.internal.mpc.core.model.Node;
 import org.eclipse.epp.internal.mpc.core.service.AbstractDataStorageService.NotAuthorizedException;
+import org.eclipse.epp.internal.mpc.core.service.RequestCoalescer.Flight;
 import org.eclipse.epp.internal.mpc.core.util.URLUtil;
 import org.eclipse.epp.mpc.core.model.ICategory;
 import org.eclipse.epp.mpc.core.model.IFavoriteList;
@@ -39,48 +39,98 @@ import org.eclipse.epp.mpc.core.model.IMarket;
 import org.eclipse.epp.mpc.core.model.INews;
 import org.eclipse.epp.mpc.core.model.INode;
 import org.eclipse.epp.mpc.core.model.ISearchResult;
+import org.eclipse.epp.mpc.core.service.IAsyncMarketplaceService;
 import org.eclipse.epp.mpc.core.service.IMarketplaceService;
 import org.eclipse.epp.mpc.core.service.IUserFavoritesService;
 import org.eclipse.epp.mpc.core.service.QueryHelper;
 
-public class CachingMarketplaceService implements IMarketplaceService {
+public class CachingMarketplaceService implements IAsyncMarketplaceService {
 
 	private static final String MISSING_NODE_TYPE = "__MISSING__"; //$NON-NLS-1$
 
+	private static final String MARKETS_KEY = "Markets:Markets"; //$NON-NLS-1$
+
+	private static final String NEWS_KEY = "News:News"; //$NON-NLS-1$
+
+	/**
+	 * Time to live for markets and categories, which hardly ever change
+	 */
+	static final long MARKETS_TTL = TimeUnit.HOURS.toMillis(24);
+
+	static final long NODE_TTL = TimeUnit.HOURS.toMillis(1);
+
+	static final long NEWS_TTL = TimeUnit.HOURS.toMillis(1);
+
+	/**
+	 * Time to live for server-curated listings like featured or popular nodes
+	 */
+	static final long LISTING_TTL = TimeUnit.MINUTES.toMillis(30);
+
+	/**
+	 * Time to live for search results and other fast-changing listings
+	 */
+	static final long SEARCH_TTL = TimeUnit.MINUTES.toMillis(5);
+
 	private final IMarketplaceService delegate;
 
-	private final Map<String, Reference<Object>> cache = new LinkedHashMap<>();
+	private final MarketplaceServiceCache cache;
 
-	private final ReferenceQueue<Object> cacheReferenceQueue = new ReferenceQueue<>();
+	private final RequestCoalescer coalescer = new RequestCoalescer();
 
 	public CachingMarketplaceService(IMarketplaceService delegate) {
-		if (delegate == null) {
+		this(delegate, new MarketplaceServiceCache());
+	}
+
+	public CachingMarketplaceService(IMarketplaceService delegate, MarketplaceServiceCache cache) {
+		if (delegate == null || cache == null) {
 			throw new IllegalArgumentException();
 		}
 		this.delegate = delegate;
+		this.cache = cache;
 	}
 
 	public IMarketplaceService getDelegate() {
 		return delegate;
 	}
 
+	public MarketplaceServiceCache.Statistics getCacheStatistics() {
+		return cache.getStatistics();
+	}
+
+	/**
+	 * @return the number of requests that were answered by sharing an identical request already in progress
+	 */
+	public long getCoalescedRequestCount() {
+		return coalescer.getCoalescedCount();
+	}
+
 	@Override
 	public List<? extends IMarket> listMarkets(IProgressMonitor monitor) throws CoreException {
-		String marketsKey = "Markets:Markets"; //$NON-NLS-1$
 		@SuppressWarnings("unchecked")
-		List<? extends IMarket> marketsResult = getCached(marketsKey, List.class);
+		List<? extends IMarket> marketsResult = getCached(MARKETS_KEY, List.class);
 		if (marketsResult == null) {
-			marketsResult = delegate.listMarkets(monitor);
-			synchronized (cache) {
-				cache(marketsKey, marketsResult);
-				for (IMarket market : marketsResult) {
+			marketsResult = coalescer.execute(MARKETS_KEY, monitor1 -> {
+				List<? extends IMarket> markets = delegate.listMarkets(monitor1);
+				cache(MARKETS_KEY, markets, MARKETS_TTL);
+				for (IMarket market : markets) {
 					cacheMarket(market);
 				}
-			}
+				return markets;
+			}, monitor);
 		}
 		return marketsResult;
 	}
 
+	@Override
+	public CompletableFuture<List<? extends IMarket>> listMarkets() {
+		@SuppressWarnings("unchecked")
+		List<? extends IMarket> marketsResult = getCached(MARKETS_KEY, List.class);
+		if (marketsResult != null) {
+			return CompletableFuture.completedFuture(marketsResult);
+		}
+		return AsyncMarketplaceRequests.submit(monitor -> listMarkets(monitor));
+	}
+
 	@Override
 	public IMarket getMarket(IMarket market, IProgressMonitor monitor) throws CoreException {
 		String marketKey = computeMarketKey(market);
@@ -91,17 +141,35 @@ public class CachingMarketplaceService implements IMarketplaceService {
 		if (marketResult == null) {
 			marketResult = delegate.getMarket(market, monitor);
 			if (marketResult != null) {
-				synchronized (cache) {
-					cacheMarket(marketResult);
-				}
+				cacheMarket(marketResult);
 			}
 		}
 		return marketResult;
 	}
 
+	@Override
+	public CompletableFuture<IMarket> getMarket(IMarket market) {
+		return AsyncMarketplaceRequests.submit(monitor -> getMarket(market, monitor));
+	}
+
+	@Override
+	public CompletableFuture<ICategory> getCategory(ICategory category) {
+		return AsyncMarketplaceRequests.submit(monitor -> getCategory(category, monitor));
+	}
+
+	@Override
+	public CompletableFuture<INode> getNode(INode node) {
+		return AsyncMarketplaceRequests.submit(monitor -> getNode(node, monitor));
+	}
+
+	@Override
+	public CompletableFuture<List<INode>> getNodes(Collection<? extends INode> nodes) {
+		return AsyncMarketplaceRequests.submit(monitor -> getNodes(nodes, monitor));
+	}
+
 	private void cacheMarket(IMarket market) {
 		String marketKey = computeMarketKey(market);
-		cache(marketKey, market);
+		cache(marketKey, market, MARKETS_TTL);
 		List<? extends ICategory> categories = market.getCategory();
 		for (ICategory category : categories) {
 			cacheCategory(category);
@@ -110,7 +178,7 @@ public class CachingMarketplaceService implements IMarketplaceService {
 
 	private void cacheCategory(ICategory category) {
 		String categoryKey = computeCategoryKey(category);
-		cache(categoryKey, category);
+		cache(categoryKey, category, MARKETS_TTL);
 	}
 
 	@Override
@@ -123,9 +191,7 @@ public class CachingMarketplaceService implements IMarketplaceService {
 		if (categoryResult == null) {
 			categoryResult = delegate.getCategory(category, monitor);
 			if (categoryResult != null) {
-				synchronized (cache) {
-					cacheCategory(categoryResult);
-				}
+				cacheCategory(categoryResult);
 			}
 		}
 		return categoryResult;
@@ -135,20 +201,31 @@ public class CachingMarketplaceService implements IMarketplaceService {
 	public INode getNode(INode node, IProgressMonitor monitor) throws CoreException {
 		INode nodeResult = lookupCachedNode(node);
 		if (nodeResult == null) {
-			nodeResult = delegate.getNode(node, monitor);
-			if (nodeResult != null) {
-				cacheNode(nodeResult);
+			RequestCoalescer.Request<INode> request = monitor1 -> {
+				INode loadedNode = delegate.getNode(node, monitor1);
+				if (loadedNode != null) {
+					cacheNode(loadedNode);
+				}
+				return loadedNode;
+			};
+			String flightKey = computeNodeFlightKey(node);
+			if (flightKey == null) {
+				nodeResult = request.execute(monitor);
+			} else {
+				nodeResult = coalescer.execute(flightKey, request, monitor);
+				if (nodeResult != null && MISSING_NODE_TYPE.equals(nodeResult.getType())) {
+					//joined a bulk request that didn't find the node - ask for it directly to get a proper error
+					nodeResult = request.execute(monitor);
+				}
 			}
 		}
 		return nodeResult;
 	}
 
 	private void cacheNode(INode node) {
-		synchronized (cache) {
-			cache(computeNodeKey(node), node);
-			cache(computeNodeUrlKey(node), node);
-			cache(computeNodeIdUrlKey(node), node);
-		}
+		cache(computeNodeKey(node), node, NODE_TTL);
+		cache(computeNodeUrlKey(node), node, NODE_TTL);
+		cache(computeNodeIdUrlKey(node), node, NODE_TTL);
 	}
 
 	@Override
@@ -161,19 +238,7 @@ public class CachingMarketplaceService implements IMarketplaceService {
 			}
 		}
 		if (!unresolvedNodes.isEmpty()) {
-			List<INode> newResolvedNodes = delegate.getNodes(unresolvedNodes, monitor);
-			for (INode node : newResolvedNodes) {
-				cacheNode(node);
-			}
-			for (INode node : unresolvedNodes) {
-				if (!mapCachedNode(node, resolvedNodes)) {
-					//Cache not-found nodes
-					INode missingNode = createMissingNode(node);
-					if (missingNode != null) {
-						cacheNode(missingNode);
-					}
-				}
-			}
+			loadNodes(unresolvedNodes, resolvedNodes, monitor);
 		}
 		List<INode> result = new ArrayList<>(nodes.size());
 		for (INode node : nodes) {
@@ -185,6 +250,91 @@ public class CachingMarketplaceService implements IMarketplaceService {
 		return result;
 	}
 
+	private void loadNodes(List<INode> nodes, Map<INode, INode> resolvedNodes, IProgressMonitor monitor)
+			throws CoreException {
+		//share requests for nodes that are already being loaded by a concurrent call
+		Map<String, Flight<INode>> ledFlights = new LinkedHashMap<>();
+		Map<INode, Flight<INode>> joinedFlights = new LinkedHashMap<>();
+		List<INode> requestedNodes = new ArrayList<>();
+		for (INode node : nodes) {
+			String flightKey = computeNodeFlightKey(node);
+			if (flightKey == null) {
+				requestedNodes.add(node);
+			} else if (!ledFlights.containsKey(flightKey)) {
+				Flight<INode> flight = coalescer.join(flightKey);
+				if (flight.isLeader()) {
+					ledFlights.put(flightKey, flight);
+					requestedNodes.add(node);
+				} else {
+					joinedFlights.put(node, flight);
+				}
+			}
+		}
+		if (!requestedNodes.isEmpty()) {
+			try {
+				requestNodes(requestedNodes, resolvedNodes, monitor);
+			} catch (CoreException | RuntimeException | Error e) {
+				for (Flight<INode> flight : ledFlights.values()) {
+					flight.fail(e);
+				}
+				throw e;
+			}
+			for (INode node : requestedNodes) {
+				Flight<INode> flight = ledFlights.remove(computeNodeFlightKey(node));
+				if (flight != null) {
+					flight.complete(resolvedNodes.get(node));
+				}
+			}
+		}
+		List<INode> retryNodes = new ArrayList<>();
+		for (Map.Entry<INode, Flight<INode>> joinedFlight : joinedFlights.entrySet()) {
+			INode nodeResult;
+			try {
+				nodeResult = joinedFlight.getValue().await(monitor);
+			} catch (OperationCanceledException e) {
+				if (monitor != null && monitor.isCanceled()) {
+					throw e;
+				}
+				nodeResult = null;
+			} catch (CoreException e) {
+				//failures of a single node request don't necessarily apply to a bulk request
+				nodeResult = null;
+			}
+			if (nodeResult != null) {
+				resolvedNodes.put(joinedFlight.getKey(), nodeResult);
+			} else {
+				retryNodes.add(joinedFlight.getKey());
+			}
+		}
+		if (!retryNodes.isEmpty()) {
+			requestNodes(retryNodes, resolvedNodes, monitor);
+		}
+		for (INode node : nodes) {
+			//duplicate requests for the same node
+			if (!resolvedNodes.containsKey(node)) {
+				mapCachedNode(node, resolvedNodes);
+			}
+		}
+	}
+
+	private void requestNodes(List<INode> nodes, Map<INode, INode> resolvedNodes, IProgressMonitor monitor)
+			throws CoreException {
+		List<INode> newResolvedNodes = delegate.getNodes(nodes, monitor);
+		for (INode node : newResolvedNodes) {
+			cacheNode(node);
+		}
+		for (INode node : nodes) {
+			if (!mapCachedNode(node, resolvedNodes)) {
+				//Cache not-found nodes
+				INode missingNode = createMissingNode(node);
+				if (missingNode != null) {
+					cacheNode(missingNode);
+					resolvedNodes.put(node, missingNode);
+				}
+			}
+		}
+	}
+
 	private INode createMissingNode(INode node) {
 		INode missingNode;
 		if (node.getId() != null) {
@@ -226,35 +376,12 @@ public class CachingMarketplaceService implements IMarketplaceService {
 		return null;
 	}
 
-	private void cache(String key, Object value) {
-		if (key != null) {
-			cache.put(key, new SoftReference<>(value, cacheReferenceQueue));
-		}
+	private void cache(String key, Object value, long timeToLive) {
+		cache.put(key, value, timeToLive);
 	}
 
 	private <T> T getCached(String key, Class<T> type) {
-		synchronized (cache) {
-			gcCache();
-			Reference<Object> reference = cache.get(key);
-			if (reference != null) {
-				return type.cast(reference.get());
-			}
-		}
-		return null;
-	}
-
-	private void gcCache() {
-		if (cacheReferenceQueue.poll() != null) {
-			while (cacheReferenceQueue.poll() != null) {
-				//clear the queue
-			}
-			for (Iterator<Reference<Object>> i = cache.values().iterator(); i.hasNext();) {
-				Reference<Object> reference = i.next();
-				if (reference.isEnqueued()) {
-					i.remove();
-				}
-			}
-		}
+		return cache.get(key, type);
 	}
 
 	private String computeNodeKey(INode node) {
@@ -271,6 +398,11 @@ public class CachingMarketplaceService implements IMarketplaceService {
 		return null;
 	}
 
+	private String computeNodeFlightKey(INode node) {
+		String nodeKey = computeNodeKey(node);
+		return nodeKey != null ? nodeKey : computeNodeUrlKey(node);
+	}
+
 	private String computeNodeIdUrlKey(INode node) {
 		if (node.getId() != null) {
 			String url = URLUtil.appendPath(getBaseUrl().toString(), DefaultMarketplaceService.API_NODE_URI,
@@ -303,13 +435,26 @@ public class CachingMarketplaceService implements IMarketplaceService {
 	public ISearchResult search(final IMarket market, final ICategory category, final String queryText,
 			IProgressMonitor monitor) throws CoreException {
 		String key = computeSearchKey("search", market, category, queryText); //$NON-NLS-1$
-		return performSearch(monitor, key, monitor1 -> delegate.search(market, category, queryText, monitor1));
+		return performSearch(monitor, key, SEARCH_TTL,
+				monitor1 -> delegate.search(market, category, queryText, monitor1));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> search(IMarket market, ICategory category, String queryText) {
+		String key = computeSearchKey("search", market, category, queryText); //$NON-NLS-1$
+		return performSearchAsync(key, SEARCH_TTL, monitor -> delegate.search(market, category, queryText, monitor));
 	}
 
 	@Override
 	public ISearchResult tagged(final String tag, IProgressMonitor monitor) throws CoreException {
 		String key = computeSearchKey("tagged", null, null, tag); //$NON-NLS-1$
-		return performSearch(monitor, key, monitor1 -> delegate.tagged(tag, monitor1));
+		return performSearch(monitor, key, SEARCH_TTL, monitor1 -> delegate.tagged(tag, monitor1));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> tagged(String tag) {
+		String key = computeSearchKey("tagged", null, null, tag); //$NON-NLS-1$
+		return performSearchAsync(key, SEARCH_TTL, monitor -> delegate.tagged(tag, monitor));
 	}
 
 	@Override
@@ -318,24 +463,39 @@ public class CachingMarketplaceService implements IMarketplaceService {
 		return tagged(combinedTags, monitor);
 	}
 
-	private ISearchResult performSearch(IProgressMonitor monitor, String key, SearchOperation searchOperation)
-			throws CoreException {
-		ISearchResult result = null;
-		synchronized (cache) {
-			Reference<Object> reference = cache.get(key);
-			if (reference != null) {
-				result = (ISearchResult) reference.get();
-			}
-		}
+	@Override
+	public CompletableFuture<ISearchResult> tagged(List<String> tags) {
+		String combinedTags = tags.stream().collect(Collectors.joining(",")); //$NON-NLS-1$
+		return tagged(combinedTags);
+	}
+
+	private ISearchResult performSearch(IProgressMonitor monitor, String key, long timeToLive,
+			SearchOperation searchOperation) throws CoreException {
+		ISearchResult result = getCached(key, ISearchResult.class);
 		if (result == null) {
-			result = searchOperation.doSearch(monitor);
-			if (result != null) {
-				synchronized (cache) {
-					cache(key, result);
-					for (INode node : result.getNodes()) {
-						cache(computeNodeKey(node), node);
-					}
-				}
+			result = coalescer.execute(key, monitor1 -> loadSearch(monitor1, key, timeToLive, searchOperation),
+					monitor);
+		}
+		return result;
+	}
+
+	private CompletableFuture<ISearchResult> performSearchAsync(String key, long timeToLive,
+			SearchOperation searchOperation) {
+		ISearchResult result = getCached(key, ISearchResult.class);
+		if (result != null) {
+			return CompletableFuture.completedFuture(result);
+		}
+		return coalescer.executeAsync(key, () -> AsyncMarketplaceRequests
+				.submit(monitor -> loadSearch(monitor, key, timeToLive, searchOperation)));
+	}
+
+	private ISearchResult loadSearch(IProgressMonitor monitor, String key, long timeToLive,
+			SearchOperation searchOperation) throws CoreException {
+		ISearchResult result = searchOperation.doSearch(monitor);
+		if (result != null) {
+			cache(key, result, timeToLive);
+			for (INode node : result.getNodes()) {
+				cache(computeNodeKey(node), node, NODE_TTL);
 			}
 		}
 		return result;
@@ -354,37 +514,78 @@ public class CachingMarketplaceService implements IMarketplaceService {
 	@Override
 	public ISearchResult featured(IProgressMonitor monitor) throws CoreException {
 		String key = computeSearchKey("featured", null, null, null); //$NON-NLS-1$
-		return performSearch(monitor, key, monitor1 -> delegate.featured(monitor1));
+		return performSearch(monitor, key, LISTING_TTL, monitor1 -> delegate.featured(monitor1));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> featured() {
+		String key = computeSearchKey("featured", null, null, null); //$NON-NLS-1$
+		return performSearchAsync(key, LISTING_TTL, monitor -> delegate.featured(monitor));
 	}
 
 	@Override
 	public ISearchResult featured(final IMarket market, final ICategory category, IProgressMonitor monitor)
 			throws CoreException {
 		String key = computeSearchKey("featured", market, category, null); //$NON-NLS-1$
-		return performSearch(monitor, key, monitor1 -> delegate.featured(market, category, monitor1));
+		return performSearch(monitor, key, LISTING_TTL, monitor1 -> delegate.featured(market, category, monitor1));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> featured(IMarket market, ICategory category) {
+		String key = computeSearchKey("featured", market, category, null); //$NON-NLS-1$
+		return performSearchAsync(key, LISTING_TTL, monitor -> delegate.featured(market, category, monitor));
 	}
 
 	@Override
 	public ISearchResult recent(IProgressMonitor monitor) throws CoreException {
 		String key = computeSearchKey("recent", null, null, null); //$NON-NLS-1$
-		return performSearch(monitor, key, monitor1 -> delegate.recent(monitor1));
+		return performSearch(monitor, key, SEARCH_TTL, monitor1 -> delegate.recent(monitor1));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> recent() {
+		String key = computeSearchKey("recent", null, null, null); //$NON-NLS-1$
+		return performSearchAsync(key, SEARCH_TTL, monitor -> delegate.recent(monitor));
 	}
 
 	@Override
 	public ISearchResult topFavorites(IProgressMonitor monitor) throws CoreException {
 		String key = computeSearchKey("favorites", null, null, null); //$NON-NLS-1$
-		return performSearch(monitor, key, monitor1 -> delegate.topFavorites(monitor1));
+		return performSearch(monitor, key, LISTING_TTL, monitor1 -> delegate.topFavorites(monitor1));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> topFavorites() {
+		String key = computeSearchKey("favorites", null, null, null); //$NON-NLS-1$
+		return performSearchAsync(key, LISTING_TTL, monitor -> delegate.topFavorites(monitor));
 	}
 
 	@Override
 	public ISearchResult popular(IProgressMonitor monitor) throws CoreException {
 		String key = computeSearchKey("popular", null, null, null); //$NON-NLS-1$
-		return performSearch(monitor, key, monitor1 -> delegate.popular(monitor1));
+		return performSearch(monitor, key, LISTING_TTL, monitor1 -> delegate.popular(monitor1));
 
 	}
 
+	@Override
+	public CompletableFuture<ISearchResult> popular() {
+		String key = computeSearchKey("popular", null, null, null); //$NON-NLS-1$
+		return performSearchAsync(key, LISTING_TTL, monitor -> delegate.popular(monitor));
+	}
+
 	@Override
 	public ISearchResult related(final List<? extends INode> basedOn, IProgressMonitor monitor) throws CoreException {
+		return performSearch(monitor, computeRelatedKey(basedOn), LISTING_TTL,
+				monitor1 -> delegate.related(basedOn, monitor1));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> related(List<? extends INode> basedOn) {
+		return performSearchAsync(computeRelatedKey(basedOn), LISTING_TTL,
+				monitor -> delegate.related(basedOn, monitor));
+	}
+
+	private String computeRelatedKey(List<? extends INode> basedOn) {
 		String searchKey = null;
 		if (basedOn != null && !basedOn.isEmpty()) {
 			StringBuilder searchKeyBldr = new StringBuilder();
@@ -393,23 +594,31 @@ public class CachingMarketplaceService implements IMarketplaceService {
 			}
 			searchKey = searchKeyBldr.substring(0, searchKeyBldr.length() - 1);
 		}
-		String key = computeSearchKey("related", null, null, searchKey); //$NON-NLS-1$
-		return performSearch(monitor, key, monitor1 -> delegate.related(basedOn, monitor1));
+		return computeSearchKey("related", null, null, searchKey); //$NON-NLS-1$
 	}
 
 	@Override
 	public INews news(IProgressMonitor monitor) throws CoreException {
-		String newsKey = "News:News"; //$NON-NLS-1$
-		INews newsResult = getCached(newsKey, INews.class);
+		INews newsResult = getCached(NEWS_KEY, INews.class);
 		if (newsResult == null) {
-			newsResult = delegate.news(monitor);
-			synchronized (cache) {
-				cache(newsKey, newsResult);
-			}
+			newsResult = coalescer.execute(NEWS_KEY, monitor1 -> {
+				INews news = delegate.news(monitor1);
+				cache(NEWS_KEY, news, NEWS_TTL);
+				return news;
+			}, monitor);
 		}
 		return newsResult;
 	}
 
+	@Override
+	public CompletableFuture<INews> news() {
+		INews newsResult = getCached(NEWS_KEY, INews.class);
+		if (newsResult != null) {
+			return CompletableFuture.completedFuture(newsResult);
+		}
+		return AsyncMarketplaceRequests.submit(monitor -> news(monitor));
+	}
+
 	public void reportInstallError(IProgressMonitor monitor, IStatus result, Set<Node> nodes,
 			Set<String> iuIdsAndVersions, String resolutionDetails) throws CoreException {
 		reportInstallError(result, nodes, iuIdsAndVersions, resolutionDetails, monitor);
@@ -450,6 +659,24 @@ public class CachingMarketplaceService implements IMarketplaceService {
 		delegate.userFavorites(nodes, monitor);
 	}
 
+	@Override
+	public CompletableFuture<ISearchResult> userFavorites() {
+		return AsyncMarketplaceRequests.submitUserRequest(monitor -> userFavorites(monitor));
+	}
+
+	@Override
+	public CompletableFuture<Void> userFavorites(List<? extends INode> nodes) {
+		return AsyncMarketplaceRequests.submitUserRequest(monitor -> {
+			userFavorites(nodes, monitor);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<IFavoriteList>> userFavoriteLists() {
+		return AsyncMarketplaceRequests.submit(monitor -> userFavoriteLists(monitor));
+	}
+
 	@Override
 	public IUserFavoritesService getUserFavoritesService() {
 		return delegate.getUserFavoritesService();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2019 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -30,6 +30,14 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.hc.client5.http.entity.UrlEncodedFormEntity;
@@ -41,6 +49,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
@@ -62,8 +71,10 @@ import org.eclipse.epp.mpc.core.model.IFavoriteList;
 import org.eclipse.epp.mpc.core.model.IIdentifiable;
 import org.eclipse.epp.mpc.core.model.IIus;
 import org.eclipse.epp.mpc.core.model.IMarket;
+import org.eclipse.epp.mpc.core.model.INews;
 import org.eclipse.epp.mpc.core.model.INode;
 import org.eclipse.epp.mpc.core.model.ISearchResult;
+import org.eclipse.epp.mpc.core.service.IAsyncMarketplaceService;
 import org.eclipse.epp.mpc.core.service.IMarketplaceService;
 import org.eclipse.epp.mpc.core.service.IMarketplaceServiceLocator;
 import org.eclipse.epp.mpc.core.service.IUserFavoritesService;
@@ -75,8 +86,8 @@ import org.eclipse.osgi.util.NLS;
  * @author Carsten Reckord
  */
 @SuppressWarnings("deprecation")
-public class DefaultMarketplaceService extends RemoteMarketplaceService<Marketplace> implements IMarketplaceService,
-MarketplaceService {
+public class DefaultMarketplaceService extends RemoteMarketplaceService<Marketplace>
+implements IAsyncMarketplaceService, MarketplaceService {
 
 //	This provisional API will be identified by /api/p at the end of most urls.
 //
@@ -169,6 +180,26 @@ MarketplaceService {
 	 */
 	public static final String PARAM_BASED_ON_NODES = "nodes"; //$NON-NLS-1$
 
+	/**
+	 * Maximum number of nodes requested by id in a single request. Larger batches are split into several requests.
+	 */
+	private static final int MAX_NODES_PER_REQUEST = 50;
+
+	/**
+	 * Maximum length of the encoded node id list in a single request, to stay well below common URL length limits.
+	 */
+	private static final int MAX_NODE_QUERY_LENGTH = 1500;
+
+	/**
+	 * Maximum number of concurrent requests used to resolve a batch of nodes.
+	 */
+	private static final int MAX_CONCURRENT_NODE_REQUESTS = 4;
+
+	private static final long CANCEL_POLL_INTERVAL = 100;
+
+	private static final ExecutorService nodeQueryExecutor = AsyncMarketplaceRequests
+			.createExecutor("Marketplace Node Resolution", MAX_CONCURRENT_NODE_REQUESTS); //$NON-NLS-1$
+
 	static {
 		DEFAULT_SERVICE_URL = ServiceUtil.parseUrl(DEFAULT_SERVICE_LOCATION);
 	}
@@ -190,6 +221,30 @@ MarketplaceService {
 		return super.getBaseUrl();
 	}
 
+	/**
+	 * Keep persisted responses as long as {@link CachingMarketplaceService} keeps the results in memory.
+	 */
+	@Override
+	protected long getResponseTimeToLive(String baseUri, String relativePath) {
+		if (relativePath.startsWith(API_NODE_URI + '/')) {
+			return CachingMarketplaceService.NODE_TTL;
+		}
+		if (relativePath.startsWith(API_NEWS_URI + '/')) {
+			return CachingMarketplaceService.NEWS_TTL;
+		}
+		if (relativePath.startsWith(API_FEATURED_URI + '/') || relativePath.startsWith(API_FAVORITES_URI + '/')
+				|| relativePath.startsWith(API_POPULAR_URI + '/') || relativePath.startsWith(API_RELATED_URI + '/')) {
+			return CachingMarketplaceService.LISTING_TTL;
+		}
+		if (API_URI_SUFFIX.equals(relativePath)) {
+			//the market list at the service root, or a category or node at its own url
+			return baseUri.equals(baseUrl.toString()) ? CachingMarketplaceService.MARKETS_TTL
+					: CachingMarketplaceService.NODE_TTL;
+		}
+		//searches, tags and recent nodes
+		return CachingMarketplaceService.SEARCH_TTL;
+	}
+
 	@Override
 	public List<Market> listMarkets(IProgressMonitor monitor) throws CoreException {
 		Marketplace marketplace = processRequest(API_URI_SUFFIX, monitor);
@@ -322,13 +377,38 @@ MarketplaceService {
 				nodesById.add(node);
 			}
 		}
-		Map<INode, INode> resolvedNodeMapping = new HashMap<>(nodes.size());
-		Map<INode, CoreException> resolutionErrors = new HashMap<>(2);
+		Map<INode, INode> resolvedNodeMapping = new ConcurrentHashMap<>(nodes.size());
+		Map<INode, CoreException> resolutionErrors = new ConcurrentHashMap<>(2);
+		//nodes that have both id and url are only looked up by url if they can't be found by id
+		List<NodeQuery> queries = new ArrayList<>();
 		if (nodesById != null) {
-			getNodesById(nodesById, resolvedNodeMapping, progress.newChild(nodesById.size()));
+			for (List<INode> chunk : chunkNodesById(nodesById)) {
+				queries.add(chunkMonitor -> getNodesById(chunk, resolvedNodeMapping, chunkMonitor));
+			}
 		}
+		List<INode> fallbackNodesByUrl = null;
 		if (nodesByUrl != null) {
-			getNodesByUrl(nodesByUrl, resolvedNodeMapping, resolutionErrors, progress.newChild(nodesByUrl.size()));
+			for (INode node : nodesByUrl) {
+				if (node.getId() == null) {
+					queries.add(urlMonitor -> getNodeByUrl(node, resolvedNodeMapping, resolutionErrors, urlMonitor));
+				} else {
+					if (fallbackNodesByUrl == null) {
+						fallbackNodesByUrl = new ArrayList<>();
+					}
+					fallbackNodesByUrl.add(node);
+				}
+			}
+		}
+		int fallbackWork = fallbackNodesByUrl == null ? 0 : fallbackNodesByUrl.size();
+		performQueries(queries, progress.newChild(nodes.size() - fallbackWork));
+		if (fallbackNodesByUrl != null) {
+			queries.clear();
+			for (INode node : fallbackNodesByUrl) {
+				if (!resolvedNodeMapping.containsKey(node)) {
+					queries.add(urlMonitor -> getNodeByUrl(node, resolvedNodeMapping, resolutionErrors, urlMonitor));
+				}
+			}
+			performQueries(queries, progress.newChild(fallbackWork));
 		}
 
 		List<INode> resultNodes = new ArrayList<>(nodes.size());
@@ -389,20 +469,102 @@ MarketplaceService {
 		}
 	}
 
-	private void getNodesByUrl(Collection<? extends INode> nodes, Map<INode, INode> resolvedNodeMapping,
-			Map<INode, CoreException> resolutionErrors, IProgressMonitor monitor) throws CoreException {
-		SubMonitor progress = SubMonitor.convert(monitor, nodes.size());
-		int remaining = nodes.size();
+	private void getNodeByUrl(INode node, Map<INode, INode> resolvedNodeMapping,
+			Map<INode, CoreException> resolutionErrors, IProgressMonitor monitor) {
+		try {
+			Node resolvedNode = getNode(node, monitor);
+			resolvedNodeMapping.put(node, resolvedNode);
+		} catch (CoreException ex) {
+			resolutionErrors.put(node, ex);
+		}
+	}
+
+	/**
+	 * Split the given nodes into chunks that can be queried with a single request without exceeding the URL length
+	 * limits of servers and proxies.
+	 */
+	private static List<List<INode>> chunkNodesById(List<INode> nodes) {
+		List<List<INode>> chunks = new ArrayList<>();
+		List<INode> chunk = new ArrayList<>();
+		int queryLength = 0;
 		for (INode node : nodes) {
-			if (node.getUrl() != null && !resolvedNodeMapping.containsKey(node)) {
+			int idLength = urlEncode(node.getId()).length() + 1;
+			if (!chunk.isEmpty()
+					&& (chunk.size() >= MAX_NODES_PER_REQUEST || queryLength + idLength > MAX_NODE_QUERY_LENGTH)) {
+				chunks.add(chunk);
+				chunk = new ArrayList<>();
+				queryLength = 0;
+			}
+			chunk.add(node);
+			queryLength += idLength;
+		}
+		if (!chunk.isEmpty()) {
+			chunks.add(chunk);
+		}
+		return chunks;
+	}
+
+	@FunctionalInterface
+	private interface NodeQuery {
+		void execute(IProgressMonitor monitor) throws CoreException;
+	}
+
+	/**
+	 * Run the given queries concurrently on the {@link #nodeQueryExecutor}. Waits for all queries to finish and
+	 * rethrows the first failure, in which case the remaining queries are canceled.
+	 */
+	private void performQueries(List<NodeQuery> queries, IProgressMonitor monitor) throws CoreException {
+		SubMonitor progress = SubMonitor.convert(monitor, queries.size());
+		if (queries.isEmpty()) {
+			return;
+		}
+		if (queries.size() == 1) {
+			queries.get(0).execute(progress.newChild(1));
+			return;
+		}
+		//progress monitors aren't thread-safe, so the queries only get to see cancellation
+		NullProgressMonitor queryMonitor = new NullProgressMonitor();
+		CompletionService<Void> completionService = new ExecutorCompletionService<>(nodeQueryExecutor);
+		List<Future<Void>> futures = new ArrayList<>(queries.size());
+		try {
+			for (NodeQuery query : queries) {
+				futures.add(completionService.submit(() -> {
+					query.execute(queryMonitor);
+					return null;
+				}));
+			}
+			for (int i = 0; i < queries.size(); i++) {
+				Future<Void> completed;
+				while ((completed = completionService.poll(CANCEL_POLL_INTERVAL, TimeUnit.MILLISECONDS)) == null) {
+					if (progress.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+				}
 				try {
-					Node resolvedNode = getNode(node, progress.newChild(1));
-					resolvedNodeMapping.put(node, resolvedNode);
-				} catch (CoreException ex) {
-					resolutionErrors.put(node, ex);
+					completed.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof CoreException) {
+						throw (CoreException) cause;
+					}
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error) cause;
+					}
+					throw new CoreException(createErrorStatus(cause.getMessage(), cause));
 				}
+				progress.worked(1);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} finally {
+			queryMonitor.setCanceled(true);
+			for (Future<Void> future : futures) {
+				future.cancel(false);
 			}
-			progress.setWorkRemaining(--remaining);
 		}
 	}
 
@@ -768,6 +930,99 @@ MarketplaceService {
 		}
 	}
 
+	@Override
+	public CompletableFuture<List<? extends IMarket>> listMarkets() {
+		return AsyncMarketplaceRequests.submit(monitor -> listMarkets(monitor));
+	}
+
+	@Override
+	public CompletableFuture<IMarket> getMarket(IMarket market) {
+		return AsyncMarketplaceRequests.submit(monitor -> getMarket(market, monitor));
+	}
+
+	@Override
+	public CompletableFuture<ICategory> getCategory(ICategory category) {
+		return AsyncMarketplaceRequests.submit(monitor -> getCategory(category, monitor));
+	}
+
+	@Override
+	public CompletableFuture<INode> getNode(INode node) {
+		return AsyncMarketplaceRequests.submit(monitor -> getNode(node, monitor));
+	}
+
+	@Override
+	public CompletableFuture<List<INode>> getNodes(Collection<? extends INode> nodes) {
+		return AsyncMarketplaceRequests.submit(monitor -> getNodes(nodes, monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> search(IMarket market, ICategory category, String queryText) {
+		return AsyncMarketplaceRequests.submit(monitor -> search(market, category, queryText, monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> tagged(String tag) {
+		return AsyncMarketplaceRequests.submit(monitor -> tagged(tag, monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> tagged(List<String> tags) {
+		return AsyncMarketplaceRequests.submit(monitor -> tagged(tags, monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> featured() {
+		return AsyncMarketplaceRequests.submit(monitor -> featured(monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> featured(IMarket market, ICategory category) {
+		return AsyncMarketplaceRequests.submit(monitor -> featured(market, category, monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> recent() {
+		return AsyncMarketplaceRequests.submit(monitor -> recent(monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> topFavorites() {
+		return AsyncMarketplaceRequests.submit(monitor -> topFavorites(monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> popular() {
+		return AsyncMarketplaceRequests.submit(monitor -> popular(monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> related(List<? extends INode> basedOn) {
+		return AsyncMarketplaceRequests.submit(monitor -> related(basedOn, monitor));
+	}
+
+	@Override
+	public CompletableFuture<ISearchResult> userFavorites() {
+		return AsyncMarketplaceRequests.submitUserRequest(monitor -> userFavorites(monitor));
+	}
+
+	@Override
+	public CompletableFuture<Void> userFavorites(List<? extends INode> nodes) {
+		return AsyncMarketplaceRequests.submitUserRequest(monitor -> {
+			userFavorites(nodes, monitor);
+			return null;
+		});
+	}
+
+	@Override
+	public CompletableFuture<List<IFavoriteList>> userFavoriteLists() {
+		return AsyncMarketplaceRequests.submit(monitor -> userFavoriteLists(monitor));
+	}
+
+	@Override
+	public CompletableFuture<INews> news() {
+		return AsyncMarketplaceRequests.submit(monitor -> news(monitor));
+	}
+
 	/**
 	 * @deprecated use {@link #reportInstallError(IStatus, Set, Set, String, IProgressMonitor)} instead
 	 */
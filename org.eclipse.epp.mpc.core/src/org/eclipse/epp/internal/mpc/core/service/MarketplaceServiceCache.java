@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.service;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.epp.mpc.core.model.IMarket;
+import org.eclipse.epp.mpc.core.model.ISearchResult;
+
+/**
+ * A bounded, thread-safe cache for the results of {@link CachingMarketplaceService}.
+ * <p>
+ * Entries are segmented by the type prefix of their key (nodes, markets, categories and search results), with each
+ * segment guarded by its own lock and bounded by its share of the configured maximum weight. Segments evict in LRU
+ * order. Values are held softly, so they can still be reclaimed under memory pressure. Reclaimed entries are removed
+ * individually when their reference is dequeued, without sweeping the whole cache.
+ * <p>
+ * Entries can be given a time to live, after which they are treated as absent. Callers are expected to revalidate
+ * expired entries against the server.
+ */
+public class MarketplaceServiceCache {
+
+	/**
+	 * System property to configure the maximum total weight of a cache. The weight of an entry is roughly the number
+	 * of model elements it holds.
+	 */
+	public static final String MAX_WEIGHT_PROPERTY = MarketplaceServiceCache.class.getName() + ".maxWeight"; //$NON-NLS-1$
+
+	public static final long DEFAULT_MAX_WEIGHT = 20000;
+
+	/**
+	 * Time to live for entries that should not expire
+	 */
+	public static final long NO_EXPIRY = -1;
+
+	public static enum Segment {
+		NODE("Node:", 50), //$NON-NLS-1$
+		MARKET("Market", 10), //$NON-NLS-1$
+		CATEGORY("Category:", 10), //$NON-NLS-1$
+		SEARCH(null, 30);
+
+		private final String keyPrefix;
+
+		private final int weightPercentage;
+
+		private Segment(String keyPrefix, int weightPercentage) {
+			this.keyPrefix = keyPrefix;
+			this.weightPercentage = weightPercentage;
+		}
+
+		static Segment forKey(String key) {
+			for (Segment segment : values()) {
+				if (segment.keyPrefix != null && key.startsWith(segment.keyPrefix)) {
+					return segment;
+				}
+			}
+			return SEARCH;
+		}
+	}
+
+	/**
+	 * A snapshot of the cache counters.
+	 */
+	public static final class Statistics {
+		private final long hitCount;
+
+		private final long missCount;
+
+		private final long evictionCount;
+
+		private final long size;
+
+		private final long weight;
+
+		Statistics(long hitCount, long missCount, long evictionCount, long size, long weight) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.size = size;
+			this.weight = weight;
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		/**
+		 * @return the number of entries removed to stay within the weight bound or reclaimed by the garbage collector
+		 */
+		public long getEvictionCount() {
+			return evictionCount;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public long getWeight() {
+			return weight;
+		}
+
+		@Override
+		public String toString() {
+			return "Statistics [hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$
+					+ ", size=" + size + ", weight=" + weight + "]"; //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	private static final class CacheEntry extends SoftReference<Object> {
+		private final String key;
+
+		private final CacheSegment segment;
+
+		private final int weight;
+
+		private final long expiresAt;
+
+		CacheEntry(String key, Object value, int weight, long expiresAt, CacheSegment segment,
+				ReferenceQueue<Object> queue) {
+			super(value, queue);
+			this.key = key;
+			this.weight = weight;
+			this.expiresAt = expiresAt;
+			this.segment = segment;
+		}
+
+		boolean isExpired(long now) {
+			return expiresAt <= now;
+		}
+	}
+
+	private final class CacheSegment {
+		private final Map<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+		private final long maxWeight;
+
+		private long weight;
+
+		CacheSegment(long maxWeight) {
+			this.maxWeight = Math.max(1, maxWeight);
+		}
+
+		synchronized Object get(String key) {
+			CacheEntry entry = entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.isExpired(System.currentTimeMillis())) {
+				remove(key);
+				return null;
+			}
+			Object value = entry.get();
+			if (value == null) {
+				remove(entry);
+			}
+			return value;
+		}
+
+		synchronized void put(String key, Object value, int entryWeight, long expiresAt) {
+			CacheEntry entry = new CacheEntry(key, value, entryWeight, expiresAt, this, referenceQueue);
+			CacheEntry previous = entries.put(key, entry);
+			if (previous != null) {
+				weight -= previous.weight;
+				previous.clear();
+			}
+			weight += entryWeight;
+			evict();
+		}
+
+		private void evict() {
+			//never evict the most recently added entry, even if it exceeds the bound on its own
+			for (Iterator<CacheEntry> i = entries.values().iterator(); weight > maxWeight
+					&& entries.size() > 1;) {
+				CacheEntry eldest = i.next();
+				i.remove();
+				weight -= eldest.weight;
+				eldest.clear();
+				evictionCount.increment();
+			}
+		}
+
+		synchronized void remove(String key) {
+			CacheEntry entry = entries.remove(key);
+			if (entry != null) {
+				weight -= entry.weight;
+				entry.clear();
+			}
+		}
+
+		synchronized void remove(CacheEntry entry) {
+			if (entries.get(entry.key) == entry) {
+				entries.remove(entry.key);
+				weight -= entry.weight;
+				evictionCount.increment();
+			}
+		}
+
+		synchronized void clear() {
+			for (CacheEntry entry : entries.values()) {
+				entry.clear();
+			}
+			entries.clear();
+			weight = 0;
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+
+		synchronized long weight() {
+			return weight;
+		}
+	}
+
+	private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
+
+	private final CacheSegment[] segments;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	public MarketplaceServiceCache() {
+		this(Long.getLong(MAX_WEIGHT_PROPERTY, DEFAULT_MAX_WEIGHT));
+	}
+
+	public MarketplaceServiceCache(long maxWeight) {
+		if (maxWeight <= 0) {
+			throw new IllegalArgumentException();
+		}
+		Segment[] segmentTypes = Segment.values();
+		segments = new CacheSegment[segmentTypes.length];
+		for (Segment segmentType : segmentTypes) {
+			segments[segmentType.ordinal()] = new CacheSegment(maxWeight * segmentType.weightPercentage / 100);
+		}
+	}
+
+	public Object get(String key) {
+		if (key == null) {
+			return null;
+		}
+		expungeStaleEntries();
+		Object value = segment(key).get(key);
+		if (value == null) {
+			missCount.increment();
+		} else {
+			hitCount.increment();
+		}
+		return value;
+	}
+
+	public <T> T get(String key, Class<T> type) {
+		return type.cast(get(key));
+	}
+
+	public void put(String key, Object value) {
+		put(key, value, NO_EXPIRY);
+	}
+
+	/**
+	 * Add an entry to the cache that expires after the given time.
+	 *
+	 * @param timeToLive
+	 *            the time in milliseconds after which the entry expires, or {@link #NO_EXPIRY}
+	 */
+	public void put(String key, Object value, long timeToLive) {
+		if (key == null) {
+			return;
+		}
+		if (value == null) {
+			remove(key);
+			return;
+		}
+		long expiresAt = timeToLive < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + timeToLive;
+		expungeStaleEntries();
+		segment(key).put(key, value, weigh(value), expiresAt);
+	}
+
+	public void remove(String key) {
+		if (key != null) {
+			segment(key).remove(key);
+		}
+	}
+
+	public void clear() {
+		for (CacheSegment segment : segments) {
+			segment.clear();
+		}
+		expungeStaleEntries();
+	}
+
+	public Statistics getStatistics() {
+		long size = 0;
+		long weight = 0;
+		for (CacheSegment segment : segments) {
+			size += segment.size();
+			weight += segment.weight();
+		}
+		return new Statistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), size, weight);
+	}
+
+	private CacheSegment segment(String key) {
+		return segments[Segment.forKey(key).ordinal()];
+	}
+
+	private void expungeStaleEntries() {
+		for (Reference<?> reference; (reference = referenceQueue.poll()) != null;) {
+			CacheEntry entry = (CacheEntry) reference;
+			entry.segment.remove(entry);
+		}
+	}
+
+	private static int weigh(Object value) {
+		if (value instanceof ISearchResult) {
+			return 1 + ((ISearchResult) value).getNodes().size();
+		}
+		if (value instanceof IMarket) {
+			return 1 + ((IMarket) value).getCategory().size();
+		}
+		if (value instanceof Collection<?>) {
+			return 1 + ((Collection<?>) value).size();
+		}
+		return 1;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2019 The Eclipse Foundation and others.
+ * Copyright (c) 2014, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -17,7 +17,6 @@ import java.io.BufferedReader;
 import java.io.CharArrayReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -26,13 +25,15 @@ import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
-import org.eclipse.epp.internal.mpc.core.service.xml.StripInvalidXMLCharsReader;
+import org.eclipse.epp.internal.mpc.core.model.Node;
+import org.eclipse.epp.internal.mpc.core.service.xml.StripInvalidXMLCharsUTF8Reader;
 import org.eclipse.epp.internal.mpc.core.service.xml.Unmarshaller;
 import org.eclipse.epp.mpc.core.service.IMarketplaceUnmarshaller;
 import org.eclipse.epp.mpc.core.service.UnmarshalException;
@@ -40,7 +41,6 @@ import org.eclipse.osgi.util.NLS;
 import org.osgi.service.component.annotations.Component;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
 
 /**
  * @author Carsten Reckord
@@ -51,28 +51,34 @@ public class MarketplaceUnmarshaller implements IMarketplaceUnmarshaller {
 	@Override
 	public <T> T unmarshal(InputStream in, Class<T> type, IProgressMonitor monitor) throws IOException,
 	UnmarshalException {
+		return unmarshal(in, type, null, monitor);
+	}
+
+	protected <T> T unmarshal(InputStream in, Class<T> type, Consumer<? super Node> nodeListener,
+			IProgressMonitor monitor) throws IOException, UnmarshalException {
 		if (in == null) {
 			throw new IOException(Messages.MarketplaceUnmarshaller_errorNullStream);
 		}
-		final Unmarshaller unmarshaller = new Unmarshaller();
-		final XMLReader xmlReader = Unmarshaller.createXMLReader(unmarshaller);
-
 		BufferedInputStream bufferedInput = in instanceof BufferedInputStream ? (BufferedInputStream) in
 				: new BufferedInputStream(in);
 		ByteBuffer peekBuffer = peekResponseContent(bufferedInput);
 
 		// FIXME how can the charset be determined?
-		Reader reader = new InputStreamReader(bufferedInput, StandardCharsets.UTF_8);
-		reader = new StripInvalidXMLCharsReader(reader);
+		Reader reader = new StripInvalidXMLCharsUTF8Reader(bufferedInput);
+		Object model;
+		final Unmarshaller unmarshaller = Unmarshaller.acquire();
 		try {
-			xmlReader.parse(new InputSource(reader));
+			unmarshaller.setNodeListener(nodeListener);
+			parse(reader, unmarshaller, monitor);
+			model = unmarshaller.getModel();
 		} catch (final SAXException e) {
 			IStatus error = createContentError(peekBuffer,
 					NLS.bind(Messages.MarketplaceUnmarshaller_invalidResponseContent, e.getMessage()), e);
 			throw new UnmarshalException(error);
+		} finally {
+			unmarshaller.release();
 		}
 
-		Object model = unmarshaller.getModel();
 		if (model == null) {
 			// if we reach here this should never happen
 			IStatus error = createContentError(peekBuffer,
@@ -90,6 +96,14 @@ public class MarketplaceUnmarshaller implements IMarketplaceUnmarshaller {
 		}
 	}
 
+	/**
+	 * Parse the content read from the given reader, passing the parse events to the given unmarshaller.
+	 */
+	protected void parse(Reader reader, Unmarshaller unmarshaller, IProgressMonitor monitor)
+			throws IOException, SAXException {
+		unmarshaller.getXMLReader().parse(new InputSource(reader));
+	}
+
 	private ByteBuffer peekResponseContent(BufferedInputStream bufferedInput) throws IOException {
 		bufferedInput.mark(2049);
 		ReadableByteChannel inputChannel = Channels.newChannel(bufferedInput);
@@ -18,6 +18,8 @@ class Messages extends NLS {
 	private static final String BUNDLE_NAME = "org.eclipse.epp.internal.mpc.core.service.messages"; //$NON-NLS-1$
 
 
+	public static String CachingCatalogService_refreshingCatalogs;
+
 	public static String DefaultMarketplaceService_cannotCompleteRequest_reason;
 
 	public static String DefaultMarketplaceService_categoryNotFound;
@@ -75,6 +77,8 @@ class Messages extends NLS {
 	public static String MarketplaceUnmarshaller_unexpectedResponseContentNullResult;
 
 
+	public static String RemoteMarketplaceService_revalidatingCachedResponse;
+
 	public static String UserFavoritesService_SettingUserFavorites;
 
 
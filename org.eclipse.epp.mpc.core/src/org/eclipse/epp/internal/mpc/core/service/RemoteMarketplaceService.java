@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -13,22 +13,39 @@
  *******************************************************************************/
 package org.eclipse.epp.internal.mpc.core.service;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.text.MessageFormat;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
+import org.eclipse.epp.internal.mpc.core.transport.httpclient.CacheValidator;
+import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientTransport;
+import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientTransport.ConditionalStream;
+import org.eclipse.epp.internal.mpc.core.util.PersistentCache;
 import org.eclipse.epp.internal.mpc.core.util.ServiceUtil;
 import org.eclipse.epp.internal.mpc.core.util.TransportFactory;
 import org.eclipse.epp.internal.mpc.core.util.URLUtil;
@@ -36,6 +53,7 @@ import org.eclipse.epp.mpc.core.service.IMarketplaceService;
 import org.eclipse.epp.mpc.core.service.IMarketplaceUnmarshaller;
 import org.eclipse.epp.mpc.core.service.ITransport;
 import org.eclipse.epp.mpc.core.service.ServiceHelper;
+import org.eclipse.epp.mpc.core.service.ServiceUnavailableException;
 import org.eclipse.epp.mpc.core.service.UnmarshalException;
 import org.eclipse.osgi.util.NLS;
 
@@ -49,12 +67,58 @@ public class RemoteMarketplaceService<T> {
 
 	private static final int RETRY_COUNT = 3;
 
+	private static final int MAX_VALIDATED_RESPONSES = 200;
+
+	/**
+	 * Time to live of a response in the persistent cache, unless the service knows better
+	 *
+	 * @see #getResponseTimeToLive(String, String)
+	 */
+	private static final long DEFAULT_RESPONSE_TTL = TimeUnit.HOURS.toMillis(1);
+
+	/**
+	 * Upper bound for how long an expired response in the persistent cache is still shown while it is revalidated.
+	 * Below that, responses are shown for at most another time to live after they expired.
+	 */
+	private static final long MAX_STALE_RESPONSE_AGE = TimeUnit.DAYS.toMillis(14);
+
+	/**
+	 * A previously parsed response together with its cache validators. The parsed result is held softly, so a
+	 * conditional request is only made as long as it is still available.
+	 */
+	private static final class ValidatedResponse {
+		private final CacheValidator validator;
+
+		private final Reference<Object> result;
+
+		ValidatedResponse(CacheValidator validator, Object result) {
+			this.validator = validator;
+			this.result = new SoftReference<>(result);
+		}
+	}
+
 	protected final ITransport transport;
 
 	protected final IMarketplaceUnmarshaller unmarshaller;
 
 	private Map<String, String> requestMetaParameters;
 
+	private volatile PersistentCache responseCache;
+
+	/**
+	 * Keys of cached responses that are being revalidated in the background
+	 */
+	private final Set<String> revalidations = ConcurrentHashMap.newKeySet();
+
+	private final Map<String, ValidatedResponse> validatedResponses = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ValidatedResponse> eldest) {
+			return size() > MAX_VALIDATED_RESPONSES;
+		}
+	};
+
 	public RemoteMarketplaceService() {
 		this.transport = TransportFactory.createTransport();
 		IMarketplaceUnmarshaller unmarshaller = ServiceHelper.getMarketplaceUnmarshaller();
@@ -142,7 +206,9 @@ public class RemoteMarketplaceService<T> {
 			throw new IllegalArgumentException();
 		}
 
-		String uri = URLUtil.appendPath(baseUri, relativePath);
+		//meta parameters only identify the client, so we leave them out of the cache key
+		String cacheKey = URLUtil.appendPath(baseUri, relativePath);
+		String uri = cacheKey;
 		if (withMetaParams) {
 			uri = addMetaParameters(uri);
 		}
@@ -155,25 +221,110 @@ public class RemoteMarketplaceService<T> {
 			throw new CoreException(createErrorStatus(message, e));
 		}
 
+		CacheValidator validator = null;
+		Supplier<Object> unchangedResult = null;
+		ValidatedResponse validatedResponse;
+		synchronized (validatedResponses) {
+			validatedResponse = validatedResponses.get(cacheKey);
+		}
+		if (validatedResponse != null) {
+			Object validatedResult = validatedResponse.result.get();
+			if (validatedResult != null) {
+				validator = validatedResponse.validator;
+				unchangedResult = () -> validatedResult;
+			}
+		}
+		PersistentCache cache = responseCache;
+		PersistentCache.Entry entry = unchangedResult == null && cache != null ? cache.get(cacheKey) : null;
+		if (entry != null) {
+			long timeToLive = getResponseTimeToLive(baseUri, relativePath);
+			long age = System.currentTimeMillis() - entry.getTimestamp();
+			if (age <= timeToLive + Math.min(timeToLive, MAX_STALE_RESPONSE_AGE)) {
+				Object cachedResult = parseCachedResponse(cacheKey, entry);
+				if (cachedResult != null) {
+					if (age > timeToLive) {
+						scheduleRevalidation(baseUri, cacheKey, location, toValidator(entry), cachedResult);
+					}
+					monitor.done();
+					return (T) cachedResult;
+				}
+			} else {
+				//too old to show without asking the server, but a 304 response still saves the download
+				validator = toValidator(entry);
+				unchangedResult = () -> parseCachedResponse(cacheKey, entry);
+			}
+		}
+		return (T) fetch(baseUri, cacheKey, location, validator, unchangedResult, monitor);
+	}
+
+	/**
+	 * The time after which a response in the persistent cache has to be revalidated before it is used. The default
+	 * is one hour.
+	 *
+	 * @param baseUri
+	 *            the base URI of the request
+	 * @param relativePath
+	 *            the requested path relative to the base URI
+	 */
+	protected long getResponseTimeToLive(String baseUri, String relativePath) {
+		return DEFAULT_RESPONSE_TTL;
+	}
+
+	/**
+	 * @param unchangedResult
+	 *            supplies the result for a <code>304 Not Modified</code> response to a conditional request
+	 */
+	private Object fetch(String baseUri, String cacheKey, URI location, CacheValidator validator,
+			Supplier<Object> unchangedResult, IProgressMonitor monitor) throws CoreException {
 		int retry = 0;
 		SubMonitor progress = SubMonitor.convert(monitor,
 				NLS.bind(Messages.DefaultMarketplaceService_retrievingDataFrom, baseUri), 100);
 		try {
 			while (true) {
 				progress.setWorkRemaining(100);
-				try (InputStream in = transport.stream(location, progress.newChild(70));) {
-					try {
+				try {
+					ConditionalStream response = stream(location, validator, progress.newChild(70));
+					if (response.isNotModified()) {
+						//unchanged since we last retrieved it - skip the download
+						PersistentCache cache = responseCache;
+						if (cache != null) {
+							cache.touch(cacheKey);
+						}
+						Object result = unchangedResult.get();
+						if (result != null) {
+							return result;
+						}
+						//the previous response is gone - ask for the full content
+						validator = null;
+						continue;
+					}
+					try (InputStream in = response.getContent()) {
 						progress.setWorkRemaining(100);
 						progress.worked(30);
 
-						return (T) unmarshaller.unmarshal(in, Object.class, progress.newChild(70));//FIXME having T.class available here would be great...
+						PersistentCache cache = responseCache;
+						byte[] content = null;
+						InputStream contentStream = in;
+						if (cache != null) {
+							content = in.readAllBytes();
+							contentStream = new ByteArrayInputStream(content);
+						}
+						Object result = unmarshaller.unmarshal(contentStream, Object.class, progress.newChild(70));//FIXME having T.class available here would be great...
+						CacheValidator responseValidator = response.getValidator();
+						rememberValidatedResponse(cacheKey, responseValidator, result);
+						if (cache != null && result != null) {
+							cache.put(cacheKey, content,
+									responseValidator == null ? null : responseValidator.getEntityTag(),
+									responseValidator == null ? null : responseValidator.getLastModified());
+						}
+						return result;
 					} catch (UnmarshalException e) {
 						MarketplaceClientCore.error(
 								NLS.bind(Messages.DefaultMarketplaceService_parseError, location.toString()), e);
 						throw e;
 					}
 				} catch (Exception e) {
-					if (e.getCause() instanceof OperationCanceledException) {
+					if (e instanceof OperationCanceledException || e.getCause() instanceof OperationCanceledException) {
 						throw new CoreException(Status.CANCEL_STATUS);
 					}
 					String causeMessage = e.getMessage();
@@ -200,6 +351,84 @@ public class RemoteMarketplaceService<T> {
 		}
 	}
 
+	/**
+	 * Parse a response from the persistent response cache and remember it for conditional requests.
+	 *
+	 * @return the parsed response, or null if it can't be parsed
+	 */
+	private Object parseCachedResponse(String cacheKey, PersistentCache.Entry entry) {
+		Object result;
+		try (InputStream in = new BufferedInputStream(new FileInputStream(entry.getFile()))) {
+			result = unmarshaller.unmarshal(in, Object.class, new NullProgressMonitor());
+		} catch (Exception e) {
+			PersistentCache cache = responseCache;
+			if (cache != null) {
+				cache.remove(cacheKey);
+			}
+			return null;
+		}
+		if (result != null) {
+			rememberValidatedResponse(cacheKey, toValidator(entry), result);
+		}
+		return result;
+	}
+
+	private static CacheValidator toValidator(PersistentCache.Entry entry) {
+		return entry.getEntityTag() == null && entry.getLastModified() == null ? null
+				: new CacheValidator(entry.getEntityTag(), entry.getLastModified());
+	}
+
+	/**
+	 * Revalidate an expired response from the persistent cache in the background, unless that's already happening.
+	 */
+	private void scheduleRevalidation(String baseUri, String cacheKey, URI location, CacheValidator validator,
+			Object cachedResult) {
+		if (!revalidations.add(cacheKey)) {
+			return;
+		}
+		new Job(NLS.bind(Messages.RemoteMarketplaceService_revalidatingCachedResponse, location)) {
+
+			{
+				setPriority(DECORATE);
+				setUser(false);
+				setSystem(true);
+			}
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					fetch(baseUri, cacheKey, location, validator, () -> cachedResult, monitor);
+				} catch (CoreException e) {
+					//keep the cached response - we'll try again on the next request
+					if (e.getStatus().getSeverity() == IStatus.CANCEL) {
+						return Status.CANCEL_STATUS;
+					}
+				} finally {
+					revalidations.remove(cacheKey);
+				}
+				return Status.OK_STATUS;
+			}
+		}.schedule();
+	}
+
+	private ConditionalStream stream(URI location, CacheValidator validator, IProgressMonitor monitor)
+			throws FileNotFoundException, ServiceUnavailableException, CoreException {
+		if (transport instanceof HttpClientTransport) {
+			return ((HttpClientTransport) transport).streamConditional(location, validator, monitor);
+		}
+		return new ConditionalStream(transport.stream(location, monitor), null);
+	}
+
+	private void rememberValidatedResponse(String uri, CacheValidator validator, Object result) {
+		synchronized (validatedResponses) {
+			if (validator == null || result == null) {
+				validatedResponses.remove(uri);
+			} else {
+				validatedResponses.put(uri, new ValidatedResponse(validator, result));
+			}
+		}
+	}
+
 	public String addMetaParameters(String uri) {
 		if (requestMetaParameters != null) {
 			try {
@@ -227,6 +456,21 @@ public class RemoteMarketplaceService<T> {
 		return uri;
 	}
 
+	public PersistentCache getResponseCache() {
+		return responseCache;
+	}
+
+	/**
+	 * Set a persistent cache for the responses of this service. Cached responses are returned immediately and
+	 * revalidated with the server in the background.
+	 *
+	 * @param responseCache
+	 *            the cache or null to disable persistent caching
+	 */
+	public void setResponseCache(PersistentCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
 	/**
 	 * The meta-parameters to be included in API requests, or null if there are none. Typically clients will use this
 	 * facility to pass client meta-data to the server. For example, metadata might include the client identity,
@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
+
+/**
+ * Lets concurrent identical requests share a single call to the server.
+ * <p>
+ * Requests are identified by a key, usually the same key their result is cached under. The first caller for a key
+ * becomes the leader of a {@link Flight} and performs the request. Callers arriving while the flight is still running
+ * join it and wait for the leader's result instead of sending their own request. Synchronous and asynchronous callers
+ * share the same flights.
+ * <p>
+ * A leader is expected to put the result into its cache before {@link Flight#complete(Object) completing} the flight,
+ * so that callers arriving after the flight has ended find the result in the cache.
+ */
+public class RequestCoalescer {
+
+	private static final long CANCEL_POLL_INTERVAL = 100;
+
+	@FunctionalInterface
+	public interface Request<T> {
+		T execute(IProgressMonitor monitor) throws CoreException;
+	}
+
+	/**
+	 * A request in flight, as seen by one of its callers.
+	 */
+	public final class Flight<T> {
+
+		private final String key;
+
+		private final InFlight inFlight;
+
+		private final boolean leader;
+
+		private Flight(String key, InFlight inFlight, boolean leader) {
+			this.key = key;
+			this.inFlight = inFlight;
+			this.leader = leader;
+		}
+
+		/**
+		 * @return true if the caller started this flight and is responsible for completing it
+		 */
+		public boolean isLeader() {
+			return leader;
+		}
+
+		public void complete(T result) {
+			inFlight.result.complete(result);
+			flights.remove(key, inFlight);
+		}
+
+		/**
+		 * Fail the flight with the leader's error. If the leader was canceled, the flight is canceled instead, so other
+		 * callers can retry on their own.
+		 */
+		public void fail(Throwable error) {
+			flights.remove(key, inFlight);
+			if (isCancellation(error)) {
+				inFlight.result.cancel(false);
+			} else {
+				inFlight.result.completeExceptionally(error);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private CompletableFuture<T> future() {
+			return (CompletableFuture<T>) inFlight.result;
+		}
+
+		/**
+		 * Wait for the leader's result.
+		 *
+		 * @throws OperationCanceledException
+		 *             if the given monitor or the leader was canceled
+		 */
+		public T await(IProgressMonitor monitor) throws CoreException {
+			try {
+				while (true) {
+					if (monitor != null && monitor.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+					try {
+						return future().get(CANCEL_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+					} catch (TimeoutException e) {
+						//check for cancellation and keep waiting
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (CancellationException e) {
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				throw toCoreException(e.getCause());
+			}
+		}
+	}
+
+	private static final class InFlight {
+
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+		private final AtomicInteger asyncCallers = new AtomicInteger();
+
+		private volatile Future<?> request;
+
+		/**
+		 * Called when an asynchronous caller lost interest. The request is canceled once no asynchronous callers are
+		 * left.
+		 */
+		private void detach() {
+			if (asyncCallers.decrementAndGet() == 0) {
+				Future<?> runningRequest = request;
+				if (runningRequest != null) {
+					runningRequest.cancel(true);
+				}
+			}
+		}
+	}
+
+	private final ConcurrentMap<String, InFlight> flights = new ConcurrentHashMap<>();
+
+	private final LongAdder coalescedCount = new LongAdder();
+
+	/**
+	 * Start a new flight for the given key, or join the one that is already running.
+	 */
+	public <T> Flight<T> join(String key) {
+		InFlight flight = new InFlight();
+		InFlight running = flights.putIfAbsent(key, flight);
+		if (running != null) {
+			coalescedCount.increment();
+			return new Flight<>(key, running, false);
+		}
+		return new Flight<>(key, flight, true);
+	}
+
+	/**
+	 * Execute the given request, unless an identical request is already running, in which case its result is
+	 * returned instead. If the running request is canceled, the caller retries on its own.
+	 */
+	public <T> T execute(String key, Request<T> request, IProgressMonitor monitor) throws CoreException {
+		while (true) {
+			Flight<T> flight = join(key);
+			if (flight.isLeader()) {
+				try {
+					T result = request.execute(monitor);
+					flight.complete(result);
+					return result;
+				} catch (CoreException | RuntimeException | Error e) {
+					flight.fail(e);
+					throw e;
+				}
+			}
+			try {
+				return flight.await(monitor);
+			} catch (OperationCanceledException e) {
+				if (monitor != null && monitor.isCanceled()) {
+					throw e;
+				}
+				//the leader was canceled - try again
+			}
+		}
+	}
+
+	/**
+	 * Asynchronous variant of {@link #execute(String, Request, IProgressMonitor)}. Canceling the returned future
+	 * detaches the caller from the shared request. The request itself is canceled when all asynchronous callers have
+	 * been canceled. If the shared request is canceled while the caller is still waiting, the caller retries on its
+	 * own.
+	 */
+	public <T> CompletableFuture<T> executeAsync(String key, Supplier<CompletableFuture<T>> request) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		executeAsync(key, request, result);
+		return result;
+	}
+
+	private <T> void executeAsync(String key, Supplier<CompletableFuture<T>> request, CompletableFuture<T> result) {
+		Flight<T> flight = join(key);
+		flight.inFlight.asyncCallers.incrementAndGet();
+		if (flight.isLeader()) {
+			CompletableFuture<T> requestFuture;
+			try {
+				requestFuture = request.get();
+			} catch (RuntimeException | Error e) {
+				flight.fail(e);
+				throw e;
+			}
+			flight.inFlight.request = requestFuture;
+			requestFuture.whenComplete((value, error) -> {
+				if (error != null) {
+					flight.fail(error instanceof CompletionException && error.getCause() != null
+							? error.getCause() : error);
+				} else {
+					flight.complete(value);
+				}
+			});
+		}
+		result.whenComplete((value, error) -> {
+			if (result.isCancelled()) {
+				flight.inFlight.detach();
+			}
+		});
+		flight.future().whenComplete((value, error) -> {
+			if (result.isDone()) {
+				return;
+			}
+			if (error == null) {
+				result.complete(value);
+			} else if (!flight.isLeader() && flight.future().isCancelled()) {
+				//the leader was canceled - try again
+				try {
+					executeAsync(key, request, result);
+				} catch (RuntimeException | Error e) {
+					result.completeExceptionally(e);
+				}
+			} else {
+				result.completeExceptionally(error);
+			}
+		});
+	}
+
+	/**
+	 * @return the number of requests that joined a running request instead of calling the server
+	 */
+	public long getCoalescedCount() {
+		return coalescedCount.sum();
+	}
+
+	/**
+	 * @return true if the given error signals a canceled request, including a {@link CoreException} with
+	 *         {@link IStatus#CANCEL} severity
+	 */
+	private static boolean isCancellation(Throwable error) {
+		if (error instanceof OperationCanceledException || error instanceof CancellationException) {
+			return true;
+		}
+		return error instanceof CoreException
+				&& ((CoreException) error).getStatus().getSeverity() == IStatus.CANCEL;
+	}
+
+	private static CoreException toCoreException(Throwable error) {
+		if (isCancellation(error)) {
+			throw new OperationCanceledException();
+		}
+		if (error instanceof CoreException) {
+			return (CoreException) error;
+		}
+		if (error instanceof RuntimeException) {
+			throw (RuntimeException) error;
+		}
+		if (error instanceof Error) {
+			throw (Error) error;
+		}
+		return new CoreException(
+				new Status(IStatus.ERROR, MarketplaceClientCore.BUNDLE_ID, error.getMessage(), error));
+	}
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.epp.internal.mpc.core.model.Node;
+import org.eclipse.epp.internal.mpc.core.service.xml.Unmarshaller;
+import org.eclipse.epp.mpc.core.service.UnmarshalException;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+
+/**
+ * An unmarshaller based on a StAX pull parser. It produces the same model as the {@link MarketplaceUnmarshaller}, but
+ * can hand out each node to a listener as soon as it has been read, so callers can process large listings while they
+ * are still streaming in. The parser checks the progress monitor while reading and aborts when it is canceled.
+ */
+public class StreamingMarketplaceUnmarshaller extends MarketplaceUnmarshaller {
+
+	private static final XMLInputFactory inputFactory;
+
+	static {
+		inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+		inputFactory.setProperty(XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+		inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		//like the SAX parser, never load external DTDs
+		inputFactory.setXMLResolver((publicId, systemId, baseUri, namespace) -> new ByteArrayInputStream(new byte[0]));
+	}
+
+	/**
+	 * Parse the input stream into an object of the given type, passing each node to the given listener as soon as it
+	 * has been completely read. The listener is called on the parsing thread.
+	 *
+	 * @see #unmarshal(InputStream, Class, IProgressMonitor)
+	 */
+	@Override
+	public <T> T unmarshal(InputStream in, Class<T> type, Consumer<? super Node> nodeListener,
+			IProgressMonitor monitor) throws IOException, UnmarshalException {
+		return super.unmarshal(in, type, nodeListener, monitor);
+	}
+
+	@Override
+	protected void parse(Reader reader, Unmarshaller unmarshaller, IProgressMonitor monitor)
+			throws IOException, SAXException {
+		XMLStreamReader xmlReader;
+		try {
+			xmlReader = inputFactory.createXMLStreamReader(reader);
+		} catch (XMLStreamException e) {
+			throw toSAXException(e);
+		}
+		try {
+			StreamAttributes attributes = new StreamAttributes(xmlReader);
+			while (xmlReader.hasNext()) {
+				switch (xmlReader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					if (monitor != null && monitor.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+					unmarshaller.startElement(namespaceURI(xmlReader), xmlReader.getLocalName(), qName(xmlReader),
+							attributes);
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					unmarshaller.endElement(namespaceURI(xmlReader), xmlReader.getLocalName(), qName(xmlReader));
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+					//unlike SAX, StAX reports empty CDATA sections, which would turn empty values into empty strings
+					if (xmlReader.getTextLength() > 0) {
+						unmarshaller.characters(xmlReader.getTextCharacters(), xmlReader.getTextStart(),
+								xmlReader.getTextLength());
+					}
+					break;
+				default:
+					//ignorable whitespace, comments, processing instructions and DTDs aren't relevant for the model
+					break;
+				}
+			}
+		} catch (XMLStreamException e) {
+			throw toSAXException(e);
+		} finally {
+			try {
+				xmlReader.close();
+			} catch (XMLStreamException e) {
+				//ignore - the underlying reader is closed by the caller
+			}
+		}
+	}
+
+	private static SAXException toSAXException(XMLStreamException e) throws IOException {
+		Throwable cause = e.getNestedException();
+		if (cause instanceof IOException) {
+			throw (IOException) cause;
+		}
+		return new SAXException(e.getMessage(), e);
+	}
+
+	private static String namespaceURI(XMLStreamReader xmlReader) {
+		String namespaceURI = xmlReader.getNamespaceURI();
+		return namespaceURI == null ? "" : namespaceURI; //$NON-NLS-1$
+	}
+
+	private static String qName(XMLStreamReader xmlReader) {
+		String prefix = xmlReader.getPrefix();
+		String localName = xmlReader.getLocalName();
+		return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+	}
+
+	/**
+	 * SAX view of the attributes of the current start element. Only valid while the content handlers process the
+	 * start element, which is all they need.
+	 */
+	private static final class StreamAttributes implements Attributes {
+
+		private final XMLStreamReader reader;
+
+		StreamAttributes(XMLStreamReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public int getLength() {
+			return reader.getAttributeCount();
+		}
+
+		@Override
+		public String getURI(int index) {
+			String namespace = reader.getAttributeNamespace(index);
+			return namespace == null ? "" : namespace; //$NON-NLS-1$
+		}
+
+		@Override
+		public String getLocalName(int index) {
+			return reader.getAttributeLocalName(index);
+		}
+
+		@Override
+		public String getQName(int index) {
+			String prefix = reader.getAttributePrefix(index);
+			String localName = reader.getAttributeLocalName(index);
+			return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+		}
+
+		@Override
+		public String getType(int index) {
+			return reader.getAttributeType(index);
+		}
+
+		@Override
+		public String getValue(int index) {
+			return reader.getAttributeValue(index);
+		}
+
+		@Override
+		public int getIndex(String uri, String localName) {
+			for (int i = 0; i < getLength(); i++) {
+				if (getURI(i).equals(uri == null ? "" : uri) && getLocalName(i).equals(localName)) { //$NON-NLS-1$
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public int getIndex(String qName) {
+			for (int i = 0; i < getLength(); i++) {
+				if (getQName(i).equals(qName)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public String getType(String uri, String localName) {
+			int index = getIndex(uri, localName);
+			return index == -1 ? null : getType(index);
+		}
+
+		@Override
+		public String getType(String qName) {
+			int index = getIndex(qName);
+			return index == -1 ? null : getType(index);
+		}
+
+		@Override
+		public String getValue(String uri, String localName) {
+			int index = getIndex(uri, localName);
+			return index == -1 ? null : getValue(index);
+		}
+
+		@Override
+		public String getValue(String qName) {
+			int index = getIndex(qName);
+			return index == -1 ? null : getValue(index);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2018 Tasktop Technologies and others.
+ * Copyright (c) 2011, 2026 Tasktop Technologies and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -27,8 +27,20 @@ public class CatalogContentHandler extends UnmarshalContentHandler {
 
 	private Catalog model;
 
+	private CatalogBrandingContentHandler catalogBrandingHandler;
+
+	private NewsContentHandler newsHandler;
+
 	@Override
-	public void startElement(String uri, String localName, Attributes attributes) {
+	protected void reset() {
+		super.reset();
+		model = null;
+		reset(catalogBrandingHandler);
+		reset(newsHandler);
+	}
+
+	@Override
+	public void startElement(String uri, String localName, Attributes attributes) throws SAXException {
 		if (localName.equals("catalog")) { //$NON-NLS-1$
 			model = new Catalog();
 
@@ -42,19 +54,15 @@ public class CatalogContentHandler extends UnmarshalContentHandler {
 		} else if (localName.equals("description")) { //$NON-NLS-1$
 			capturingContent = true;
 		} else if (localName.equals("wizard")) { //$NON-NLS-1$
-			org.eclipse.epp.internal.mpc.core.service.xml.CatalogBrandingContentHandler childHandler = new org.eclipse.epp.internal.mpc.core.service.xml.CatalogBrandingContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri, localName, attributes);
+			if (catalogBrandingHandler == null) {
+				catalogBrandingHandler = new CatalogBrandingContentHandler();
+			}
+			delegateTo(catalogBrandingHandler, model, uri, localName, attributes);
 		} else if (localName.equals("news")) { //$NON-NLS-1$
-			org.eclipse.epp.internal.mpc.core.service.xml.NewsContentHandler childHandler = new org.eclipse.epp.internal.mpc.core.service.xml.NewsContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri, localName, attributes);
+			if (newsHandler == null) {
+				newsHandler = new NewsContentHandler();
+			}
+			delegateTo(newsHandler, model, uri, localName, attributes);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -23,18 +23,25 @@ public class CatalogsContentHandler extends UnmarshalContentHandler {
 
 	private Catalogs model;
 
+	private CatalogContentHandler catalogHandler;
+
+	@Override
+	protected void reset() {
+		super.reset();
+		model = null;
+		reset(catalogHandler);
+	}
+
 	@Override
-	public void startElement(String uri, String localName, Attributes attributes) {
+	public void startElement(String uri, String localName, Attributes attributes) throws SAXException {
 		if (localName.equals("catalogs")) { //$NON-NLS-1$
 			model = new Catalogs();
 
 		} else if (localName.equals("catalog")) { //$NON-NLS-1$
-			CatalogContentHandler childHandler = new CatalogContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri, localName, attributes);
+			if (catalogHandler == null) {
+				catalogHandler = new CatalogContentHandler();
+			}
+			delegateTo(catalogHandler, model, uri, localName, attributes);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -27,8 +27,17 @@ public class CategoryContentHandler extends UnmarshalContentHandler {
 
 	private Category model;
 
+	private NodeContentHandler nodeHandler;
+
 	@Override
-	public void startElement(String uri, String localName, Attributes attributes) {
+	protected void reset() {
+		super.reset();
+		model = null;
+		reset(nodeHandler);
+	}
+
+	@Override
+	public void startElement(String uri, String localName, Attributes attributes) throws SAXException {
 		if (localName.equals("category")) { //$NON-NLS-1$
 			model = new Category();
 
@@ -37,12 +46,10 @@ public class CategoryContentHandler extends UnmarshalContentHandler {
 			model.setUrl(attributes.getValue(NS_URI,"url")); //$NON-NLS-1$
 			model.setCount(toInteger(attributes.getValue(NS_URI,"count"))); //$NON-NLS-1$
 		} else if (localName.equals("node")) { //$NON-NLS-1$
-			org.eclipse.epp.internal.mpc.core.service.xml.NodeContentHandler childHandler = new org.eclipse.epp.internal.mpc.core.service.xml.NodeContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri,localName,attributes);
+			if (nodeHandler == null) {
+				nodeHandler = new NodeContentHandler();
+			}
+			delegateTo(nodeHandler, model, uri, localName, attributes);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -23,18 +23,25 @@ public class IusContentHandler extends UnmarshalContentHandler {
 
 	private Ius model;
 
+	private IuContentHandler iuHandler;
+
 	@Override
-	public void startElement(String uri, String localName, Attributes attributes) {
+	protected void reset() {
+		super.reset();
+		model = null;
+		reset(iuHandler);
+	}
+
+	@Override
+	public void startElement(String uri, String localName, Attributes attributes) throws SAXException {
 		if (localName.equals("ius")) { //$NON-NLS-1$
 			model = new Ius();
 
 		} else if (localName.equals("iu")) { //$NON-NLS-1$
-			IuContentHandler childHandler = new IuContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri, localName, attributes);
+			if (iuHandler == null) {
+				iuHandler = new IuContentHandler();
+			}
+			delegateTo(iuHandler, model, uri, localName, attributes);
 		}
 	}
 
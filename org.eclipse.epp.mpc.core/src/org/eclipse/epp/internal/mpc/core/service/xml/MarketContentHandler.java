@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -27,8 +27,17 @@ public class MarketContentHandler extends UnmarshalContentHandler {
 
 	private Market model;
 
+	private CategoryContentHandler categoryHandler;
+
 	@Override
-	public void startElement(String uri, String localName, Attributes attributes) {
+	protected void reset() {
+		super.reset();
+		model = null;
+		reset(categoryHandler);
+	}
+
+	@Override
+	public void startElement(String uri, String localName, Attributes attributes) throws SAXException {
 		if (localName.equals("market")) { //$NON-NLS-1$
 			model = new Market();
 
@@ -36,12 +45,10 @@ public class MarketContentHandler extends UnmarshalContentHandler {
 			model.setName(attributes.getValue(NS_URI,"name")); //$NON-NLS-1$
 			model.setUrl(toUrlString(attributes.getValue(NS_URI, "url"))); //$NON-NLS-1$
 		} else if (localName.equals("category")) { //$NON-NLS-1$
-			org.eclipse.epp.internal.mpc.core.service.xml.CategoryContentHandler childHandler = new org.eclipse.epp.internal.mpc.core.service.xml.CategoryContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri,localName,attributes);
+			if (categoryHandler == null) {
+				categoryHandler = new CategoryContentHandler();
+			}
+			delegateTo(categoryHandler, model, uri, localName, attributes);
 		}
 	}
 
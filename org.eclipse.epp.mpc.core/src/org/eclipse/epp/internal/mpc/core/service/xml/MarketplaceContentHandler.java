@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,12 @@ public class MarketplaceContentHandler extends UnmarshalContentHandler {
 
 	private Marketplace model;
 
+	@Override
+	protected void reset() {
+		super.reset();
+		model = null;
+	}
+
 	@Override
 	public void startElement(String uri, String localName, Attributes attributes) throws SAXException {
 		if (localName.equals("marketplace")) { //$NON-NLS-1$
@@ -32,12 +38,8 @@ public class MarketplaceContentHandler extends UnmarshalContentHandler {
 		} else {
 			Unmarshaller unmarshaller = getUnmarshaller();
 			UnmarshalContentHandler childHandler = unmarshaller == null ? null : unmarshaller.getHandler(localName);
-			if (unmarshaller != null && childHandler != null) {
-				childHandler.setParentModel(model);
-				childHandler.setParentHandler(this);
-				childHandler.setUnmarshaller(unmarshaller);
-				unmarshaller.setCurrentHandler(childHandler);
-				childHandler.startElement(uri, localName, attributes);
+			if (childHandler != null) {
+				delegateTo(childHandler, model, uri, localName, attributes);
 			}
 		}
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -29,82 +29,82 @@ public class NodeContentHandler extends UnmarshalContentHandler {
 
 	private Node model;
 
+	private CategoriesContentHandler categoriesHandler;
+
+	private TagsContentHandler tagsHandler;
+
+	private IusContentHandler iusHandler;
+
+	private PlatformsContentHandler platformsHandler;
+
 	@Override
-	public void startElement(String uri, String localName, Attributes attributes) {
-		if (localName.equals("node")) { //$NON-NLS-1$
+	protected void reset() {
+		super.reset();
+		model = null;
+		reset(categoriesHandler);
+		reset(tagsHandler);
+		reset(iusHandler);
+		reset(platformsHandler);
+	}
+
+	@Override
+	public void startElement(String uri, String localName, Attributes attributes) throws SAXException {
+		switch (localName) {
+		case "node": //$NON-NLS-1$
 			model = new Node();
 
 			model.setId(attributes.getValue(NS_URI, "id")); //$NON-NLS-1$
 			model.setName(attributes.getValue(NS_URI, "name")); //$NON-NLS-1$
 			model.setUrl(attributes.getValue(NS_URI, "url")); //$NON-NLS-1$
-		} else if (localName.equals("favorited")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("installstotal")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("installsrecent")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("type")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("categories")) { //$NON-NLS-1$
-			CategoriesContentHandler childHandler = new CategoriesContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri, localName, attributes);
-		} else if (localName.equals("tags")) { //$NON-NLS-1$
-			TagsContentHandler childHandler = new TagsContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri, localName, attributes);
-		} else if (localName.equals("owner")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("shortdescription")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("body")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("created")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("changed")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("foundationmember")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("homepageurl")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("image")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("screenshot")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("version")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("license")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("companyname")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("status")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("eclipseversion")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("supporturl")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("updateurl")) { //$NON-NLS-1$
-			capturingContent = true;
-		} else if (localName.equals("ius")) { //$NON-NLS-1$
-			IusContentHandler childHandler = new IusContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri, localName, attributes);
-		} else if (localName.equals("platforms")) { //$NON-NLS-1$
-			PlatformsContentHandler childHandler = new PlatformsContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri, localName, attributes);
+			break;
+		case "favorited": //$NON-NLS-1$
+		case "installstotal": //$NON-NLS-1$
+		case "installsrecent": //$NON-NLS-1$
+		case "type": //$NON-NLS-1$
+		case "owner": //$NON-NLS-1$
+		case "shortdescription": //$NON-NLS-1$
+		case "body": //$NON-NLS-1$
+		case "created": //$NON-NLS-1$
+		case "changed": //$NON-NLS-1$
+		case "foundationmember": //$NON-NLS-1$
+		case "homepageurl": //$NON-NLS-1$
+		case "image": //$NON-NLS-1$
+		case "screenshot": //$NON-NLS-1$
+		case "version": //$NON-NLS-1$
+		case "license": //$NON-NLS-1$
+		case "companyname": //$NON-NLS-1$
+		case "status": //$NON-NLS-1$
+		case "eclipseversion": //$NON-NLS-1$
+		case "supporturl": //$NON-NLS-1$
+		case "updateurl": //$NON-NLS-1$
+			capturingContent = true;
+			break;
+		case "categories": //$NON-NLS-1$
+			if (categoriesHandler == null) {
+				categoriesHandler = new CategoriesContentHandler();
+			}
+			delegateTo(categoriesHandler, model, uri, localName, attributes);
+			break;
+		case "tags": //$NON-NLS-1$
+			if (tagsHandler == null) {
+				tagsHandler = new TagsContentHandler();
+			}
+			delegateTo(tagsHandler, model, uri, localName, attributes);
+			break;
+		case "ius": //$NON-NLS-1$
+			if (iusHandler == null) {
+				iusHandler = new IusContentHandler();
+			}
+			delegateTo(iusHandler, model, uri, localName, attributes);
+			break;
+		case "platforms": //$NON-NLS-1$
+			if (platformsHandler == null) {
+				platformsHandler = new PlatformsContentHandler();
+			}
+			delegateTo(platformsHandler, model, uri, localName, attributes);
+			break;
+		default:
+			break;
 		}
 	}
 
@@ -119,140 +119,89 @@ public class NodeContentHandler extends UnmarshalContentHandler {
 				((Category) parentModel).getNode().add(model);
 			}
 			getUnmarshaller().setModel(model);
+			getUnmarshaller().nodeCompleted(model);
 			model = null;
 			getUnmarshaller().setCurrentHandler(parentHandler);
 			if (parentHandler != null) {
 				parentHandler.endElement(uri, localName);
 			}
 			return true;
-		} else if (localName.equals("favorited")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setFavorited(toNatural(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("installstotal")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setInstallsTotal(toNatural(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("installsrecent")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setInstallsRecent(toNatural(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("type")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setType(content.toString());
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("categories")) { //$NON-NLS-1$
-			// nothing to do
-		} else if (localName.equals("owner")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setOwner(content.toString());
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("shortdescription")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setShortdescription(content.toString());
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("body")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setBody(content.toString());
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("created")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setCreated(toDate(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("changed")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setChanged(toDate(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("foundationmember")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setFoundationmember(toBoolean(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("homepageurl")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setHomepageurl(toUrlString(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("image")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setImage(toUrlString(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("screenshot")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setScreenshot(toUrlString(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("version")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setVersion(content.toString());
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("license")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setLicense(content.toString());
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("companyname")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setCompanyname(content.toString());
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("status")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setStatus(content.toString());
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("eclipseversion")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setEclipseversion(content.toString());
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("supporturl")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setSupporturl(toUrlString(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("updateurl")) { //$NON-NLS-1$
-			if (content != null) {
-				model.setUpdateurl(toUrlString(content.toString()));
-				content = null;
-			}
-			capturingContent = false;
-		} else if (localName.equals("ius")) { //$NON-NLS-1$
-			// nothing to do
-		} else if (localName.equals("platforms")) { //$NON-NLS-1$
-			// nothing to do
 		}
+		if (!capturingContent) {
+			return false;
+		}
+		switch (localName) {
+		case "favorited": //$NON-NLS-1$
+			model.setFavorited(toNatural(text()));
+			break;
+		case "installstotal": //$NON-NLS-1$
+			model.setInstallsTotal(toNatural(text()));
+			break;
+		case "installsrecent": //$NON-NLS-1$
+			model.setInstallsRecent(toNatural(text()));
+			break;
+		case "type": //$NON-NLS-1$
+			model.setType(text());
+			break;
+		case "owner": //$NON-NLS-1$
+			model.setOwner(text());
+			break;
+		case "shortdescription": //$NON-NLS-1$
+			model.setShortdescription(text());
+			break;
+		case "body": //$NON-NLS-1$
+			model.setBody(text());
+			break;
+		case "created": //$NON-NLS-1$
+			model.setCreated(toDate(text()));
+			break;
+		case "changed": //$NON-NLS-1$
+			model.setChanged(toDate(text()));
+			break;
+		case "foundationmember": //$NON-NLS-1$
+			model.setFoundationmember(toBoolean(text()));
+			break;
+		case "homepageurl": //$NON-NLS-1$
+			model.setHomepageurl(toUrlString(text()));
+			break;
+		case "image": //$NON-NLS-1$
+			model.setImage(toUrlString(text()));
+			break;
+		case "screenshot": //$NON-NLS-1$
+			model.setScreenshot(toUrlString(text()));
+			break;
+		case "version": //$NON-NLS-1$
+			model.setVersion(text());
+			break;
+		case "license": //$NON-NLS-1$
+			model.setLicense(text());
+			break;
+		case "companyname": //$NON-NLS-1$
+			model.setCompanyname(text());
+			break;
+		case "status": //$NON-NLS-1$
+			model.setStatus(text());
+			break;
+		case "eclipseversion": //$NON-NLS-1$
+			model.setEclipseversion(text());
+			break;
+		case "supporturl": //$NON-NLS-1$
+			model.setSupporturl(toUrlString(text()));
+			break;
+		case "updateurl": //$NON-NLS-1$
+			model.setUpdateurl(toUrlString(text()));
+			break;
+		default:
+			//element nested in captured content
+			return false;
+		}
+		content = null;
+		capturingContent = false;
 		return false;
 	}
 
+	private String text() {
+		return content == null ? null : content.toString();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -28,6 +28,8 @@ public abstract class NodeListingContentHandler<T extends NodeListing> extends U
 
 	private T model;
 
+	private NodeContentHandler nodeHandler;
+
 	private final String rootElementName;
 
 	public NodeListingContentHandler(String rootElementName) {
@@ -45,17 +47,22 @@ public abstract class NodeListingContentHandler<T extends NodeListing> extends U
 	protected abstract T createModel();
 
 	@Override
-	public void startElement(String uri, String localName, Attributes attributes) {
+	protected void reset() {
+		super.reset();
+		model = null;
+		reset(nodeHandler);
+	}
+
+	@Override
+	public void startElement(String uri, String localName, Attributes attributes) throws SAXException {
 		if (localName.equals(getRootElementName())) {
 			model = createModel();
 			configureModel(model, attributes);
 		} else if (localName.equals("node")) { //$NON-NLS-1$
-			org.eclipse.epp.internal.mpc.core.service.xml.NodeContentHandler childHandler = new org.eclipse.epp.internal.mpc.core.service.xml.NodeContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri,localName,attributes);
+			if (nodeHandler == null) {
+				nodeHandler = new NodeContentHandler();
+			}
+			delegateTo(nodeHandler, model, uri, localName, attributes);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -23,6 +23,12 @@ public class PlatformsContentHandler extends UnmarshalContentHandler {
 
 	private Platforms model;
 
+	@Override
+	protected void reset() {
+		super.reset();
+		model = null;
+	}
+
 	@Override
 	public void startElement(String uri, String localName, Attributes attributes) {
 		if (localName.equals("platforms")) { //$NON-NLS-1$
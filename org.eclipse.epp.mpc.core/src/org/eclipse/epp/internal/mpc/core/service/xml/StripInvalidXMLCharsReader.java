@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2018, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -16,8 +16,15 @@ import java.io.FilterReader;
 import java.io.IOException;
 import java.io.Reader;
 
+/**
+ * Removes characters that are not allowed in XML documents from the underlying reader.
+ *
+ * @see StripInvalidXMLCharsUTF8Reader
+ */
 public class StripInvalidXMLCharsReader extends FilterReader {
 
+	private boolean pendingLowSurrogate;
+
 	public StripInvalidXMLCharsReader(Reader in) {
 		super(in);
 	}
@@ -25,33 +32,59 @@ public class StripInvalidXMLCharsReader extends FilterReader {
 	@Override
 	public int read() throws IOException {
 		for (int r = -1; (r = super.read()) != -1;) {
-			if (isValidXMLCodePoint(r)) {
+			if (accept((char) r)) {
 				return r;
 			}
 		}
 		return -1;
 	}
 
-	private boolean isValidXMLCodePoint(int cp) {
+	static boolean isValidXMLCodePoint(int cp) {
 		return (cp == 0x9) || (cp == 0xA) || (cp == 0xD) || ((cp >= 0x20) && (cp <= 0xD7FF))
 				|| ((cp >= 0xE000) && (cp <= 0xFFFD)) || ((cp >= 0x10000) && (cp <= 0x10FFFF));
 	}
 
+	private boolean accept(char c) {
+		if (Character.isHighSurrogate(c)) {
+			//keep surrogate pairs for supplementary characters, assuming the low surrogate follows in the next read
+			pendingLowSurrogate = true;
+			return true;
+		}
+		boolean lowSurrogateExpected = pendingLowSurrogate;
+		pendingLowSurrogate = false;
+		if (Character.isLowSurrogate(c)) {
+			return lowSurrogateExpected;
+		}
+		return isValidXMLCodePoint(c);
+	}
+
 	@Override
 	public int read(char[] cbuf, int off, int len) throws IOException {
-		int read = super.read(cbuf, off, len);
-		int remaining = read;
-		for (int i = off; i < off + read; i++) {
-			char c = cbuf[i];
-			if (!isValidXMLCodePoint(c)) {
-				remaining--;
-				int after = off + read - i - 1;
-				if (after > 0) {
-					System.arraycopy(cbuf, i + 1, cbuf, i, after);
-					cbuf[remaining] = 0;
+		while (true) {
+			int read = super.read(cbuf, off, len);
+			if (read <= 0) {
+				return read;
+			}
+			//compact valid characters to the front in a single pass
+			int end = off + read;
+			int write = off;
+			for (int i = off; i < end; i++) {
+				char c = cbuf[i];
+				if (Character.isHighSurrogate(c) && i + 1 < end) {
+					//keep complete surrogate pairs, drop lone high surrogates
+					pendingLowSurrogate = false;
+					if (Character.isLowSurrogate(cbuf[i + 1])) {
+						cbuf[write++] = c;
+						cbuf[write++] = cbuf[++i];
+					}
+				} else if (accept(c)) {
+					cbuf[write++] = c;
 				}
 			}
+			if (write > off) {
+				return write - off;
+			}
+			//everything was stripped - read more instead of returning 0, which readers must not do
 		}
-		return remaining;
 	}
 }
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.service.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Decodes an UTF-8 byte stream and removes characters that are not allowed in XML documents in the same pass.
+ * <p>
+ * This replaces an {@link java.io.InputStreamReader} wrapped in a {@link StripInvalidXMLCharsReader}. Decoding works on
+ * the bulk buffers with a fast path for ASCII, which makes up most of the marketplace responses. Malformed input is
+ * replaced with U+FFFD.
+ */
+public class StripInvalidXMLCharsUTF8Reader extends Reader {
+
+	private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final InputStream in;
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+
+	private final char[] singleChar = new char[1];
+
+	private int position;
+
+	private int limit;
+
+	private boolean endOfStream;
+
+	/**
+	 * Low surrogate of a supplementary character that didn't fit into the last read
+	 */
+	private char pendingLowSurrogate;
+
+	public StripInvalidXMLCharsUTF8Reader(InputStream in) {
+		this.in = in;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return read(singleChar, 0, 1) == -1 ? -1 : singleChar[0];
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (off < 0 || len < 0 || len > cbuf.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (len == 0) {
+			return 0;
+		}
+		int out = off;
+		int end = off + len;
+		if (pendingLowSurrogate != 0) {
+			cbuf[out++] = pendingLowSurrogate;
+			pendingLowSurrogate = 0;
+		}
+		final byte[] buffer = this.buffer;
+		while (out < end) {
+			int pos = position;
+			int lim = limit;
+			//ASCII fast path
+			while (out < end && pos < lim && buffer[pos] >= 0x20) {
+				cbuf[out++] = (char) buffer[pos++];
+			}
+			position = pos;
+			if (out == end) {
+				break;
+			}
+			if (pos == lim) {
+				if (out > off && in.available() <= 0) {
+					//don't block for more input if we already have something to return
+					break;
+				}
+				if (!fill(0)) {
+					break;
+				}
+				continue;
+			}
+			int b = buffer[pos];
+			if (b >= 0) {
+				//ASCII control character
+				position = pos + 1;
+				if (b == 0x9 || b == 0xA || b == 0xD) {
+					cbuf[out++] = (char) b;
+				}
+				continue;
+			}
+			int length = sequenceLength(b & 0xFF);
+			if (length == 0) {
+				//unexpected continuation byte or invalid lead byte
+				position = pos + 1;
+				cbuf[out++] = REPLACEMENT_CHAR;
+				continue;
+			}
+			if (pos + length > lim) {
+				//if the stream ends before the sequence is complete, decode() replaces the truncated sequence
+				fill(length);
+			}
+			out = decode(cbuf, out, end);
+		}
+		int read = out - off;
+		return read == 0 && endOfStream ? -1 : read;
+	}
+
+	private static int sequenceLength(int leadByte) {
+		if (leadByte >= 0xC2 && leadByte <= 0xDF) {
+			return 2;
+		} else if (leadByte >= 0xE0 && leadByte <= 0xEF) {
+			return 3;
+		} else if (leadByte >= 0xF0 && leadByte <= 0xF4) {
+			return 4;
+		}
+		return 0;
+	}
+
+	/**
+	 * The allowed range of the second byte excludes overlong encodings, surrogates and code points above U+10FFFF.
+	 */
+	private static boolean isValidSecondByte(int leadByte, int b) {
+		switch (leadByte) {
+		case 0xE0:
+			return b >= 0xA0 && b <= 0xBF;
+		case 0xED:
+			return b >= 0x80 && b <= 0x9F;
+		case 0xF0:
+			return b >= 0x90 && b <= 0xBF;
+		case 0xF4:
+			return b >= 0x80 && b <= 0x8F;
+		default:
+			return b >= 0x80 && b <= 0xBF;
+		}
+	}
+
+	/**
+	 * Decode the multi-byte sequence at the current position. A malformed or truncated sequence is replaced by a single
+	 * U+FFFD and decoding continues with the byte that broke it.
+	 *
+	 * @return the new output position
+	 */
+	private int decode(char[] cbuf, int out, int end) {
+		final byte[] buffer = this.buffer;
+		int pos = position;
+		int available = limit - pos;
+		int b0 = buffer[pos] & 0xFF;
+		int length = sequenceLength(b0);
+		int cp = b0 & (0x3F >> (length - 1));
+		for (int i = 1; i < length; i++) {
+			int b = i < available ? buffer[pos + i] & 0xFF : -1;
+			if (i == 1 ? !isValidSecondByte(b0, b) : (b & 0xC0) != 0x80) {
+				position = pos + i;
+				cbuf[out++] = REPLACEMENT_CHAR;
+				return out;
+			}
+			cp = (cp << 6) | (b & 0x3F);
+		}
+		position = pos + length;
+		if (StripInvalidXMLCharsReader.isValidXMLCodePoint(cp)) {
+			if (cp >= 0x10000) {
+				cbuf[out++] = Character.highSurrogate(cp);
+				if (out < end) {
+					cbuf[out++] = Character.lowSurrogate(cp);
+				} else {
+					pendingLowSurrogate = Character.lowSurrogate(cp);
+				}
+			} else {
+				cbuf[out++] = (char) cp;
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Move the unread bytes to the start of the buffer and read more input.
+	 *
+	 * @return true if at least <code>required</code> bytes (or at least one if <code>required</code> is 0) are
+	 *         available, false if the stream ended first
+	 */
+	private boolean fill(int required) throws IOException {
+		int remaining = limit - position;
+		if (remaining > 0 && position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, remaining);
+		}
+		position = 0;
+		limit = remaining;
+		int min = Math.max(required, 1);
+		while (limit < min) {
+			if (endOfStream) {
+				return false;
+			}
+			int read = in.read(buffer, limit, buffer.length - limit);
+			if (read == -1) {
+				endOfStream = true;
+			} else {
+				limit += read;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean ready() throws IOException {
+		return pendingLowSurrogate != 0 || position < limit || in.available() > 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2018 Tasktop Technologies and others.
+ * Copyright (c) 2011, 2026 Tasktop Technologies and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -23,18 +23,25 @@ public class TagsContentHandler extends UnmarshalContentHandler {
 
 	private Tags model;
 
+	private TagContentHandler tagHandler;
+
 	@Override
-	public void startElement(String uri, String localName, Attributes attributes) {
+	protected void reset() {
+		super.reset();
+		model = null;
+		reset(tagHandler);
+	}
+
+	@Override
+	public void startElement(String uri, String localName, Attributes attributes) throws SAXException {
 		if (localName.equals("tags")) { //$NON-NLS-1$
 			model = new Tags();
 
 		} else if (localName.equals("tag")) { //$NON-NLS-1$
-			TagContentHandler childHandler = new TagContentHandler();
-			childHandler.setParentModel(model);
-			childHandler.setParentHandler(this);
-			childHandler.setUnmarshaller(getUnmarshaller());
-			getUnmarshaller().setCurrentHandler(childHandler);
-			childHandler.startElement(uri, localName, attributes);
+			if (tagHandler == null) {
+				tagHandler = new TagContentHandler();
+			}
+			delegateTo(tagHandler, model, uri, localName, attributes);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -50,6 +50,39 @@ public abstract class UnmarshalContentHandler {
 		}
 	}
 
+	/**
+	 * Hand the processing of the current element over to the given child handler until the element ends. Child handlers
+	 * are reused for subsequent elements of the same type, so this resets the state left over from their last element.
+	 */
+	protected void delegateTo(UnmarshalContentHandler childHandler, Object parentModel, String uri, String localName,
+			Attributes attributes) throws SAXException {
+		childHandler.content = null;
+		childHandler.capturingContent = false;
+		childHandler.setParentModel(parentModel);
+		childHandler.setParentHandler(this);
+		childHandler.setUnmarshaller(getUnmarshaller());
+		getUnmarshaller().setCurrentHandler(childHandler);
+		childHandler.startElement(uri, localName, attributes);
+	}
+
+	/**
+	 * Forget everything about the last parsed document, so a pooled handler doesn't keep it alive. Handlers that keep
+	 * a model or child handlers have to reset them as well.
+	 */
+	protected void reset() {
+		unmarshaller = null;
+		content = null;
+		capturingContent = false;
+		parentModel = null;
+		parentHandler = null;
+	}
+
+	protected static void reset(UnmarshalContentHandler handler) {
+		if (handler != null) {
+			handler.reset();
+		}
+	}
+
 	protected Unmarshaller getUnmarshaller() {
 		return unmarshaller;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -18,10 +18,12 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
 
+import org.eclipse.epp.internal.mpc.core.model.Node;
 import org.xml.sax.Attributes;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.InputSource;
@@ -88,38 +90,55 @@ public class Unmarshaller extends DefaultHandler {
 	 * Unmarshal an object from the given input source
 	 */
 	public static Object parse(InputSource input) throws IOException, SAXException {
-		Unmarshaller unmarshaller = new Unmarshaller();
-		XMLReader xmlReader = createXMLReader(unmarshaller);
-		xmlReader.parse(input);
-		return unmarshaller.getModel();
+		Unmarshaller unmarshaller = acquire();
+		try {
+			unmarshaller.getXMLReader().parse(input);
+			return unmarshaller.getModel();
+		} finally {
+			unmarshaller.release();
+		}
 	}
 
 
-	private final Map<String, UnmarshalContentHandler> elementNameToUnmarshalContentHandler = new HashMap<>();
-	{
-		elementNameToUnmarshalContentHandler.put("marketplace", new MarketplaceContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("market", new MarketContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("category", new CategoryContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("node", new NodeContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("categories", new CategoriesContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("catalogs", new CatalogsContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("catalog", new CatalogContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("wizard", new CatalogBrandingContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("tags", new TagsContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("tag", new TagContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("ius", new IusContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("platforms", new PlatformsContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("search", new SearchContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("recent", new RecentContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("featured", new FeaturedContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("popular", new PopularContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("related", new RelatedContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("favorites", new FavoritesContentHandler()); //$NON-NLS-1$
-		elementNameToUnmarshalContentHandler.put("news", new NewsContentHandler()); //$NON-NLS-1$
+	private static final ThreadLocal<Unmarshaller> pooledUnmarshaller = new ThreadLocal<>();
+
+	/**
+	 * Get an unmarshaller for parsing a single document on the current thread. The unmarshaller and its handlers and
+	 * parser are reused for the next document once it is {@link #release() released}.
+	 */
+	public static Unmarshaller acquire() {
+		Unmarshaller unmarshaller = pooledUnmarshaller.get();
+		if (unmarshaller != null) {
+			//nested acquire calls, e.g. from a node listener, get a new instance
+			pooledUnmarshaller.set(null);
+			return unmarshaller;
+		}
+		return new Unmarshaller();
+	}
+
+	/**
+	 * Reset this unmarshaller and return it to the pool of the current thread.
+	 */
+	public void release() {
+		for (UnmarshalContentHandler handler : elementNameToUnmarshalContentHandler.values()) {
+			handler.reset();
+		}
+		UnmarshalContentHandler.reset(defaultHandler);
+		currentHandler = null;
+		model = null;
+		nodeListener = null;
+		pooledUnmarshaller.set(this);
 	}
 
+	private final Map<String, UnmarshalContentHandler> elementNameToUnmarshalContentHandler = new HashMap<>();
+
+	private DefaultContentHandler defaultHandler;
+
+	private XMLReader xmlReader;
+
 	private UnmarshalContentHandler currentHandler;
 	private Object model;
+	private Consumer<? super Node> nodeListener;
 
 	@Override
 	public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
@@ -131,8 +150,16 @@ public class Unmarshaller extends DefaultHandler {
 		if (currentHandler == null) {
 			currentHandler = getHandler(localName);
 			if (currentHandler == null) {
-				currentHandler = new DefaultContentHandler();
+				if (defaultHandler == null) {
+					defaultHandler = new DefaultContentHandler();
+				}
+				currentHandler = defaultHandler;
 			}
+			//the handler might have been used for a nested element of an earlier document
+			currentHandler.setParentModel(null);
+			currentHandler.setParentHandler(null);
+			currentHandler.content = null;
+			currentHandler.capturingContent = false;
 			currentHandler.setUnmarshaller(this);
 		}
 	}
@@ -156,6 +183,21 @@ public class Unmarshaller extends DefaultHandler {
 	public void setModel(Object model) {
 		this.model = model;
 	}
+
+	/**
+	 * Set a listener that is notified of each node as soon as it has been completely parsed, before the rest of the
+	 * document is read.
+	 */
+	public void setNodeListener(Consumer<? super Node> nodeListener) {
+		this.nodeListener = nodeListener;
+	}
+
+	void nodeCompleted(Node node) {
+		if (nodeListener != null) {
+			nodeListener.accept(node);
+		}
+	}
+
 	protected UnmarshalContentHandler getCurrentHandler() {
 		return currentHandler;
 	}
@@ -164,7 +206,63 @@ public class Unmarshaller extends DefaultHandler {
 		this.currentHandler = currentHandler;
 	}
 
+	/**
+	 * Get the parser for this unmarshaller. The parser is reused for subsequent documents.
+	 */
+	public XMLReader getXMLReader() {
+		if (xmlReader == null) {
+			xmlReader = createXMLReader(this);
+		}
+		return xmlReader;
+	}
+
 	public UnmarshalContentHandler getHandler(String localName) {
-		return elementNameToUnmarshalContentHandler.get(localName);
+		//handlers are only created when needed, most documents just use a few of them
+		return elementNameToUnmarshalContentHandler.computeIfAbsent(localName, Unmarshaller::createHandler);
+	}
+
+	private static UnmarshalContentHandler createHandler(String localName) {
+		switch (localName) {
+		case "marketplace": //$NON-NLS-1$
+			return new MarketplaceContentHandler();
+		case "market": //$NON-NLS-1$
+			return new MarketContentHandler();
+		case "category": //$NON-NLS-1$
+			return new CategoryContentHandler();
+		case "node": //$NON-NLS-1$
+			return new NodeContentHandler();
+		case "categories": //$NON-NLS-1$
+			return new CategoriesContentHandler();
+		case "catalogs": //$NON-NLS-1$
+			return new CatalogsContentHandler();
+		case "catalog": //$NON-NLS-1$
+			return new CatalogContentHandler();
+		case "wizard": //$NON-NLS-1$
+			return new CatalogBrandingContentHandler();
+		case "tags": //$NON-NLS-1$
+			return new TagsContentHandler();
+		case "tag": //$NON-NLS-1$
+			return new TagContentHandler();
+		case "ius": //$NON-NLS-1$
+			return new IusContentHandler();
+		case "platforms": //$NON-NLS-1$
+			return new PlatformsContentHandler();
+		case "search": //$NON-NLS-1$
+			return new SearchContentHandler();
+		case "recent": //$NON-NLS-1$
+			return new RecentContentHandler();
+		case "featured": //$NON-NLS-1$
+			return new FeaturedContentHandler();
+		case "popular": //$NON-NLS-1$
+			return new PopularContentHandler();
+		case "related": //$NON-NLS-1$
+			return new RelatedContentHandler();
+		case "favorites": //$NON-NLS-1$
+			return new FavoritesContentHandler();
+		case "news": //$NON-NLS-1$
+			return new NewsContentHandler();
+		default:
+			return null;
+		}
 	}
 }
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.transport.httpclient;
+
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+
+/**
+ * The validators of a previous response (<code>ETag</code> and <code>Last-Modified</code>), used to make a conditional
+ * request for the same resource.
+ */
+public final class CacheValidator {
+
+	private final String entityTag;
+
+	private final String lastModified;
+
+	public CacheValidator(String entityTag, String lastModified) {
+		this.entityTag = entityTag;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * @return the validators of the given response, or null if it has none
+	 */
+	public static CacheValidator fromResponse(HttpResponse response) {
+		String entityTag = getHeaderValue(response, HttpHeaders.ETAG);
+		String lastModified = getHeaderValue(response, HttpHeaders.LAST_MODIFIED);
+		if (entityTag == null && lastModified == null) {
+			return null;
+		}
+		return new CacheValidator(entityTag, lastModified);
+	}
+
+	private static String getHeaderValue(HttpResponse response, String name) {
+		Header header = response.getFirstHeader(name);
+		return header == null ? null : header.getValue();
+	}
+
+	/**
+	 * Make the given request conditional on the resource having changed since these validators were issued.
+	 */
+	public void applyTo(HttpRequest request) {
+		if (entityTag != null) {
+			request.setHeader(HttpHeaders.IF_NONE_MATCH, entityTag);
+		}
+		if (lastModified != null) {
+			request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+		}
+	}
+
+	public String getEntityTag() {
+		return entityTag;
+	}
+
+	public String getLastModified() {
+		return lastModified;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheValidator [entityTag=" + entityTag + ", lastModified=" + lastModified + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -13,20 +13,29 @@
 package org.eclipse.epp.internal.mpc.core.transport.httpclient;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
 import org.apache.hc.client5.http.auth.CredentialsStore;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.cookie.BasicCookieStore;
 import org.apache.hc.client5.http.cookie.CookieStore;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.core5.http.HttpRequestInterceptor;
 import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.eclipse.userstorage.internal.StorageProperties;
+import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.FieldOption;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
@@ -35,9 +44,61 @@ import org.osgi.service.component.annotations.ReferencePolicyOption;
 @Component(name = "org.eclipse.epp.mpc.core.http.client.factory", service = { HttpClientFactory.class })
 public class HttpClientFactory {
 
+	private static final String PROPERTY_PREFIX = HttpClientFactory.class.getPackage().getName();
+
+	/**
+	 * Maximum number of pooled connections per host
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 100;
+
+	/**
+	 * Maximum number of pooled connections in total
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 200;
+
+	/**
+	 * Time after which an unused pooled connection is closed
+	 */
+	public static final int DEFAULT_IDLE_CONNECTION_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(30);
+
+	/**
+	 * Maximum lifetime of a pooled connection, regardless of its keep-alive
+	 */
+	public static final int DEFAULT_CONNECTION_TIME_TO_LIVE = (int) TimeUnit.MINUTES.toMillis(5);
+
+	/**
+	 * Time after which a pooled connection is checked for staleness before it is reused
+	 */
+	public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = (int) TimeUnit.SECONDS.toMillis(2);
+
+	/**
+	 * Maximum time to keep a connection alive if the server doesn't limit it to a shorter time
+	 */
+	public static final int DEFAULT_KEEP_ALIVE = (int) TimeUnit.SECONDS.toMillis(60);
+
+	public static final String MAX_CONNECTIONS_PER_ROUTE_PROPERTY = PROPERTY_PREFIX + ".maxConnectionsPerRoute"; //$NON-NLS-1$
+
+	public static final String MAX_CONNECTIONS_TOTAL_PROPERTY = PROPERTY_PREFIX + ".maxConnectionsTotal"; //$NON-NLS-1$
+
+	public static final String IDLE_CONNECTION_TIMEOUT_PROPERTY = PROPERTY_PREFIX + ".idleConnectionTimeout"; //$NON-NLS-1$
+
+	public static final String CONNECTION_TIME_TO_LIVE_PROPERTY = PROPERTY_PREFIX + ".connectionTimeToLive"; //$NON-NLS-1$
+
+	public static final String VALIDATE_AFTER_INACTIVITY_PROPERTY = PROPERTY_PREFIX + ".validateAfterInactivity"; //$NON-NLS-1$
+
+	public static final String KEEP_ALIVE_PROPERTY = PROPERTY_PREFIX + ".keepAlive"; //$NON-NLS-1$
+
 	@Reference(cardinality = ReferenceCardinality.MULTIPLE, policyOption = ReferencePolicyOption.GREEDY, policy = ReferencePolicy.STATIC, fieldOption = FieldOption.REPLACE)
 	private List<HttpClientCustomizer> customizers;
 
+	private volatile Map<String, ?> configuration;
+
+	@Activate
+	@Modified
+	public void configure(Map<String, ?> configuration) {
+		this.configuration = configuration;
+	}
+
 	public List<HttpClientCustomizer> getCustomizers() {
 		return customizers;
 	}
@@ -75,10 +136,13 @@ public class HttpClientFactory {
 		clientBuilder.setDefaultCredentialsProvider(credentialsProvider);
 		clientBuilder.setDefaultCookieStore(cookieStore);
 
+		PoolingHttpClientConnectionManager connectionManager = createConnectionManager();
+		clientBuilder.setConnectionManager(connectionManager);
+
 		clientBuilder = customizeBuilder(clientBuilder);
 
-		return new HttpServiceContext(clientBuilder.build(), cookieStore, credentialsProvider, initialCredentialsProvider,
-				cacheProvider);
+		return new HttpServiceContext(clientBuilder.build(), connectionManager, cookieStore, credentialsProvider,
+				initialCredentialsProvider, cacheProvider);
 	}
 
 	protected CredentialsStore createCredentialsProvider() {
@@ -113,11 +177,7 @@ public class HttpClientFactory {
 	protected HttpClientBuilder builder() {
 		HttpClientBuilder builder = HttpClientBuilder.create();
 
-		PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
-		connManager.setDefaultMaxPerRoute(100);
-		connManager.setMaxTotal(200);
-		builder.setConnectionManager(connManager);
-		setClientDefaultTimeouts(builder);
+		setClientDefaults(builder);
 
 		builder.addResponseInterceptorLast(new CacheCredentialsAuthenticationStrategy());
 
@@ -126,19 +186,13 @@ public class HttpClientFactory {
 		return builder;
 	}
 
-	private static void setClientDefaultTimeouts(HttpClientBuilder builder) {
-		@SuppressWarnings("restriction")
-		int connectTimeoutUssDefault = StorageProperties.getProperty(StorageProperties.CONNECT_TIMEOUT,
-				HttpClientTransport.DEFAULT_CONNECT_TIMEOUT);
-		@SuppressWarnings("restriction")
-		int readTimeoutUssDefault = StorageProperties.getProperty(StorageProperties.SOCKET_TIMEOUT,
-				HttpClientTransport.DEFAULT_READ_TIMEOUT);
-
-		int connectTimeout = getTimeoutValue(HttpClientTransport.CONNECT_TIMEOUT_PROPERTY, connectTimeoutUssDefault);
-		int readTimeout = getTimeoutValue(HttpClientTransport.READ_TIMEOUT_PROPERTY, readTimeoutUssDefault);
-
-		int connectionRequestTimeout = getTimeoutValue(HttpClientTransport.CONNECTION_REQUEST_TIMEOUT_PROPERTY,
-				HttpClientTransport.DEFAULT_CONNECTION_REQUEST_TIMEOUT);
+	protected PoolingHttpClientConnectionManager createConnectionManager() {
+		int readTimeout = getReadTimeout();
+		int maxPerRoute = getIntValue(MAX_CONNECTIONS_PER_ROUTE_PROPERTY, DEFAULT_MAX_CONNECTIONS_PER_ROUTE);
+		int maxTotal = getIntValue(MAX_CONNECTIONS_TOTAL_PROPERTY, DEFAULT_MAX_CONNECTIONS_TOTAL);
+		int timeToLive = getIntValue(CONNECTION_TIME_TO_LIVE_PROPERTY, DEFAULT_CONNECTION_TIME_TO_LIVE);
+		int validateAfterInactivity = getIntValue(VALIDATE_AFTER_INACTIVITY_PROPERTY,
+				DEFAULT_VALIDATE_AFTER_INACTIVITY);
 
 		SocketConfig defaultSocketConfig = SocketConfig.copy(SocketConfig.DEFAULT)
 				.setSoTimeout(Timeout.ofMilliseconds(readTimeout))
@@ -148,26 +202,98 @@ public class HttpClientFactory {
 				//See http://docs.oracle.com/javase/6/docs/api/java/net/SocketOptions.html?is-external=true#SO_LINGER
 				//and https://issues.apache.org/jira/browse/HTTPCLIENT-1497
 				.build();
+		return PoolingHttpClientConnectionManagerBuilder.create()
+				.setDefaultSocketConfig(defaultSocketConfig)
+				.setMaxConnPerRoute(Math.max(1, maxPerRoute))
+				.setMaxConnTotal(Math.max(1, maxTotal))
+				.setConnectionTimeToLive(toTimeValue(timeToLive))
+				.setValidateAfterInactivity(toTimeValue(validateAfterInactivity))
+				.build();
+	}
+
+	private void setClientDefaults(HttpClientBuilder builder) {
+		@SuppressWarnings("restriction")
+		int connectTimeoutUssDefault = StorageProperties.getProperty(StorageProperties.CONNECT_TIMEOUT,
+				HttpClientTransport.DEFAULT_CONNECT_TIMEOUT);
+
+		int connectTimeout = getTimeoutValue(HttpClientTransport.CONNECT_TIMEOUT_PROPERTY, connectTimeoutUssDefault);
+		int readTimeout = getReadTimeout();
+
+		int connectionRequestTimeout = getTimeoutValue(HttpClientTransport.CONNECTION_REQUEST_TIMEOUT_PROPERTY,
+				HttpClientTransport.DEFAULT_CONNECTION_REQUEST_TIMEOUT);
+
+		int keepAlive = getIntValue(KEEP_ALIVE_PROPERTY, DEFAULT_KEEP_ALIVE);
+		int idleTimeout = getIntValue(IDLE_CONNECTION_TIMEOUT_PROPERTY, DEFAULT_IDLE_CONNECTION_TIMEOUT);
+
 		RequestConfig defaultRequestConfig = RequestConfig.copy(RequestConfig.DEFAULT)
 				.setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
 				.setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
 				.setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+				.setConnectionKeepAlive(toTimeValue(keepAlive))
 				.build();
-		PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
-		connManager.setDefaultSocketConfig(defaultSocketConfig);
-		builder.setConnectionManager(connManager);
 		builder.setDefaultRequestConfig(defaultRequestConfig);
+		builder.setKeepAliveStrategy(createKeepAliveStrategy(keepAlive));
+		if (idleTimeout > 0) {
+			builder.evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout));
+		}
+		builder.evictExpiredConnections();
+	}
+
+	/**
+	 * Use the keep-alive time announced by the server, but don't keep connections around for longer than the configured
+	 * maximum. Without a server preference, the maximum from the request config is used.
+	 */
+	private static ConnectionKeepAliveStrategy createKeepAliveStrategy(int maxKeepAlive) {
+		TimeValue max = toTimeValue(maxKeepAlive);
+		return (response, context) -> {
+			TimeValue keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			if (TimeValue.isNonNegative(max) && (!TimeValue.isNonNegative(keepAlive) || keepAlive.compareTo(max) > 0)) {
+				return max;
+			}
+			return keepAlive;
+		};
+	}
+
+	private int getReadTimeout() {
+		@SuppressWarnings("restriction")
+		int readTimeoutUssDefault = StorageProperties.getProperty(StorageProperties.SOCKET_TIMEOUT,
+				HttpClientTransport.DEFAULT_READ_TIMEOUT);
+		return getTimeoutValue(HttpClientTransport.READ_TIMEOUT_PROPERTY, readTimeoutUssDefault);
+	}
+
+	private static TimeValue toTimeValue(int millis) {
+		return millis < 0 ? TimeValue.NEG_ONE_MILLISECOND : TimeValue.ofMilliseconds(millis);
 	}
 
 	private static int getTimeoutValue(String property, int defaultValue) {
 		String propertyValue = FrameworkUtil.getBundle(HttpClientTransport.class)
 				.getBundleContext()
 				.getProperty(property);
+		return parseIntValue(propertyValue, defaultValue);
+	}
+
+	/**
+	 * Get a pool setting from the component configuration, falling back to the framework properties.
+	 */
+	private int getIntValue(String property, int defaultValue) {
+		Map<String, ?> configuration = this.configuration;
+		Object value = configuration == null ? null : configuration.get(property);
+		if (value instanceof Number) {
+			return ((Number) value).intValue();
+		}
+		if (value == null) {
+			BundleContext bundleContext = FrameworkUtil.getBundle(HttpClientFactory.class).getBundleContext();
+			value = bundleContext == null ? null : bundleContext.getProperty(property);
+		}
+		return parseIntValue(value == null ? null : value.toString(), defaultValue);
+	}
+
+	private static int parseIntValue(String propertyValue, int defaultValue) {
 		if (propertyValue == null || "".equals(propertyValue)) { //$NON-NLS-1$
 			return defaultValue;
 		}
 		try {
-			return Integer.parseInt(propertyValue);
+			return Integer.parseInt(propertyValue.trim());
 		} catch (NumberFormatException ex) {
 			//TODO log
 			return defaultValue;
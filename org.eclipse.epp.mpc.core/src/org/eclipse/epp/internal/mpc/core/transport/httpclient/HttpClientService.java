@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -36,6 +36,7 @@ import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
 import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolStats;
 import org.eclipse.core.net.proxy.IProxyData;
 import org.eclipse.core.net.proxy.IProxyService;
 import org.eclipse.epp.internal.mpc.core.util.ProxyHelper;
@@ -148,6 +149,15 @@ public class HttpClientService {
 		return client;
 	}
 
+	/**
+	 * @return the current usage of the client's connection pool
+	 * @see HttpServiceContext#getPoolStats()
+	 */
+	public PoolStats getPoolStats() {
+		HttpServiceContext context = this.context;
+		return context == null ? null : context.getPoolStats();
+	}
+
 	public IProxyService getProxyService() {
 		return proxyService;
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ package org.eclipse.epp.internal.mpc.core.transport.httpclient;
 
 import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -25,12 +26,14 @@ import org.apache.hc.client5.http.HttpResponseException;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequest;
+import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
-import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpStatus;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
 import org.eclipse.epp.internal.mpc.core.util.UserAgentUtil;
@@ -75,6 +78,40 @@ public class HttpClientTransport implements ITransport {
 		USER_AGENT = UserAgentUtil.computeUserAgent();
 	}
 
+	/**
+	 * The result of a conditional request, which either has new content or reports that the previously retrieved
+	 * content is still valid.
+	 */
+	public static final class ConditionalStream {
+
+		private final InputStream content;
+
+		private final CacheValidator validator;
+
+		public ConditionalStream(InputStream content, CacheValidator validator) {
+			this.content = content;
+			this.validator = validator;
+		}
+
+		/**
+		 * @return the response content, or null if the resource was not modified
+		 */
+		public InputStream getContent() {
+			return content;
+		}
+
+		/**
+		 * @return the validators for the returned content, or null if the server didn't send any
+		 */
+		public CacheValidator getValidator() {
+			return validator;
+		}
+
+		public boolean isNotModified() {
+			return content == null;
+		}
+	}
+
 	private HttpClientService clientService;
 
 	public HttpClient getClient() {
@@ -94,8 +131,32 @@ public class HttpClientTransport implements ITransport {
 	public InputStream stream(URI location, IProgressMonitor monitor)
 			throws FileNotFoundException, ServiceUnavailableException, CoreException {
 		try {
-			return createStreamingRequest().execute(clientService, location, false);
-		} catch (HttpResponseException e) {
+			return createStreamingRequest().execute(clientService, location, false, monitor);
+		} catch (IOException e) {
+			throw handleRequestException(e);
+		}
+	}
+
+	/**
+	 * Stream the given location, sending a conditional request if validators of a previous response are given.
+	 *
+	 * @param validator
+	 *            the validators of the previously retrieved content, or null to unconditionally request the content
+	 * @return the response, which has no content if the resource was not modified
+	 */
+	public ConditionalStream streamConditional(URI location, CacheValidator validator, IProgressMonitor monitor)
+			throws FileNotFoundException, ServiceUnavailableException, CoreException {
+		try {
+			return createConditionalRequest(validator).execute(clientService, location, false, monitor);
+		} catch (IOException e) {
+			throw handleRequestException(e);
+		}
+	}
+
+	private static CoreException handleRequestException(IOException ex)
+			throws FileNotFoundException, ServiceUnavailableException {
+		if (ex instanceof HttpResponseException) {
+			HttpResponseException e = (HttpResponseException) ex;
 			int statusCode = e.getStatusCode();
 			switch (statusCode) {
 			case 404:
@@ -106,11 +167,10 @@ public class HttpClientTransport implements ITransport {
 				throw new ServiceUnavailableException(
 						new Status(IStatus.ERROR, MarketplaceClientCore.BUNDLE_ID, e.getMessage(), e));
 			default:
-				throw new CoreException(MarketplaceClientCore.computeStatus(e, null));
+				return new CoreException(MarketplaceClientCore.computeStatus(e, null));
 			}
-		} catch (IOException e) {
-			throw new CoreException(MarketplaceClientCore.computeStatus(e, null));
 		}
+		return new CoreException(MarketplaceClientCore.computeStatus(ex, null));
 	}
 
 	protected RequestTemplate<InputStream> createStreamingRequest() {
@@ -124,9 +184,7 @@ public class HttpClientTransport implements ITransport {
 			@Override
 			protected InputStream handleResponse(ClassicHttpResponse response)
 					throws ClientProtocolException, IOException {
-				HttpEntity entity = response.getEntity();
-				handleResponseStatus(response.getCode(), response.getReasonPhrase());
-				return handleResponseEntity(entity);
+				return handleOpenResponse(response);
 			}
 
 			@Override
@@ -138,6 +196,119 @@ public class HttpClientTransport implements ITransport {
 			protected InputStream handleEmptyResponse() {
 				return new ByteArrayInputStream(new byte[0]);
 			}
+
+			@Override
+			protected InputStream monitorResponse(InputStream content, IProgressMonitor monitor,
+					Runnable stopMonitoring) {
+				return new MonitoredInputStream(content, monitor, stopMonitoring);
+			}
+		};
+	}
+
+	/**
+	 * Create a request that streams the response content like {@link #createStreamingRequest()}, together with its
+	 * validators. The returned template handles a single request.
+	 */
+	protected RequestTemplate<ConditionalStream> createConditionalRequest(CacheValidator validator) {
+		return new RequestTemplate<>() {
+
+			private CacheValidator responseValidator;
+
+			@Override
+			protected HttpUriRequest createRequest(URI uri) {
+				return new HttpGet(uri);
+			}
+
+			@Override
+			protected ClassicHttpRequest configureRequest(HttpClientService client, ClassicHttpRequest request) {
+				if (validator != null) {
+					validator.applyTo(request);
+				}
+				return super.configureRequest(client, request);
+			}
+
+			@Override
+			protected ConditionalStream handleResponse(ClassicHttpResponse response)
+					throws ClientProtocolException, IOException {
+				if (validator != null && response.getCode() == HttpStatus.SC_NOT_MODIFIED) {
+					response.close();
+					return new ConditionalStream(null, validator);
+				}
+				responseValidator = CacheValidator.fromResponse(response);
+				return handleOpenResponse(response);
+			}
+
+			@Override
+			protected ConditionalStream handleResponseStream(InputStream content, Charset charset) {
+				return new ConditionalStream(content, responseValidator);
+			}
+
+			@Override
+			protected ConditionalStream handleEmptyResponse() {
+				return new ConditionalStream(new ByteArrayInputStream(new byte[0]), responseValidator);
+			}
+
+			@Override
+			protected ConditionalStream monitorResponse(ConditionalStream response, IProgressMonitor monitor,
+					Runnable stopMonitoring) {
+				if (response.isNotModified()) {
+					stopMonitoring.run();
+					return response;
+				}
+				return new ConditionalStream(
+						new MonitoredInputStream(response.getContent(), monitor, stopMonitoring),
+						response.getValidator());
+			}
 		};
 	}
+
+	/**
+	 * Response content that can still be aborted by canceling the request's monitor while it is read.
+	 */
+	private static final class MonitoredInputStream extends FilterInputStream {
+
+		private final IProgressMonitor monitor;
+
+		private final Runnable stopMonitoring;
+
+		MonitoredInputStream(InputStream in, IProgressMonitor monitor, Runnable stopMonitoring) {
+			super(in);
+			this.monitor = monitor;
+			this.stopMonitoring = stopMonitoring;
+		}
+
+		@Override
+		public int read() throws IOException {
+			try {
+				return super.read();
+			} catch (IOException ex) {
+				throw handleReadException(ex);
+			}
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			try {
+				return super.read(b, off, len);
+			} catch (IOException ex) {
+				throw handleReadException(ex);
+			}
+		}
+
+		private IOException handleReadException(IOException ex) {
+			if (monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			return ex;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				super.close();
+			} finally {
+				stopMonitoring.run();
+			}
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2018, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -15,11 +15,15 @@ package org.eclipse.epp.internal.mpc.core.transport.httpclient;
 import org.apache.hc.client5.http.auth.CredentialsStore;
 import org.apache.hc.client5.http.cookie.CookieStore;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
 
 public class HttpServiceContext {
 
 	private final CloseableHttpClient client;
 
+	private final PoolingHttpClientConnectionManager connectionManager;
+
 	private final CookieStore cookieStore;
 
 	private final CredentialsStore credentialsProvider;
@@ -28,9 +32,11 @@ public class HttpServiceContext {
 
 	private final CredentialsStore initialCredentialsProvider;
 
-	HttpServiceContext(CloseableHttpClient client, CookieStore cookieStore, CredentialsStore credentialsProvider,
+	HttpServiceContext(CloseableHttpClient client, PoolingHttpClientConnectionManager connectionManager,
+			CookieStore cookieStore, CredentialsStore credentialsProvider,
 			CredentialsStore initialCredentialsProvider, CredentialsStore credentialsCacheProvider) {
 		this.client = client;
+		this.connectionManager = connectionManager;
 		this.cookieStore = cookieStore;
 		this.credentialsProvider = credentialsProvider;
 		this.initialCredentialsProvider = initialCredentialsProvider;
@@ -41,6 +47,14 @@ public class HttpServiceContext {
 		return client;
 	}
 
+	/**
+	 * @return the current usage of the connection pool - leased, available and pending connections - or null if the
+	 *         client isn't using a pooling connection manager
+	 */
+	public PoolStats getPoolStats() {
+		return connectionManager == null ? null : connectionManager.getTotalStats();
+	}
+
 	public CookieStore getCookieStore() {
 		return cookieStore;
 	}
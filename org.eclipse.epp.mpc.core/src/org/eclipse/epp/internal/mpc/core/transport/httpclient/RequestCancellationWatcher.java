@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.transport.httpclient;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
+
+/**
+ * Aborts running requests when their progress monitor is canceled.
+ * <p>
+ * Blocking HTTP calls don't check the monitor, so a single background thread polls the monitors of all registered
+ * requests and cancels a request once its monitor is canceled. This unblocks the thread waiting for the response.
+ * Polling only runs while requests are registered, and the thread goes away when it has been idle for a while.
+ */
+final class RequestCancellationWatcher {
+
+	private static final long POLL_INTERVAL = 200;
+
+	private static final long IDLE_TIMEOUT = 30;
+
+	private static final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+
+	private static ScheduledThreadPoolExecutor executor;
+
+	private static ScheduledFuture<?> pollTask;
+
+	static final class Registration {
+
+		private final Cancellable request;
+
+		private final IProgressMonitor monitor;
+
+		private volatile boolean canceled;
+
+		private Registration(Cancellable request, IProgressMonitor monitor) {
+			this.request = request;
+			this.monitor = monitor;
+		}
+
+		/**
+		 * @return true if the request was aborted because its monitor was canceled
+		 */
+		boolean isCanceled() {
+			return canceled;
+		}
+
+		void close() {
+			registrations.remove(this);
+		}
+	}
+
+	private RequestCancellationWatcher() {
+	}
+
+	static Registration register(ClassicHttpRequest request, IProgressMonitor monitor) {
+		Cancellable cancellable = request instanceof Cancellable ? (Cancellable) request : null;
+		Registration registration = new Registration(cancellable, monitor);
+		if (cancellable != null && monitor != null) {
+			registrations.add(registration);
+			startPolling();
+		}
+		return registration;
+	}
+
+	private static synchronized void startPolling() {
+		if (pollTask != null) {
+			return;
+		}
+		if (executor == null) {
+			executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, "Marketplace Request Cancellation"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.setKeepAliveTime(IDLE_TIMEOUT, TimeUnit.SECONDS);
+			executor.allowCoreThreadTimeOut(true);
+			executor.setRemoveOnCancelPolicy(true);
+		}
+		pollTask = executor.scheduleWithFixedDelay(RequestCancellationWatcher::cancelRequests, POLL_INTERVAL,
+				POLL_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop polling once no requests are left. New registrations start it again.
+	 */
+	private static synchronized void stopPollingIfIdle() {
+		if (pollTask != null && registrations.isEmpty()) {
+			pollTask.cancel(false);
+			pollTask = null;
+		}
+	}
+
+	private static void cancelRequests() {
+		for (Registration registration : registrations) {
+			try {
+				if (registration.monitor.isCanceled()) {
+					registrations.remove(registration);
+					registration.canceled = true;
+					registration.request.cancel();
+				}
+			} catch (RuntimeException ex) {
+				//keep watching the other requests
+				registrations.remove(registration);
+				MarketplaceClientCore.error(ex);
+			}
+		}
+		stopPollingIfIdle();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -26,6 +26,8 @@ import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 
 
 public abstract class RequestTemplate<T> {
@@ -40,13 +42,54 @@ public abstract class RequestTemplate<T> {
 
 	public T execute(HttpClientService client, URI uri, boolean closeResponse)
 			throws ClientProtocolException, IOException {
+		return execute(client, uri, closeResponse, null);
+	}
+
+	/**
+	 * Execute the request and abort it if the given monitor is canceled before the response has been handled.
+	 *
+	 * @throws OperationCanceledException
+	 *             if the monitor was canceled
+	 */
+	public T execute(HttpClientService client, URI uri, boolean closeResponse, IProgressMonitor monitor)
+			throws ClientProtocolException, IOException {
 		ClassicHttpRequest request = createRequest(uri);
 		request = configureRequest(client, request);
-		ClassicHttpResponse response = client.execute(request);
-		T handledResponse = handleResponse(response);
-		if (closeResponse) {
-			response.close();
+		if (monitor != null && monitor.isCanceled()) {
+			throw new OperationCanceledException();
 		}
+		RequestCancellationWatcher.Registration cancellation = RequestCancellationWatcher.register(request, monitor);
+		boolean monitoring = false;
+		try {
+			ClassicHttpResponse response = client.execute(request);
+			T handledResponse = handleResponse(response);
+			if (closeResponse) {
+				response.close();
+				return handledResponse;
+			}
+			handledResponse = monitorResponse(handledResponse, monitor, cancellation::close);
+			monitoring = true;
+			return handledResponse;
+		} catch (IOException ex) {
+			if (cancellation.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			throw ex;
+		} finally {
+			if (!monitoring) {
+				cancellation.close();
+			}
+		}
+	}
+
+	/**
+	 * Called for responses that are consumed after {@link #execute(HttpClientService, URI, boolean, IProgressMonitor)
+	 * execute()} returns, like streamed content. Implementations can keep the request cancelable until the response has
+	 * been consumed, and then run the given <code>stopMonitoring</code> callback. The default implementation stops
+	 * monitoring right away.
+	 */
+	protected T monitorResponse(T handledResponse, IProgressMonitor monitor, Runnable stopMonitoring) {
+		stopMonitoring.run();
 		return handledResponse;
 	}
 
@@ -58,16 +101,23 @@ public abstract class RequestTemplate<T> {
 	}
 
 	protected T handleResponse(ClassicHttpResponse response) throws ClientProtocolException, IOException {
-		HttpEntity entity = null;
 		try {
-			entity = response.getEntity();
-			handleResponseStatus(response.getCode(), response.getReasonPhrase());
-			return handleResponseEntity(entity);
+			return handleOpenResponse(response);
 		} finally {
-			closeResponse(response, entity);
+			closeResponse(response, response.getEntity());
 		}
 	}
 
+	/**
+	 * Like {@link #handleResponse(ClassicHttpResponse)}, but leaves the response open, so its content can be streamed
+	 * after the request returns.
+	 */
+	protected T handleOpenResponse(ClassicHttpResponse response) throws ClientProtocolException, IOException {
+		HttpEntity entity = response.getEntity();
+		handleResponseStatus(response.getCode(), response.getReasonPhrase());
+		return handleResponseEntity(entity);
+	}
+
 	protected T handleResponseEntity(HttpEntity entity) throws IOException {
 		if (entity == null) {
 			return handleEmptyResponse();
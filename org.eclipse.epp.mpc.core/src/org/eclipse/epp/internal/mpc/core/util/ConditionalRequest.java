@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.util;
+
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.net.URI;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.epp.internal.mpc.core.transport.httpclient.CacheValidator;
+import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientTransport;
+import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientTransport.ConditionalStream;
+import org.eclipse.epp.mpc.core.service.ITransport;
+import org.eclipse.epp.mpc.core.service.ServiceUnavailableException;
+
+/**
+ * Streams content with a conditional request, so content that is cached locally isn't downloaded again if it didn't
+ * change. Transports that don't support conditional requests always return the content.
+ */
+public final class ConditionalRequest {
+
+	/**
+	 * The response to a conditional request.
+	 */
+	public static final class Response {
+
+		private final InputStream content;
+
+		private final String entityTag;
+
+		private final String lastModified;
+
+		Response(InputStream content, String entityTag, String lastModified) {
+			this.content = content;
+			this.entityTag = entityTag;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * @return the response content, or null if the resource was not modified
+		 */
+		public InputStream getContent() {
+			return content;
+		}
+
+		/**
+		 * @return the <code>ETag</code> of the returned content, or null if the server didn't send one
+		 */
+		public String getEntityTag() {
+			return entityTag;
+		}
+
+		/**
+		 * @return the <code>Last-Modified</code> date of the returned content, or null if the server didn't send one
+		 */
+		public String getLastModified() {
+			return lastModified;
+		}
+
+		public boolean isNotModified() {
+			return content == null;
+		}
+	}
+
+	private ConditionalRequest() {
+	}
+
+	/**
+	 * Stream the given location, unless it is unchanged since the given validators were issued.
+	 *
+	 * @param entityTag
+	 *            the <code>ETag</code> of the locally available content, or null
+	 * @param lastModified
+	 *            the <code>Last-Modified</code> date of the locally available content, or null
+	 */
+	public static Response stream(ITransport transport, URI location, String entityTag, String lastModified,
+			IProgressMonitor monitor) throws FileNotFoundException, ServiceUnavailableException, CoreException {
+		if (transport instanceof HttpClientTransport) {
+			CacheValidator validator = entityTag == null && lastModified == null ? null
+					: new CacheValidator(entityTag, lastModified);
+			ConditionalStream response = ((HttpClientTransport) transport).streamConditional(location, validator,
+					monitor);
+			CacheValidator responseValidator = response.getValidator();
+			return new Response(response.getContent(),
+					responseValidator == null ? null : responseValidator.getEntityTag(),
+					responseValidator == null ? null : responseValidator.getLastModified());
+		}
+		return new Response(transport.stream(location, monitor), null, null);
+	}
+}
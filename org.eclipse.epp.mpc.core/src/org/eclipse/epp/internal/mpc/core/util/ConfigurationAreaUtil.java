@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.util;
+
+import java.io.File;
+import java.net.URL;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.URIUtil;
+import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
+import org.eclipse.osgi.service.datalocation.Location;
+
+public class ConfigurationAreaUtil {
+
+	/**
+	 * @return the local configuration area of the running platform, or null if it is not available as a local
+	 *         directory
+	 */
+	public static File getConfigurationArea() {
+		Location configurationLocation = Platform.getConfigurationLocation();
+		URL url = configurationLocation == null ? null : configurationLocation.getURL();
+		if (url == null) {
+			return null;
+		}
+		try {
+			url = FileLocator.resolve(url);
+			if (!"file".equals(url.getProtocol())) { //$NON-NLS-1$
+				return null;
+			}
+			return URIUtil.toFile(URIUtil.toURI(url));
+		} catch (Exception e) {
+			MarketplaceClientCore.error(e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return the given bundle's private directory inside the {@link #getConfigurationArea() configuration area}, or
+	 *         null if there is no local configuration area
+	 */
+	public static File getConfigurationArea(String bundleId) {
+		File configurationArea = getConfigurationArea();
+		return configurationArea == null ? null : new File(configurationArea, bundleId);
+	}
+}
@@ -0,0 +1,458 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.core.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
+
+/**
+ * A size-bounded cache of downloaded content on disk, which survives restarts.
+ * <p>
+ * Each entry's content is stored as-is in a file named after a hash of its key, so it can be handed out as a local
+ * file. Next to it, a small metadata file keeps the key and the validators needed to revalidate the content with the
+ * server. Both are written to temporary files first and then renamed, so readers never see a partially written entry.
+ * When the total size of the content exceeds the limit, the least recently used entries are deleted. The access order
+ * is kept in the content files' modification time, so it survives restarts as well. Users of the content files can
+ * register an {@link EvictionListener} to learn when a file is gone.
+ * <p>
+ * The timestamp of an entry is stored at a fixed position right after the format marker, so it can be updated in place
+ * when the server confirms the content, without rewriting it.
+ */
+public class PersistentCache {
+
+	private static final int FORMAT_MAGIC = 0x4D504333; // "MPC3"
+
+	private static final int TIMESTAMP_OFFSET = 4;
+
+	private static final String CONTENT_SUFFIX = ".data"; //$NON-NLS-1$
+
+	private static final String META_SUFFIX = ".meta"; //$NON-NLS-1$
+
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
+	/**
+	 * Notified when cached entries are deleted to make room for new ones.
+	 */
+	public interface EvictionListener {
+
+		/**
+		 * @param file
+		 *            the deleted {@link Entry#getFile() content file}
+		 */
+		void evicted(File file);
+	}
+
+	/**
+	 * A cached response.
+	 */
+	public static final class Entry {
+		private final String key;
+
+		private final File file;
+
+		private final String entityTag;
+
+		private final String lastModified;
+
+		private final long timestamp;
+
+		Entry(String key, File file, String entityTag, String lastModified, long timestamp) {
+			this.key = key;
+			this.file = file;
+			this.entityTag = entityTag;
+			this.lastModified = lastModified;
+			this.timestamp = timestamp;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * @return the file holding the content
+		 */
+		public File getFile() {
+			return file;
+		}
+
+		/**
+		 * Read the content into memory.
+		 *
+		 * @throws IOException
+		 *             if the content file can't be read, e.g. because it has been evicted in the meantime
+		 */
+		public byte[] getContent() throws IOException {
+			return Files.readAllBytes(file.toPath());
+		}
+
+		public String getEntityTag() {
+			return entityTag;
+		}
+
+		public String getLastModified() {
+			return lastModified;
+		}
+
+		/**
+		 * @return the time in milliseconds when the content was last retrieved or confirmed by the server
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+	}
+
+	private final File directory;
+
+	private final long maxSize;
+
+	//base file name to content size, in access order
+	private final Map<String, Long> entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long size;
+
+	private boolean initialized;
+
+	private final List<EvictionListener> evictionListeners = new CopyOnWriteArrayList<>();
+
+	public PersistentCache(File directory, long maxSize) {
+		if (directory == null || maxSize <= 0) {
+			throw new IllegalArgumentException();
+		}
+		this.directory = directory;
+		this.maxSize = maxSize;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	public void addEvictionListener(EvictionListener listener) {
+		evictionListeners.add(listener);
+	}
+
+	public void removeEvictionListener(EvictionListener listener) {
+		evictionListeners.remove(listener);
+	}
+
+	/**
+	 * @return the total size of the cached content
+	 */
+	public synchronized long getSize() {
+		init();
+		return size;
+	}
+
+	/**
+	 * @return the cached entry for the given key, or null if there is none or it can't be read
+	 */
+	public Entry get(String key) {
+		String baseName = baseName(key);
+		synchronized (this) {
+			init();
+			if (entrySizes.get(baseName) == null) {
+				return null;
+			}
+		}
+		Entry entry;
+		try {
+			entry = readMetadata(baseName);
+		} catch (IOException e) {
+			entry = null;
+		}
+		if (entry == null || !key.equals(entry.getKey())) {
+			//unreadable or hash collision
+			if (entry == null) {
+				remove(key);
+			}
+			return null;
+		}
+		entry.getFile().setLastModified(System.currentTimeMillis());
+		return entry;
+	}
+
+	/**
+	 * Store the given content, replacing any previously cached content for the key. Failures are logged.
+	 */
+	public void put(String key, byte[] content, String entityTag, String lastModified) {
+		try {
+			put(key, new ByteArrayInputStream(content), entityTag, lastModified);
+		} catch (IOException e) {
+			MarketplaceClientCore.getLog().log(
+					new Status(IStatus.WARNING, MarketplaceClientCore.BUNDLE_ID, e.getMessage(), e));
+		}
+	}
+
+	/**
+	 * Store the given content, replacing any previously cached content for the key. The content is copied to disk
+	 * without buffering it in memory. The content file of an entry stays the same when it is replaced, so it can be
+	 * handed out for as long as the entry is cached.
+	 *
+	 * @return the stored entry
+	 */
+	public Entry put(String key, InputStream content, String entityTag, String lastModified) throws IOException {
+		String baseName = baseName(key);
+		File file = new File(directory, baseName + CONTENT_SUFFIX);
+		Entry entry = new Entry(key, file, entityTag, lastModified, System.currentTimeMillis());
+		synchronized (this) {
+			//before writing, so the temporary file isn't taken for a leftover
+			init();
+		}
+		ensureDirectory();
+		long fileSize;
+		File tempFile = File.createTempFile(baseName, TEMP_SUFFIX, directory);
+		try {
+			fileSize = Files.copy(content, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			move(tempFile, file);
+			//written last, so an interrupted update leaves outdated validators, which just cause another download
+			writeMetadata(baseName, entry);
+		} finally {
+			tempFile.delete();
+		}
+		List<File> evicted;
+		synchronized (this) {
+			init();
+			Long previousSize = entrySizes.put(baseName, fileSize);
+			if (previousSize != null) {
+				size -= previousSize;
+			}
+			size += fileSize;
+			evicted = evict(baseName);
+		}
+		for (File evictedFile : evicted) {
+			for (EvictionListener listener : evictionListeners) {
+				listener.evicted(evictedFile);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Mark the cached content for the given key as confirmed by the server, e.g. after a <code>304 Not Modified</code>
+	 * response.
+	 *
+	 * @return the updated entry, or null if the content isn't cached anymore
+	 */
+	public Entry touch(String key) {
+		Entry entry = get(key);
+		if (entry == null) {
+			return null;
+		}
+		long timestamp = System.currentTimeMillis();
+		File metaFile = new File(directory, baseName(key) + META_SUFFIX);
+		try (RandomAccessFile out = new RandomAccessFile(metaFile, "rw")) { //$NON-NLS-1$
+			out.seek(TIMESTAMP_OFFSET);
+			out.writeLong(timestamp);
+		} catch (IOException e) {
+			//unreadable, or removed in the meantime
+			remove(key);
+			return null;
+		}
+		return new Entry(key, entry.getFile(), entry.getEntityTag(), entry.getLastModified(), timestamp);
+	}
+
+	public void remove(String key) {
+		String baseName = baseName(key);
+		synchronized (this) {
+			init();
+			Long entrySize = entrySizes.remove(baseName);
+			if (entrySize != null) {
+				size -= entrySize;
+			}
+		}
+		delete(baseName);
+	}
+
+	public synchronized void clear() {
+		init();
+		for (String baseName : entrySizes.keySet()) {
+			delete(baseName);
+		}
+		entrySizes.clear();
+		size = 0;
+	}
+
+	/**
+	 * @return the deleted content files
+	 */
+	private List<File> evict(String keepBaseName) {
+		List<File> evicted = Collections.emptyList();
+		for (Iterator<Map.Entry<String, Long>> i = entrySizes.entrySet().iterator(); size > maxSize && i.hasNext();) {
+			Map.Entry<String, Long> eldest = i.next();
+			String baseName = eldest.getKey();
+			if (baseName.equals(keepBaseName)) {
+				continue;
+			}
+			i.remove();
+			size -= eldest.getValue();
+			delete(baseName);
+			if (evicted.isEmpty()) {
+				evicted = new ArrayList<>();
+			}
+			evicted.add(new File(directory, baseName + CONTENT_SUFFIX));
+		}
+		return evicted;
+	}
+
+	private void delete(String baseName) {
+		new File(directory, baseName + META_SUFFIX).delete();
+		new File(directory, baseName + CONTENT_SUFFIX).delete();
+	}
+
+	private void init() {
+		if (initialized) {
+			return;
+		}
+		initialized = true;
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		Set<String> metaFiles = new HashSet<>();
+		for (File file : files) {
+			if (file.getName().endsWith(META_SUFFIX)) {
+				metaFiles.add(file.getName());
+			}
+		}
+		//restore LRU order from file modification times
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (File file : files) {
+			String name = file.getName();
+			if (name.endsWith(CONTENT_SUFFIX)) {
+				String baseName = name.substring(0, name.length() - CONTENT_SUFFIX.length());
+				if (metaFiles.remove(baseName + META_SUFFIX)) {
+					long fileSize = file.length();
+					entrySizes.put(baseName, fileSize);
+					size += fileSize;
+					continue;
+				}
+			} else if (name.endsWith(META_SUFFIX)) {
+				continue;
+			}
+			//left over from an interrupted write, content without metadata, or an older format
+			file.delete();
+		}
+		for (String metaFile : metaFiles) {
+			//metadata without content
+			new File(directory, metaFile).delete();
+		}
+		evict(null);
+	}
+
+	private Entry readMetadata(String baseName) throws IOException {
+		File metaFile = new File(directory, baseName + META_SUFFIX);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(metaFile)))) {
+			if (in.readInt() != FORMAT_MAGIC) {
+				return null;
+			}
+			long timestamp = in.readLong();
+			String key = in.readUTF();
+			String entityTag = readOptionalString(in);
+			String lastModified = readOptionalString(in);
+			File file = new File(directory, baseName + CONTENT_SUFFIX);
+			return file.isFile() ? new Entry(key, file, entityTag, lastModified, timestamp) : null;
+		}
+	}
+
+	private void writeMetadata(String baseName, Entry entry) throws IOException {
+		File metaFile = new File(directory, baseName + META_SUFFIX);
+		File tempFile = File.createTempFile(metaFile.getName(), TEMP_SUFFIX, directory);
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(FORMAT_MAGIC);
+				out.writeLong(entry.getTimestamp());
+				out.writeUTF(entry.getKey());
+				writeOptionalString(out, entry.getEntityTag());
+				writeOptionalString(out, entry.getLastModified());
+			}
+			move(tempFile, metaFile);
+		} finally {
+			tempFile.delete();
+		}
+	}
+
+	private void ensureDirectory() throws IOException {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException(directory.getAbsolutePath());
+		}
+	}
+
+	private static void move(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static String readOptionalString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	private static void writeOptionalString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String baseName(String key) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+			StringBuilder name = new StringBuilder(hash.length * 2);
+			for (byte b : hash) {
+				name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return name.toString();
+		} catch (NoSuchAlgorithmException e) {
+			//SHA-256 is required on every Java platform
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.core.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.epp.mpc.core.model.ICategory;
+import org.eclipse.epp.mpc.core.model.IFavoriteList;
+import org.eclipse.epp.mpc.core.model.IMarket;
+import org.eclipse.epp.mpc.core.model.INews;
+import org.eclipse.epp.mpc.core.model.INode;
+import org.eclipse.epp.mpc.core.model.ISearchResult;
+
+/**
+ * A non-blocking variant of the {@link IMarketplaceService} API. Each method starts its request in the background and
+ * returns a future for the result, so independent requests can run in parallel.
+ * <p>
+ * Canceling a returned future cancels the request, including a running HTTP request. Cancellation does not propagate
+ * from futures derived from the returned ones, e.g. with {@link CompletableFuture#thenApply(java.util.function.Function)
+ * thenApply()}. Failures complete the future exceptionally with the {@link org.eclipse.core.runtime.CoreException
+ * CoreException} the corresponding blocking method would have thrown.
+ *
+ * @noimplement This interface is not intended to be implemented by clients.
+ * @noextend This interface is not intended to be extended by clients.
+ * @see IMarketplaceService
+ */
+public interface IAsyncMarketplaceService extends IMarketplaceService {
+
+	/**
+	 * @see #listMarkets(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<List<? extends IMarket>> listMarkets();
+
+	/**
+	 * @see #getMarket(IMarket, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<IMarket> getMarket(IMarket market);
+
+	/**
+	 * @see #getCategory(ICategory, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ICategory> getCategory(ICategory category);
+
+	/**
+	 * @see #getNode(INode, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<INode> getNode(INode node);
+
+	/**
+	 * @see #getNodes(Collection, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<List<INode>> getNodes(Collection<? extends INode> nodes);
+
+	/**
+	 * @see #search(IMarket, ICategory, String, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> search(IMarket market, ICategory category, String queryText);
+
+	/**
+	 * @see #tagged(String, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> tagged(String tag);
+
+	/**
+	 * @see #tagged(List, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> tagged(List<String> tags);
+
+	/**
+	 * @see #featured(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> featured();
+
+	/**
+	 * @see #featured(IMarket, ICategory, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> featured(IMarket market, ICategory category);
+
+	/**
+	 * @see #recent(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> recent();
+
+	/**
+	 * @see #topFavorites(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> topFavorites();
+
+	/**
+	 * @see #popular(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> popular();
+
+	/**
+	 * @see #related(List, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> related(List<? extends INode> basedOn);
+
+	/**
+	 * @see #userFavorites(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<ISearchResult> userFavorites();
+
+	/**
+	 * @see #userFavorites(List, org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<Void> userFavorites(List<? extends INode> nodes);
+
+	/**
+	 * @see #userFavoriteLists(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<List<IFavoriteList>> userFavoriteLists();
+
+	/**
+	 * @see #news(org.eclipse.core.runtime.IProgressMonitor)
+	 */
+	CompletableFuture<INews> news();
+}
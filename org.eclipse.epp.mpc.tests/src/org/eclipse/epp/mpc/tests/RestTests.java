@@ -12,10 +12,16 @@
  *******************************************************************************/
 package org.eclipse.epp.mpc.tests;
 
+import org.eclipse.epp.mpc.tests.service.CachingCatalogServiceTest;
 import org.eclipse.epp.mpc.tests.service.CatalogServiceTest;
 import org.eclipse.epp.mpc.tests.service.DefaultMarketplaceServiceTest;
+import org.eclipse.epp.mpc.tests.service.MarketplaceServiceCacheTest;
+import org.eclipse.epp.mpc.tests.service.RequestCoalescerTest;
 import org.eclipse.epp.mpc.tests.service.SolutionCompatibilityFilterTest;
+import org.eclipse.epp.mpc.tests.service.xml.StreamingUnmarshallerTest;
+import org.eclipse.epp.mpc.tests.service.xml.StripInvalidXMLCharsReaderTest;
 import org.eclipse.epp.mpc.tests.service.xml.UnmarshallerTest;
+import org.eclipse.epp.mpc.tests.util.PersistentCacheTest;
 import org.eclipse.epp.mpc.tests.util.ProxyConfigurationTest;
 import org.eclipse.epp.mpc.tests.util.TextUtilTest;
 import org.eclipse.epp.mpc.tests.util.TransportFactoryTest;
@@ -29,10 +35,16 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({ //
 	ProxyConfigurationTest.class, //
 	UnmarshallerTest.class, //
+	StreamingUnmarshallerTest.class, //
+	StripInvalidXMLCharsReaderTest.class, //
 	TextUtilTest.class, //
 	TransportFactoryTest.class, //
 	CatalogServiceTest.class, //
+	CachingCatalogServiceTest.class, //
 	DefaultMarketplaceServiceTest.class, //
+	MarketplaceServiceCacheTest.class, //
+	PersistentCacheTest.class, //
+	RequestCoalescerTest.class, //
 	SolutionCompatibilityFilterTest.class
 })
 public class RestTests {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -13,10 +13,19 @@
 package org.eclipse.epp.mpc.tests;
 
 import org.eclipse.epp.mpc.tests.ui.catalog.CatalogDescriptorTest;
+import org.eclipse.epp.mpc.tests.ui.catalog.DownloadSchedulerTest;
+import org.eclipse.epp.mpc.tests.ui.catalog.InstalledIUIndexTest;
 import org.eclipse.epp.mpc.tests.ui.catalog.MarketplaceInfoSerializationTest;
 import org.eclipse.epp.mpc.tests.ui.catalog.MarketplaceInfoTest;
+import org.eclipse.epp.mpc.tests.ui.catalog.RepositoryVersionIndexTest;
+import org.eclipse.epp.mpc.tests.ui.catalog.ResourceCacheTest;
+import org.eclipse.epp.mpc.tests.ui.catalog.UpdateSiteCheckerTest;
+import org.eclipse.epp.mpc.tests.ui.operations.ResolutionCacheTest;
 import org.eclipse.epp.mpc.tests.ui.wizard.MarketplaceUrlHandlerTest;
+import org.eclipse.epp.mpc.tests.ui.wizard.ScaledImageCacheTest;
 import org.eclipse.epp.mpc.tests.ui.wizard.SelectionModelStateSerializerTest;
+import org.eclipse.epp.mpc.tests.ui.wizard.VirtualItemControllerTest;
+import org.eclipse.epp.mpc.tests.util.UtilTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite.SuiteClasses;
 
@@ -29,7 +38,16 @@ import org.junit.runners.Suite.SuiteClasses;
 	MarketplaceUrlHandlerTest.class, //
 	MarketplaceInfoTest.class, //
 	MarketplaceInfoSerializationTest.class, //
-	CatalogDescriptorTest.class //
+	CatalogDescriptorTest.class, //
+	UpdateSiteCheckerTest.class, //
+	RepositoryVersionIndexTest.class, //
+	DownloadSchedulerTest.class, //
+	ResourceCacheTest.class, //
+	InstalledIUIndexTest.class, //
+	ResolutionCacheTest.class, //
+	VirtualItemControllerTest.class, //
+	ScaledImageCacheTest.class, //
+	UtilTest.class //
 
 })
 public class UITests {
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.epp.internal.mpc.core.model.Catalog;
+import org.eclipse.epp.internal.mpc.core.model.CatalogBranding;
+import org.eclipse.epp.internal.mpc.core.service.CachingCatalogService;
+import org.eclipse.epp.mpc.core.model.ICatalog;
+import org.eclipse.epp.mpc.core.service.ICatalogService;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingCatalogServiceTest {
+
+	private static class MockCatalogService implements ICatalogService {
+
+		private final AtomicInteger requests = new AtomicInteger();
+
+		private volatile List<Catalog> catalogs = createCatalogs("mock");
+
+		@Override
+		public List<? extends ICatalog> listCatalogs(IProgressMonitor monitor) throws CoreException {
+			requests.incrementAndGet();
+			return catalogs;
+		}
+	}
+
+	private MockCatalogService delegate;
+
+	private CachingCatalogService catalogService;
+
+	@Before
+	public void setUp() {
+		delegate = new MockCatalogService();
+		catalogService = new CachingCatalogService(delegate);
+	}
+
+	@Test
+	public void testListCatalogsOnce() throws Exception {
+		assertNull(catalogService.getCachedCatalogs());
+
+		List<? extends ICatalog> catalogs = catalogService.listCatalogs(new NullProgressMonitor());
+		assertSame(delegate.catalogs, catalogs);
+		assertSame(catalogs, catalogService.getCachedCatalogs());
+
+		assertSame(catalogs, catalogService.listCatalogs(new NullProgressMonitor()));
+		assertEquals(1, delegate.requests.get());
+	}
+
+	@Test
+	public void testRefreshNotifiesChanges() throws Exception {
+		List<List<? extends ICatalog>> notifications = Collections.synchronizedList(new ArrayList<>());
+		catalogService.addCatalogListener(notifications::add);
+		catalogService.listCatalogs(new NullProgressMonitor());
+
+		catalogService.refresh();
+		catalogService.getRefreshJob().join();
+		assertEquals(2, delegate.requests.get());
+		assertEquals(0, notifications.size());
+
+		//a new response with the same content
+		delegate.catalogs = createCatalogs("mock");
+		catalogService.refresh();
+		catalogService.getRefreshJob().join();
+		assertEquals(3, delegate.requests.get());
+		assertEquals(0, notifications.size());
+
+		delegate.catalogs = createCatalogs("changed");
+		catalogService.refresh();
+		catalogService.getRefreshJob().join();
+		assertEquals(1, notifications.size());
+		assertSame(delegate.catalogs, notifications.get(0));
+		assertSame(delegate.catalogs, catalogService.listCatalogs(new NullProgressMonitor()));
+
+		//same id, but new branding
+		List<Catalog> rebranded = createCatalogs("changed");
+		CatalogBranding branding = new CatalogBranding();
+		branding.setWizardTitle("Rebranded");
+		rebranded.get(0).setBranding(branding);
+		delegate.catalogs = rebranded;
+		catalogService.refresh();
+		catalogService.getRefreshJob().join();
+		assertEquals(2, notifications.size());
+		assertSame(rebranded, notifications.get(1));
+	}
+
+	private static List<Catalog> createCatalogs(String id) {
+		Catalog catalog = new Catalog();
+		catalog.setId(id);
+		catalog.setUrl("https://marketplace.example.org/" + id);
+		return Collections.singletonList(catalog);
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.epp.internal.mpc.core.service.MarketplaceServiceCache;
+import org.eclipse.epp.internal.mpc.core.service.MarketplaceServiceCache.Statistics;
+import org.junit.Test;
+
+public class MarketplaceServiceCacheTest {
+
+	@Test
+	public void testHitAndMissCounters() {
+		MarketplaceServiceCache cache = new MarketplaceServiceCache(100);
+		Object node = new Object();
+		cache.put("Node:1", node);
+
+		assertSame(node, cache.get("Node:1"));
+		assertNull(cache.get("Node:2"));
+
+		Statistics statistics = cache.getStatistics();
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(1, statistics.getSize());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		//node segment gets half of the total weight
+		MarketplaceServiceCache cache = new MarketplaceServiceCache(6);
+		Object node1 = new Object();
+		Object node2 = new Object();
+		Object node3 = new Object();
+		Object node4 = new Object();
+		cache.put("Node:1", node1);
+		cache.put("Node:2", node2);
+		cache.put("Node:3", node3);
+		cache.get("Node:1");
+		cache.put("Node:4", node4);
+
+		assertSame(node1, cache.get("Node:1"));
+		assertNull(cache.get("Node:2"));
+		assertSame(node3, cache.get("Node:3"));
+		assertSame(node4, cache.get("Node:4"));
+		assertEquals(1, cache.getStatistics().getEvictionCount());
+	}
+
+	@Test
+	public void testSegmentsAreBoundedIndependently() {
+		MarketplaceServiceCache cache = new MarketplaceServiceCache(10);
+		Object market = new Object();
+		cache.put("Market:1", market);
+		for (int i = 0; i < 20; i++) {
+			cache.put("Node:" + i, new Object());
+		}
+		assertSame(market, cache.get("Market:1"));
+		assertEquals(6, cache.getStatistics().getSize());
+	}
+
+	@Test
+	public void testWeightOfCollections() {
+		MarketplaceServiceCache cache = new MarketplaceServiceCache(100);
+		cache.put("Markets:Markets", Arrays.asList("a", "b", "c"));
+		assertEquals(4, cache.getStatistics().getWeight());
+
+		cache.remove("Markets:Markets");
+		assertEquals(0, cache.getStatistics().getWeight());
+		assertNull(cache.get("Markets:Markets"));
+	}
+
+	@Test
+	public void testExpiredEntriesAreMisses() {
+		MarketplaceServiceCache cache = new MarketplaceServiceCache(100);
+		Object node = new Object();
+		cache.put("Node:1", node, 0);
+		cache.put("Node:2", node, TimeUnit.HOURS.toMillis(1));
+
+		assertNull(cache.get("Node:1"));
+		assertSame(node, cache.get("Node:2"));
+		assertEquals(1, cache.getStatistics().getSize());
+	}
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.epp.internal.mpc.core.service.RequestCoalescer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestCoalescerTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testConcurrentRequestsShareResult() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger executions = new AtomicInteger();
+		Object result = new Object();
+
+		Future<Object> leader = executor.submit(() -> coalescer.execute("Node:1", monitor -> {
+			executions.incrementAndGet();
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new OperationCanceledException();
+			}
+			return result;
+		}, new NullProgressMonitor()));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		Future<Object> follower = executor.submit(() -> coalescer.execute("Node:1", monitor -> {
+			executions.incrementAndGet();
+			return new Object();
+		}, new NullProgressMonitor()));
+		while (coalescer.getCoalescedCount() == 0) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+
+		assertSame(result, leader.get(10, TimeUnit.SECONDS));
+		assertSame(result, follower.get(10, TimeUnit.SECONDS));
+		assertEquals(1, executions.get());
+		assertEquals(1, coalescer.getCoalescedCount());
+	}
+
+	@Test
+	public void testFollowerRetriesWhenLeaderCanceled() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger executions = new AtomicInteger();
+		Object result = new Object();
+
+		Future<Object> leader = executor.submit(() -> coalescer.execute("Node:1", monitor -> {
+			executions.incrementAndGet();
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new OperationCanceledException();
+			}
+			throw new CoreException(Status.CANCEL_STATUS);
+		}, new NullProgressMonitor()));
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		Future<Object> follower = executor.submit(() -> coalescer.execute("Node:1", monitor -> {
+			executions.incrementAndGet();
+			return result;
+		}, new NullProgressMonitor()));
+		while (coalescer.getCoalescedCount() == 0) {
+			Thread.sleep(10);
+		}
+		release.countDown();
+
+		try {
+			leader.get(10, TimeUnit.SECONDS);
+			fail("Expected leader to fail");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof CoreException);
+		}
+		assertSame(result, follower.get(10, TimeUnit.SECONDS));
+		assertEquals(2, executions.get());
+	}
+
+	@Test
+	public void testCompletedRequestsAreNotShared() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		Object first = coalescer.execute("Node:1", monitor -> new Object(), null);
+		Object second = coalescer.execute("Node:1", monitor -> new Object(), null);
+		assertTrue(first != second);
+		assertEquals(0, coalescer.getCoalescedCount());
+	}
+
+	@Test
+	public void testAsyncRequestsShareResult() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		CompletableFuture<Object> request = new CompletableFuture<>();
+		CompletableFuture<Object> first = coalescer.executeAsync("search:::eclipse", () -> request);
+		CompletableFuture<Object> second = coalescer.executeAsync("search:::eclipse", CompletableFuture::new);
+
+		Object result = new Object();
+		request.complete(result);
+		assertSame(result, first.get(10, TimeUnit.SECONDS));
+		assertSame(result, second.get(10, TimeUnit.SECONDS));
+		assertEquals(1, coalescer.getCoalescedCount());
+	}
+
+	@Test
+	public void testAsyncFollowerRetriesWhenLeaderCanceled() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		CompletableFuture<Object> request = new CompletableFuture<>();
+		CompletableFuture<Object> retry = new CompletableFuture<>();
+		CompletableFuture<Object> first = coalescer.executeAsync("search:::eclipse", () -> request);
+		CompletableFuture<Object> second = coalescer.executeAsync("search:::eclipse", () -> retry);
+
+		request.completeExceptionally(new CoreException(Status.CANCEL_STATUS));
+		assertTrue(first.isCancelled());
+		assertFalse(second.isDone());
+
+		Object result = new Object();
+		retry.complete(result);
+		assertSame(result, second.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testAsyncRequestCanceledWithLastCaller() throws Exception {
+		RequestCoalescer coalescer = new RequestCoalescer();
+		CompletableFuture<Object> request = new CompletableFuture<>();
+		CompletableFuture<Object> first = coalescer.executeAsync("featured:::", () -> request);
+		CompletableFuture<Object> second = coalescer.executeAsync("featured:::", CompletableFuture::new);
+
+		first.cancel(true);
+		assertFalse(request.isCancelled());
+		second.cancel(true);
+		assertTrue(request.isCancelled());
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.service.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.epp.internal.mpc.core.model.Marketplace;
+import org.eclipse.epp.internal.mpc.core.model.Node;
+import org.eclipse.epp.internal.mpc.core.model.Search;
+import org.eclipse.epp.internal.mpc.core.service.MarketplaceUnmarshaller;
+import org.eclipse.epp.internal.mpc.core.service.StreamingMarketplaceUnmarshaller;
+import org.junit.Test;
+
+/**
+ * Runs all {@link UnmarshallerTest unmarshaller tests} against the {@link StreamingMarketplaceUnmarshaller}.
+ */
+public class StreamingUnmarshallerTest extends UnmarshallerTest {
+
+	@Override
+	protected MarketplaceUnmarshaller createUnmarshaller() {
+		return new StreamingMarketplaceUnmarshaller();
+	}
+
+	@Test
+	public void nodesStreamedInDocumentOrder() throws Exception {
+		List<Node> streamedNodes = new ArrayList<>();
+		Marketplace marketplace;
+		try (InputStream in = getResourceAsStream("resources/search.xml")) {
+			marketplace = new StreamingMarketplaceUnmarshaller().unmarshal(in, Marketplace.class, streamedNodes::add,
+					new NullProgressMonitor());
+		}
+		Search search = marketplace.getSearch();
+		assertEquals(search.getNode().size(), streamedNodes.size());
+		for (int i = 0; i < streamedNodes.size(); i++) {
+			assertSame(search.getNode().get(i), streamedNodes.get(i));
+		}
+	}
+
+	@Test
+	public void canceledWhileStreaming() throws Exception {
+		NullProgressMonitor monitor = new NullProgressMonitor();
+		List<Node> streamedNodes = new ArrayList<>();
+		try (InputStream in = getResourceAsStream("resources/search.xml")) {
+			new StreamingMarketplaceUnmarshaller().unmarshal(in, Marketplace.class, node -> {
+				streamedNodes.add(node);
+				monitor.setCanceled(true);
+			}, monitor);
+			fail("Expected OperationCanceledException");
+		} catch (OperationCanceledException e) {
+			assertEquals(1, streamedNodes.size());
+			assertTrue(streamedNodes.get(0).getId() != null);
+		}
+	}
+}
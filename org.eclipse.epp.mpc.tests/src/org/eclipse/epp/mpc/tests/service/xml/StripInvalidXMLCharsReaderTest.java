@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.service.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.epp.internal.mpc.core.service.xml.StripInvalidXMLCharsReader;
+import org.eclipse.epp.internal.mpc.core.service.xml.StripInvalidXMLCharsUTF8Reader;
+import org.junit.Test;
+
+public class StripInvalidXMLCharsReaderTest {
+
+	private static final String VALID_TEXT = "<node name=\"M\u00fcnchen \u4e2d\u6587 \ud83d\ude00\">\t\r\n</node>";
+
+	@Test
+	public void validTextUnchanged() throws IOException {
+		assertEquals(VALID_TEXT, readFiltered(VALID_TEXT, 8192));
+		assertEquals(VALID_TEXT, readUTF8(VALID_TEXT.getBytes(StandardCharsets.UTF_8), 8192));
+	}
+
+	@Test
+	public void validTextUnchangedWithSmallReads() throws IOException {
+		//splits multi-byte sequences and surrogate pairs between reads
+		assertEquals(VALID_TEXT, readFiltered(VALID_TEXT, 1));
+		assertEquals(VALID_TEXT, readUTF8(VALID_TEXT.getBytes(StandardCharsets.UTF_8), 1));
+	}
+
+	@Test
+	public void invalidCharsRemoved() throws IOException {
+		String text = "\u0000<mar\u0001\u0002ket\u000bplace>\ufffe\u001f</marketplace>\u0000";
+		String expected = "<marketplace></marketplace>";
+		assertEquals(expected, readFiltered(text, 8192));
+		assertEquals(expected, readFiltered(text, 3));
+		assertEquals(expected, readUTF8(text.getBytes(StandardCharsets.UTF_8), 8192));
+		assertEquals(expected, readUTF8(text.getBytes(StandardCharsets.UTF_8), 3));
+	}
+
+	@Test
+	public void onlyInvalidChars() throws IOException {
+		assertEquals("", readFiltered("\u0000\u0001\u0002", 1));
+		assertEquals("", readUTF8(new byte[] { 0, 1, 2 }, 1));
+	}
+
+	@Test
+	public void loneSurrogatesRemoved() throws IOException {
+		assertEquals("ab", readFiltered("a\udc00b", 8192));
+		assertEquals("ab", readFiltered("a\ud800b", 8192));
+	}
+
+	@Test
+	public void malformedUTF8Replaced() throws IOException {
+		byte[] content = { 'a', (byte) 0x80, 'b', (byte) 0xc0, (byte) 0xaf, 'c', (byte) 0xe4, (byte) 0xb8 };
+		String expected = "a\ufffdb\ufffd\ufffdc\ufffd";
+		assertEquals(expected, readUTF8(content, 8192));
+		assertEquals(expected, readUTF8(content, 1));
+	}
+
+	@Test
+	public void sameResultAsInputStreamReader() throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			text.appendCodePoint(i % 7 == 0 ? 0x1f600 + i % 50 : i % 5 == 0 ? 0x4e00 + i % 1000 : 'a' + i % 26);
+		}
+		byte[] content = text.toString().getBytes(StandardCharsets.UTF_8);
+		String expected = read(new StripInvalidXMLCharsReader(
+				new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8)), 8192);
+		assertEquals(expected, readUTF8(content, 8192));
+		assertEquals(expected, readUTF8(content, 777));
+	}
+
+	private static String readFiltered(String text, int chunkSize) throws IOException {
+		return read(new StripInvalidXMLCharsReader(new StringReader(text)), chunkSize);
+	}
+
+	private static String readUTF8(byte[] content, int chunkSize) throws IOException {
+		return read(new StripInvalidXMLCharsUTF8Reader(new ByteArrayInputStream(content)), chunkSize);
+	}
+
+	private static String read(Reader reader, int chunkSize) throws IOException {
+		StringBuilder result = new StringBuilder();
+		char[] buffer = new char[chunkSize];
+		try (Reader in = reader) {
+			for (int read; (read = in.read(buffer, 0, chunkSize)) != -1;) {
+				result.append(buffer, 0, read);
+			}
+		}
+		return result.toString();
+	}
+}
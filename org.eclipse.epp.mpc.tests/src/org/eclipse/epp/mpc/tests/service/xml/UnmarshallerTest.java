@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2020 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -67,7 +67,11 @@ public class UnmarshallerTest {
 
 	@Before
 	public void before() throws SAXException, ParserConfigurationException {
-		unmarshaller = new MarketplaceUnmarshaller();
+		unmarshaller = createUnmarshaller();
+	}
+
+	protected MarketplaceUnmarshaller createUnmarshaller() {
+		return new MarketplaceUnmarshaller();
 	}
 
 	@Test
@@ -567,7 +571,7 @@ public class UnmarshallerTest {
 		return buffer;
 	}
 
-	private static InputStream getResourceAsStream(String resource) {
+	protected static InputStream getResourceAsStream(String resource) {
 		InputStream in = UnmarshallerTest.class.getResourceAsStream(resource);
 		if (in == null) {
 			throw new IllegalStateException(resource);
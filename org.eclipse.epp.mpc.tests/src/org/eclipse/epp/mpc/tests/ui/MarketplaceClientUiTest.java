@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -91,9 +91,7 @@ public class MarketplaceClientUiTest {
 	public void testOfflineCatalogServiceErrors() throws Exception {
 		// since NoRouteToHost and ConnectExceptions are hard to fake and happen at pretty much the same place,
 		// we only simulate the UnknownHostException case here (by actually using an invalid host address)
-		final DefaultCatalogService catalogService = (DefaultCatalogService) ServiceLocator.getInstance()
-				.getCatalogService();
-		catalogService.setBaseUrl(new URL(UNREACHABLE_MARKETPLACE_URL));
+		final DefaultCatalogService catalogService = new DefaultCatalogService(new URL(UNREACHABLE_MARKETPLACE_URL));
 		try {
 			ServiceLocator.setInstance(new ServiceLocator() {
 				@Override
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.ui.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.epp.internal.mpc.ui.catalog.DownloadScheduler;
+import org.eclipse.epp.internal.mpc.ui.catalog.DownloadScheduler.Download;
+import org.eclipse.epp.mpc.core.service.ITransport;
+import org.junit.After;
+import org.junit.Test;
+
+public class DownloadSchedulerTest {
+
+	private static final long TIMEOUT = 10;
+
+	private final CountDownLatch blocker = new CountDownLatch(1);
+
+	private final Map<String, Integer> runningByHost = new HashMap<>();
+
+	private final Map<String, Integer> maxRunningByHost = new HashMap<>();
+
+	private final List<URI> received = Collections.synchronizedList(new ArrayList<>());
+
+	private int running;
+
+	private int maxRunning;
+
+	private final ITransport transport = new ITransport() {
+
+		@Override
+		public InputStream stream(URI location, IProgressMonitor monitor) {
+			String host = location.getHost();
+			synchronized (DownloadSchedulerTest.this) {
+				running++;
+				maxRunning = Math.max(maxRunning, running);
+				int hostRunning = runningByHost.getOrDefault(host, 0) + 1;
+				runningByHost.put(host, hostRunning);
+				maxRunningByHost.put(host, Math.max(maxRunningByHost.getOrDefault(host, 0), hostRunning));
+			}
+			try {
+				blocker.await(TIMEOUT, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			synchronized (DownloadSchedulerTest.this) {
+				running--;
+				runningByHost.put(host, runningByHost.get(host) - 1);
+			}
+			return new ByteArrayInputStream(location.toString().getBytes());
+		}
+	};
+
+	@After
+	public void tearDown() {
+		blocker.countDown();
+	}
+
+	@Test
+	public void testConcurrencyLimits() throws Exception {
+		DownloadScheduler scheduler = new DownloadScheduler(3, 2, transport);
+		List<TestDownload> downloads = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			downloads.add(new TestDownload("https://a.example.org/" + i, DownloadScheduler.PRIORITY_DEFAULT));
+		}
+		for (int i = 0; i < 2; i++) {
+			downloads.add(new TestDownload("https://b.example.org/" + i, DownloadScheduler.PRIORITY_DEFAULT));
+		}
+		for (TestDownload download : downloads) {
+			scheduler.submit(download);
+		}
+		waitFor(() -> scheduler.getRunningCount() == 3);
+		assertEquals(5, scheduler.getQueueDepth());
+		blocker.countDown();
+		for (TestDownload download : downloads) {
+			assertTrue(download.done.await(TIMEOUT, TimeUnit.SECONDS));
+		}
+
+		assertEquals(3, maxRunning);
+		assertEquals(2, maxRunningByHost.get("a.example.org").intValue());
+		assertEquals(8, scheduler.getCompletedCount());
+		assertEquals(0, scheduler.getQueueDepth());
+		long bytes = 0;
+		for (TestDownload download : downloads) {
+			bytes += download.getLocation().toString().length();
+		}
+		assertEquals(bytes, scheduler.getBytesTransferred());
+	}
+
+	@Test
+	public void testPriority() throws Exception {
+		DownloadScheduler scheduler = new DownloadScheduler(1, 1, transport);
+		TestDownload first = new TestDownload("https://a.example.org/first", DownloadScheduler.PRIORITY_DEFAULT);
+		scheduler.submit(first);
+		waitFor(() -> scheduler.getRunningCount() == 1);
+
+		TestDownload background = new TestDownload("https://a.example.org/background",
+				DownloadScheduler.PRIORITY_BACKGROUND);
+		TestDownload normal = new TestDownload("https://a.example.org/default", DownloadScheduler.PRIORITY_DEFAULT);
+		TestDownload visible = new TestDownload("https://a.example.org/visible", DownloadScheduler.PRIORITY_DEFAULT);
+		scheduler.submit(background);
+		scheduler.submit(normal);
+		scheduler.submit(visible);
+		visible.setPriority(DownloadScheduler.PRIORITY_VISIBLE);
+		blocker.countDown();
+		assertTrue(background.done.await(TIMEOUT, TimeUnit.SECONDS));
+
+		assertEquals(Arrays.asList(first.getLocation(), visible.getLocation(), normal.getLocation(),
+				background.getLocation()), received);
+	}
+
+	@Test
+	public void testSubmitAll() throws Exception {
+		DownloadScheduler scheduler = new DownloadScheduler(3, 3, transport);
+		List<TestDownload> downloads = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			downloads.add(new TestDownload("https://a.example.org/" + i, DownloadScheduler.PRIORITY_DEFAULT));
+		}
+		scheduler.submitAll(downloads);
+		waitFor(() -> scheduler.getRunningCount() == 3);
+		assertEquals(2, scheduler.getQueueDepth());
+
+		TestDownload other = new TestDownload("https://b.example.org/", DownloadScheduler.PRIORITY_DEFAULT);
+		try {
+			scheduler.submitAll(Arrays.asList(other, downloads.get(0)));
+			fail();
+		} catch (IllegalStateException e) {
+			//expected - nothing of the batch is queued
+		}
+		assertEquals(2, scheduler.getQueueDepth());
+
+		blocker.countDown();
+		for (TestDownload download : downloads) {
+			assertTrue(download.done.await(TIMEOUT, TimeUnit.SECONDS));
+		}
+		assertEquals(5, scheduler.getCompletedCount());
+		assertEquals(3, maxRunning);
+	}
+
+	@Test
+	public void testReleaseCancelsQueuedDownload() throws Exception {
+		DownloadScheduler scheduler = new DownloadScheduler(1, 1, transport);
+		TestDownload first = new TestDownload("https://a.example.org/first", DownloadScheduler.PRIORITY_DEFAULT);
+		scheduler.submit(first);
+		waitFor(() -> scheduler.getRunningCount() == 1);
+
+		TestDownload second = new TestDownload("https://a.example.org/second", DownloadScheduler.PRIORITY_DEFAULT);
+		scheduler.submit(second);
+		second.acquire();
+		second.acquire();
+		second.release();
+		assertFalse(second.cancelled.get());
+		second.release();
+		assertTrue(second.cancelled.get());
+		assertTrue(second.isDone());
+		assertEquals(0, scheduler.getQueueDepth());
+		assertEquals(1, scheduler.getCancelledCount());
+
+		blocker.countDown();
+		assertTrue(first.done.await(TIMEOUT, TimeUnit.SECONDS));
+		assertFalse(received.contains(second.getLocation()));
+	}
+
+	private static void waitFor(Condition condition) throws InterruptedException {
+		long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT);
+		while (!condition.test()) {
+			assertTrue(System.currentTimeMillis() < end);
+			Thread.sleep(10);
+		}
+	}
+
+	private static interface Condition {
+		boolean test();
+	}
+
+	private class TestDownload extends Download {
+
+		final CountDownLatch done = new CountDownLatch(1);
+
+		final AtomicBoolean cancelled = new AtomicBoolean();
+
+		TestDownload(String location, int priority) {
+			super(URI.create(location), priority);
+		}
+
+		@Override
+		protected void receive(InputStream in) throws IOException {
+			while (in.read() != -1) {
+				//consume
+			}
+			received.add(getLocation());
+			done.countDown();
+		}
+
+		@Override
+		protected void cancelled() {
+			cancelled.set(true);
+		}
+	}
+}
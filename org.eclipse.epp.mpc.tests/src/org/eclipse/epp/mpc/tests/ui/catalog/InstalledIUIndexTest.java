@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.ui.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.epp.internal.mpc.ui.catalog.InstalledIUIndex;
+import org.eclipse.equinox.internal.p2.engine.ProfileEvent;
+import org.eclipse.equinox.internal.provisional.p2.core.eventbus.IProvisioningEventBus;
+import org.eclipse.equinox.internal.provisional.p2.core.eventbus.ProvisioningListener;
+import org.eclipse.equinox.p2.core.IProvisioningAgent;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.engine.IProfileEvent;
+import org.eclipse.equinox.p2.engine.IProfileRegistry;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.MetadataFactory;
+import org.eclipse.equinox.p2.metadata.MetadataFactory.InstallableUnitDescription;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.query.IQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class InstalledIUIndexTest {
+
+	private static final String PROFILE_ID = "TestProfile";
+
+	private final List<IInstallableUnit> ius = new ArrayList<>();
+
+	private IProfile profile;
+
+	private IProvisioningEventBus eventBus;
+
+	private InstalledIUIndex index;
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void setUp() throws Exception {
+		ius.add(createIU("org.example.a.feature.group", true));
+		ius.add(createIU("org.example.a.plugin", false));
+
+		profile = mock(IProfile.class);
+		when(profile.available(any(), any())).thenAnswer(
+				invocation -> ((IQuery<IInstallableUnit>) invocation.getArgument(0)).perform(ius.iterator()));
+		IProfileRegistry profileRegistry = mock(IProfileRegistry.class);
+		when(profileRegistry.getProfile(PROFILE_ID)).thenReturn(profile);
+		eventBus = mock(IProvisioningEventBus.class);
+
+		IProvisioningAgent agent = mock(IProvisioningAgent.class);
+		when(agent.getService(IProfileRegistry.SERVICE_NAME)).thenReturn(profileRegistry);
+		when(agent.getService(IProvisioningEventBus.SERVICE_NAME)).thenReturn(eventBus);
+		index = new InstalledIUIndex(agent, () -> PROFILE_ID);
+	}
+
+	@After
+	public void tearDown() {
+		index.dispose();
+	}
+
+	@Test
+	public void testSnapshotShared() throws Exception {
+		Map<String, IInstallableUnit> installedIUs = index.getInstalledIUs(new NullProgressMonitor());
+		assertEquals(1, installedIUs.size());
+		assertSame(ius.get(0), installedIUs.get("org.example.a.feature.group"));
+
+		assertSame(installedIUs, index.getInstalledIUs(new NullProgressMonitor()));
+		verify(profile, times(1)).available(any(), any());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSnapshotImmutable() throws Exception {
+		index.getInstalledIUs(new NullProgressMonitor()).clear();
+	}
+
+	@Test
+	public void testProfileEventInvalidates() throws Exception {
+		ArgumentCaptor<ProvisioningListener> listener = ArgumentCaptor.forClass(ProvisioningListener.class);
+		verify(eventBus).addListener(listener.capture());
+		Map<String, IInstallableUnit> installedIUs = index.getInstalledIUs(new NullProgressMonitor());
+
+		listener.getValue().notify(new ProfileEvent("OtherProfile", IProfileEvent.CHANGED));
+		assertSame(installedIUs, index.getInstalledIUs(new NullProgressMonitor()));
+
+		ius.add(createIU("org.example.b.feature.group", true));
+		listener.getValue().notify(new ProfileEvent(PROFILE_ID, IProfileEvent.CHANGED));
+		Map<String, IInstallableUnit> changedIUs = index.getInstalledIUs(new NullProgressMonitor());
+		assertNotSame(installedIUs, changedIUs);
+		assertEquals(2, changedIUs.size());
+		verify(profile, times(2)).available(any(), any());
+	}
+
+	private static IInstallableUnit createIU(String id, boolean group) {
+		InstallableUnitDescription description = new InstallableUnitDescription();
+		description.setId(id);
+		description.setVersion(Version.create("1.0.0"));
+		if (group) {
+			description.setProperty(InstallableUnitDescription.PROP_TYPE_GROUP, Boolean.TRUE.toString());
+		}
+		return MetadataFactory.createInstallableUnit(description);
+	}
+}
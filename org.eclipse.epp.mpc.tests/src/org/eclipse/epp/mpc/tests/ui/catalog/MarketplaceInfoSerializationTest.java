@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.epp.mpc.tests.ui.catalog;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -29,16 +30,20 @@ import static org.mockito.Mockito.when;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.MessageFormat;
 
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.epp.internal.mpc.core.model.Node;
 import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceInfo;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceNodeCatalogItem;
@@ -217,9 +222,10 @@ public class MarketplaceInfoSerializationTest {
 	@Before
 	@After
 	public void clearTestBundleRegistry() {
-		File dataFile = Platform.getBundle(MarketplaceClientUi.BUNDLE_ID).getBundleContext().getDataFile(
-				"MarketplaceInfo.xml");
-		assertTrue(dataFile == null || !dataFile.isFile() || dataFile.delete());
+		for (String name : new String[] { "MarketplaceInfo.bin", "MarketplaceInfo.xml" }) {
+			File dataFile = Platform.getBundle(MarketplaceClientUi.BUNDLE_ID).getBundleContext().getDataFile(name);
+			assertTrue(dataFile == null || !dataFile.isFile() || dataFile.delete());
+		}
 	}
 
 	@Test
@@ -252,7 +258,7 @@ public class MarketplaceInfoSerializationTest {
 	@Test
 	public void testResolveConfigurationAreaRegistryFile() throws MalformedURLException {
 		File configurationAreaRegistryFile = catalogRegistry.computeConfigurationAreaRegistryFile();
-		assertEquals(new File(configurationDirectory, "org.eclipse.epp.mpc.ui/MarketplaceInfo.xml"),
+		assertEquals(new File(configurationDirectory, "org.eclipse.epp.mpc.ui/MarketplaceInfo.bin"),
 				configurationAreaRegistryFile);
 	}
 
@@ -368,7 +374,7 @@ public class MarketplaceInfoSerializationTest {
 
 	@Test
 	public void load() throws Exception {
-		File registryFile = getUserHomeRegistryFile();
+		File registryFile = getXmlRegistryFile(getUserHomeRegistryFile());
 		copyRegistryFile(registryFile, 100);
 
 		MarketplaceInfo loaded = loadMarketplaceInfo();
@@ -403,6 +409,89 @@ public class MarketplaceInfoSerializationTest {
 		assertEquals(catalogRegistry.getNodeKeyToIU(), loaded.getNodeKeyToIU());
 	}
 
+	@Test
+	public void saveAppendsChanges() throws Exception {
+		MarketplaceNodeCatalogItem item = MarketplaceInfoTest.createTestItem();
+		MarketplaceInfo info = new MarketplaceInfo();
+		info.map(item.getMarketplaceUrl(), item.getData());
+
+		File registryFile = getUserHomeRegistryFile();
+		info.save(registryFile);
+		long length = registryFile.length();
+
+		info.map(item.getMarketplaceUrl(), item.getData());
+		info.save(registryFile);
+		assertEquals("Unchanged mapping was saved again", length, registryFile.length());
+
+		info.map(item.getMarketplaceUrl(), createOtherNode(item));
+		info.save(registryFile);
+		assertTrue("Changes were not appended", registryFile.length() > length);
+		assertTrue("Registry file was rewritten", registryFile.length() < 2 * length);
+
+		MarketplaceInfo loaded = loadMarketplaceInfo();
+		assertNotNull(loaded);
+		assertEquals(info.getNodeKeyToIU(), loaded.getNodeKeyToIU());
+		assertEquals(2, loaded.getNodeKeyToIU().size());
+	}
+
+	@Test
+	public void loadInterruptedAppend() throws Exception {
+		MarketplaceNodeCatalogItem item = MarketplaceInfoTest.createTestItem();
+		MarketplaceInfo info = new MarketplaceInfo();
+		info.map(item.getMarketplaceUrl(), item.getData());
+
+		File registryFile = getUserHomeRegistryFile();
+		info.save(registryFile);
+		info.map(item.getMarketplaceUrl(), createOtherNode(item));
+		info.save(registryFile);
+		try (RandomAccessFile file = new RandomAccessFile(registryFile, "rw")) {
+			file.setLength(file.length() - 1);
+		}
+
+		MarketplaceInfo loaded = loadMarketplaceInfo();
+		assertNotNull(loaded);
+		assertEquals(1, loaded.getNodeKeyToIU().size());
+		assertEquals(catalogRegistryAfterMapping(item).getNodeKeyToIU(), loaded.getNodeKeyToIU());
+	}
+
+	@Test
+	public void migrateXmlRegistry() throws Exception {
+		File registryFile = getUserHomeRegistryFile();
+		File xmlRegistryFile = getXmlRegistryFile(registryFile);
+		copyRegistryFile(xmlRegistryFile, 100);
+		byte[] xmlContent = Files.readAllBytes(xmlRegistryFile.toPath());
+
+		MarketplaceInfo loaded = loadMarketplaceInfo();
+		assertNotNull(loaded);
+		assertEquals(xmlRegistryFile, ((TestMarketplaceInfo) loaded).loadedFrom);
+		loaded.save(registryFile);
+		String content = new String(Files.readAllBytes(registryFile.toPath()), StandardCharsets.ISO_8859_1);
+		assertFalse("Registry file was not migrated", content.startsWith("<?xml"));
+		assertArrayEquals("Registry file of earlier versions was changed", xmlContent,
+				Files.readAllBytes(xmlRegistryFile.toPath()));
+
+		MarketplaceInfo migrated = loadMarketplaceInfo();
+		assertNotNull(migrated);
+		assertEquals(registryFile, ((TestMarketplaceInfo) migrated).loadedFrom);
+		assertEquals(loaded.getNodeKeyToIU(), migrated.getNodeKeyToIU());
+		assertEquals(loaded.getIuToNodeKey(), migrated.getIuToNodeKey());
+	}
+
+	private static Node createOtherNode(MarketplaceNodeCatalogItem item) {
+		Node other = (Node) item.getData();
+		Node node = new Node();
+		node.setId("456");
+		node.setUrl("https://marketplace.eclipse.org/node/" + node.getId());
+		node.setIus(other.getIus());
+		return node;
+	}
+
+	private static MarketplaceInfo catalogRegistryAfterMapping(MarketplaceNodeCatalogItem item) {
+		MarketplaceInfo info = new MarketplaceInfo();
+		info.map(item.getMarketplaceUrl(), item.getData());
+		return info;
+	}
+
 	@Test
 	public void loadNonExisting() {
 		MarketplaceInfo loaded = loadMarketplaceInfo();
@@ -429,7 +518,7 @@ public class MarketplaceInfoSerializationTest {
 
 	@Test
 	public void loadIncomplete() throws Exception {
-		File registryFile = getUserHomeRegistryFile();
+		File registryFile = getXmlRegistryFile(getUserHomeRegistryFile());
 		copyRegistryFile(registryFile, 20);
 
 		MarketplaceInfo loaded = loadMarketplaceInfo();
@@ -506,10 +595,14 @@ public class MarketplaceInfoSerializationTest {
 	}
 
 	private File getUserHomeRegistryFile() {
-		return new File(userHome, ".eclipse/mpc/MarketplaceInfo.xml");
+		return new File(userHome, ".eclipse/mpc/MarketplaceInfo.bin");
 	}
 
 	private File getLegacyUserHomeRegistryFile() {
-		return new File(userHome, ".eclipse_mpc/MarketplaceInfo.xml");
+		return new File(userHome, ".eclipse_mpc/MarketplaceInfo.bin");
+	}
+
+	private static File getXmlRegistryFile(File registryFile) {
+		return new File(registryFile.getParentFile(), "MarketplaceInfo.xml");
 	}
 }
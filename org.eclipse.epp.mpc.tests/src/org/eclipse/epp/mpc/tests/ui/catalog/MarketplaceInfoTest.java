@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -153,6 +153,35 @@ public class MarketplaceInfoTest {
 		assertEquals(item.getData().getUrl(), installedCatalogNodeIds.iterator().next().getUrl());
 	}
 
+	@Test
+	public void computeInstalledCatalogNodeIdsByCatalog() throws Exception {
+		catalogRegistry.map(item.getMarketplaceUrl(), item.getData());
+		Node otherNode = new Node();
+		otherNode.setId("456");
+		otherNode.setIus(new Ius());
+		addIu(otherNode, item.getInstallableUnits().get(0));
+		URL otherMarketplaceUrl = new URL("https://marketplace.example.org");
+		catalogRegistry.map(otherMarketplaceUrl, otherNode);
+
+		Map<String, IInstallableUnit> installedIus = new HashMap<>();
+		addIU(installedIus, item.getInstallableUnits().get(0) + ".feature.group");
+
+		Set<? extends INode> installedCatalogNodeIds = catalogRegistry.computeInstalledNodes(item.getMarketplaceUrl(),
+				installedIus);
+		assertEquals(1, installedCatalogNodeIds.size());
+		assertEquals(item.getId(), installedCatalogNodeIds.iterator().next().getId());
+
+		installedCatalogNodeIds = catalogRegistry.computeInstalledNodes(otherMarketplaceUrl, installedIus);
+		assertEquals(1, installedCatalogNodeIds.size());
+		assertEquals(otherNode.getId(), installedCatalogNodeIds.iterator().next().getId());
+
+		otherNode.setIus(new Ius());
+		addIu(otherNode, "com.example.other");
+		catalogRegistry.map(otherMarketplaceUrl, otherNode);
+		installedCatalogNodeIds = catalogRegistry.computeInstalledNodes(otherMarketplaceUrl, installedIus);
+		assertEquals(0, installedCatalogNodeIds.size());
+	}
+
 	private static InstallableUnit addIU(Map<String, IInstallableUnit> installedIus, String id) {
 		InstallableUnit installableUnit = (InstallableUnit) installedIus.get(id);
 		if (installableUnit == null) {
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.ui.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.epp.internal.mpc.ui.catalog.RepositoryVersionIndex;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RepositoryVersionIndexTest {
+
+	private static final String SITE = "https://example.org/updates";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		File file = new File(temporaryFolder.getRoot(), "repositoryVersions.index");
+		RepositoryVersionIndex index = new RepositoryVersionIndex(file);
+		index.update(SITE, "1", versions("org.example.a.feature.group", "1.0.0", "org.example.b.feature.group", null));
+		index.save();
+		assertTrue(file.isFile());
+
+		RepositoryVersionIndex loaded = new RepositoryVersionIndex(file);
+		loaded.load();
+		assertEquals("1", loaded.getFingerprint(SITE));
+		assertEquals(index.getTimestamp(SITE), loaded.getTimestamp(SITE));
+		assertEquals(Version.create("1.0.0"), loaded.get(SITE, "org.example.a.feature.group").getVersion());
+		RepositoryVersionIndex.Entry unavailable = loaded.get(SITE, "org.example.b.feature.group");
+		assertNotNull(unavailable);
+		assertNull(unavailable.getVersion());
+		assertNull(loaded.get(SITE, "org.example.c.feature.group"));
+	}
+
+	@Test
+	public void testFingerprintChangeDropsEntries() {
+		RepositoryVersionIndex index = new RepositoryVersionIndex(null);
+		index.update(SITE, "1", versions("org.example.a.feature.group", "1.0.0"));
+		index.update(SITE, "1", versions("org.example.b.feature.group", "1.0.0"));
+		assertNotNull(index.getVersions(SITE,
+				Arrays.asList("org.example.a.feature.group", "org.example.b.feature.group")));
+
+		index.update(SITE, "2", versions("org.example.b.feature.group", "2.0.0"));
+		assertNull(index.get(SITE, "org.example.a.feature.group"));
+		assertNull(index.getVersions(SITE,
+				Arrays.asList("org.example.a.feature.group", "org.example.b.feature.group")));
+		assertEquals(Version.create("2.0.0"), index.get(SITE, "org.example.b.feature.group").getVersion());
+	}
+
+	@Test
+	public void testCorruptFileIgnored() throws Exception {
+		File file = temporaryFolder.newFile("repositoryVersions.index");
+		Files.write(file.toPath(), "not an index".getBytes(StandardCharsets.UTF_8));
+		RepositoryVersionIndex index = new RepositoryVersionIndex(file);
+		index.load();
+		assertEquals(-1, index.getTimestamp(SITE));
+	}
+
+	@Test
+	public void testLeastRecentlyCheckedSitesDropped() {
+		File file = new File(temporaryFolder.getRoot(), "repositoryVersions.index");
+		TestIndex index = new TestIndex(file, 2, Long.MAX_VALUE);
+		index.update(SITE + "/a", "1", versions("org.example.a.feature.group", "1.0.0"));
+		index.now++;
+		index.update(SITE + "/b", "1", versions("org.example.b.feature.group", "1.0.0"));
+		index.now++;
+		index.update(SITE + "/c", "1", versions("org.example.c.feature.group", "1.0.0"));
+		index.save();
+
+		TestIndex loaded = new TestIndex(file, 2, Long.MAX_VALUE);
+		loaded.load();
+		assertEquals(-1, loaded.getTimestamp(SITE + "/a"));
+		assertNotNull(loaded.get(SITE + "/b", "org.example.b.feature.group"));
+		assertNotNull(loaded.get(SITE + "/c", "org.example.c.feature.group"));
+	}
+
+	@Test
+	public void testExpiredSitesDropped() {
+		TestIndex index = new TestIndex(null, 10, 1000);
+		index.update(SITE, "1", versions("org.example.a.feature.group", "1.0.0"));
+		index.now += 1000;
+		index.prune();
+		assertNotNull(index.get(SITE, "org.example.a.feature.group"));
+
+		index.now++;
+		index.prune();
+		assertEquals(-1, index.getTimestamp(SITE));
+		assertNull(index.get(SITE, "org.example.a.feature.group"));
+	}
+
+	private static class TestIndex extends RepositoryVersionIndex {
+
+		long now = 1000000;
+
+		TestIndex(File file, int maxSites, long maxSiteAge) {
+			super(file, maxSites, maxSiteAge);
+		}
+
+		@Override
+		protected long currentTimeMillis() {
+			return now;
+		}
+	}
+
+	private static Map<String, Version> versions(String... idsAndVersions) {
+		Map<String, Version> versions = new HashMap<>();
+		for (int i = 0; i < idsAndVersions.length; i += 2) {
+			String version = idsAndVersions[i + 1];
+			versions.put(idsAndVersions[i], version == null ? null : Version.create(version));
+		}
+		return versions;
+	}
+}
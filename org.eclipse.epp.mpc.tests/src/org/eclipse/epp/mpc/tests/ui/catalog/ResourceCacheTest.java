@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.ui.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.epp.internal.mpc.ui.catalog.ResourceCache;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResourceCacheTest {
+
+	private static final String LOGO = "https://example.org/logo.png";
+
+	private static final String SCREENSHOT = "https://example.org/screenshot.png";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void testPutAndGet() throws Exception {
+		ResourceCache cache = new ResourceCache(temporaryFolder.getRoot(), 1024);
+		ResourceCache.Entry stored = cache.put(LOGO, content(10), "\"etag\"", null);
+		assertEquals(10, Files.size(stored.getFile().toPath()));
+
+		ResourceCache.Entry entry = cache.get(LOGO);
+		assertNotNull(entry);
+		assertEquals(stored.getFile(), entry.getFile());
+		assertEquals("\"etag\"", entry.getEntityTag());
+		assertNull(entry.getLastModified());
+		assertNull(cache.get(SCREENSHOT));
+		assertEquals(10, cache.getSize());
+	}
+
+	@Test
+	public void testPersistsAcrossInstances() throws Exception {
+		ResourceCache cache = new ResourceCache(temporaryFolder.getRoot(), 1024);
+		File file = cache.put(LOGO, content(10), null, "Thu, 01 Jan 2026 00:00:00 GMT").getFile();
+
+		ResourceCache reopened = new ResourceCache(temporaryFolder.getRoot(), 1024);
+		ResourceCache.Entry entry = reopened.get(LOGO);
+		assertNotNull(entry);
+		assertEquals(file, entry.getFile());
+		assertEquals("Thu, 01 Jan 2026 00:00:00 GMT", entry.getLastModified());
+		assertEquals(10, reopened.getSize());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() throws Exception {
+		ResourceCache cache = new ResourceCache(temporaryFolder.getRoot(), 25);
+		File logo = cache.put(LOGO, content(10), null, null).getFile();
+		File screenshot = cache.put(SCREENSHOT, content(10), null, null).getFile();
+		assertNotNull(cache.get(LOGO));
+
+		cache.put("https://example.org/other.png", content(10), null, null);
+		assertTrue(logo.isFile());
+		assertFalse(screenshot.isFile());
+		assertNull(cache.get(SCREENSHOT));
+		assertEquals(20, cache.getSize());
+	}
+
+	@Test
+	public void testNotifiesEvictedFiles() throws Exception {
+		ResourceCache cache = new ResourceCache(temporaryFolder.getRoot(), 15);
+		List<File> evicted = new ArrayList<>();
+		cache.addEvictionListener(evicted::add);
+		File logo = cache.put(LOGO, content(10), null, null).getFile();
+		assertTrue(evicted.isEmpty());
+
+		cache.put(SCREENSHOT, content(10), null, null);
+		assertEquals(Collections.singletonList(logo), evicted);
+	}
+
+	@Test
+	public void testTouchKeepsContent() throws Exception {
+		ResourceCache cache = new ResourceCache(temporaryFolder.getRoot(), 1024);
+		ResourceCache.Entry stored = cache.put(LOGO, content(10), "\"etag\"", null);
+		Thread.sleep(5);
+		ResourceCache.Entry touched = cache.touch(LOGO);
+		assertNotNull(touched);
+		assertTrue(touched.getTimestamp() > stored.getTimestamp());
+		assertEquals("\"etag\"", cache.get(LOGO).getEntityTag());
+		assertEquals(10, Files.size(touched.getFile().toPath()));
+	}
+
+	private static ByteArrayInputStream content(int size) {
+		return new ByteArrayInputStream(new byte[size]);
+	}
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.ui.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.epp.internal.mpc.ui.catalog.UpdateSiteChecker;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.MetadataFactory;
+import org.eclipse.equinox.p2.metadata.MetadataFactory.InstallableUnitDescription;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.query.IQuery;
+import org.eclipse.equinox.p2.repository.IRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UpdateSiteCheckerTest {
+
+	private static final URI SITE = URI.create("https://example.org/updates");
+
+	private final List<IInstallableUnit> ius = new ArrayList<>();
+
+	private final Map<String, String> repositoryProperties = new HashMap<>();
+
+	private IMetadataRepository repository;
+
+	private IMetadataRepositoryManager repositoryManager;
+
+	@SuppressWarnings("unchecked")
+	@Before
+	public void setUp() throws Exception {
+		ius.add(createIU("org.example.a.feature.group", "1.0.0", true));
+		ius.add(createIU("org.example.a.feature.group", "2.0.0", true));
+		ius.add(createIU("org.example.a.feature.group", "1.5.0", true));
+		ius.add(createIU("org.example.b.feature.group", "1.0.0", false));
+		ius.add(createIU("org.example.c.feature.group", "1.0.0", true));
+		repositoryProperties.put(IRepository.PROP_TIMESTAMP, "1");
+
+		repository = mock(IMetadataRepository.class);
+		when(repository.getProperties()).thenReturn(repositoryProperties);
+		when(repository.query(any(), any())).thenAnswer(
+				invocation -> ((IQuery<IInstallableUnit>) invocation.getArgument(0)).perform(ius.iterator()));
+
+		repositoryManager = mock(IMetadataRepositoryManager.class);
+		when(repositoryManager.loadRepository(eq(SITE), any())).thenReturn(repository);
+	}
+
+	@Test
+	public void testQueryOnlyRequestedFeatureGroups() throws Exception {
+		UpdateSiteChecker checker = new UpdateSiteChecker(TimeUnit.HOURS.toMillis(1));
+		Map<String, Version> versions = checker.getAvailableVersions(SITE,
+				Arrays.asList("org.example.a.feature.group", "org.example.b.feature.group", "org.example.x.feature.group"),
+				repositoryManager, null, new NullProgressMonitor());
+
+		assertEquals(3, versions.size());
+		assertEquals(Version.create("2.0.0"), versions.get("org.example.a.feature.group"));
+		assertNull(versions.get("org.example.b.feature.group"));
+		assertNull(versions.get("org.example.x.feature.group"));
+		assertFalse(versions.containsKey("org.example.c.feature.group"));
+	}
+
+	@Test
+	public void testFreshResultReused() throws Exception {
+		UpdateSiteChecker checker = new UpdateSiteChecker(TimeUnit.HOURS.toMillis(1));
+		List<String> iuIds = Arrays.asList("org.example.a.feature.group");
+		Map<String, Version> versions = checker.getAvailableVersions(SITE, iuIds, repositoryManager, null,
+				new NullProgressMonitor());
+
+		assertEquals(versions, checker.getCachedVersions(SITE, iuIds));
+		assertEquals(versions,
+				checker.getAvailableVersions(SITE, iuIds, repositoryManager, null, new NullProgressMonitor()));
+		assertNull(checker.getCachedVersions(SITE, Arrays.asList("org.example.c.feature.group")));
+		verify(repositoryManager, times(1)).loadRepository(eq(SITE), any());
+	}
+
+	@Test
+	public void testQueryAgainOnlyIfFingerprintChanged() throws Exception {
+		UpdateSiteChecker checker = new UpdateSiteChecker(0);
+		List<String> iuIds = Arrays.asList("org.example.a.feature.group");
+		checker.getAvailableVersions(SITE, iuIds, repositoryManager, null, new NullProgressMonitor());
+		checker.getAvailableVersions(SITE, iuIds, repositoryManager, null, new NullProgressMonitor());
+		verify(repositoryManager, times(2)).loadRepository(eq(SITE), any());
+		verify(repository, times(1)).query(any(), any());
+
+		repositoryProperties.put(IRepository.PROP_TIMESTAMP, "2");
+		ius.add(createIU("org.example.a.feature.group", "3.0.0", true));
+		Map<String, Version> versions = checker.getAvailableVersions(SITE, iuIds, repositoryManager, null,
+				new NullProgressMonitor());
+		verify(repository, times(2)).query(any(), any());
+		assertEquals(Version.create("3.0.0"), versions.get("org.example.a.feature.group"));
+	}
+
+	private static IInstallableUnit createIU(String id, String version, boolean group) {
+		InstallableUnitDescription description = new InstallableUnitDescription();
+		description.setId(id);
+		description.setVersion(Version.create(version));
+		if (group) {
+			description.setProperty(InstallableUnitDescription.PROP_TYPE_GROUP, Boolean.TRUE.toString());
+		}
+		return MetadataFactory.createInstallableUnit(description);
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.ui.operations;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Collections;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.epp.internal.mpc.ui.operations.ProfileChangeOperationComputer.OperationType;
+import org.eclipse.epp.internal.mpc.ui.operations.ResolutionCache;
+import org.eclipse.epp.internal.mpc.ui.operations.ResolutionCache.Key;
+import org.eclipse.equinox.p2.core.IProvisioningAgent;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.engine.IProfileRegistry;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.operations.ProfileChangeOperation;
+import org.eclipse.equinox.p2.operations.ProvisioningSession;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResolutionCacheTest {
+
+	private static final String PROFILE_ID = "TestProfile";
+
+	private final IInstallableUnit iu = mock(IInstallableUnit.class);
+
+	private ProvisioningSession session;
+
+	private ResolutionCache cache;
+
+	@Before
+	public void setUp() {
+		IProfile profile = mock(IProfile.class);
+		when(profile.getTimestamp()).thenReturn(1000L);
+		IProfileRegistry profileRegistry = mock(IProfileRegistry.class);
+		when(profileRegistry.getProfile(PROFILE_ID)).thenReturn(profile);
+		IProvisioningAgent agent = mock(IProvisioningAgent.class);
+		when(agent.getService(IProfileRegistry.SERVICE_NAME)).thenReturn(profileRegistry);
+		session = mock(ProvisioningSession.class);
+		when(session.getProvisioningAgent()).thenReturn(agent);
+		cache = new ResolutionCache();
+	}
+
+	@Test
+	public void testResolvedOperationIsKept() {
+		ProfileChangeOperation operation = resolvedOperation(Status.OK_STATUS);
+		cache.put(createKey(), operation);
+		assertSame(operation, cache.get(createKey()));
+	}
+
+	@Test
+	public void testFailedResolutionIsRecomputed() {
+		cache.put(createKey(), resolvedOperation(new Status(IStatus.ERROR, "test", "Cannot complete the install")));
+		//the next attempt finds nothing, resolves again and keeps the new result
+		assertNull(cache.get(createKey()));
+
+		ProfileChangeOperation operation = resolvedOperation(Status.OK_STATUS);
+		cache.put(createKey(), operation);
+		assertSame(operation, cache.get(createKey()));
+	}
+
+	@Test
+	public void testCancelledResolutionIsNotKept() {
+		cache.put(createKey(), resolvedOperation(Status.CANCEL_STATUS));
+		assertNull(cache.get(createKey()));
+	}
+
+	@Test
+	public void testUnresolvedOperationIsNotKept() {
+		cache.put(createKey(), resolvedOperation(null));
+		assertNull(cache.get(createKey()));
+	}
+
+	private Key createKey() {
+		return ResolutionCache.createKey(session, PROFILE_ID, OperationType.INSTALL, new IInstallableUnit[] { iu },
+				null, Collections.singleton(URI.create("https://example.org/updates")));
+	}
+
+	private static ProfileChangeOperation resolvedOperation(IStatus result) {
+		ProfileChangeOperation operation = mock(ProfileChangeOperation.class);
+		when(operation.getResolutionResult()).thenReturn(result);
+		return operation;
+	}
+}
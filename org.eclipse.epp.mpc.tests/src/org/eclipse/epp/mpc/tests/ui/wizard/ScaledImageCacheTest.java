@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.ui.wizard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.epp.internal.mpc.ui.wizards.ScaledImageCache;
+import org.eclipse.epp.internal.mpc.ui.wizards.ScaledImageCache.Lease;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScaledImageCacheTest {
+
+	private Image source;
+
+	private final List<Image> received = new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		source = new Image(Display.getCurrent(), new ImageData(100, 50, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF)));
+	}
+
+	@After
+	public void tearDown() {
+		source.dispose();
+	}
+
+	@Test
+	public void testScalesLoadedImageRightAway() {
+		ScaledImageCache cache = ScaledImageCache.getInstance(Display.getCurrent());
+		Lease lease = cache.acquire("test:scaled", source, 64, 64, null, received::add);
+		try {
+			assertEquals(1, received.size());
+			Image scaled = received.get(0);
+			assertNotSame(source, scaled);
+			Rectangle bounds = scaled.getBounds();
+			assertEquals(64, bounds.width);
+			assertEquals(32, bounds.height);
+		} finally {
+			lease.release();
+		}
+		assertFalse(source.isDisposed());
+	}
+
+	@Test
+	public void testSharesScaledImage() {
+		ScaledImageCache cache = ScaledImageCache.getInstance(Display.getCurrent());
+		Lease lease = cache.acquire("test:shared", source, 64, 64, null, received::add);
+		Lease otherLease = cache.acquire("test:shared", source, 64, 64, null, received::add);
+		try {
+			assertEquals(2, received.size());
+			assertNotNull(received.get(0));
+			assertSame(received.get(0), received.get(1));
+		} finally {
+			lease.release();
+			otherLease.release();
+		}
+		//released images are kept for a while in case they are needed again
+		Image scaled = received.get(0);
+		assertFalse(scaled.isDisposed());
+		Lease reacquired = cache.acquire("test:shared", source, 64, 64, null, received::add);
+		try {
+			assertSame(scaled, received.get(2));
+		} finally {
+			reacquired.release();
+		}
+	}
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.ui.wizard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.epp.internal.mpc.ui.wizards.VirtualItemController;
+import org.eclipse.equinox.internal.p2.ui.discovery.util.ControlListItem;
+import org.eclipse.equinox.internal.p2.ui.discovery.util.ControlListViewer;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.ScrolledComposite;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Widget;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VirtualItemControllerTest {
+
+	private static final int ITEM_HEIGHT = 50;
+
+	private static class TestItem extends ControlListItem<Object> {
+
+		private int refreshCount;
+
+		TestItem(Composite parent, Object element) {
+			super(parent, SWT.NONE, element);
+		}
+
+		@Override
+		public Point computeSize(int wHint, int hHint, boolean changed) {
+			return new Point(wHint == SWT.DEFAULT ? 100 : wHint, ITEM_HEIGHT);
+		}
+
+		@Override
+		protected void refresh() {
+			// refreshed through the factory
+		}
+	}
+
+	private Shell shell;
+
+	private ControlListViewer viewer;
+
+	private VirtualItemController virtualItems;
+
+	@Before
+	public void setUp() {
+		shell = new Shell(Display.getCurrent());
+		shell.setLayout(new FillLayout());
+		shell.setSize(400, 300);
+		viewer = new ControlListViewer(shell, SWT.NONE) {
+			@Override
+			protected ControlListItem<?> doCreateItem(Composite parent, Object element) {
+				return virtualItems.createItem(parent, element);
+			}
+		};
+		virtualItems = new VirtualItemController((ScrolledComposite) viewer.getControl(),
+				new VirtualItemController.ItemFactory() {
+			@Override
+			public ControlListItem<?> createItem(Composite parent, Object element) {
+				return new TestItem(parent, element);
+			}
+
+			@Override
+			public void refreshItem(ControlListItem<?> item) {
+				((TestItem) item).refreshCount++;
+			}
+		});
+		viewer.setContentProvider(ArrayContentProvider.getInstance());
+		shell.open();
+	}
+
+	@After
+	public void tearDown() {
+		shell.dispose();
+	}
+
+	@Test
+	public void testRefreshAfterScroll() {
+		List<String> elements = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			elements.add("item " + i);
+		}
+		viewer.setInput(elements);
+		processEvents();
+		assertNotNull(findItem("item 0"));
+		assertNull(findItem("item 60"));
+
+		Widget row = viewer.testFindItem("item 60");
+		ScrolledComposite scrolled = (ScrolledComposite) viewer.getControl();
+		scrolled.setOrigin(0, ((Control) row).getLocation().y);
+		processEvents();
+
+		assertNull(findItem("item 0"));
+		TestItem item = findItem("item 60");
+		assertNotNull(item);
+		assertSame(row, viewer.testFindItem("item 60"));
+
+		int refreshCount = item.refreshCount;
+		viewer.refresh("item 60");
+		viewer.refresh("item 0");
+		processEvents();
+		assertFalse(item.isDisposed());
+		assertEquals(refreshCount + 1, item.refreshCount);
+		assertSame(item, findItem("item 60"));
+		assertFalse(viewer.testFindItem("item 0").isDisposed());
+	}
+
+	private TestItem findItem(Object element) {
+		Widget row = viewer.testFindItem(element);
+		assertNotNull(row);
+		for (Control child : ((Composite) row).getChildren()) {
+			if (child instanceof TestItem && !child.isDisposed()) {
+				return (TestItem) child;
+			}
+		}
+		return null;
+	}
+
+	private void processEvents() {
+		Display display = shell.getDisplay();
+		while (display.readAndDispatch()) {
+			// keep going
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.epp.internal.mpc.core.util.PersistentCache;
+import org.eclipse.epp.internal.mpc.core.util.PersistentCache.Entry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentCacheTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File cacheDir;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = temporaryFolder.newFolder("cache");
+	}
+
+	@Test
+	public void testPutAndGet() throws IOException {
+		PersistentCache cache = new PersistentCache(cacheDir, 1024 * 1024);
+		byte[] content = "<marketplace/>".getBytes();
+		cache.put("https://marketplace.eclipse.org/api/p", content, "\"abc\"", null);
+
+		Entry entry = cache.get("https://marketplace.eclipse.org/api/p");
+		assertNotNull(entry);
+		assertArrayEquals(content, entry.getContent());
+		assertEquals("\"abc\"", entry.getEntityTag());
+		assertNull(entry.getLastModified());
+		assertNull(cache.get("https://marketplace.eclipse.org/featured/api/p"));
+	}
+
+	@Test
+	public void testSurvivesRestart() throws IOException {
+		PersistentCache cache = new PersistentCache(cacheDir, 1024 * 1024);
+		cache.put("key", new byte[] { 1, 2, 3 }, null, "Tue, 01 Sep 2026 10:00:00 GMT");
+
+		PersistentCache restored = new PersistentCache(cacheDir, 1024 * 1024);
+		Entry entry = restored.get("key");
+		assertNotNull(entry);
+		assertArrayEquals(new byte[] { 1, 2, 3 }, entry.getContent());
+		assertEquals("Tue, 01 Sep 2026 10:00:00 GMT", entry.getLastModified());
+		assertEquals(cache.getSize(), restored.getSize());
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		PersistentCache cache = new PersistentCache(cacheDir, 1024);
+		cache.put("first", new byte[400], null, null);
+		cache.put("second", new byte[400], null, null);
+		cache.get("first");
+		cache.put("third", new byte[400], null, null);
+
+		assertNotNull(cache.get("first"));
+		assertNull(cache.get("second"));
+		assertNotNull(cache.get("third"));
+		assertTrue(cache.getSize() <= 1024);
+	}
+
+	@Test
+	public void testTouchUpdatesTimestamp() throws Exception {
+		PersistentCache cache = new PersistentCache(cacheDir, 1024);
+		cache.put("key", new byte[] { 1, 2, 3 }, "\"abc\"", null);
+		long timestamp = cache.get("key").getTimestamp();
+		Thread.sleep(10);
+
+		cache.touch("key");
+		Entry entry = cache.get("key");
+		assertTrue(entry.getTimestamp() > timestamp);
+		assertArrayEquals(new byte[] { 1, 2, 3 }, entry.getContent());
+		assertEquals("\"abc\"", entry.getEntityTag());
+
+		cache.touch("missing");
+		assertNull(cache.get("missing"));
+	}
+
+	@Test
+	public void testRemove() {
+		PersistentCache cache = new PersistentCache(cacheDir, 1024);
+		cache.put("key", new byte[10], null, null);
+		cache.remove("key");
+
+		assertNull(cache.get("key"));
+		assertEquals(0, cache.getSize());
+		assertEquals(0, cacheDir.listFiles().length);
+	}
+}
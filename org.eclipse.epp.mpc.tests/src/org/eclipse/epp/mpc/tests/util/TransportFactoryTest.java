@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2020 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -29,9 +29,11 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.hc.client5.http.auth.CredentialsProvider;
@@ -49,14 +51,17 @@ import org.apache.hc.core5.http.HttpRequestInterceptor;
 import org.apache.hc.core5.http.config.Lookup;
 import org.apache.hc.core5.http.protocol.BasicHttpContext;
 import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.pool.PoolStats;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.epp.internal.mpc.core.ServiceHelperImpl;
 import org.eclipse.epp.internal.mpc.core.transport.httpclient.ChainedCredentialsProvider;
 import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientCustomizer;
+import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientFactory;
 import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientService;
 import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientTransport;
 import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpClientTransportFactory;
+import org.eclipse.epp.internal.mpc.core.transport.httpclient.HttpServiceContext;
 import org.eclipse.epp.internal.mpc.core.transport.httpclient.SynchronizedCredentialsProvider;
 import org.eclipse.epp.internal.mpc.core.util.FallbackTransportFactory;
 import org.eclipse.epp.internal.mpc.core.util.ServiceUtil;
@@ -295,6 +300,34 @@ public class TransportFactoryTest {
 				.matches("true"));
 	}
 
+	@Test
+	public void testHttpClientConnectionPoolLimits() throws Exception {
+		HttpClientFactory factory = new HttpClientFactory();
+		factory.setCustomizers(Collections.emptyList());
+
+		factory.configure(Collections.emptyMap());
+		PoolStats defaultStats = buildPoolStats(factory);
+		assertEquals(HttpClientFactory.DEFAULT_MAX_CONNECTIONS_TOTAL, defaultStats.getMax());
+		assertEquals(0, defaultStats.getLeased());
+
+		factory.configure(Map.of(HttpClientFactory.MAX_CONNECTIONS_TOTAL_PROPERTY, 17));
+		assertEquals(17, buildPoolStats(factory).getMax());
+
+		factory.configure(Map.of(HttpClientFactory.MAX_CONNECTIONS_TOTAL_PROPERTY, "23"));
+		assertEquals(23, buildPoolStats(factory).getMax());
+	}
+
+	private static PoolStats buildPoolStats(HttpClientFactory factory) throws Exception {
+		HttpServiceContext context = factory.build();
+		try {
+			PoolStats stats = context.getPoolStats();
+			assertNotNull(stats);
+			return stats;
+		} finally {
+			context.getClient().close();
+		}
+	}
+
 	private static HttpClientTransport createClient(HttpClientCustomizer... customizers) {
 		if (customizers == null || customizers.length == 0) {
 			return new HttpClientTransport();
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.mpc.tests.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.epp.internal.mpc.ui.util.Util;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.Test;
+
+public class UtilTest {
+
+	private static final RGB BLACK = new RGB(0, 0, 0);
+
+	private static final RGB WHITE = new RGB(255, 255, 255);
+
+	private static final RGB RED = new RGB(255, 0, 0);
+
+	@Test
+	public void testScaleDownKeepsAspectRatio() {
+		ImageData scaled = Util.scaleImageData(createImageData(200, 100, RED), 100, 100, null);
+		assertEquals(100, scaled.width);
+		assertEquals(50, scaled.height);
+		assertEquals(RED, getRGB(scaled, 50, 25));
+		assertEquals(255, scaled.getAlpha(50, 25));
+	}
+
+	@Test
+	public void testScaleUp() {
+		ImageData scaled = Util.scaleImageData(createImageData(16, 32, RED), 64, 64, null);
+		assertEquals(32, scaled.width);
+		assertEquals(64, scaled.height);
+		assertEquals(RED, getRGB(scaled, 31, 63));
+	}
+
+	@Test
+	public void testAveragesCoveredPixels() {
+		ImageData data = createImageData(2, 1, BLACK);
+		setRGB(data, 1, 0, WHITE);
+
+		ImageData scaled = Util.scaleImageData(data, 1, 1, null);
+		assertEquals(1, scaled.width);
+		assertEquals(1, scaled.height);
+		RGB rgb = getRGB(scaled, 0, 0);
+		assertEquals(128, rgb.red, 1);
+		assertEquals(128, rgb.green, 1);
+		assertEquals(128, rgb.blue, 1);
+	}
+
+	@Test
+	public void testKeepsTransparency() {
+		ImageData data = createImageData(2, 2, RED);
+		data.alphaData = new byte[] { 0, 0, 0, 0 };
+
+		ImageData scaled = Util.scaleImageData(data, 4, 4, null);
+		assertEquals(0, scaled.getAlpha(0, 0));
+		assertEquals(0, scaled.getAlpha(3, 3));
+	}
+
+	@Test
+	public void testTransparentPixelsIgnoredWhenAveraging() {
+		ImageData data = createImageData(2, 1, BLACK);
+		setRGB(data, 1, 0, WHITE);
+		data.transparentPixel = data.getPixel(0, 0);
+
+		ImageData scaled = Util.scaleImageData(data, 1, 1, null);
+		assertEquals(WHITE, getRGB(scaled, 0, 0));
+		assertEquals(128, scaled.getAlpha(0, 0), 1);
+	}
+
+	@Test
+	public void testBackgroundReplacesTransparency() {
+		ImageData data = createImageData(2, 2, RED);
+		data.alphaData = new byte[] { 0, 0, 0, 0 };
+
+		ImageData scaled = Util.scaleImageData(data, 4, 4, WHITE);
+		assertNull(scaled.alphaData);
+		assertEquals(WHITE, getRGB(scaled, 0, 0));
+		assertEquals(WHITE, getRGB(scaled, 3, 3));
+	}
+
+	private static ImageData createImageData(int width, int height, RGB color) {
+		ImageData data = new ImageData(width, height, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				setRGB(data, x, y, color);
+			}
+		}
+		return data;
+	}
+
+	private static void setRGB(ImageData data, int x, int y, RGB color) {
+		data.setPixel(x, y, data.palette.getPixel(color));
+	}
+
+	private static RGB getRGB(ImageData data, int x, int y) {
+		return data.palette.getRGB(data.getPixel(x, y));
+	}
+}
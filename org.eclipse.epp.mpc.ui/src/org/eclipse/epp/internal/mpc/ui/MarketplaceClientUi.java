@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -13,7 +13,6 @@
  *******************************************************************************/
 package org.eclipse.epp.internal.mpc.ui;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -29,13 +28,8 @@ import org.eclipse.core.runtime.preferences.IPreferencesService;
 import org.eclipse.core.runtime.preferences.IScopeContext;
 import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
-import org.eclipse.equinox.p2.core.IProvisioningAgent;
-import org.eclipse.equinox.p2.engine.IProfile;
-import org.eclipse.equinox.p2.engine.IProfileRegistry;
+import org.eclipse.epp.internal.mpc.ui.catalog.InstalledIUIndex;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
-import org.eclipse.equinox.p2.query.IQueryResult;
-import org.eclipse.equinox.p2.query.QueryUtil;
-import org.eclipse.equinox.p2.ui.ProvisioningUI;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -46,7 +40,6 @@ import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.statushandlers.StatusManager;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
-import org.osgi.framework.ServiceReference;
 
 /**
  * @author Steffen Pingel
@@ -139,29 +132,13 @@ public class MarketplaceClientUi {
 		return FrameworkUtil.getBundle(MarketplaceClientDebug.class).getBundleContext();
 	}
 
+	/**
+	 * @return the installed feature groups by id, shared with other callers until the profile changes and thus not
+	 *         modifiable
+	 * @see InstalledIUIndex
+	 */
 	public static Map<String, IInstallableUnit> computeInstalledIUsById(IProgressMonitor monitor) {
-		Map<String, IInstallableUnit> iUs = new HashMap<>();
-		BundleContext bundleContext = MarketplaceClientUi.getBundleContext();
-		ServiceReference<IProvisioningAgent> serviceReference = bundleContext.getServiceReference(IProvisioningAgent.class);
-		if (serviceReference != null) {
-			IProvisioningAgent agent = bundleContext.getService(serviceReference);
-			try {
-				IProfileRegistry profileRegistry = (IProfileRegistry) agent.getService(IProfileRegistry.SERVICE_NAME);
-				if (profileRegistry != null) {
-					IProfile profile = profileRegistry.getProfile(ProvisioningUI.getDefaultUI().getProfileId());
-					if (profile != null) {
-						IQueryResult<IInstallableUnit> result = profile.available(QueryUtil.createIUGroupQuery(),
-								monitor);
-						for (IInstallableUnit unit : result) {
-							iUs.put(unit.getId(), unit);
-						}
-					}
-				}
-			} finally {
-				bundleContext.ungetService(serviceReference);
-			}
-		}
-		return iUs;
+		return InstalledIUIndex.getDefault().getInstalledIUs(monitor);
 	}
 
 	public static Set<String> computeInstalledFeatures(IProgressMonitor monitor) {
@@ -264,4 +241,25 @@ public class MarketplaceClientUi {
 		return service.getBoolean(BUNDLE_ID, "native-borders", true,
 				new IScopeContext[] { InstanceScope.INSTANCE });
 	}
+
+	/**
+	 * @return true if list viewers should only create item controls for rows in or near the viewport. This is off
+	 *         unless the "virtual-items" preference is set.
+	 */
+	public static boolean useVirtualItems() {
+		IPreferencesService service = Platform.getPreferencesService();
+		return service.getBoolean(BUNDLE_ID, "virtual-items", false, //$NON-NLS-1$
+				new IScopeContext[] { InstanceScope.INSTANCE });
+	}
+
+	/**
+	 * @return true if the marketplace catalogs should be loaded in the background after startup. This is off unless
+	 *         the "prefetch-catalogs" preference is set, since it costs network traffic for every workbench start, not
+	 *         just for those that open the marketplace.
+	 */
+	public static boolean prefetchCatalogs() {
+		IPreferencesService service = Platform.getPreferencesService();
+		return service.getBoolean(BUNDLE_ID, "prefetch-catalogs", false, //$NON-NLS-1$
+				new IScopeContext[] { InstanceScope.INSTANCE });
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018, 2020 The Eclipse Foundation and others.
+ * Copyright (c) 2018, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,7 @@ package org.eclipse.epp.internal.mpc.ui;
 
 import static org.eclipse.jface.resource.ResourceLocator.imageDescriptorFromBundle;
 
+import org.eclipse.epp.internal.mpc.ui.catalog.InstalledIUIndex;
 import org.eclipse.epp.internal.mpc.ui.catalog.ResourceProvider;
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.preference.IPreferenceStore;
@@ -130,6 +131,7 @@ public class MarketplaceClientUiResources {
 			resourceProvider.dispose();
 			resourceProvider = null;
 		}
+		InstalledIUIndex.disposeDefault();
 		if (delegate != null) {
 			delegate.stop(context.getBundleContext());
 		}
@@ -0,0 +1,542 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.catalog;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.epp.internal.mpc.core.util.TransportFactory;
+import org.eclipse.epp.mpc.core.service.ITransport;
+
+/**
+ * Downloads catalog resources with a bounded number of concurrent connections.
+ * <p>
+ * Queued downloads are started by priority. Among downloads with the same priority, hosts with fewer running downloads
+ * go first, and only a limited number of downloads run against the same host at once, so a single slow host can't hold
+ * up everything else. The limits can be configured with the {@value #MAX_DOWNLOADS_PROPERTY} and
+ * {@value #MAX_DOWNLOADS_PER_HOST_PROPERTY} system properties.
+ */
+public class DownloadScheduler {
+
+	public static final String MAX_DOWNLOADS_PROPERTY = "org.eclipse.epp.mpc.ui.downloads.max"; //$NON-NLS-1$
+
+	public static final String MAX_DOWNLOADS_PER_HOST_PROPERTY = "org.eclipse.epp.mpc.ui.downloads.maxPerHost"; //$NON-NLS-1$
+
+	/**
+	 * Priority for resources that might be needed later, e.g. screenshots
+	 */
+	public static final int PRIORITY_BACKGROUND = 0;
+
+	/**
+	 * Priority for resources of items that have been loaded
+	 */
+	public static final int PRIORITY_DEFAULT = 1;
+
+	/**
+	 * Priority for resources that are currently shown
+	 */
+	public static final int PRIORITY_VISIBLE = 2;
+
+	private static final int DEFAULT_MAX_DOWNLOADS = 6;
+
+	private static final int DEFAULT_MAX_DOWNLOADS_PER_HOST = 2;
+
+	private static final int STATE_NEW = 0;
+
+	private static final int STATE_QUEUED = 1;
+
+	private static final int STATE_RUNNING = 2;
+
+	private static final int STATE_DONE = 3;
+
+	private static DownloadScheduler defaultScheduler;
+
+	/**
+	 * A single download. Implementations receive the downloaded stream in {@link #receive(InputStream)} and are
+	 * notified if the download fails or is cancelled.
+	 */
+	public static abstract class Download {
+
+		private final URI location;
+
+		private final String host;
+
+		private final DownloadMonitor monitor = new DownloadMonitor();
+
+		//all following fields are guarded by the scheduler once the download has been submitted
+		private volatile DownloadScheduler scheduler;
+
+		private int priority;
+
+		private int state = STATE_NEW;
+
+		private int interest;
+
+		private long sequence;
+
+		private long queueTime;
+
+		protected Download(URI location, int priority) {
+			this.location = location;
+			this.host = location.getHost() == null ? "" : location.getHost(); //$NON-NLS-1$
+			this.priority = priority;
+		}
+
+		public URI getLocation() {
+			return location;
+		}
+
+		public int getPriority() {
+			DownloadScheduler scheduler = this.scheduler;
+			if (scheduler == null) {
+				return priority;
+			}
+			synchronized (scheduler) {
+				return priority;
+			}
+		}
+
+		/**
+		 * Change the priority of a queued download. This has no effect once the download has started.
+		 */
+		public void setPriority(int priority) {
+			DownloadScheduler scheduler = this.scheduler;
+			if (scheduler == null) {
+				this.priority = priority;
+				return;
+			}
+			synchronized (scheduler) {
+				this.priority = priority;
+			}
+		}
+
+		/**
+		 * Register interest in this download, e.g. from a control that shows the downloaded resource. Once all interested
+		 * parties have {@link #release() released} the download, it is cancelled if it hasn't finished yet.
+		 */
+		public void acquire() {
+			synchronized (getLock()) {
+				interest++;
+			}
+		}
+
+		/**
+		 * Release interest in this download.
+		 *
+		 * @see #acquire()
+		 */
+		public void release() {
+			synchronized (getLock()) {
+				if (interest == 0 || --interest > 0) {
+					return;
+				}
+			}
+			cancel();
+		}
+
+		/**
+		 * Cancel this download. A queued download is removed from the queue, a running download is aborted.
+		 *
+		 * @return true if the download was queued or running
+		 */
+		public boolean cancel() {
+			DownloadScheduler scheduler = this.scheduler;
+			if (scheduler == null) {
+				return false;
+			}
+			boolean dequeued;
+			synchronized (scheduler) {
+				if (state == STATE_QUEUED) {
+					scheduler.queue.remove(this);
+					state = STATE_DONE;
+					dequeued = true;
+				} else if (state == STATE_RUNNING) {
+					monitor.setCanceled(true);
+					dequeued = false;
+				} else {
+					return false;
+				}
+			}
+			if (dequeued) {
+				scheduler.cancelledCount.incrementAndGet();
+				cancelled();
+			}
+			return true;
+		}
+
+		public boolean isDone() {
+			synchronized (getLock()) {
+				return state == STATE_DONE;
+			}
+		}
+
+		private Object getLock() {
+			DownloadScheduler scheduler = this.scheduler;
+			return scheduler == null ? this : scheduler;
+		}
+
+		/**
+		 * Open the download stream. By default, this streams the download location with the given transport.
+		 * Implementations can override this e.g. to make a conditional request.
+		 *
+		 * @return the stream to {@link #receive(InputStream) receive}, or null if there is nothing new to download
+		 */
+		protected InputStream open(ITransport transport, IProgressMonitor monitor) throws Exception {
+			return transport.stream(location, monitor);
+		}
+
+		/**
+		 * Consume the downloaded content. The stream is closed by the scheduler.
+		 */
+		protected abstract void receive(InputStream in) throws IOException;
+
+		/**
+		 * Called instead of {@link #receive(InputStream)} if {@link #open(ITransport, IProgressMonitor)} found nothing
+		 * new to download. This does nothing by default.
+		 */
+		protected void notModified() {
+		}
+
+		/**
+		 * Called if the download failed. This does nothing by default.
+		 */
+		protected void failed(Exception e) {
+		}
+
+		/**
+		 * Called if the download was cancelled before it finished. This does nothing by default.
+		 */
+		protected void cancelled() {
+		}
+	}
+
+	private static class DownloadMonitor extends NullProgressMonitor {
+
+		private volatile IProgressMonitor parent;
+
+		@Override
+		public boolean isCanceled() {
+			IProgressMonitor parent = this.parent;
+			return super.isCanceled() || (parent != null && parent.isCanceled());
+		}
+	}
+
+	private class CountingInputStream extends FilterInputStream {
+
+		private final IProgressMonitor monitor;
+
+		CountingInputStream(InputStream in, IProgressMonitor monitor) {
+			super(in);
+			this.monitor = monitor;
+		}
+
+		@Override
+		public int read() throws IOException {
+			checkCanceled();
+			int b = super.read();
+			if (b != -1) {
+				bytesTransferred.incrementAndGet();
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			checkCanceled();
+			int read = super.read(b, off, len);
+			if (read > 0) {
+				bytesTransferred.addAndGet(read);
+			}
+			return read;
+		}
+
+		private void checkCanceled() throws IOException {
+			if (monitor.isCanceled()) {
+				throw new IOException(new OperationCanceledException());
+			}
+		}
+	}
+
+	private class Worker extends Job {
+
+		Worker() {
+			super(Messages.ResourceProvider_retrievingResource);
+			setPriority(INTERACTIVE);
+			setUser(false);
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			Download download;
+			while ((download = next()) != null) {
+				execute(download, monitor);
+			}
+			return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+		}
+	}
+
+	private final int maxDownloads;
+
+	private final int maxDownloadsPerHost;
+
+	private final ITransport fixedTransport;
+
+	//guarded by this
+	private final List<Download> queue = new ArrayList<>();
+
+	private final Map<String, Integer> runningByHost = new HashMap<>();
+
+	private int running;
+
+	private int workers;
+
+	private long nextSequence;
+
+	private ITransport transport;
+
+	private final AtomicLong bytesTransferred = new AtomicLong();
+
+	private final AtomicLong completedCount = new AtomicLong();
+
+	private final AtomicLong failedCount = new AtomicLong();
+
+	private final AtomicLong cancelledCount = new AtomicLong();
+
+	private final AtomicLong totalLatency = new AtomicLong();
+
+	/**
+	 * @param transport
+	 *            the transport to use, or null to use the current {@link TransportFactory#createTransport() default
+	 *            transport}
+	 */
+	public DownloadScheduler(int maxDownloads, int maxDownloadsPerHost, ITransport transport) {
+		if (maxDownloads < 1 || maxDownloadsPerHost < 1) {
+			throw new IllegalArgumentException();
+		}
+		this.maxDownloads = maxDownloads;
+		this.maxDownloadsPerHost = maxDownloadsPerHost;
+		this.fixedTransport = transport;
+	}
+
+	/**
+	 * @return the scheduler shared by all resource providers, configured from the system properties
+	 */
+	public static synchronized DownloadScheduler getDefault() {
+		if (defaultScheduler == null) {
+			defaultScheduler = new DownloadScheduler(
+					Integer.getInteger(MAX_DOWNLOADS_PROPERTY, DEFAULT_MAX_DOWNLOADS).intValue(),
+					Integer.getInteger(MAX_DOWNLOADS_PER_HOST_PROPERTY, DEFAULT_MAX_DOWNLOADS_PER_HOST).intValue(),
+					null);
+		}
+		return defaultScheduler;
+	}
+
+	public int getMaxDownloads() {
+		return maxDownloads;
+	}
+
+	public int getMaxDownloadsPerHost() {
+		return maxDownloadsPerHost;
+	}
+
+	/**
+	 * Queue a download. It is started as soon as a download slot for its host is available.
+	 *
+	 * @throws IllegalStateException
+	 *             if the download has been submitted before
+	 */
+	public void submit(Download download) {
+		submitAll(Collections.singletonList(download));
+	}
+
+	/**
+	 * Queue a batch of downloads at once, e.g. all resources of a page of catalog items.
+	 *
+	 * @throws IllegalStateException
+	 *             if one of the downloads has been submitted before
+	 * @see #submit(Download)
+	 */
+	public void submitAll(Collection<? extends Download> downloads) {
+		int startWorkers;
+		synchronized (this) {
+			for (Download download : downloads) {
+				if (download.scheduler != null) {
+					throw new IllegalStateException();
+				}
+			}
+			for (Download download : downloads) {
+				download.scheduler = this;
+				download.state = STATE_QUEUED;
+				download.sequence = nextSequence++;
+				download.queueTime = System.nanoTime();
+				queue.add(download);
+			}
+			startWorkers = Math.min(downloads.size(), maxDownloads - workers);
+			if (startWorkers > 0) {
+				workers += startWorkers;
+			}
+		}
+		for (int i = 0; i < startWorkers; i++) {
+			new Worker().schedule();
+		}
+	}
+
+	/**
+	 * @return the number of downloads waiting to be started
+	 */
+	public synchronized int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * @return the number of downloads in progress
+	 */
+	public synchronized int getRunningCount() {
+		return running;
+	}
+
+	/**
+	 * @return the number of bytes downloaded so far
+	 */
+	public long getBytesTransferred() {
+		return bytesTransferred.get();
+	}
+
+	public long getCompletedCount() {
+		return completedCount.get();
+	}
+
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	public long getCancelledCount() {
+		return cancelledCount.get();
+	}
+
+	/**
+	 * @return the average time in milliseconds from submitting a download until it completed, including the time it
+	 *         was queued, or 0 if no download has completed yet
+	 */
+	public long getAverageLatency() {
+		long completed = completedCount.get();
+		return completed == 0 ? 0 : totalLatency.get() / completed / 1000000L;
+	}
+
+	private synchronized Download next() {
+		Download next = null;
+		int nextHostLoad = 0;
+		for (Download download : queue) {
+			int hostLoad = getRunning(download.host);
+			if (hostLoad >= maxDownloadsPerHost) {
+				continue;
+			}
+			if (next == null || download.priority > next.priority
+					|| (download.priority == next.priority && (hostLoad < nextHostLoad
+							|| (hostLoad == nextHostLoad && download.sequence < next.sequence)))) {
+				next = download;
+				nextHostLoad = hostLoad;
+			}
+		}
+		if (next == null) {
+			workers--;
+			if (workers == 0) {
+				//get a fresh transport for the next batch, in case the transport service changed
+				transport = null;
+			}
+			return null;
+		}
+		queue.remove(next);
+		next.state = STATE_RUNNING;
+		running++;
+		runningByHost.put(next.host, nextHostLoad + 1);
+		return next;
+	}
+
+	private int getRunning(String host) {
+		Integer count = runningByHost.get(host);
+		return count == null ? 0 : count.intValue();
+	}
+
+	private void execute(Download download, IProgressMonitor workerMonitor) {
+		DownloadMonitor monitor = download.monitor;
+		monitor.parent = workerMonitor;
+		Exception failure = null;
+		try (InputStream in = download.open(getTransport(), monitor)) {
+			if (in == null) {
+				download.notModified();
+			} else {
+				download.receive(new CountingInputStream(in, monitor));
+			}
+		} catch (Exception e) {
+			failure = e;
+		} finally {
+			monitor.parent = null;
+		}
+		boolean startWorker;
+		synchronized (this) {
+			download.state = STATE_DONE;
+			running--;
+			int hostLoad = getRunning(download.host) - 1;
+			if (hostLoad <= 0) {
+				runningByHost.remove(download.host);
+			} else {
+				runningByHost.put(download.host, hostLoad);
+			}
+			//a slot for this host is free again, which might unblock queued downloads other workers gave up on
+			startWorker = !queue.isEmpty() && workers < maxDownloads;
+			if (startWorker) {
+				workers++;
+			}
+		}
+		if (startWorker) {
+			new Worker().schedule();
+		}
+		if (monitor.isCanceled()) {
+			cancelledCount.incrementAndGet();
+			download.cancelled();
+		} else if (failure != null) {
+			failedCount.incrementAndGet();
+			download.failed(failure);
+		} else {
+			completedCount.incrementAndGet();
+			totalLatency.addAndGet(System.nanoTime() - download.queueTime);
+		}
+	}
+
+	private synchronized ITransport getTransport() {
+		if (fixedTransport != null) {
+			return fixedTransport;
+		}
+		if (transport == null) {
+			transport = TransportFactory.createTransport();
+		}
+		return transport;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -24,7 +24,7 @@ public class FavoritesCatalog extends MarketplaceCatalog {
 	}
 
 	@Override
-	public IStatus checkForUpdates(IProgressMonitor monitor) {
+	public IStatus checkForUpdates(UpdateCheck updateCheck, IProgressMonitor monitor) {
 		return Status.OK_STATUS;
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -71,6 +72,12 @@ public class FavoritesDiscoveryStrategy extends MarketplaceDiscoveryStrategy {
 		catalogCategory.setContents(Contents.USER_FAVORITES);
 	}
 
+	@Override
+	protected List<CompletableFuture<?>> prefetchDiscovery() {
+		//favorites are loaded from their own uri, and we don't show news
+		return prefetchMarkets();
+	}
+
 	@Override
 	protected ISearchResult doPerformDiscovery(IProgressMonitor monitor) throws CoreException {
 		preDiscovery();
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.catalog;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
+import org.eclipse.equinox.internal.provisional.p2.core.eventbus.IProvisioningEventBus;
+import org.eclipse.equinox.internal.provisional.p2.core.eventbus.ProvisioningListener;
+import org.eclipse.equinox.p2.core.IProvisioningAgent;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.engine.IProfileEvent;
+import org.eclipse.equinox.p2.engine.IProfileRegistry;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.IQueryResult;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.ui.ProvisioningUI;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * The installed feature groups of the running profile, keyed by IU id.
+ * <p>
+ * Querying the profile is expensive, so the result is kept as an immutable snapshot that is shared by all catalogs,
+ * wizards and operations until the profile changes. Profile changes are picked up from the p2 event bus. A snapshot
+ * that is computed while the profile changes is handed out once, but not kept.
+ */
+public class InstalledIUIndex {
+
+	private static InstalledIUIndex defaultIndex;
+
+	private static ServiceReference<IProvisioningAgent> defaultAgentReference;
+
+	private static final class Snapshot {
+
+		final String profileId;
+
+		final Map<String, IInstallableUnit> installedIUs;
+
+		Snapshot(String profileId, Map<String, IInstallableUnit> installedIUs) {
+			this.profileId = profileId;
+			this.installedIUs = installedIUs;
+		}
+	}
+
+	private final IProvisioningAgent agent;
+
+	private final Supplier<String> profileId;
+
+	private final IProvisioningEventBus eventBus;
+
+	private final ProvisioningListener profileListener = event -> {
+		if (event instanceof IProfileEvent) {
+			profileChanged(((IProfileEvent) event).getProfileId());
+		}
+	};
+
+	/**
+	 * Serializes profile queries, so concurrent callers share a single one
+	 */
+	private final Object queryLock = new Object();
+
+	private Snapshot snapshot;
+
+	private long generation;
+
+	/**
+	 * @param agent
+	 *            the agent to get the profile from, or null if there is none
+	 * @param profileId
+	 *            supplies the id of the profile to index
+	 */
+	public InstalledIUIndex(IProvisioningAgent agent, Supplier<String> profileId) {
+		this.agent = agent;
+		this.profileId = profileId;
+		this.eventBus = agent == null ? null
+				: (IProvisioningEventBus) agent.getService(IProvisioningEventBus.SERVICE_NAME);
+		if (eventBus != null) {
+			eventBus.addListener(profileListener);
+		}
+	}
+
+	/**
+	 * @return the index of the running profile
+	 */
+	public static synchronized InstalledIUIndex getDefault() {
+		if (defaultIndex == null) {
+			BundleContext bundleContext = MarketplaceClientUi.getBundleContext();
+			IProvisioningAgent agent = null;
+			defaultAgentReference = bundleContext.getServiceReference(IProvisioningAgent.class);
+			if (defaultAgentReference != null) {
+				agent = bundleContext.getService(defaultAgentReference);
+			}
+			defaultIndex = new InstalledIUIndex(agent, () -> ProvisioningUI.getDefaultUI().getProfileId());
+		}
+		return defaultIndex;
+	}
+
+	/**
+	 * Dispose the {@link #getDefault() default index}, e.g. when the bundle is stopped.
+	 */
+	public static synchronized void disposeDefault() {
+		if (defaultIndex != null) {
+			defaultIndex.dispose();
+			defaultIndex = null;
+		}
+		if (defaultAgentReference != null) {
+			BundleContext bundleContext = MarketplaceClientUi.getBundleContext();
+			if (bundleContext != null) {
+				bundleContext.ungetService(defaultAgentReference);
+			}
+			defaultAgentReference = null;
+		}
+	}
+
+	/**
+	 * @return the installed feature groups by id, which must not be modified
+	 */
+	public Map<String, IInstallableUnit> getInstalledIUs(IProgressMonitor monitor) {
+		String currentProfileId = profileId.get();
+		Map<String, IInstallableUnit> installedIUs = getSnapshot(currentProfileId);
+		if (installedIUs != null) {
+			monitor.done();
+			return installedIUs;
+		}
+		synchronized (queryLock) {
+			installedIUs = getSnapshot(currentProfileId);
+			if (installedIUs != null) {
+				monitor.done();
+				return installedIUs;
+			}
+			long queryGeneration;
+			synchronized (this) {
+				queryGeneration = generation;
+			}
+			installedIUs = queryProfile(currentProfileId, monitor);
+			if (installedIUs == null) {
+				//canceled or no profile - nothing worth keeping
+				return Collections.emptyMap();
+			}
+			synchronized (this) {
+				if (queryGeneration == generation) {
+					snapshot = new Snapshot(currentProfileId, installedIUs);
+				}
+			}
+			return installedIUs;
+		}
+	}
+
+	/**
+	 * Discard the current snapshot, so the profile is queried again on the next request.
+	 */
+	public synchronized void invalidate() {
+		generation++;
+		snapshot = null;
+	}
+
+	public void dispose() {
+		if (eventBus != null) {
+			eventBus.removeListener(profileListener);
+		}
+		invalidate();
+	}
+
+	private synchronized Map<String, IInstallableUnit> getSnapshot(String profileId) {
+		if (snapshot != null && snapshot.profileId.equals(profileId)) {
+			return snapshot.installedIUs;
+		}
+		return null;
+	}
+
+	private synchronized void profileChanged(String changedProfileId) {
+		if (snapshot != null && !snapshot.profileId.equals(changedProfileId)) {
+			//some other profile, e.g. one used by an installer
+			return;
+		}
+		invalidate();
+	}
+
+	private Map<String, IInstallableUnit> queryProfile(String profileId, IProgressMonitor monitor) {
+		if (agent == null || profileId == null) {
+			return null;
+		}
+		IProfileRegistry profileRegistry = (IProfileRegistry) agent.getService(IProfileRegistry.SERVICE_NAME);
+		if (profileRegistry == null) {
+			return null;
+		}
+		IProfile profile = profileRegistry.getProfile(profileId);
+		if (profile == null) {
+			return null;
+		}
+		IQueryResult<IInstallableUnit> result = profile.available(QueryUtil.createIUGroupQuery(), monitor);
+		if (monitor.isCanceled()) {
+			return null;
+		}
+		Map<String, IInstallableUnit> iUs = new HashMap<>();
+		for (IInstallableUnit unit : result) {
+			iUs.put(unit.getId(), unit);
+		}
+		return Collections.unmodifiableMap(iUs);
+	}
+}
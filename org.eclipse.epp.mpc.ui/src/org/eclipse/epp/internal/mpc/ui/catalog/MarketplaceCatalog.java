@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -17,7 +17,11 @@ package org.eclipse.epp.internal.mpc.ui.catalog;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -30,6 +34,8 @@ import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
 import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceCategory.Contents;
@@ -51,11 +57,7 @@ import org.eclipse.equinox.p2.core.ProvisionException;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.metadata.Version;
 import org.eclipse.equinox.p2.operations.ProvisioningSession;
-import org.eclipse.equinox.p2.query.IQuery;
-import org.eclipse.equinox.p2.query.IQueryResult;
-import org.eclipse.equinox.p2.query.QueryUtil;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepositoryManager;
-import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
 import org.eclipse.equinox.p2.ui.ProvisioningUI;
 import org.eclipse.osgi.util.NLS;
@@ -66,12 +68,75 @@ import org.eclipse.osgi.util.NLS;
  */
 public class MarketplaceCatalog extends Catalog {
 
-	private final Map<String, Version> repositoryIuVersionById = new HashMap<>();
-
 	private INews news;
 
 	private List<MarketplaceNodeCatalogItem> availableUpdates = new ArrayList<>();
 
+	/**
+	 * Serializes the operations that work on the discovery strategies, so a background update check doesn't interfere
+	 * with a query.
+	 */
+	private final ISchedulingRule schedulingRule = new ISchedulingRule() {
+		@Override
+		public boolean contains(ISchedulingRule rule) {
+			return rule == this;
+		}
+
+		@Override
+		public boolean isConflicting(ISchedulingRule rule) {
+			return rule == this;
+		}
+	};
+
+	/**
+	 * An update check of the catalog's items as they were when the check was created. The check works on copies of the
+	 * items and keeps its results until they are {@link MarketplaceCatalog#applyUpdates(UpdateCheck) applied}, so it
+	 * can run in the background while the items are shown.
+	 */
+	public static final class UpdateCheck {
+
+		private final List<CatalogItem> items = new ArrayList<>();
+
+		private final Map<MarketplaceNodeCatalogItem, MarketplaceNodeCatalogItem> originals = new IdentityHashMap<>();
+
+		private final List<CatalogCategory> categories;
+
+		private final List<Certification> certifications;
+
+		private final List<Tag> tags;
+
+		private final boolean includeInstalled;
+
+		private List<MarketplaceNodeCatalogItem> availableUpdates = Collections.emptyList();
+
+		private UpdateCheck(MarketplaceCatalog catalog) {
+			for (CatalogItem item : catalog.getItems()) {
+				if (item instanceof MarketplaceNodeCatalogItem) {
+					MarketplaceNodeCatalogItem original = (MarketplaceNodeCatalogItem) item;
+					MarketplaceNodeCatalogItem copy = original.copyForUpdateCheck();
+					originals.put(copy, original);
+					items.add(copy);
+				}
+			}
+			//Might be null if run before discovery
+			List<CatalogCategory> catalogCategories = catalog.getCategories();
+			categories = catalogCategories == null ? new ArrayList<>() : new ArrayList<>(catalogCategories);
+			certifications = new ArrayList<>(catalog.getCertifications());
+			tags = new ArrayList<>(catalog.getTags());
+
+			//add all locally installed items as well on the featured page
+			boolean featured = false;
+			for (CatalogCategory category : categories) {
+				if (category instanceof MarketplaceCategory
+						&& ((MarketplaceCategory) category).getContents() == Contents.FEATURED) {
+					featured = true;
+					break;
+				}
+			}
+			includeInstalled = featured;
+		}
+	}
+
 	private interface DiscoveryOperation {
 		public void run(MarketplaceDiscoveryStrategy strategy, IProgressMonitor monitor) throws CoreException;
 	}
@@ -140,12 +205,40 @@ public class MarketplaceCatalog extends Catalog {
 		return performDiscovery((strategy, monitor1) -> strategy.performNodeQuery(monitor1, nodes), false, monitor);
 	}
 
+	/**
+	 * @return the rule of the operations that work on the discovery strategies
+	 */
+	public ISchedulingRule getSchedulingRule() {
+		return schedulingRule;
+	}
+
 	public IStatus checkForUpdates(final IProgressMonitor monitor) {
+		UpdateCheck updateCheck = newUpdateCheck();
+		IStatus status = checkForUpdates(updateCheck, monitor);
+		if (status.getSeverity() != IStatus.CANCEL) {
+			applyUpdates(updateCheck);
+		}
+		return status;
+	}
+
+	/**
+	 * Prepare an update check of the current items. This has to be called from the thread that shows the items.
+	 */
+	public UpdateCheck newUpdateCheck() {
+		return new UpdateCheck(this);
+	}
+
+	/**
+	 * Check the items of the given update check for updates. The catalog and its items aren't changed, so this can
+	 * run in the background while the items are shown.
+	 */
+	public IStatus checkForUpdates(UpdateCheck updateCheck, final IProgressMonitor monitor) {
 		SubMonitor progress = SubMonitor.convert(monitor, Messages.MarketplaceCatalog_checkingForUpdates, 10000000);
+		Job.getJobManager().beginRule(schedulingRule, progress);
 		try {
 			Map<String, IInstallableUnit> installedIUs = calculateInstalledIUs(progress.newChild(100000));
 			List<MarketplaceNodeCatalogItem> updateCheckNeeded = new ArrayList<>();
-			List<CatalogItem> updateCheckItems = getUpdateCheckItems(progress.newChild(100000));
+			List<CatalogItem> updateCheckItems = getUpdateCheckItems(updateCheck, progress.newChild(100000));
 			List<MarketplaceNodeCatalogItem> updateableItems = new ArrayList<>();
 			for (CatalogItem item : updateCheckItems) {
 				if (monitor.isCanceled()) {
@@ -172,44 +265,47 @@ public class MarketplaceCatalog extends Catalog {
 				}
 			}
 
-			availableUpdates = updateableItems;
+			updateCheck.availableUpdates = updateableItems;
 
 			return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
 		} finally {
+			Job.getJobManager().endRule(schedulingRule);
 			monitor.done();
 		}
 	}
 
-	private List<CatalogItem> getUpdateCheckItems(IProgressMonitor monitor) {
-		List<CatalogItem> updateCheckItems = getItems();
-
-		//add all locally installed items as well
-		boolean includeInstalled = false;
-		List<CatalogCategory> categories = getCategories();
-		if (categories != null) {
-			//Might be null if run before discovery
-			for (CatalogCategory category : categories) {
-				if (category instanceof MarketplaceCategory) {
-					MarketplaceCategory marketplaceCategory = (MarketplaceCategory) category;
-					if (marketplaceCategory.getContents() == Contents.FEATURED) {
-						includeInstalled = true;
-						break;
-					}
-				}
-			}
+	/**
+	 * Apply the results of an update check to the catalog's items, all in one go. This has to be called from the
+	 * thread that shows the items.
+	 */
+	public void applyUpdates(UpdateCheck updateCheck) {
+		for (Map.Entry<MarketplaceNodeCatalogItem, MarketplaceNodeCatalogItem> original : updateCheck.originals
+				.entrySet()) {
+			original.getValue().setUpdateState(original.getKey());
+		}
+		List<MarketplaceNodeCatalogItem> updateableItems = new ArrayList<>(updateCheck.availableUpdates.size());
+		for (MarketplaceNodeCatalogItem item : updateCheck.availableUpdates) {
+			//installed items that were only found by the check are not shown, so they can be used as they are
+			MarketplaceNodeCatalogItem original = updateCheck.originals.get(item);
+			updateableItems.add(original == null ? item : original);
 		}
-		if (!includeInstalled) {
-			return updateCheckItems;
+		availableUpdates = updateableItems;
+	}
+
+	private List<CatalogItem> getUpdateCheckItems(UpdateCheck updateCheck, IProgressMonitor monitor) {
+		if (!updateCheck.includeInstalled) {
+			return updateCheck.items;
 		}
 
-		final List<CatalogItem> finalUpdateCheckItems = new ArrayList<>(updateCheckItems);
+		final List<CatalogItem> finalUpdateCheckItems = new ArrayList<>(updateCheck.items);
 		runDiscoveryOperation((s, m) -> {
 			try {
 				performUpdateCheckDiscovery(s, m);
 			} catch (CoreException e) {
 				MarketplaceClientUi.log(IStatus.INFO, Messages.MarketplaceCatalog_UpdateCheckDiscoveryError, e);
 			}
-		}, finalUpdateCheckItems, categories, getCertifications(), getTags(), monitor);
+		}, finalUpdateCheckItems, new ArrayList<>(updateCheck.categories),
+				new ArrayList<>(updateCheck.certifications), new ArrayList<>(updateCheck.tags), monitor);
 		return finalUpdateCheckItems;
 	}
 
@@ -223,31 +319,25 @@ public class MarketplaceCatalog extends Catalog {
 			itemsById.put(catalogItem.getId(), catalogItem);
 		}
 
+		//only the category's id is needed - its contents are left alone, since the category is shown
 		MarketplaceCategory catalogCategory = marketplaceDiscoveryStrategy
 				.findMarketplaceCategory(discoveryStrategyProgress.newChild(1));
-		final Contents realContents = catalogCategory.getContents();
-		try {
-			catalogCategory.setContents(Contents.INSTALLED);
-			ISearchResult installed = marketplaceDiscoveryStrategy
-					.computeInstalled(discoveryStrategyProgress.newChild(499));
-			List<? extends INode> installedNodes = installed.getNodes();
-			if (installedNodes == null || installedNodes.isEmpty()) {
-				return;
-			}
-			SubMonitor itemProgress = discoveryStrategyProgress.newChild(500);
-			itemProgress.setWorkRemaining(installedNodes.size() * 100);
-			for (INode node : installedNodes) {
-				CatalogItem item = marketplaceDiscoveryStrategy.createCatalogItem(node, catalogCategory.getId(), false,
-						itemProgress.newChild(100));
-				if (!itemsById.containsKey(item.getId())) {
-					itemsById.put(item.getId(), item);
-					updateCheckItems.add(item);
-				}
+		ISearchResult installed = marketplaceDiscoveryStrategy.computeInstalled(discoveryStrategyProgress.newChild(499));
+		List<? extends INode> installedNodes = installed.getNodes();
+		if (installedNodes == null || installedNodes.isEmpty()) {
+			return;
+		}
+		SubMonitor itemProgress = discoveryStrategyProgress.newChild(500);
+		itemProgress.setWorkRemaining(installedNodes.size() * 100);
+		for (INode node : installedNodes) {
+			CatalogItem item = marketplaceDiscoveryStrategy.createCatalogItem(node, catalogCategory.getId(), false,
+					itemProgress.newChild(100));
+			if (!itemsById.containsKey(item.getId())) {
+				itemsById.put(item.getId(), item);
+				updateCheckItems.add(item);
 			}
-			itemProgress.done();
-		} finally {
-			catalogCategory.setContents(realContents);
 		}
+		itemProgress.done();
 	}
 
 	private Map<String, IInstallableUnit> calculateInstalledIUs(IProgressMonitor monitor) {
@@ -281,7 +371,7 @@ public class MarketplaceCatalog extends Catalog {
 					catalogItem.setAvailable(false);
 					continue;
 				}
-				URI uri = new URI(updateurl);
+				URI uri = toUpdateUri(updateurl);
 				List<MarketplaceNodeCatalogItem> catalogItemsThisSite = installedCatalogItemsByUpdateUri.get(uri);
 				if (catalogItemsThisSite == null) {
 					catalogItemsThisSite = new ArrayList<>();
@@ -294,6 +384,26 @@ public class MarketplaceCatalog extends Catalog {
 				catalogItem.setAvailable(false);
 			}
 		}
+		UpdateSiteChecker updateSiteChecker = getUpdateSiteChecker();
+		Map<URI, Set<String>> iuIdsByUpdateUri = new HashMap<>();
+		for (Iterator<Map.Entry<URI, List<MarketplaceNodeCatalogItem>>> i = installedCatalogItemsByUpdateUri.entrySet()
+				.iterator(); i.hasNext();) {
+			Map.Entry<URI, List<MarketplaceNodeCatalogItem>> entry = i.next();
+			Set<String> iuIds = new LinkedHashSet<>();
+			for (MarketplaceNodeCatalogItem catalogItem : entry.getValue()) {
+				for (MarketplaceNodeInstallableUnitItem iuItem : catalogItem.getInstallableUnitItems()) {
+					iuIds.add(iuItem.getId());
+				}
+			}
+			Map<String, Version> cachedVersions = updateSiteChecker.getCachedVersions(entry.getKey(), iuIds);
+			if (cachedVersions != null) {
+				//checked recently - no need to contact the site again
+				setAvailableVersions(entry.getValue(), cachedVersions, installedIUs);
+				i.remove();
+			} else {
+				iuIdsByUpdateUri.put(entry.getKey(), iuIds);
+			}
+		}
 		if (installedCatalogItemsByUpdateUri.isEmpty()) {
 			return Status.OK_STATUS;
 		}
@@ -320,6 +430,7 @@ public class MarketplaceCatalog extends Catalog {
 			for (Map.Entry<URI, List<MarketplaceNodeCatalogItem>> entry : installedCatalogItemsByUpdateUri.entrySet()) {
 				final URI uri = entry.getKey();
 				final List<MarketplaceNodeCatalogItem> catalogItemsThisSite = entry.getValue();
+				final Set<String> iuIds = iuIdsByUpdateUri.get(uri);
 
 				//bug 560062 - add both artifact and metadata repo in case something breaks before we can clean up
 				repositories.addRepository(uri);
@@ -331,51 +442,11 @@ public class MarketplaceCatalog extends Catalog {
 								item1.setAvailable(null);
 							}
 						}
-						//bug 560062 - to be safe load the artifact repo as well, even though we don't need it here - and do it first because
-						//it's better to have artifact without meta than the other way around.
-						//see comments in RepositoryTransactionHelper.RepositoryTracker.init() for why we fully load artifact repos as well.
-						//TODO this needs a closer look - can we do without this without retriggering bug 560062? It's a serious performance killer...
-						artifactRepositoryManager.loadRepository(uri, pm);
-						if (pm.isCanceled()) {
-							return;
-						}
-						IMetadataRepository repository = metadataRepositoryManager.loadRepository(uri, pm);
-						if (pm.isCanceled()) {
-							return;
-						}
-
-						IQuery<IInstallableUnit> query = QueryUtil.createMatchQuery( //
-								"id ~= /*.feature.group/ && " + //$NON-NLS-1$
-								"properties['org.eclipse.equinox.p2.type.group'] == true ");//$NON-NLS-1$
-						IQueryResult<IInstallableUnit> result = repository.query(query, pm);
-
-						// compute highest version for all available IUs.
-						Map<String, Version> repositoryIuVersionById = new HashMap<>();
-						for (IInstallableUnit iu : result) {
-							String key1 = createRepositoryIuKey(uri.toString(), iu.getId());
-							Version version = iu.getVersion();
-							Version priorVersion = repositoryIuVersionById.put(key1, version);
-							if (priorVersion != null && priorVersion.compareTo(version) > 0) {
-								repositoryIuVersionById.put(key1, priorVersion);
-							}
-						}
-
-						for (MarketplaceNodeCatalogItem item2 : catalogItemsThisSite) {
-							List<MarketplaceNodeInstallableUnitItem> installableUnitItems = item2
-									.getInstallableUnitItems();
-							for (MarketplaceNodeInstallableUnitItem iuItem : installableUnitItems) {
-								String key2 = createRepositoryIuKey(uri.toString(), iuItem.getId());
-								Version availableVersion = repositoryIuVersionById.get(key2);
-								MarketplaceCatalog.this.repositoryIuVersionById.put(key2, availableVersion);
-								if (availableVersion != null) {
-									item2.setAvailable(true);
-								}
-							}
-						}
-						for (MarketplaceNodeCatalogItem item3 : catalogItemsThisSite) {
-							setUpdatesAvailable(installedIUs, item3);
-						}
-
+						//only the metadata is needed to find available versions - see UpdateSiteChecker for when
+						//the artifact repository is loaded as well (bug 560062)
+						Map<String, Version> availableVersions = updateSiteChecker.getAvailableVersions(uri, iuIds,
+								metadataRepositoryManager, artifactRepositoryManager, pm);
+						setAvailableVersions(catalogItemsThisSite, availableVersions, installedIUs);
 					} catch (ProvisionException e1) {
 						MultiStatus errorStatus = new MultiStatus(MarketplaceClientUi.BUNDLE_ID, IStatus.WARNING,
 								NLS.bind(Messages.MarketplaceCatalog_ErrorReadingRepository, uri), e1);
@@ -398,19 +469,44 @@ public class MarketplaceCatalog extends Catalog {
 			return Status.OK_STATUS;
 		} finally {
 			executor.shutdownNow();
+			updateSiteChecker.getIndex().save();
 		}
 	}
 
-	private String createRepositoryIuKey(String uri, String id) {
-		return uri + "!" + id; //$NON-NLS-1$
+	protected UpdateSiteChecker getUpdateSiteChecker() {
+		return UpdateSiteChecker.getDefault();
 	}
 
+	private void setAvailableVersions(List<MarketplaceNodeCatalogItem> catalogItemsThisSite,
+			Map<String, Version> availableVersions, Map<String, IInstallableUnit> installedIUs) {
+		for (MarketplaceNodeCatalogItem item : catalogItemsThisSite) {
+			List<MarketplaceNodeInstallableUnitItem> installableUnitItems = item.getInstallableUnitItems();
+			for (MarketplaceNodeInstallableUnitItem iuItem : installableUnitItems) {
+				if (availableVersions.get(iuItem.getId()) != null) {
+					item.setAvailable(true);
+					break;
+				}
+			}
+		}
+		for (MarketplaceNodeCatalogItem item : catalogItemsThisSite) {
+			setUpdatesAvailable(installedIUs, item);
+		}
+	}
+
+	/**
+	 * Update the item's badges from the versions known in the {@link RepositoryVersionIndex}, even if they are stale.
+	 *
+	 * @return true if the versions need to be checked online, because some aren't known or they are stale
+	 */
 	private boolean setUpdatesAvailable(Map<String, IInstallableUnit> installedIUs, MarketplaceNodeCatalogItem item) {
-		boolean needOnlineCheck = false;
+		UpdateSiteChecker updateSiteChecker = getUpdateSiteChecker();
+		RepositoryVersionIndex index = updateSiteChecker.getIndex();
+		String siteUrl = getSiteKey(item.getSiteUrl());
+		boolean needOnlineCheck = siteUrl == null || !updateSiteChecker.isFresh(siteUrl);
 		List<MarketplaceNodeInstallableUnitItem> installableUnitItems = item.getInstallableUnitItems();
 		for (MarketplaceNodeInstallableUnitItem iuItem : installableUnitItems) {
-			String key = createRepositoryIuKey(item.getSiteUrl(), iuItem.getId());
-			Version availableVersion = repositoryIuVersionById.get(key);
+			RepositoryVersionIndex.Entry entry = index.get(siteUrl, iuItem.getId());
+			Version availableVersion = entry == null ? null : entry.getVersion();
 			iuItem.setUpdateAvailable(false);
 			iuItem.setAvailable(false);
 			if (availableVersion != null) {
@@ -419,17 +515,42 @@ public class MarketplaceCatalog extends Catalog {
 				if (installedIu != null && installedIu.getVersion().compareTo(availableVersion) < 0) {
 					iuItem.setUpdateAvailable(true);
 				}
-			} else if (!repositoryIuVersionById.containsKey(key)) {
+			} else if (entry == null) {
 				needOnlineCheck = true;
 			}
 		}
 		return needOnlineCheck;
 	}
 
+	private static URI toUpdateUri(String updateurl) throws URISyntaxException {
+		return new URI(updateurl.trim());
+	}
+
+	/**
+	 * @return the key the site's versions are indexed by, which is the same as the one used by
+	 *         {@link #checkForUpdates(List, Map, IProgressMonitor)}, or null if the site url is missing or invalid
+	 */
+	private static String getSiteKey(String updateurl) {
+		if (updateurl == null) {
+			return null;
+		}
+		try {
+			return toUpdateUri(updateurl).toString();
+		} catch (URISyntaxException e) {
+			return null;
+		}
+	}
+
 	@Override
 	public IStatus performDiscovery(IProgressMonitor monitor) {
 		SubMonitor progress = SubMonitor.convert(monitor, 200000);
-		IStatus status = super.performDiscovery(progress.newChild(100000));
+		IStatus status;
+		Job.getJobManager().beginRule(schedulingRule, progress);
+		try {
+			status = super.performDiscovery(progress.newChild(100000));
+		} finally {
+			Job.getJobManager().endRule(schedulingRule);
+		}
 
 		//check for updates
 		if (status.getSeverity() < IStatus.ERROR) {
@@ -488,6 +609,10 @@ public class MarketplaceCatalog extends Catalog {
 			IStatus status = runDiscoveryOperation(operation, items, categories, certifications, tags,
 					progress.newChild(98));
 			update(categories, items, certifications, tags);
+			if (!refresh) {
+				//the new items haven't been checked for updates yet
+				availableUpdates = new ArrayList<>();
+			}
 			progress.worked(1);
 			return status;
 		} finally {
@@ -508,6 +633,7 @@ public class MarketplaceCatalog extends Catalog {
 		final int strategyTicks = 100;
 		SubMonitor progress = SubMonitor.convert(monitor, Messages.MarketplaceCatalog_queryingMarketplace,
 				strategyTicks * strategyCount);
+		Job.getJobManager().beginRule(schedulingRule, progress);
 		try {
 			for (AbstractDiscoveryStrategy discoveryStrategy : getDiscoveryStrategies()) {
 				if (progress.isCanceled()) {
@@ -555,6 +681,7 @@ public class MarketplaceCatalog extends Catalog {
 				}
 			}
 		} finally {
+			Job.getJobManager().endRule(schedulingRule);
 			monitor.done();
 		}
 		return computeStatus(status);
@@ -571,6 +698,7 @@ public class MarketplaceCatalog extends Catalog {
 				null);
 		final int totalTicks = 100000;
 		final SubMonitor progress = SubMonitor.convert(monitor, Messages.MarketplaceCatalog_Checking_News, totalTicks);
+		Job.getJobManager().beginRule(schedulingRule, progress);
 		try {
 			int strategyTicks = totalTicks / getDiscoveryStrategies().size();
 			for (AbstractDiscoveryStrategy discoveryStrategy : getDiscoveryStrategies()) {
@@ -593,6 +721,7 @@ public class MarketplaceCatalog extends Catalog {
 				}
 			}
 		} finally {
+			Job.getJobManager().endRule(schedulingRule);
 			monitor.done();
 		}
 		if (status.isOK()) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.net.URL;
 
 import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUiResources;
+import org.eclipse.epp.internal.mpc.ui.catalog.ResourceProvider.ResourceFuture;
 import org.eclipse.epp.mpc.core.service.IMarketplaceService;
 import org.eclipse.equinox.internal.p2.discovery.AbstractCatalogSource;
 
@@ -45,7 +46,8 @@ public class MarketplaceCatalogSource extends AbstractCatalogSource {
 		try {
 			//This waits for the resource to finish downloading. That's the best
 			//we can do here given the CatalogSource API.
-			return resourceProvider.getResource(resourceName).getURL();
+			ResourceFuture resource = resourceProvider.getResource(resourceName);
+			return resource == null ? null : resource.getURL();
 		} catch (IOException e) {
 			//already logged during download
 			return null;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2019 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -25,7 +25,11 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -47,6 +51,7 @@ import org.eclipse.epp.internal.mpc.core.service.DefaultMarketplaceService;
 import org.eclipse.epp.internal.mpc.core.util.URLUtil;
 import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceCategory.Contents;
+import org.eclipse.epp.internal.mpc.ui.catalog.ResourceProvider.ResourceRequest;
 import org.eclipse.epp.internal.mpc.ui.catalog.UserActionCatalogItem.UserAction;
 import org.eclipse.epp.mpc.core.model.ICategories;
 import org.eclipse.epp.mpc.core.model.ICategory;
@@ -57,6 +62,7 @@ import org.eclipse.epp.mpc.core.model.IMarket;
 import org.eclipse.epp.mpc.core.model.INews;
 import org.eclipse.epp.mpc.core.model.INode;
 import org.eclipse.epp.mpc.core.model.ISearchResult;
+import org.eclipse.epp.mpc.core.service.IAsyncMarketplaceService;
 import org.eclipse.epp.mpc.core.service.IMarketplaceService;
 import org.eclipse.epp.mpc.core.service.IMarketplaceServiceLocator;
 import org.eclipse.epp.mpc.core.service.IMarketplaceStorageService;
@@ -86,6 +92,11 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 
 	private static final Pattern BREAK_PATTERN = Pattern.compile("<!--\\s*break\\s*-->"); //$NON-NLS-1$
 
+	/**
+	 * Results with at least this many nodes have their catalog items built in parallel
+	 */
+	private static final int PARALLEL_ITEMS_THRESHOLD = 50;
+
 	protected final CatalogDescriptor catalogDescriptor;
 
 	protected final IMarketplaceService marketplaceService;
@@ -94,8 +105,6 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 
 	private MarketplaceInfo marketplaceInfo;
 
-	private Map<String, IInstallableUnit> featureIUById;
-
 	private List<LoginListener> loginListeners;
 
 	private IShellProvider shellProvider;
@@ -227,6 +236,7 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 	public void performDiscovery(IProgressMonitor monitor) throws CoreException {
 		SubMonitor progress = SubMonitor.convert(monitor, Messages.MarketplaceDiscoveryStrategy_loadingMarketplace,
 				3000);
+		List<CompletableFuture<?>> prefetchRequests = prefetchDiscovery();
 		try {
 			MarketplaceCategory catalogCategory = findMarketplaceCategory(progress.newChild(1000));
 
@@ -236,10 +246,66 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 			handleSearchResult(catalogCategory, discoveryResult, progress.newChild(1000));
 			maybeAddCatalogItem(catalogCategory);
 		} finally {
+			if (monitor.isCanceled()) {
+				for (CompletableFuture<?> request : prefetchRequests) {
+					request.cancel(true);
+				}
+			}
 			monitor.done();
 		}
 	}
 
+	/**
+	 * Start the requests that discovery needs, so they run in parallel instead of one after the other.
+	 * {@link #findMarketplaceCategory(IProgressMonitor)}, {@link #doPerformDiscovery(IProgressMonitor)} and
+	 * {@link #performNewsDiscovery(IProgressMonitor)} pick up their results from the marketplace service's cache, or
+	 * join them if they are still running.
+	 *
+	 * @return the started requests
+	 */
+	protected List<CompletableFuture<?>> prefetchDiscovery() {
+		IAsyncMarketplaceService asyncService = getAsyncMarketplaceService();
+		if (asyncService == null) {
+			return Collections.emptyList();
+		}
+		List<CompletableFuture<?>> requests = new ArrayList<>(prefetchMarkets());
+		requests.add(asyncService.featured());
+		requests.add(asyncService.news());
+		return requests;
+	}
+
+	/**
+	 * Start loading the markets for {@link #findMarketplaceCategory(IProgressMonitor)}, unless they are known already.
+	 *
+	 * @return the started request, if any
+	 */
+	protected List<CompletableFuture<?>> prefetchMarkets() {
+		IAsyncMarketplaceService asyncService = getAsyncMarketplaceService();
+		if (asyncService == null || hasMarketplaceCategory()) {
+			return Collections.emptyList();
+		}
+		return List.of(asyncService.listMarkets());
+	}
+
+	private boolean hasMarketplaceCategory() {
+		List<CatalogCategory> categories = getCategories();
+		if (categories != null) {
+			for (CatalogCategory candidate : categories) {
+				if (candidate.getSource() == source) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	protected IAsyncMarketplaceService getAsyncMarketplaceService() {
+		if (marketplaceService instanceof IAsyncMarketplaceService) {
+			return (IAsyncMarketplaceService) marketplaceService;
+		}
+		return null;
+	}
+
 	protected ISearchResult doPerformDiscovery(IProgressMonitor monitor) throws CoreException {
 		return marketplaceService.featured(monitor);
 	}
@@ -259,26 +325,32 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 
 			try {
 				boolean userFavoritesSupported = false;
+				CompletableFuture<Void> userFavoritesRequest = null;
 				if (catalogCategory.getContents() == Contents.USER_FAVORITES) {
 					userFavoritesSupported = true;
 				} else if (hasUserFavoritesService()) {
-					try {
+					IAsyncMarketplaceService asyncService = getAsyncMarketplaceService();
+					if (asyncService != null) {
+						//don't hold up the items for the favorites - they are filled in once known
 						applyShellProvider();
-						marketplaceService.userFavorites(result.getNodes(), progress.newChild(favoritesWork));
-						userFavoritesSupported = true;
-					} catch (NotAuthorizedException e1) {
-						// user is not logged in. we just ignore this.
-					} catch (UnsupportedOperationException e1) {
-						// ignore
-					} catch (Exception e1) {
-						// something went wrong. log and proceed.
-						MarketplaceClientCore.error(Messages.MarketplaceDiscoveryStrategy_FavoritesRetrieveError, e1);
+						userFavoritesRequest = asyncService.userFavorites(result.getNodes());
+					} else {
+						userFavoritesSupported = retrieveUserFavorites(result.getNodes(),
+								progress.newChild(favoritesWork));
 					}
 				}
-				for (final INode node : result.getNodes()) {
-					CatalogItem catalogItem = createCatalogItem(node, catalogCategory.getId(), userFavoritesSupported,
-							progress.newChild(nodeWork));
-					items.add(catalogItem);
+				List<MarketplaceNodeCatalogItem> nodeItems = createCatalogItems(result.getNodes(),
+						catalogCategory.getId(), userFavoritesSupported,
+						progress.newChild(result.getNodes().size() * nodeWork));
+				items.addAll(nodeItems);
+				if (userFavoritesRequest != null) {
+					userFavoritesRequest.whenComplete((v, ex) -> {
+						if (ex == null) {
+							applyUserFavorites(nodeItems);
+						} else {
+							handleUserFavoritesError(ex instanceof CompletionException ? ex.getCause() : ex);
+						}
+					});
 				}
 			} finally {
 				progress.done();
@@ -293,8 +365,106 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 		}
 	}
 
+	private boolean retrieveUserFavorites(List<? extends INode> nodes, IProgressMonitor monitor) {
+		try {
+			applyShellProvider();
+			marketplaceService.userFavorites(nodes, monitor);
+			return true;
+		} catch (Exception e) {
+			handleUserFavoritesError(e);
+			return false;
+		}
+	}
+
+	private static void applyUserFavorites(List<MarketplaceNodeCatalogItem> items) {
+		for (MarketplaceNodeCatalogItem item : items) {
+			//don't override a favorite the user has toggled in the meantime
+			if (item.getUserFavorite() == null && item.getData() instanceof INode) {
+				item.setUserFavorite(((INode) item.getData()).getUserFavorite());
+			}
+		}
+	}
+
+	private static void handleUserFavoritesError(Throwable ex) {
+		if (ex instanceof NotAuthorizedException) {
+			// user is not logged in. we just ignore this.
+		} else if (ex instanceof UnsupportedOperationException || ex instanceof CancellationException) {
+			// ignore
+		} else {
+			// something went wrong. log and proceed.
+			MarketplaceClientCore.error(Messages.MarketplaceDiscoveryStrategy_FavoritesRetrieveError, ex);
+		}
+	}
+
 	protected CatalogItem createCatalogItem(final INode node, String categoryId, boolean userFavoritesSupported,
 			IProgressMonitor monitor) {
+		List<MarketplaceNodeCatalogItem> catalogItems = createCatalogItems(Collections.singletonList(node), categoryId,
+				userFavoritesSupported, monitor);
+		return catalogItems.isEmpty() ? null : catalogItems.get(0);
+	}
+
+	/**
+	 * Create the catalog items for the given nodes. The items are built in parallel for larger results. Afterwards, all
+	 * nodes are mapped in the {@link MarketplaceInfo} and all icons and screenshots are requested in one go.
+	 *
+	 * @return the items in the order of the nodes, skipping nodes that could not be read
+	 */
+	protected List<MarketplaceNodeCatalogItem> createCatalogItems(List<? extends INode> nodes, String categoryId,
+			boolean userFavoritesSupported, IProgressMonitor monitor) {
+		SubMonitor progress = SubMonitor.convert(monitor, nodes.size() + 1);
+		Set<String> installedFeatures = computeInstalledFeatures(progress.newChild(1));
+		List<MarketplaceNodeCatalogItem> catalogItems;
+		if (nodes.size() >= PARALLEL_ITEMS_THRESHOLD) {
+			catalogItems = nodes.parallelStream()
+					.map(node -> buildCatalogItem(node, categoryId, userFavoritesSupported, installedFeatures))
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList());
+			progress.worked(nodes.size());
+		} else {
+			catalogItems = new ArrayList<>(nodes.size());
+			for (INode node : nodes) {
+				MarketplaceNodeCatalogItem catalogItem = buildCatalogItem(node, categoryId, userFavoritesSupported,
+						installedFeatures);
+				if (catalogItem != null) {
+					catalogItems.add(catalogItem);
+				}
+				progress.worked(1);
+			}
+		}
+		if (catalogItems.isEmpty()) {
+			return catalogItems;
+		}
+		List<INode> mappedNodes = new ArrayList<>(catalogItems.size());
+		List<CatalogItem> iconItems = new ArrayList<>();
+		List<String> icons = new ArrayList<>();
+		List<CatalogItem> screenshotItems = new ArrayList<>();
+		List<String> screenshots = new ArrayList<>();
+		for (MarketplaceNodeCatalogItem catalogItem : catalogItems) {
+			INode node = catalogItem.getData();
+			mappedNodes.add(node);
+			if (node.getImage() != null) {
+				iconItems.add(catalogItem);
+				icons.add(node.getImage());
+			}
+			if (node.getScreenshot() != null) {
+				screenshotItems.add(catalogItem);
+				screenshots.add(node.getScreenshot());
+			}
+		}
+		marketplaceInfo.mapAll(catalogDescriptor.getUrl(), mappedNodes);
+		ResourceProvider resourceProvider = source.getResourceProvider();
+		cacheResources(resourceProvider, iconItems, icons, DownloadScheduler.PRIORITY_DEFAULT);
+		//screenshots are only shown on demand, so don't hold up icons with them
+		cacheResources(resourceProvider, screenshotItems, screenshots, DownloadScheduler.PRIORITY_BACKGROUND);
+		return catalogItems;
+	}
+
+	/**
+	 * Build the item for a node. This must not touch any shared state, since it is called concurrently for larger
+	 * results.
+	 */
+	private MarketplaceNodeCatalogItem buildCatalogItem(final INode node, String categoryId,
+			boolean userFavoritesSupported, Set<String> installedFeatures) {
 		String id = node.getId();
 		try {
 			final MarketplaceNodeCatalogItem catalogItem = new MarketplaceNodeCatalogItem();
@@ -325,8 +495,10 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 			if (node.getShortdescription() == null && node.getBody() != null) {
 				// bug 306653 <!--break--> marks the end of the short description.
 				String descriptionText = node.getBody();
-				Matcher matcher = BREAK_PATTERN.matcher(node.getBody());
-				if (matcher.find()) {
+				//only run the pattern from the first comment on, if there is one at all
+				int commentStart = descriptionText.indexOf("<!--"); //$NON-NLS-1$
+				Matcher matcher = commentStart == -1 ? null : BREAK_PATTERN.matcher(descriptionText);
+				if (matcher != null && matcher.find(commentStart)) {
 					int start = matcher.start();
 					if (start > 0) {
 						String shortDescriptionText = descriptionText.substring(0, start).trim();
@@ -360,9 +532,6 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 				catalogItem.setAvailable(false);
 			}
 			if (node.getImage() != null) {
-				if (!source.getResourceProvider().containsResource(node.getImage())) {
-					cacheResource(source.getResourceProvider(), catalogItem, node.getImage());
-				}
 				createIcon(catalogItem, node);
 			}
 			if (node.getBody() != null || node.getScreenshot() != null) {
@@ -373,15 +542,10 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 				catalogItem.setOverview(overview);
 
 				if (node.getScreenshot() != null) {
-					if (!source.getResourceProvider().containsResource(node.getScreenshot())) {
-						cacheResource(source.getResourceProvider(), catalogItem, node.getScreenshot());
-					}
 					overview.setScreenshot(node.getScreenshot());
 				}
 			}
-			marketplaceInfo.map(catalogItem.getMarketplaceUrl(), node);
-			marketplaceInfo.computeInstalled(computeInstalledFeatures(monitor),
-					catalogItem);
+			marketplaceInfo.computeInstalled(installedFeatures, catalogItem);
 
 			return catalogItem;
 		} catch (RuntimeException ex) {
@@ -393,12 +557,43 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 		}
 	}
 
+	/**
+	 * Request the given resources of the given items in one batch.
+	 */
+	private static void cacheResources(ResourceProvider resourceProvider, List<CatalogItem> catalogItems,
+			List<String> resources, int priority) {
+		List<ResourceRequest> requests = new ArrayList<>(resources.size());
+		for (int i = 0; i < resources.size(); i++) {
+			CatalogItem catalogItem = catalogItems.get(i);
+			String resource = resources.get(i);
+			try {
+				requests.add(new ResourceRequest(getRequestSource(catalogItem), resource, URLUtil.toURI(resource)));
+			} catch (URISyntaxException e) {
+				MarketplaceClientUi.log(IStatus.WARNING, Messages.MarketplaceDiscoveryStrategy_badUri,
+						catalogItem.getName(), catalogItem.getId(), resource, e);
+			}
+		}
+		if (requests.isEmpty()) {
+			return;
+		}
+		try {
+			resourceProvider.retrieveResources(requests, priority);
+		} catch (IOException e) {
+			MarketplaceClientUi.error(e);
+		}
+	}
+
 	public static void cacheResource(ResourceProvider resourceProvider, CatalogItem catalogItem,
 			String resource) {
+		cacheResource(resourceProvider, catalogItem, resource, DownloadScheduler.PRIORITY_DEFAULT);
+	}
+
+	public static void cacheResource(ResourceProvider resourceProvider, CatalogItem catalogItem,
+			String resource, int priority) {
 		if (!resourceProvider.containsResource(resource)) {
-			String requestSource = NLS.bind(Messages.MarketplaceDiscoveryStrategy_requestSource, catalogItem.getName(), catalogItem.getId());
+			String requestSource = getRequestSource(catalogItem);
 			try {
-				resourceProvider.retrieveResource(requestSource, resource);
+				resourceProvider.retrieveResource(requestSource, resource, priority);
 			} catch (URISyntaxException e) {
 				MarketplaceClientUi.log(IStatus.WARNING, Messages.MarketplaceDiscoveryStrategy_badUri,
 						catalogItem.getName(),
@@ -411,6 +606,11 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 		}
 	}
 
+	private static String getRequestSource(CatalogItem catalogItem) {
+		return NLS.bind(Messages.MarketplaceDiscoveryStrategy_requestSource, catalogItem.getName(),
+				catalogItem.getId());
+	}
+
 	private static String getCatalogItemName(INode node) {
 		String name = node.getName();
 		String version = node.getVersion();
@@ -448,6 +648,17 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 
 	public UserActionCatalogItem addUserActionItem(MarketplaceCategory catalogCategory, UserAction userAction,
 			Object data) {
+		UserActionCatalogItem actionItem = findUserActionItem(items, catalogCategory, userAction);
+		if (actionItem != null) {
+			return actionItem;
+		}
+		UserActionCatalogItem catalogItem = createUserActionItem(catalogCategory, userAction, data);
+		items.add(0, catalogItem);
+		return catalogItem;
+	}
+
+	private UserActionCatalogItem findUserActionItem(List<CatalogItem> items, MarketplaceCategory catalogCategory,
+			UserAction userAction) {
 		for (ListIterator<CatalogItem> i = items.listIterator(items.size()); i.hasPrevious();) {
 			CatalogItem item = i.previous();
 			if (item.getSource() == source && (item.getCategory() == catalogCategory || catalogCategory.getId().equals(item.getCategoryId()))
@@ -458,13 +669,17 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 				}
 			}
 		}
+		return null;
+	}
+
+	private UserActionCatalogItem createUserActionItem(MarketplaceCategory catalogCategory, UserAction userAction,
+			Object data) {
 		UserActionCatalogItem catalogItem = new UserActionCatalogItem();
 		catalogItem.setUserAction(userAction);
 		catalogItem.setSource(source);
 		catalogItem.setData(data);
 		catalogItem.setId(catalogDescriptor.getUrl().toString() + "#" + userAction.name()); //$NON-NLS-1$
 		catalogItem.setCategoryId(catalogCategory.getId());
-		items.add(0, catalogItem);
 		return catalogItem;
 	}
 
@@ -805,6 +1020,32 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 		addUserActionItem(catalogCategory, UserAction.UPDATE, availableUpdates);
 	}
 
+	/**
+	 * Add or update the update banner in the given items of a discovered catalog, replacing the banner that points to
+	 * the user's favorites. Other than {@link #addUpdateItem(MarketplaceCategory, List)}, this can be used after
+	 * discovery has completed.
+	 *
+	 * @return the update banner
+	 */
+	public UserActionCatalogItem addUpdateItem(List<CatalogItem> items, MarketplaceCategory catalogCategory,
+			List<MarketplaceNodeCatalogItem> availableUpdates) {
+		UserActionCatalogItem updateItem = findUserActionItem(items, catalogCategory, UserAction.UPDATE);
+		if (updateItem != null) {
+			updateItem.setData(availableUpdates);
+			return updateItem;
+		}
+		UserActionCatalogItem favoritesItem = findUserActionItem(items, catalogCategory, UserAction.OPEN_FAVORITES);
+		if (favoritesItem != null) {
+			items.remove(favoritesItem);
+			catalogCategory.getItems().remove(favoritesItem);
+		}
+		updateItem = createUserActionItem(catalogCategory, UserAction.UPDATE, availableUpdates);
+		updateItem.setCategory(catalogCategory);
+		catalogCategory.getItems().add(0, updateItem);
+		items.add(0, updateItem);
+		return updateItem;
+	}
+
 	public void installed(IProgressMonitor monitor) throws CoreException {
 		SubMonitor progress = SubMonitor.convert(monitor, Messages.MarketplaceDiscoveryStrategy_findingInstalled,
 				1000);
@@ -889,11 +1130,8 @@ public class MarketplaceDiscoveryStrategy extends AbstractDiscoveryStrategy {
 		return computeInstalledIUs(monitor).keySet();
 	}
 
-	protected synchronized Map<String, IInstallableUnit> computeInstalledIUs(IProgressMonitor monitor) {
-		if (featureIUById == null) {
-			featureIUById = MarketplaceClientUi.computeInstalledIUsById(monitor);
-		}
-		return featureIUById;
+	protected Map<String, IInstallableUnit> computeInstalledIUs(IProgressMonitor monitor) {
+		return InstalledIUIndex.getDefault().getInstalledIUs(monitor);
 	}
 
 	protected MarketplaceCategory findMarketplaceCategory(IProgressMonitor monitor) throws CoreException {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -14,26 +14,27 @@
 package org.eclipse.epp.internal.mpc.ui.catalog;
 
 import java.beans.XMLDecoder;
-import java.beans.XMLEncoder;
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IStatus;
@@ -66,12 +67,43 @@ public class MarketplaceInfo {
 
 	private static final String P2_FEATURE_GROUP_SUFFIX = ".feature.group"; //$NON-NLS-1$
 
-	private static final String PERSISTENT_FILE = MarketplaceInfo.class.getSimpleName() + ".xml"; //$NON-NLS-1$
+	private static final String PERSISTENT_FILE = MarketplaceInfo.class.getSimpleName() + ".bin"; //$NON-NLS-1$
+
+	/**
+	 * Registry file in the XML format used by earlier versions. It is only read to migrate it and left alone
+	 * otherwise, since earlier versions delete a registry file they can't read.
+	 */
+	private static final String LEGACY_PERSISTENT_FILE = MarketplaceInfo.class.getSimpleName() + ".xml"; //$NON-NLS-1$
+
+	/**
+	 * Outdated records that can accumulate in the registry file beyond the number of entries before it is compacted
+	 */
+	private static final int MIN_COMPACTION_RECORDS = 64;
+
+	private static final Pattern NODE_URL_SEPARATOR = Pattern.compile("\\s*,\\s*|\\s+"); //$NON-NLS-1$
 
 	private Map<String, List<String>> nodeKeyToIU = new HashMap<>();
 
 	private Map<String, List<String>> iuToNodeKey = new HashMap<>();
 
+	// immutable view of iuToNodeKey for lookups without holding the monitor - rebuilt on demand after changes
+	private volatile Map<String, Map<String, List<String>>> nodeIndex;
+
+	// parsed values of the MPC_NODE_IU_PROPERTY of installed IUs
+	private final Map<String, String[]> nodeUrlsCache = new ConcurrentHashMap<>();
+
+	// node keys changed since the last load or save, which can be appended to the registry file
+	private final Set<String> changedNodeKeys = new LinkedHashSet<>();
+
+	// state of the registry file as of the last load or save, to detect if we can append to it
+	private File syncedFile;
+
+	private long syncedLength;
+
+	private long syncedLastModified;
+
+	private int syncedRecords;
+
 	public MarketplaceInfo() {
 	}
 
@@ -85,16 +117,19 @@ public class MarketplaceInfo {
 		return nodeKeyToIU;
 	}
 
-	public void setNodeKeyToIU(Map<String, List<String>> nodeKeyToIU) {
+	public synchronized void setNodeKeyToIU(Map<String, List<String>> nodeKeyToIU) {
 		this.nodeKeyToIU = nodeKeyToIU;
+		syncedFile = null;
+		nodeIndex = null;
 	}
 
 	public Map<String, List<String>> getIuToNodeKey() {
 		return iuToNodeKey;
 	}
 
-	public void setIuToNodeKey(Map<String, List<String>> iuToNodeKey) {
+	public synchronized void setIuToNodeKey(Map<String, List<String>> iuToNodeKey) {
 		this.iuToNodeKey = iuToNodeKey;
+		nodeIndex = null;
 	}
 
 	/**
@@ -109,22 +144,13 @@ public class MarketplaceInfo {
 	 * @deprecated use {@link #computeInstalledNodes(URL, Map)} instead
 	 */
 	@Deprecated
-	public synchronized Set<INode> computeInstalledNodes(URL repositoryUrl, Set<String> installedIus) {
+	public Set<INode> computeInstalledNodes(URL repositoryUrl, Set<String> installedIus) {
 		Set<INode> nodes = new HashSet<>();
-
-		String keyPrefix = computeUrlKey(repositoryUrl) + '#';
-		for (Map.Entry<String, List<String>> entry : nodeKeyToIU.entrySet()) {
-			if (entry.getKey().startsWith(keyPrefix)) {
-				List<String> ius = nodeKeyToIU.get(entry.getKey());
-				if (computeInstalled(installedIus, ius, false)) {
-					String nodeId = entry.getKey().substring(keyPrefix.length());
-					Node node = new Node();
-					node.setId(nodeId);
-					nodes.add(node);
-				}
-			}
+		for (String nodeId : computeInstalledNodeIds(repositoryUrl, installedIus)) {
+			Node node = new Node();
+			node.setId(nodeId);
+			nodes.add(node);
 		}
-
 		return nodes;
 	}
 
@@ -138,28 +164,19 @@ public class MarketplaceInfo {
 	 *            all of the currently installed IUs
 	 * @return a set of node ids, or an empty set if there are no known installed nodes
 	 */
-	public synchronized Set<INode> computeInstalledNodes(URL repositoryUrl, Map<String, IInstallableUnit> installedIus) {
+	public Set<INode> computeInstalledNodes(URL repositoryUrl, Map<String, IInstallableUnit> installedIus) {
 		Set<INode> nodes = new HashSet<>();
-
-		String keyPrefix = computeUrlKey(repositoryUrl) + '#';
-		for (Map.Entry<String, List<String>> entry : nodeKeyToIU.entrySet()) {
-			if (entry.getKey().startsWith(keyPrefix)) {
-				List<String> ius = nodeKeyToIU.get(entry.getKey());
-				if (computeInstalled(installedIus.keySet(), ius, false)) {
-					String nodeId = entry.getKey().substring(keyPrefix.length());
-					INode node = QueryHelper.nodeById(nodeId);
-					nodes.add(node);
-				}
-			}
+		for (String nodeId : computeInstalledNodeIds(repositoryUrl, installedIus.keySet())) {
+			nodes.add(QueryHelper.nodeById(nodeId));
 		}
+		String repositoryPrefix = repositoryUrl.toString();
 		for (IInstallableUnit iu : installedIus.values()) {
 			String nodeUrlsValue = iu.getProperty(MPC_NODE_IU_PROPERTY);
 			if (nodeUrlsValue == null) {
 				continue;
 			}
-			String[] nodeUrls = nodeUrlsValue == null ? null : nodeUrlsValue.split("(\\s*,\\s*|\\s+)"); //$NON-NLS-1$
-			for (String nodeUrl : nodeUrls) {
-				if (nodeUrl.startsWith(repositoryUrl.toString())) {
+			for (String nodeUrl : parseNodeUrls(nodeUrlsValue)) {
+				if (nodeUrl.startsWith(repositoryPrefix)) {
 					INode node = QueryHelper.nodeByUrl(nodeUrl);
 					nodes.add(node);
 				}
@@ -169,6 +186,73 @@ public class MarketplaceInfo {
 		return nodes;
 	}
 
+	private Set<String> computeInstalledNodeIds(URL repositoryUrl, Collection<String> installedIus) {
+		Map<String, List<String>> catalogIndex = getNodeIndex().get(computeUrlKey(repositoryUrl));
+		if (catalogIndex == null) {
+			return Collections.emptySet();
+		}
+		Set<String> nodeIds = new HashSet<>();
+		for (String installedIu : installedIus) {
+			List<String> iuNodeIds = catalogIndex.get(installedIu);
+			if (iuNodeIds != null) {
+				nodeIds.addAll(iuNodeIds);
+			}
+			//nodes can list features without the p2 group suffix - see computeInstalled(Set, String)
+			if (installedIu.endsWith(P2_FEATURE_GROUP_SUFFIX)) {
+				iuNodeIds = catalogIndex.get(
+						installedIu.substring(0, installedIu.length() - P2_FEATURE_GROUP_SUFFIX.length()));
+				if (iuNodeIds != null) {
+					nodeIds.addAll(iuNodeIds);
+				}
+			}
+		}
+		return nodeIds;
+	}
+
+	/**
+	 * @return the node ids by IU id, partitioned by catalog url key
+	 */
+	private Map<String, Map<String, List<String>>> getNodeIndex() {
+		Map<String, Map<String, List<String>>> index = nodeIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = nodeIndex;
+				if (index == null) {
+					index = computeNodeIndex(iuToNodeKey);
+					nodeIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	private static Map<String, Map<String, List<String>>> computeNodeIndex(Map<String, List<String>> iuToNodeKey) {
+		Map<String, Map<String, List<String>>> index = new HashMap<>();
+		for (Map.Entry<String, List<String>> entry : iuToNodeKey.entrySet()) {
+			for (String nodeKey : entry.getValue()) {
+				int separator = nodeKey.lastIndexOf('#');
+				if (separator == -1) {
+					continue;
+				}
+				String urlKey = nodeKey.substring(0, separator);
+				String nodeId = nodeKey.substring(separator + 1);
+				index.computeIfAbsent(urlKey, k -> new HashMap<>())
+						.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(1))
+						.add(nodeId);
+			}
+		}
+		return index;
+	}
+
+	private String[] parseNodeUrls(String nodeUrlsValue) {
+		String[] nodeUrls = nodeUrlsCache.get(nodeUrlsValue);
+		if (nodeUrls == null) {
+			nodeUrls = NODE_URL_SEPARATOR.split(nodeUrlsValue.trim());
+			nodeUrlsCache.put(nodeUrlsValue, nodeUrls);
+		}
+		return nodeUrls;
+	}
+
 	/**
 	 * Compute if the given node is installed. The given node must be fully realized, including its
 	 * {@link INode#getIus() ius}.
@@ -262,7 +346,21 @@ public class MarketplaceInfo {
 	}
 
 	public synchronized void map(URL marketUrl, INode node) {
-		String itemKey = computeItemKey(marketUrl, node);
+		doMap(computeUrlKey(marketUrl), node);
+	}
+
+	/**
+	 * Map all given nodes at once, like {@link #map(URL, INode)}.
+	 */
+	public synchronized void mapAll(URL marketUrl, Collection<? extends INode> nodes) {
+		String urlKey = computeUrlKey(marketUrl);
+		for (INode node : nodes) {
+			doMap(urlKey, node);
+		}
+	}
+
+	private void doMap(String urlKey, INode node) {
+		String itemKey = urlKey + '#' + node.getId();
 		if (node.getIus() != null && !node.getIus().getIuElements().isEmpty()) {
 			List<String> ius = new ArrayList<>();
 			Set<String> uniqueIus = new HashSet<>();
@@ -272,7 +370,19 @@ public class MarketplaceInfo {
 					ius.add(iIu.getId());
 				}
 			}
-			nodeKeyToIU.put(itemKey, ius);
+			List<String> previousIus = nodeKeyToIU.put(itemKey, ius);
+			if (ius.equals(previousIus)) {
+				return;
+			}
+			changedNodeKeys.add(itemKey);
+			nodeIndex = null;
+			if (previousIus != null) {
+				for (String iu : previousIus) {
+					if (!ius.contains(iu)) {
+						unmapIu(iu, itemKey);
+					}
+				}
+			}
 			for (String iu : ius) {
 				List<String> catalogNodes = iuToNodeKey.get(iu);
 				if (catalogNodes != null) {
@@ -288,21 +398,23 @@ public class MarketplaceInfo {
 		} else {
 			List<String> ius = nodeKeyToIU.remove(itemKey);
 			if (ius != null) {
+				changedNodeKeys.add(itemKey);
+				nodeIndex = null;
 				for (String iu : ius) {
-					List<String> catalogNodes = iuToNodeKey.get(iu);
-					if (catalogNodes != null) {
-						catalogNodes.remove(itemKey);
-						if (catalogNodes.isEmpty()) {
-							iuToNodeKey.remove(iu);
-						}
-					}
+					unmapIu(iu, itemKey);
 				}
 			}
 		}
 	}
 
-	private String computeItemKey(URL marketUrl, INode item) {
-		return computeUrlKey(marketUrl) + '#' + item.getId();
+	private void unmapIu(String iu, String itemKey) {
+		List<String> catalogNodes = iuToNodeKey.get(iu);
+		if (catalogNodes != null) {
+			catalogNodes.remove(itemKey);
+			if (catalogNodes.isEmpty()) {
+				iuToNodeKey.remove(iu);
+			}
+		}
 	}
 
 	private String computeUrlKey(URL url) {
@@ -343,6 +455,10 @@ public class MarketplaceInfo {
 			if (loadFile != null && loadFile.canRead()) {
 				return doLoad(loadFile);
 			}
+			File legacyFile = registryFile.loadLegacy();
+			if (legacyFile != null) {
+				return doLoad(legacyFile);
+			}
 		} catch (Exception ex) {
 			//Never fail due to this
 			MarketplaceClientUi.error(ex);
@@ -352,10 +468,20 @@ public class MarketplaceInfo {
 
 	protected MarketplaceInfo doLoad(File loadFile) {
 		synchronized (MarketplaceInfo.class) {
-			try (InputStream in = new BufferedInputStream(new FileInputStream(loadFile));
-					XMLDecoder decoder = new XMLDecoder(in)) {
-				Object object = decoder.readObject();
-				return (MarketplaceInfo) object;
+			try {
+				if (!LEGACY_PERSISTENT_FILE.equals(loadFile.getName())) {
+					long length = loadFile.length();
+					long lastModified = loadFile.lastModified();
+					MarketplaceInfoFile.Content content = MarketplaceInfoFile.read(loadFile);
+					MarketplaceInfo info = new MarketplaceInfo();
+					info.restore(content.getNodeKeyToIU());
+					if (content.isComplete()) {
+						info.synced(loadFile, length, lastModified, content.getRecords());
+					}
+					return info;
+				}
+				//migrate from the XML format used by earlier versions - it is saved to the new file
+				return doLoadXml(loadFile);
 			} catch (Throwable t) {
 				// ignore, fallback
 				IStatus status = new Status(IStatus.WARNING, MarketplaceClientUi.BUNDLE_ID,
@@ -368,6 +494,30 @@ public class MarketplaceInfo {
 		}
 	}
 
+	private static MarketplaceInfo doLoadXml(File loadFile) throws IOException {
+		try (InputStream in = new BufferedInputStream(new FileInputStream(loadFile));
+				XMLDecoder decoder = new XMLDecoder(in)) {
+			Object object = decoder.readObject();
+			return (MarketplaceInfo) object;
+		}
+	}
+
+	private void restore(Map<String, List<String>> nodeKeyToIU) {
+		this.nodeKeyToIU = new HashMap<>(nodeKeyToIU);
+		for (Map.Entry<String, List<String>> entry : nodeKeyToIU.entrySet()) {
+			for (String iu : entry.getValue()) {
+				iuToNodeKey.computeIfAbsent(iu, k -> new ArrayList<>(1)).add(entry.getKey());
+			}
+		}
+	}
+
+	private synchronized void synced(File file, long length, long lastModified, int records) {
+		syncedFile = file;
+		syncedLength = length;
+		syncedLastModified = lastModified;
+		syncedRecords = records;
+	}
+
 	public void save() {
 		RegistryFile registryFile = createRegistryFile();
 		File saveFile = registryFile.save();
@@ -378,20 +528,48 @@ public class MarketplaceInfo {
 		}
 	}
 
+	/**
+	 * Save to the given file. If the file hasn't changed since it was last loaded or saved by this instance, only the
+	 * changes since then are appended to it. Otherwise, or if the file has accumulated too many outdated entries, it
+	 * is rewritten completely.
+	 */
 	public void save(File registryFile) {
 		try {
 			File container = registryFile.getParentFile();
 			if (container != null && !container.exists()) {
 				container.mkdirs();
 			}
-			OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(registryFile));
-			try {
-				XMLEncoder encoder = new XMLEncoder(outputStream);
-				encoder.writeObject(this);
-				encoder.close();
-			} finally {
-				outputStream.close();
+			Map<String, List<String>> records = new LinkedHashMap<>();
+			boolean append;
+			int recordCount;
+			synchronized (this) {
+				append = registryFile.equals(syncedFile) && registryFile.length() == syncedLength
+						&& registryFile.lastModified() == syncedLastModified
+						&& syncedRecords + changedNodeKeys.size() <= 2 * nodeKeyToIU.size() + MIN_COMPACTION_RECORDS;
+				if (append) {
+					if (changedNodeKeys.isEmpty()) {
+						return;
+					}
+					for (String nodeKey : changedNodeKeys) {
+						List<String> ius = nodeKeyToIU.get(nodeKey);
+						records.put(nodeKey, ius == null ? null : new ArrayList<>(ius));
+					}
+					recordCount = syncedRecords + records.size();
+				} else {
+					for (Map.Entry<String, List<String>> entry : nodeKeyToIU.entrySet()) {
+						records.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+					}
+					recordCount = records.size();
+				}
+				changedNodeKeys.clear();
+				syncedFile = null;
+			}
+			if (append) {
+				MarketplaceInfoFile.append(registryFile, records);
+			} else {
+				MarketplaceInfoFile.write(registryFile, records);
 			}
+			synced(registryFile, registryFile.length(), registryFile.lastModified(), recordCount);
 		} catch (Throwable t) {
 			// fail safe
 			MarketplaceClientUi.error(t);
@@ -568,6 +746,19 @@ public class MarketplaceInfo {
 			return null;
 		}
 
+		/**
+		 * @return the first readable registry file of an earlier version next to one of the locations, or null
+		 */
+		public File loadLegacy() {
+			for (File file : locations) {
+				File legacyFile = new File(file.getParentFile(), LEGACY_PERSISTENT_FILE);
+				if (isFile(legacyFile) && canRead(legacyFile)) {
+					return legacyFile;
+				}
+			}
+			return null;
+		}
+
 		public File save() {
 			for (int i = 0; i < locations.length; i++) {
 				File file = locations[i];
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The persistent format of {@link MarketplaceInfo}.
+ * <p>
+ * The file starts with a header, followed by a log of records that each map a node key to its IUs or remove a node
+ * key. Later records replace earlier ones for the same node, so new mappings can be appended to an existing file
+ * without rewriting it. A complete rewrite goes to a temporary file first, which then replaces the old file, so readers
+ * never see a partially written file. An incomplete record at the end of the file, e.g. from an interrupted append, is
+ * ignored.
+ * <p>
+ * Only the node to IU mapping is stored. The reverse mapping is restored from it when loading.
+ */
+final class MarketplaceInfoFile {
+
+	private static final int MAGIC = 0x4D504349; // "MPCI"
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_LENGTH = 8;
+
+	private static final byte RECORD_MAP = 1;
+
+	private static final byte RECORD_UNMAP = 2;
+
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
+	/**
+	 * The content of a registry file.
+	 */
+	static final class Content {
+
+		private final Map<String, List<String>> nodeKeyToIU;
+
+		private final int records;
+
+		private final boolean complete;
+
+		Content(Map<String, List<String>> nodeKeyToIU, int records, boolean complete) {
+			this.nodeKeyToIU = nodeKeyToIU;
+			this.records = records;
+			this.complete = complete;
+		}
+
+		Map<String, List<String>> getNodeKeyToIU() {
+			return nodeKeyToIU;
+		}
+
+		/**
+		 * @return the number of records in the file, including those replaced by later records
+		 */
+		int getRecords() {
+			return records;
+		}
+
+		/**
+		 * @return false if the file ended with an incomplete record, in which case nothing must be appended to it
+		 */
+		boolean isComplete() {
+			return complete;
+		}
+	}
+
+	private MarketplaceInfoFile() {
+	}
+
+	static Content read(File file) throws IOException {
+		byte[] data = Files.readAllBytes(file.toPath());
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+		if (data.length < HEADER_LENGTH || in.readInt() != MAGIC) {
+			throw new IOException(file.getAbsolutePath());
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException(file.getAbsolutePath() + ": " + version); //$NON-NLS-1$
+		}
+		Map<String, List<String>> nodeKeyToIU = new LinkedHashMap<>();
+		int records = 0;
+		boolean complete = true;
+		while (in.available() > 0) {
+			try {
+				byte type = in.readByte();
+				String nodeKey = in.readUTF();
+				if (type == RECORD_MAP) {
+					int count = in.readInt();
+					if (count < 0) {
+						throw new IOException(file.getAbsolutePath());
+					} else if (count > in.available()) {
+						throw new EOFException();
+					}
+					List<String> ius = new ArrayList<>(count);
+					for (int i = 0; i < count; i++) {
+						ius.add(in.readUTF());
+					}
+					nodeKeyToIU.put(nodeKey, ius);
+				} else if (type == RECORD_UNMAP) {
+					nodeKeyToIU.remove(nodeKey);
+				} else {
+					throw new IOException(file.getAbsolutePath());
+				}
+				records++;
+			} catch (EOFException e) {
+				//interrupted append - keep what we have
+				complete = false;
+				break;
+			}
+		}
+		return new Content(nodeKeyToIU, records, complete);
+	}
+
+	/**
+	 * Replace the given file with a complete snapshot of the given mapping.
+	 */
+	static void write(File file, Map<String, List<String>> nodeKeyToIU) throws IOException {
+		File tempFile = File.createTempFile(file.getName() + ".new", TEMP_SUFFIX, file.getParentFile()); //$NON-NLS-1$
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				writeRecords(out, nodeKeyToIU);
+			}
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			tempFile.delete();
+		}
+	}
+
+	/**
+	 * Append the given changes to a file in this format.
+	 *
+	 * @param changes
+	 *            the new IUs for each changed node key, or null for node keys that have been removed
+	 */
+	static void append(File file, Map<String, List<String>> changes) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file, true)))) {
+			writeRecords(out, changes);
+		}
+	}
+
+	private static void writeRecords(DataOutputStream out, Map<String, List<String>> nodeKeyToIU)
+			throws IOException {
+		for (Map.Entry<String, List<String>> entry : nodeKeyToIU.entrySet()) {
+			List<String> ius = entry.getValue();
+			if (ius == null) {
+				out.writeByte(RECORD_UNMAP);
+				out.writeUTF(entry.getKey());
+			} else {
+				out.writeByte(RECORD_MAP);
+				out.writeUTF(entry.getKey());
+				out.writeInt(ius.size());
+				for (String iu : ius) {
+					out.writeUTF(iu);
+				}
+			}
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -182,6 +182,51 @@ public class MarketplaceNodeCatalogItem extends CatalogItem {
 		return updateAvailable;
 	}
 
+	/**
+	 * Create a copy to check for updates in the background. The copy shares the node, but has its own availability and
+	 * update state, so the check doesn't change this item while it is shown.
+	 *
+	 * @see #setUpdateState(MarketplaceNodeCatalogItem)
+	 */
+	public MarketplaceNodeCatalogItem copyForUpdateCheck() {
+		MarketplaceNodeCatalogItem copy = new MarketplaceNodeCatalogItem();
+		copy.setMarketplaceUrl(getMarketplaceUrl());
+		copy.setId(getId());
+		copy.setName(getName());
+		copy.setCategoryId(getCategoryId());
+		copy.setData(getData());
+		copy.setSource(getSource());
+		copy.setSiteUrl(getSiteUrl());
+		copy.setInstalled(isInstalled());
+		copy.setAvailable(super.getAvailable());
+		List<MarketplaceNodeInstallableUnitItem> iuItems = new ArrayList<>(installableUnitItems.size());
+		for (MarketplaceNodeInstallableUnitItem iuItem : installableUnitItems) {
+			iuItems.add(iuItem.copy());
+		}
+		copy.setInstallableUnitItems(iuItems);
+		return copy;
+	}
+
+	/**
+	 * Take over the availability and update state of a copy that has been checked for updates.
+	 *
+	 * @see #copyForUpdateCheck()
+	 */
+	public void setUpdateState(MarketplaceNodeCatalogItem checkedCopy) {
+		setAvailable(checkedCopy.getOwnAvailable());
+		for (MarketplaceNodeInstallableUnitItem iuItem : installableUnitItems) {
+			MarketplaceNodeInstallableUnitItem checkedIuItem = checkedCopy.getInstallableUnitItem(iuItem.getId());
+			if (checkedIuItem != null) {
+				iuItem.setAvailable(checkedIuItem.getAvailable());
+				iuItem.setUpdateAvailable(checkedIuItem.getUpdateAvailable());
+			}
+		}
+	}
+
+	private Boolean getOwnAvailable() {
+		return super.getAvailable();
+	}
+
 	public Boolean getHasOptionalFeatures() {
 		Boolean hasOptional = false;
 		List<MarketplaceNodeInstallableUnitItem> installableUnitItems = getInstallableUnitItems();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -98,6 +98,20 @@ public class MarketplaceNodeInstallableUnitItem extends AbstractCatalogItem {
 		this.defaultSelected = defaultSelected;
 	}
 
+	/**
+	 * @return a copy of this item's state, which doesn't belong to a catalog item
+	 */
+	public MarketplaceNodeInstallableUnitItem copy() {
+		MarketplaceNodeInstallableUnitItem copy = new MarketplaceNodeInstallableUnitItem();
+		copy.setId(id);
+		copy.setAvailable(available);
+		copy.setInstalled(installed);
+		copy.setUpdateAvailable(updateAvailable);
+		copy.setOptional(optional);
+		copy.setDefaultSelected(defaultSelected);
+		return copy;
+	}
+
 	public boolean isOptional() {
 		return optional == null || Boolean.TRUE.equals(optional);//consider features optional by default
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -101,6 +101,10 @@ class Messages extends NLS {
 
 	public static String MarketplaceNodeCatalogItem_changeSupportError;
 	
+	public static String RepositoryVersionIndex_LoadError;
+
+	public static String RepositoryVersionIndex_SaveError;
+
 	public static String ResourceProvider_downloadError;
 
 	public static String ResourceProvider_FailedCreatingTempDir;
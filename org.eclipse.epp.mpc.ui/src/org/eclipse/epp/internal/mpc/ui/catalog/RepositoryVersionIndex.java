@@ -0,0 +1,378 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.catalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.epp.internal.mpc.core.util.ConfigurationAreaUtil;
+import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
+import org.eclipse.equinox.p2.metadata.Version;
+
+/**
+ * The highest versions of installable units seen on update sites, keyed by update site and IU id.
+ * <p>
+ * Each site records its content fingerprint and when it was last checked, and each entry records when it was fetched.
+ * The index is shared by all catalogs and kept in the MPC configuration area, so update badges can be shown as soon as
+ * the wizard opens and only stale sites need to be checked again. Lookups don't block - updates replace a site's
+ * entries as a whole.
+ * <p>
+ * Sites that haven't been checked for a while are dropped when the index is stored, and so are the least recently
+ * checked ones if there are too many, so sites that aren't referenced anymore don't accumulate.
+ */
+public class RepositoryVersionIndex {
+
+	private static final int FORMAT_MAGIC = 0x4D525631; // "MRV1"
+
+	private static final String INDEX_FILE = "repositoryVersions.index"; //$NON-NLS-1$
+
+	private static final String TEMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
+	static final int DEFAULT_MAX_SITES = 500;
+
+	static final long DEFAULT_MAX_SITE_AGE = TimeUnit.DAYS.toMillis(30);
+
+	private static RepositoryVersionIndex defaultIndex;
+
+	/**
+	 * The highest version of an installable unit on an update site.
+	 */
+	public static final class Entry {
+
+		private final Version version;
+
+		private final long timestamp;
+
+		Entry(Version version, long timestamp) {
+			this.version = version;
+			this.timestamp = timestamp;
+		}
+
+		/**
+		 * @return the highest available version, or null if the installable unit isn't available on the site
+		 */
+		public Version getVersion() {
+			return version;
+		}
+
+		/**
+		 * @return the time in milliseconds when the version was fetched
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+	}
+
+	private static final class Site {
+
+		final String fingerprint;
+
+		final long timestamp;
+
+		final Map<String, Entry> entries;
+
+		Site(String fingerprint, long timestamp, Map<String, Entry> entries) {
+			this.fingerprint = fingerprint;
+			this.timestamp = timestamp;
+			this.entries = entries;
+		}
+	}
+
+	private final File file;
+
+	private final int maxSites;
+
+	private final long maxSiteAge;
+
+	private final ConcurrentMap<String, Site> sites = new ConcurrentHashMap<>();
+
+	private volatile boolean dirty;
+
+	/**
+	 * @param file
+	 *            the file the index is stored in, or null to keep it in memory only
+	 */
+	public RepositoryVersionIndex(File file) {
+		this(file, DEFAULT_MAX_SITES, DEFAULT_MAX_SITE_AGE);
+	}
+
+	/**
+	 * @param file
+	 *            the file the index is stored in, or null to keep it in memory only
+	 * @param maxSites
+	 *            the maximum number of sites to keep
+	 * @param maxSiteAge
+	 *            the time in milliseconds after which a site that hasn't been checked again is dropped
+	 */
+	public RepositoryVersionIndex(File file, int maxSites, long maxSiteAge) {
+		this.file = file;
+		this.maxSites = maxSites;
+		this.maxSiteAge = maxSiteAge;
+	}
+
+	/**
+	 * @return the index shared by all catalogs, stored in the configuration area if there is one
+	 */
+	public static synchronized RepositoryVersionIndex getDefault() {
+		if (defaultIndex == null) {
+			File mpcArea = ConfigurationAreaUtil.getConfigurationArea(MarketplaceClientUi.BUNDLE_ID);
+			defaultIndex = new RepositoryVersionIndex(mpcArea == null ? null : new File(mpcArea, INDEX_FILE));
+			defaultIndex.load();
+		}
+		return defaultIndex;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the indexed version of the installable unit on the given site, or null if it hasn't been fetched yet
+	 */
+	public Entry get(String site, String iuId) {
+		Site siteEntry = getSite(site);
+		return siteEntry == null ? null : siteEntry.entries.get(iuId);
+	}
+
+	/**
+	 * @return the indexed versions of the given installable units, with null values for unavailable ones, or null if any
+	 *         of them hasn't been fetched yet
+	 */
+	public Map<String, Version> getVersions(String site, Collection<String> iuIds) {
+		Site siteEntry = getSite(site);
+		if (siteEntry == null) {
+			return null;
+		}
+		Map<String, Version> versions = new HashMap<>();
+		for (String iuId : iuIds) {
+			Entry entry = siteEntry.entries.get(iuId);
+			if (entry == null) {
+				return null;
+			}
+			versions.put(iuId, entry.getVersion());
+		}
+		return versions;
+	}
+
+	/**
+	 * @return the content fingerprint of the site when it was last checked, or null if it is unknown
+	 */
+	public String getFingerprint(String site) {
+		Site siteEntry = getSite(site);
+		return siteEntry == null ? null : siteEntry.fingerprint;
+	}
+
+	/**
+	 * @return the time in milliseconds when the site was last checked, or -1 if it hasn't been checked yet
+	 */
+	public long getTimestamp(String site) {
+		Site siteEntry = getSite(site);
+		return siteEntry == null ? -1 : siteEntry.timestamp;
+	}
+
+	private Site getSite(String site) {
+		return site == null ? null : sites.get(site);
+	}
+
+	/**
+	 * Record the result of checking a site. If the site's fingerprint is unchanged, the new versions are added to the
+	 * known ones. Otherwise, the site's content has changed and its previous entries are dropped.
+	 *
+	 * @param versions
+	 *            the highest available version by IU id, with null values for unavailable IUs
+	 */
+	public void update(String site, String fingerprint, Map<String, Version> versions) {
+		long timestamp = currentTimeMillis();
+		sites.compute(site, (key, previous) -> {
+			Map<String, Entry> entries = new HashMap<>();
+			if (previous != null && fingerprint != null && fingerprint.equals(previous.fingerprint)) {
+				entries.putAll(previous.entries);
+			}
+			for (Map.Entry<String, Version> version : versions.entrySet()) {
+				entries.put(version.getKey(), new Entry(version.getValue(), timestamp));
+			}
+			return new Site(fingerprint, timestamp, Collections.unmodifiableMap(entries));
+		});
+		dirty = true;
+	}
+
+	public void invalidate(String site) {
+		if (sites.remove(site) != null) {
+			dirty = true;
+		}
+	}
+
+	public void clear() {
+		sites.clear();
+		dirty = true;
+	}
+
+	/**
+	 * Replace the index content with the stored index. A missing or unreadable file results in an empty index.
+	 */
+	public synchronized void load() {
+		sites.clear();
+		dirty = false;
+		if (file == null || !file.isFile()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FORMAT_MAGIC) {
+				return;
+			}
+			for (int siteCount = in.readInt(); siteCount > 0; siteCount--) {
+				String site = in.readUTF();
+				String fingerprint = readOptionalString(in);
+				long siteTimestamp = in.readLong();
+				Map<String, Entry> entries = new HashMap<>();
+				for (int entryCount = in.readInt(); entryCount > 0; entryCount--) {
+					String iuId = in.readUTF();
+					String version = readOptionalString(in);
+					long timestamp = in.readLong();
+					entries.put(iuId, new Entry(version == null ? null : Version.create(version), timestamp));
+				}
+				sites.put(site, new Site(fingerprint, siteTimestamp, Collections.unmodifiableMap(entries)));
+			}
+			prune();
+		} catch (IOException | IllegalArgumentException e) {
+			//never fail due to this - the versions are fetched again
+			sites.clear();
+			MarketplaceClientUi.log(IStatus.INFO, Messages.RepositoryVersionIndex_LoadError, file, e);
+			file.delete();
+		}
+	}
+
+	/**
+	 * Store the index if it changed since it was last loaded or saved. The file is replaced atomically, so a concurrent
+	 * reader never sees a partially written index.
+	 */
+	public synchronized void save() {
+		prune();
+		if (file == null || !dirty) {
+			return;
+		}
+		dirty = false;
+		try {
+			File directory = file.getParentFile();
+			if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+				throw new IOException(directory.getAbsolutePath());
+			}
+			File tempFile = File.createTempFile(INDEX_FILE, TEMP_SUFFIX, directory);
+			try {
+				try (DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+					write(out);
+				}
+				try {
+					Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+							StandardCopyOption.REPLACE_EXISTING);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				tempFile.delete();
+			}
+		} catch (IOException e) {
+			dirty = true;
+			MarketplaceClientUi.log(IStatus.WARNING, Messages.RepositoryVersionIndex_SaveError, file, e);
+		}
+	}
+
+	/**
+	 * Drop the sites that haven't been checked within the maximum site age, and the least recently checked sites
+	 * beyond the maximum number of sites.
+	 */
+	public synchronized void prune() {
+		long now = currentTimeMillis();
+		List<Map.Entry<String, Site>> retained = new ArrayList<>();
+		for (Map.Entry<String, Site> site : sites.entrySet()) {
+			if (now - site.getValue().timestamp > maxSiteAge) {
+				remove(site);
+			} else {
+				retained.add(site);
+			}
+		}
+		if (retained.size() > maxSites) {
+			retained.sort(Comparator.comparingLong(site -> site.getValue().timestamp));
+			for (Map.Entry<String, Site> site : retained.subList(0, retained.size() - maxSites)) {
+				remove(site);
+			}
+		}
+	}
+
+	/**
+	 * @return the current time in milliseconds, which sites are timestamped with and expire by
+	 */
+	protected long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+
+	private void remove(Map.Entry<String, Site> site) {
+		//keep the site if it has been checked again in the meantime
+		if (sites.remove(site.getKey(), site.getValue())) {
+			dirty = true;
+		}
+	}
+
+	private void write(DataOutputStream out) throws IOException {
+		//take a snapshot, since sites can be updated concurrently
+		Map<String, Site> snapshot = new HashMap<>(sites);
+		out.writeInt(FORMAT_MAGIC);
+		out.writeInt(snapshot.size());
+		for (Map.Entry<String, Site> site : snapshot.entrySet()) {
+			Site siteEntry = site.getValue();
+			out.writeUTF(site.getKey());
+			writeOptionalString(out, siteEntry.fingerprint);
+			out.writeLong(siteEntry.timestamp);
+			out.writeInt(siteEntry.entries.size());
+			for (Map.Entry<String, Entry> entry : siteEntry.entries.entrySet()) {
+				Version version = entry.getValue().getVersion();
+				out.writeUTF(entry.getKey());
+				writeOptionalString(out, Objects.toString(version, null));
+				out.writeLong(entry.getValue().getTimestamp());
+			}
+		}
+	}
+
+	private static String readOptionalString(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	private static void writeOptionalString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+}
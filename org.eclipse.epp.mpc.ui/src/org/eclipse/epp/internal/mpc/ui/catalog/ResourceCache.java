@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.catalog;
+
+import java.io.File;
+
+import org.eclipse.epp.internal.mpc.core.util.ConfigurationAreaUtil;
+import org.eclipse.epp.internal.mpc.core.util.PersistentCache;
+import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
+
+/**
+ * A size-bounded cache of downloaded catalog resources like icons and screenshots, which survives restarts.
+ * <p>
+ * Resources are handed out as the {@link Entry#getFile() content files} of their entries, so the resource providers
+ * register an {@link EvictionListener} to learn when a file is gone.
+ */
+public class ResourceCache extends PersistentCache {
+
+	public static final String CACHE_SIZE_PROPERTY = "org.eclipse.epp.mpc.ui.resourceCache.size"; //$NON-NLS-1$
+
+	private static final long DEFAULT_CACHE_SIZE = 50 * 1024 * 1024;
+
+	private static final String CACHE_DIR = "resources"; //$NON-NLS-1$
+
+	private static ResourceCache defaultCache;
+
+	public ResourceCache(File directory, long maxSize) {
+		super(directory, maxSize);
+	}
+
+	/**
+	 * @return the cache shared by all resource providers, or null if there is no configuration area to keep it in or
+	 *         it has been disabled with the {@value #CACHE_SIZE_PROPERTY} system property
+	 */
+	public static synchronized ResourceCache getDefault() {
+		if (defaultCache == null) {
+			long cacheSize = Long.getLong(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE);
+			File mpcArea = ConfigurationAreaUtil.getConfigurationArea(MarketplaceClientUi.BUNDLE_ID);
+			if (cacheSize > 0 && mpcArea != null) {
+				defaultCache = new ResourceCache(new File(mpcArea, CACHE_DIR), cacheSize);
+			}
+		}
+		return defaultCache;
+	}
+}
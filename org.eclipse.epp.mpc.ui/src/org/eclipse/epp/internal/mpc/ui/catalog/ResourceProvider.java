@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -13,19 +13,22 @@
  *******************************************************************************/
 package org.eclipse.epp.internal.mpc.ui.catalog;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
@@ -38,9 +41,10 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.epp.internal.mpc.core.util.TransportFactory;
+import org.eclipse.epp.internal.mpc.core.util.ConditionalRequest;
 import org.eclipse.epp.internal.mpc.core.util.URLUtil;
 import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
+import org.eclipse.epp.mpc.core.service.ITransport;
 import org.eclipse.osgi.util.NLS;
 
 /**
@@ -55,56 +59,126 @@ public class ResourceProvider {
 		void setResource(T resource);
 	}
 
+	/**
+	 * A resource to {@link ResourceProvider#retrieveResources(List, int) retrieve}
+	 */
+	public static final class ResourceRequest {
+
+		private final String requestSource;
+
+		private final String resourceName;
+
+		private final URI resourceUrl;
+
+		/**
+		 * @param requestSource
+		 *            describes who requested the resource, for error messages
+		 */
+		public ResourceRequest(String requestSource, String resourceName, URI resourceUrl) {
+			this.requestSource = requestSource;
+			this.resourceName = resourceName;
+			this.resourceUrl = resourceUrl;
+		}
+	}
+
 	public static final class ResourceFuture implements Future<URL> {
 
 		private InputStream input;
 
-		private final FutureTask<URL> delegate;
+		private final ResourceTask delegate;
+
+		private final List<Runnable> doneListeners = new CopyOnWriteArrayList<>();
+
+		private volatile DownloadScheduler.Download download;
 
-		ResourceFuture(final File dir, final String resourceName) {
-			delegate = new FutureTask<>(() -> {
+		private String entityTag;
+
+		private String lastModified;
+
+		ResourceFuture(final ResourceCache cache, final String key) {
+			delegate = new ResourceTask(() -> {
 				if (input == null) {
 					throw new IllegalStateException();
 				}
-				String filenameHint = resourceName;
-				if (filenameHint.lastIndexOf('/') != -1) {
-					filenameHint = filenameHint.substring(filenameHint.lastIndexOf('/') + 1);
-				}
-				filenameHint = filenameHint.replaceAll("[^a-zA-Z0-9\\.]", "_"); //$NON-NLS-1$ //$NON-NLS-2$
-				if (filenameHint.length() > 32) {
-					String hash = Integer.toHexString(filenameHint.hashCode());
-					filenameHint = filenameHint.substring(0, 6) + "_" //$NON-NLS-1$
-							+ hash + "_" //$NON-NLS-1$
-							+ filenameHint.substring(filenameHint.length() - (32 - hash.length() - 1 - 6 - 1));
-				}
-				final File outputFile = createTempFile(dir, filenameHint);
-				outputFile.deleteOnExit();
+				ResourceCache.Entry entry = cache.put(key, input, entityTag, lastModified);
+				return toURL(entry.getFile());
+			});
+		}
 
-				URL outputURL;
-				try {
-					outputURL = outputFile.toURI().toURL();
-				} catch (MalformedURLException e) {
-					MarketplaceClientUi.error(e);
-					return null;
-				}
-				BufferedOutputStream output = new BufferedOutputStream(new FileOutputStream(outputFile));
-				boolean success = false;
-				try {
-					InputStream buffered = new BufferedInputStream(input);
-					int i;
-					while ((i = buffered.read()) != -1) {
-						output.write(i);
-					}
-					success = true;
-				} finally {
-					output.close();
-					if (!success || !outputFile.exists()) {
-						outputFile.delete();
-						outputURL = null;
-					}
+		private final class ResourceTask extends FutureTask<URL> {
+
+			ResourceTask(Callable<URL> callable) {
+				super(callable);
+			}
+
+			@Override
+			protected void done() {
+				for (Runnable listener : doneListeners) {
+					notifyDone(listener);
 				}
-				return outputURL;
-			});
+			}
+
+			@Override
+			protected void set(URL v) {
+				super.set(v);
+			}
+
+			@Override
+			protected void setException(Throwable t) {
+				super.setException(t);
+			}
+		}
+
+		/**
+		 * Run the given listener once this future is done, either in the thread completing it or immediately if it is
+		 * already done.
+		 */
+		public void addDoneListener(Runnable listener) {
+			doneListeners.add(listener);
+			if (isDone()) {
+				notifyDone(listener);
+			}
+		}
+
+		public void removeDoneListener(Runnable listener) {
+			doneListeners.remove(listener);
+		}
+
+		private void notifyDone(Runnable listener) {
+			//only notify once, even if we race with done()
+			if (doneListeners.remove(listener)) {
+				listener.run();
+			}
+		}
+
+		/**
+		 * Raise the download priority of this resource if it hasn't been downloaded yet.
+		 *
+		 * @see DownloadScheduler#PRIORITY_VISIBLE
+		 */
+		public void prioritize(int priority) {
+			DownloadScheduler.Download download = this.download;
+			if (download != null && download.getPriority() < priority) {
+				download.setPriority(priority);
+			}
+		}
+
+		/**
+		 * Register interest in this resource. Once all interested parties have {@link #release() released} it, a
+		 * pending download is cancelled.
+		 */
+		public void acquire() {
+			DownloadScheduler.Download download = this.download;
+			if (download != null) {
+				download.acquire();
+			}
+		}
+
+		public void release() {
+			DownloadScheduler.Download download = this.download;
+			if (download != null) {
+				download.release();
+			}
 		}
 
 		@Override
@@ -136,13 +210,30 @@ public class ResourceProvider {
 			return delegate;
 		}
 
+		void fail(Exception e) {
+			delegate.setException(e);
+		}
+
+		void complete(URL url) {
+			delegate.set(url);
+		}
+
 		public URL retrieve(InputStream stream) throws IOException {
+			return retrieve(stream, null, null);
+		}
+
+		/**
+		 * Store the given content in the resource cache, together with the validators needed to revalidate it later.
+		 */
+		URL retrieve(InputStream stream, String entityTag, String lastModified) throws IOException {
 			synchronized(this)
 			{
 				if (this.isDone() || this.input != null) {
 					return getURL();
 				}
 				this.input = stream;
+				this.entityTag = entityTag;
+				this.lastModified = lastModified;
 			}
 			try
 			{
@@ -153,6 +244,8 @@ public class ResourceProvider {
 			{
 				synchronized (this) {
 					this.input = null;
+					this.entityTag = null;
+					this.lastModified = null;
 				}
 			}
 		}
@@ -173,7 +266,7 @@ public class ResourceProvider {
 					ioException.initCause(cause);
 					throw ioException;
 				}
-			} catch (InterruptedException e) {
+			} catch (InterruptedException | CancellationException e) {
 				return null;
 			}
 		}
@@ -191,12 +284,53 @@ public class ResourceProvider {
 
 	}
 
+	/**
+	 * Cached resources are used without asking the server for this long. After that, they are still used, but
+	 * revalidated in the background.
+	 */
+	private static final long MAX_RESOURCE_AGE = TimeUnit.DAYS.toMillis(1);
+
 	private File dir;
 
+	private ResourceCache cache;
+
 	private final Map<String, ResourceFuture> resources = new ConcurrentHashMap<>();
 
+	private final DownloadScheduler downloadScheduler;
+
+	private final ResourceCache persistentCache;
+
+	private final ResourceCache.EvictionListener evictionListener = this::evicted;
+
+	public ResourceProvider() {
+		this(DownloadScheduler.getDefault());
+	}
+
+	public ResourceProvider(DownloadScheduler downloadScheduler) {
+		this(downloadScheduler, ResourceCache.getDefault());
+	}
+
+	/**
+	 * @param persistentCache
+	 *            the cache to keep resources in across sessions, or null to keep them in a temporary folder that is
+	 *            deleted on {@link #dispose()}
+	 */
+	public ResourceProvider(DownloadScheduler downloadScheduler, ResourceCache persistentCache) {
+		this.downloadScheduler = downloadScheduler;
+		this.persistentCache = persistentCache;
+	}
+
+	public DownloadScheduler getDownloadScheduler() {
+		return downloadScheduler;
+	}
+
 	public synchronized void init() throws IOException {
-		if (dir != null) {
+		if (cache != null) {
+			return;
+		}
+		if (persistentCache != null) {
+			cache = persistentCache;
+			cache.addEvictionListener(evictionListener);
 			return;
 		}
 		for (int i = 0; i < 5; i++) {
@@ -209,6 +343,7 @@ public class ResourceProvider {
 							NLS.bind(Messages.ResourceProvider_FailedCreatingTempDir, dir.getAbsolutePath()));
 				}
 				dir.deleteOnExit();
+				cache = new ResourceCache(dir, Long.MAX_VALUE);
 				return;
 			} catch (IOException e) {
 				//ignore
@@ -244,98 +379,230 @@ public class ResourceProvider {
 		synchronized (this) {
 			init();
 			resourceFuture = resources.get(resourceName);
-			if (resourceFuture == null) {
-				resourceFuture = new ResourceFuture(dir, resourceName);
+			if (resourceFuture == null || resourceFuture.isCancelled()) {
+				resourceFuture = new ResourceFuture(cache, resourceName);
 				resources.put(resourceName, resourceFuture);
 			}
 		}
 		return resourceFuture;
 	}
 
-	private static File createTempFile(File tempDir, String filenameHint) throws IOException {
-		for (int i = 0; i < 5; i++) {
-			// we sometimes get intermittent errors creating the temp file. so retry a couple of times
-			try {
-				if (!tempDir.isDirectory()) {
-					if (!tempDir.mkdirs()) {
-						throw new IOException(
-								NLS.bind(Messages.ResourceProvider_FailedCreatingTempDir, tempDir.getAbsolutePath()));
-					}
-				}
-				final File outputFile = File.createTempFile("res_", filenameHint, tempDir); //$NON-NLS-1$
-				return outputFile;
-			} catch (IOException e) {
-				//ignore
-			}
-		}
-		final File outputFile = File.createTempFile("res_", filenameHint, tempDir); //$NON-NLS-1$
-		return outputFile;
-	}
-
 	public ResourceFuture retrieveResource(String requestSource, String resourceUrl) throws IOException,
 	URISyntaxException {
 		URI resourceUri = URLUtil.toURI(resourceUrl);
 		return retrieveResource(requestSource, resourceUrl, resourceUri);
 	}
 
+	public ResourceFuture retrieveResource(String requestSource, String resourceUrl, int priority)
+			throws IOException, URISyntaxException {
+		URI resourceUri = URLUtil.toURI(resourceUrl);
+		return retrieveResource(requestSource, resourceUrl, resourceUri, priority);
+	}
+
 	public ResourceFuture retrieveResource(String requestSource, URI resourceUrl) throws IOException {
 		return retrieveResource(requestSource, resourceUrl.toString(), resourceUrl);
 	}
 
 	public ResourceFuture retrieveResource(final String requestSource, final String resourceName, final URI resourceUrl)
 			throws IOException {
-		ResourceFuture resourceFuture;
-		boolean retrieve = false;
+		return retrieveResource(requestSource, resourceName, resourceUrl, DownloadScheduler.PRIORITY_DEFAULT);
+	}
+
+	/**
+	 * Download a resource unless it has already been requested. The download is queued in the shared
+	 * {@link DownloadScheduler} with the given priority. If the resource has already been requested, its pending
+	 * download is raised to the given priority instead.
+	 */
+	public ResourceFuture retrieveResource(final String requestSource, final String resourceName, final URI resourceUrl,
+			int priority) throws IOException {
+		return retrieveResources(
+				Collections.singletonList(new ResourceRequest(requestSource, resourceName, resourceUrl)), priority)
+				.get(0);
+	}
+
+	/**
+	 * Download a batch of resources, like {@link #retrieveResource(String, String, URI, int)}. All new downloads are
+	 * queued at once.
+	 *
+	 * @return the resources, in the order of the requests
+	 */
+	public List<ResourceFuture> retrieveResources(List<ResourceRequest> requests, int priority) throws IOException {
+		List<ResourceFuture> resourceFutures = new ArrayList<>(requests.size());
+		List<ResourceRequest> retrieveRequests = new ArrayList<>();
+		List<ResourceFuture> retrieveFutures = new ArrayList<>();
+		List<ResourceFuture> requestedFutures = new ArrayList<>();
 		synchronized (this) {
-			resourceFuture = resources.get(resourceName);
-			if (resourceFuture == null) {
-				resourceFuture = registerResource(resourceName);
-				retrieve = true;
+			for (ResourceRequest request : requests) {
+				ResourceFuture resourceFuture = resources.get(request.resourceName);
+				if (resourceFuture == null || resourceFuture.isCancelled()) {
+					resourceFuture = registerResource(request.resourceName);
+					retrieveRequests.add(request);
+					retrieveFutures.add(resourceFuture);
+				} else {
+					requestedFutures.add(resourceFuture);
+				}
+				resourceFutures.add(resourceFuture);
 			}
 		}
-		if (retrieve) {
-			final ResourceFuture finalResourceFuture = resourceFuture;
-			new Job(Messages.ResourceProvider_retrievingResource) {
+		List<DownloadScheduler.Download> downloads = new ArrayList<>();
+		for (int i = 0; i < retrieveRequests.size(); i++) {
+			DownloadScheduler.Download download = createDownload(retrieveRequests.get(i), retrieveFutures.get(i),
+					priority);
+			if (download != null) {
+				downloads.add(download);
+			}
+		}
+		if (!downloads.isEmpty()) {
+			downloadScheduler.submitAll(downloads);
+		}
+		for (ResourceFuture resourceFuture : requestedFutures) {
+			resourceFuture.prioritize(priority);
+		}
+		return resourceFutures;
+	}
 
-				{
-					setPriority(INTERACTIVE);
-					setUser(false);
-					setSystem(true);
+	/**
+	 * @return the download for the given resource, or null if it has been served from the cache
+	 */
+	private DownloadScheduler.Download createDownload(ResourceRequest request, final ResourceFuture resourceFuture,
+			int priority) {
+		final String requestSource = request.requestSource;
+		final String resourceName = request.resourceName;
+		final URI resourceUrl = request.resourceUrl;
+		final ResourceCache cache = getCache();
+		final ResourceCache.Entry cachedEntry = cache.get(resourceName);
+		if (cachedEntry != null) {
+			resourceFuture.complete(toURL(cachedEntry.getFile()));
+			if (System.currentTimeMillis() - cachedEntry.getTimestamp() >= MAX_RESOURCE_AGE) {
+				//use the cached content right away and check for a newer version in the background
+				revalidateResource(requestSource, resourceName, resourceUrl, cachedEntry);
+			}
+			return null;
+		}
+		DownloadScheduler.Download download = new DownloadScheduler.Download(resourceUrl, priority) {
+
+			private ConditionalRequest.Response response;
+
+			@Override
+			protected InputStream open(ITransport transport, IProgressMonitor monitor) throws Exception {
+				response = ConditionalRequest.stream(transport, getLocation(), null, null, monitor);
+				return response.getContent();
+			}
+
+			@Override
+			protected void receive(InputStream in) throws IOException {
+				resourceFuture.retrieve(in, response.getEntityTag(), response.getLastModified());
+			}
+
+			@Override
+			protected void failed(Exception e) {
+				if (e instanceof FileNotFoundException) {
+					//MarketplaceClientUi.error(NLS.bind(Messages.AbstractResourceRunnable_resourceNotFound, new Object[] { catalogItem.getName(),
+					//catalogItem.getId(), resourceUrl }), e);
+				} else if (e instanceof IOException && e.getCause() instanceof OperationCanceledException) {
+					// canceled, nothing we want to do here
+				} else if (e instanceof IOException || e instanceof CoreException) {
+					MarketplaceClientUi.log(IStatus.WARNING, Messages.ResourceProvider_downloadError, requestSource,
+							resourceUrl, e);
+				} else {
+					MarketplaceClientUi.error(e);
 				}
+				//make sure nobody waits for a download that never happened
+				resourceFuture.fail(e);
+			}
 
-				@Override
-				protected IStatus run(IProgressMonitor monitor) {
-					try (InputStream in = TransportFactory.createTransport().stream(resourceUrl, monitor)) {
-						finalResourceFuture.retrieve(in);
-					} catch (FileNotFoundException e) {
-						//MarketplaceClientUi.error(NLS.bind(Messages.AbstractResourceRunnable_resourceNotFound, new Object[] { catalogItem.getName(),
-						//catalogItem.getId(), resourceUrl }), e);
-					} catch (IOException e) {
-						if (e.getCause() instanceof OperationCanceledException) {
-							// canceled, nothing we want to do here
-						} else {
-							MarketplaceClientUi.log(IStatus.WARNING, Messages.ResourceProvider_downloadError, requestSource,
-									resourceUrl, e);
-						}
-					} catch (CoreException e) {
-						MarketplaceClientUi.log(IStatus.WARNING, Messages.ResourceProvider_downloadError, requestSource,
-								resourceUrl, e);
-					}
-					return Status.OK_STATUS;
+			@Override
+			protected void cancelled() {
+				//forget the resource, so it is downloaded again if it is requested later on
+				resources.remove(resourceName, resourceFuture);
+				resourceFuture.cancel(false);
+			}
+		};
+		resourceFuture.download = download;
+		return download;
+	}
+
+	private void revalidateResource(final String requestSource, final String resourceName, final URI resourceUrl,
+			final ResourceCache.Entry cachedEntry) {
+		final ResourceCache cache = getCache();
+		downloadScheduler.submit(new DownloadScheduler.Download(resourceUrl, DownloadScheduler.PRIORITY_BACKGROUND) {
+
+			private ConditionalRequest.Response response;
+
+			@Override
+			protected InputStream open(ITransport transport, IProgressMonitor monitor) throws Exception {
+				response = ConditionalRequest.stream(transport, getLocation(), cachedEntry.getEntityTag(),
+						cachedEntry.getLastModified(), monitor);
+				return response.getContent();
+			}
+
+			@Override
+			protected void notModified() {
+				cache.touch(resourceName);
+			}
+
+			@Override
+			protected void receive(InputStream in) throws IOException {
+				//replaces the cached file in place, so the resource's URL stays valid
+				cache.put(resourceName, in, response.getEntityTag(), response.getLastModified());
+			}
+
+			@Override
+			protected void failed(Exception e) {
+				if (!(e instanceof FileNotFoundException) && !(e.getCause() instanceof OperationCanceledException)) {
+					MarketplaceClientUi.log(IStatus.INFO, Messages.ResourceProvider_downloadError, requestSource,
+							resourceUrl, e);
 				}
-			}.schedule();
+			}
+		});
+	}
+
+	/**
+	 * Forget the resources stored in an evicted file, so they are retrieved again the next time they are requested.
+	 */
+	private void evicted(File file) {
+		URL url = toURL(file);
+		if (url != null) {
+			String location = url.toExternalForm();
+			resources.values().removeIf(resource -> {
+				URL localURL = resource.getLocalURL();
+				return localURL != null && location.equals(localURL.toExternalForm());
+			});
+		}
+	}
+
+	private synchronized ResourceCache getCache() {
+		return cache;
+	}
+
+	private static URL toURL(File file) {
+		try {
+			return file.toURI().toURL();
+		} catch (MalformedURLException e) {
+			MarketplaceClientUi.error(e);
+			return null;
 		}
-		return resourceFuture;
 	}
 
 	public void dispose() {
 		File dir;
+		ResourceCache cache;
 		synchronized (this) {
 			dir = this.dir;
+			cache = this.cache;
 			this.dir = null;
+			this.cache = null;
 			resources.clear();
 		}
-		if (dir != null && dir.isDirectory()) {
+		if (cache != null) {
+			cache.removeEvictionListener(evictionListener);
+		}
+		if (dir == null) {
+			//the persistent cache is kept for the next session
+			return;
+		}
+		cache.clear();
+		if (dir.isDirectory()) {
 			File[] resourceFiles = dir.listFiles();
 			if (resourceFiles != null) {
 				for (File file : resourceFiles) {
@@ -356,7 +623,9 @@ public class ResourceProvider {
 			if (fallbackResource != null) {
 				receiver.setResource(fallbackResource);
 			}
-			new Job(Messages.ResourceProvider_waitingForDownload) {
+			//the resource is requested for display, so it shouldn't wait behind prefetched ones
+			resource.prioritize(DownloadScheduler.PRIORITY_VISIBLE);
+			resource.addDoneListener(() -> new Job(Messages.ResourceProvider_waitingForDownload) {
 
 				{
 					setPriority(INTERACTIVE);
@@ -368,7 +637,7 @@ public class ResourceProvider {
 				protected IStatus run(IProgressMonitor monitor) {
 					return setResource(receiver, resourcePath, resource);
 				}
-			}.schedule();
+			}.schedule());
 		} else if (fallbackResource != null) {
 			receiver.setResource(fallbackResource);
 		}
@@ -382,7 +651,7 @@ public class ResourceProvider {
 				T processedResource = receiver.processResource(resourceUrl);
 				receiver.setResource(processedResource);
 			}
-		} catch (InterruptedException e) {
+		} catch (InterruptedException | CancellationException e) {
 			return Status.CANCEL_STATUS;
 		} catch (ExecutionException e) {
 			// already logged during download
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ * 	The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.catalog;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.equinox.p2.core.ProvisionException;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.equinox.p2.query.IQuery;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.repository.ICompositeRepository;
+import org.eclipse.equinox.p2.repository.IRepository;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRepositoryManager;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
+
+/**
+ * Looks up the versions of feature groups that are available on update sites. Only the metadata repository is queried,
+ * and only for the installable units that are asked for.
+ * <p>
+ * Results are remembered per site in a {@link RepositoryVersionIndex}. Within the freshness window, a site is not
+ * contacted again. After that, the site's metadata is loaded again, but only queried again if its content fingerprint
+ * (the repository timestamps) changed.
+ */
+public class UpdateSiteChecker {
+
+	static final long DEFAULT_FRESHNESS_WINDOW = TimeUnit.MINUTES.toMillis(15);
+
+	private static final String FEATURE_GROUP_QUERY = "id == $0 && id ~= /*.feature.group/ && " + //$NON-NLS-1$
+			"properties['org.eclipse.equinox.p2.type.group'] == true"; //$NON-NLS-1$
+
+	private static UpdateSiteChecker defaultChecker;
+
+	private final RepositoryVersionIndex index;
+
+	private final long freshnessWindow;
+
+	public UpdateSiteChecker(RepositoryVersionIndex index, long freshnessWindow) {
+		this.index = index;
+		this.freshnessWindow = freshnessWindow;
+	}
+
+	public UpdateSiteChecker(long freshnessWindow) {
+		this(new RepositoryVersionIndex(null), freshnessWindow);
+	}
+
+	/**
+	 * @return the checker shared by all catalogs, which remembers its results in the
+	 *         {@link RepositoryVersionIndex#getDefault() default index}
+	 */
+	public static synchronized UpdateSiteChecker getDefault() {
+		if (defaultChecker == null) {
+			defaultChecker = new UpdateSiteChecker(RepositoryVersionIndex.getDefault(), DEFAULT_FRESHNESS_WINDOW);
+		}
+		return defaultChecker;
+	}
+
+	public RepositoryVersionIndex getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return true if the site has been checked within the freshness window
+	 */
+	public boolean isFresh(String site) {
+		long timestamp = index.getTimestamp(site);
+		return timestamp >= 0 && System.currentTimeMillis() - timestamp < freshnessWindow;
+	}
+
+	/**
+	 * Get the remembered versions for the given installable units, if the site has been checked for all of them within
+	 * the freshness window.
+	 *
+	 * @return the highest available version by IU id, with <code>null</code> values for unavailable IUs, or
+	 *         <code>null</code> if the site needs to be checked
+	 */
+	public Map<String, Version> getCachedVersions(URI site, Collection<String> iuIds) {
+		String key = site.toString();
+		return isFresh(key) ? index.getVersions(key, iuIds) : null;
+	}
+
+	/**
+	 * Get the highest available versions of the given installable units on an update site, contacting the site only if
+	 * the remembered result isn't fresh anymore.
+	 *
+	 * @return the highest available version by IU id, with <code>null</code> values for unavailable IUs
+	 */
+	public Map<String, Version> getAvailableVersions(URI site, Collection<String> iuIds,
+			IMetadataRepositoryManager metadataRepositoryManager, IArtifactRepositoryManager artifactRepositoryManager,
+			IProgressMonitor monitor) throws ProvisionException {
+		Map<String, Version> cachedVersions = getCachedVersions(site, iuIds);
+		if (cachedVersions != null) {
+			return cachedVersions;
+		}
+
+		IMetadataRepository repository = metadataRepositoryManager.loadRepository(site, monitor);
+		checkCanceled(monitor);
+		if (repository instanceof ICompositeRepository<?> && artifactRepositoryManager != null) {
+			//bug 560062 - loading a composite adds its children to the metadata repository manager, so load the
+			//artifact side as well to keep both managers consistent. Simple repositories don't have this side effect.
+			artifactRepositoryManager.loadRepository(site, monitor);
+			checkCanceled(monitor);
+		}
+
+		String key = site.toString();
+		String fingerprint = computeFingerprint(repository, metadataRepositoryManager, monitor);
+		boolean unchanged = fingerprint != null && fingerprint.equals(index.getFingerprint(key));
+		Map<String, Version> versions = new HashMap<>();
+		List<String> missingIds = new ArrayList<>();
+		for (String id : iuIds) {
+			//unchanged content - only query for IUs we haven't looked for before
+			RepositoryVersionIndex.Entry entry = unchanged ? index.get(key, id) : null;
+			if (entry == null) {
+				missingIds.add(id);
+				versions.put(id, null);
+			} else {
+				versions.put(id, entry.getVersion());
+			}
+		}
+		if (!missingIds.isEmpty()) {
+			for (IInstallableUnit iu : repository.query(createFeatureGroupQuery(missingIds), monitor)) {
+				Version version = iu.getVersion();
+				Version priorVersion = versions.get(iu.getId());
+				if (priorVersion == null || priorVersion.compareTo(version) < 0) {
+					versions.put(iu.getId(), version);
+				}
+			}
+			checkCanceled(monitor);
+		}
+		index.update(key, fingerprint, versions);
+		return Collections.unmodifiableMap(versions);
+	}
+
+	/**
+	 * Forget the remembered results for a site, e.g. after it has been used to install or update something.
+	 */
+	public void invalidate(URI site) {
+		index.invalidate(site.toString());
+	}
+
+	/**
+	 * Query for the feature groups with the given ids. Matching each id separately lets the repository use its id index
+	 * instead of looking at all of its installable units.
+	 *
+	 * @param ids
+	 *            the ids of the feature groups, including their {@code .feature.group} suffix
+	 */
+	public static IQuery<IInstallableUnit> createFeatureGroupQuery(Collection<String> ids) {
+		List<IQuery<IInstallableUnit>> queries = new ArrayList<>(ids.size());
+		for (String id : ids) {
+			queries.add(QueryUtil.createMatchQuery(FEATURE_GROUP_QUERY, id));
+		}
+		return queries.size() == 1 ? queries.get(0) : QueryUtil.createCompoundQuery(queries, false);
+	}
+
+	/**
+	 * Compute a fingerprint of the repository content from the timestamps of the repository and its children. Returns
+	 * <code>null</code> if a repository doesn't have a timestamp, in which case its content is always queried again.
+	 */
+	private static String computeFingerprint(IMetadataRepository repository,
+			IMetadataRepositoryManager metadataRepositoryManager, IProgressMonitor monitor) {
+		String timestamp = repository.getProperties().get(IRepository.PROP_TIMESTAMP);
+		if (timestamp == null) {
+			return null;
+		}
+		StringBuilder fingerprint = new StringBuilder(timestamp);
+		if (repository instanceof ICompositeRepository<?>) {
+			for (URI child : ((ICompositeRepository<?>) repository).getChildren()) {
+				//children have been loaded with the composite, so this doesn't go to the network
+				String childFingerprint;
+				try {
+					childFingerprint = computeFingerprint(metadataRepositoryManager.loadRepository(child, monitor),
+							metadataRepositoryManager, monitor);
+				} catch (ProvisionException e) {
+					childFingerprint = null;
+				}
+				if (childFingerprint == null) {
+					return null;
+				}
+				fingerprint.append(',').append(child).append('=').append(childFingerprint);
+			}
+		}
+		return fingerprint.toString();
+	}
+
+	private static void checkCanceled(IProgressMonitor monitor) {
+		if (monitor != null && monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,7 @@ package org.eclipse.epp.internal.mpc.ui.commands;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
@@ -27,9 +28,11 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
+import org.eclipse.epp.internal.mpc.core.service.CachingCatalogService;
 import org.eclipse.epp.internal.mpc.ui.CatalogRegistry;
 import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
 import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUiResources;
+import org.eclipse.epp.internal.mpc.ui.catalog.DownloadScheduler;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceCatalog;
 import org.eclipse.epp.internal.mpc.ui.catalog.ResourceProvider;
 import org.eclipse.epp.internal.mpc.ui.wizards.AbstractMarketplaceWizardDialog;
@@ -53,6 +56,15 @@ import org.eclipse.ui.statushandlers.StatusManager;
  */
 public abstract class AbstractMarketplaceWizardCommand extends AbstractHandler implements IHandler {
 
+	/**
+	 * Registers catalogs that have changed since the wizard was opened with the last known ones
+	 */
+	private static final Consumer<List<? extends ICatalog>> CATALOG_RECONCILER = AbstractMarketplaceWizardCommand::installCatalogs;
+
+	private static CachingCatalogService reconciledCatalogService;
+
+	private static List<? extends ICatalog> installedCatalogs;
+
 	private List<CatalogDescriptor> catalogDescriptors;
 
 	private CatalogDescriptor selectedCatalogDescriptor;
@@ -161,11 +173,23 @@ public abstract class AbstractMarketplaceWizardCommand extends AbstractHandler i
 
 	public IStatus installRemoteCatalogs() {
 		try {
+			ICatalogService catalogService = ServiceHelper.getMarketplaceServiceLocator().getCatalogService();
+			if (catalogService instanceof CachingCatalogService) {
+				CachingCatalogService cachingCatalogService = (CachingCatalogService) catalogService;
+				hookCatalogReconciler(cachingCatalogService);
+				List<? extends ICatalog> cachedCatalogs = cachingCatalogService.getCachedCatalogs();
+				if (cachedCatalogs != null) {
+					//open right away with the last known catalogs and pick up changes in the background
+					installCatalogs(cachedCatalogs);
+					cachingCatalogService.refresh();
+					return Status.OK_STATUS;
+				}
+			}
+
 			final AtomicReference<List<? extends ICatalog>> result = new AtomicReference<>();
 
 			PlatformUI.getWorkbench().getProgressService().busyCursorWhile(monitor -> {
 				try {
-					ICatalogService catalogService = ServiceHelper.getMarketplaceServiceLocator().getCatalogService();
 					final List<? extends ICatalog> catalogs = catalogService.listCatalogs(monitor);
 					result.set(catalogs);
 				} catch (CoreException e) {
@@ -176,35 +200,7 @@ public abstract class AbstractMarketplaceWizardCommand extends AbstractHandler i
 				}
 			});
 
-			List<? extends ICatalog> catalogs = result.get();
-			for (ICatalog catalog : catalogs) {
-				ResourceProvider resourceProvider = MarketplaceClientUiResources.getInstance().getResourceProvider();
-				String catalogName = catalog.getName();
-				String requestSource = NLS.bind(Messages.MarketplaceWizardCommand_requestCatalog, catalogName,
-						catalog.getId());
-				String catalogImageUrl = catalog.getImageUrl();
-				if (catalogImageUrl != null) {
-					try {
-						resourceProvider.retrieveResource(requestSource, catalogImageUrl);
-					} catch (Exception e) {
-						MarketplaceClientUi.log(IStatus.WARNING,
-								Messages.MarketplaceWizardCommand_FailedRetrievingCatalogImage, catalogName,
-								catalogImageUrl, e);
-					}
-				}
-				if (catalog.getBranding() != null && catalog.getBranding().getWizardIcon() != null) {
-					String wizardIconUrl = catalog.getBranding().getWizardIcon();
-					try {
-						resourceProvider.retrieveResource(requestSource, wizardIconUrl);
-					} catch (Exception e) {
-						MarketplaceClientUi.log(IStatus.WARNING,
-								Messages.MarketplaceWizardCommand_FailedRetrievingCatalogWizardIcon, catalogName,
-								wizardIconUrl, e);
-					}
-				}
-				CatalogDescriptor descriptor = new CatalogDescriptor(catalog);
-				registerOrOverrideCatalog(descriptor);
-			}
+			installCatalogs(result.get());
 		} catch (InterruptedException ie) {
 			if (ie.getMessage() == null || "".equals(ie.getMessage())) {
 				InterruptedException ie1 = new InterruptedException("Operation cancelled");
@@ -224,7 +220,61 @@ public abstract class AbstractMarketplaceWizardCommand extends AbstractHandler i
 		return Status.OK_STATUS;
 	}
 
-	private void registerOrOverrideCatalog(CatalogDescriptor descriptor) {
+	private static synchronized void hookCatalogReconciler(CachingCatalogService catalogService) {
+		if (reconciledCatalogService == catalogService) {
+			return;
+		}
+		if (reconciledCatalogService != null) {
+			reconciledCatalogService.removeCatalogListener(CATALOG_RECONCILER);
+		}
+		reconciledCatalogService = catalogService;
+		catalogService.addCatalogListener(CATALOG_RECONCILER);
+	}
+
+	private static synchronized void installCatalogs(List<? extends ICatalog> catalogs) {
+		if (catalogs == installedCatalogs) {
+			//already registered, e.g. by an earlier wizard
+			return;
+		}
+		for (ICatalog catalog : catalogs) {
+			retrieveCatalogResources(catalog, DownloadScheduler.PRIORITY_DEFAULT);
+			CatalogDescriptor descriptor = new CatalogDescriptor(catalog);
+			registerOrOverrideCatalog(descriptor);
+		}
+		installedCatalogs = catalogs;
+	}
+
+	/**
+	 * Download the images shown for the given catalog, unless they have been downloaded already.
+	 */
+	static void retrieveCatalogResources(ICatalog catalog, int priority) {
+		ResourceProvider resourceProvider = MarketplaceClientUiResources.getInstance().getResourceProvider();
+		String catalogName = catalog.getName();
+		String requestSource = NLS.bind(Messages.MarketplaceWizardCommand_requestCatalog, catalogName,
+				catalog.getId());
+		String catalogImageUrl = catalog.getImageUrl();
+		if (catalogImageUrl != null) {
+			try {
+				resourceProvider.retrieveResource(requestSource, catalogImageUrl, priority);
+			} catch (Exception e) {
+				MarketplaceClientUi.log(IStatus.WARNING,
+						Messages.MarketplaceWizardCommand_FailedRetrievingCatalogImage, catalogName,
+						catalogImageUrl, e);
+			}
+		}
+		if (catalog.getBranding() != null && catalog.getBranding().getWizardIcon() != null) {
+			String wizardIconUrl = catalog.getBranding().getWizardIcon();
+			try {
+				resourceProvider.retrieveResource(requestSource, wizardIconUrl, priority);
+			} catch (Exception e) {
+				MarketplaceClientUi.log(IStatus.WARNING,
+						Messages.MarketplaceWizardCommand_FailedRetrievingCatalogWizardIcon, catalogName,
+						wizardIconUrl, e);
+			}
+		}
+	}
+
+	private static void registerOrOverrideCatalog(CatalogDescriptor descriptor) {
 		CatalogRegistry catalogRegistry = CatalogRegistry.getInstance();
 		List<CatalogDescriptor> descriptors = catalogRegistry.getCatalogDescriptors();
 		for (CatalogDescriptor catalogDescriptor : descriptors) {
@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.commands;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.epp.internal.mpc.core.service.CachingCatalogService;
+import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
+import org.eclipse.epp.internal.mpc.ui.catalog.DownloadScheduler;
+import org.eclipse.epp.mpc.core.model.ICatalog;
+import org.eclipse.epp.mpc.core.service.ICatalogService;
+import org.eclipse.epp.mpc.core.service.ServiceHelper;
+import org.eclipse.ui.IStartup;
+
+/**
+ * Loads the marketplace catalogs and their images in the background after startup, so the marketplace wizard can open
+ * right away.
+ * <p>
+ * The catalogs are only loaded once nothing else is going on, so this doesn't compete with the startup of the
+ * workbench. If there is a persistent snapshot of the catalogs, it is used and revalidated with the server.
+ */
+public class CatalogPrefetcher implements IStartup {
+
+	private static final long STARTUP_DELAY = TimeUnit.SECONDS.toMillis(20);
+
+	private static final long BUSY_RETRY_DELAY = TimeUnit.SECONDS.toMillis(10);
+
+	/**
+	 * Prefetch anyway after this many attempts, since a workbench with periodic background work is never truly idle
+	 */
+	private static final int MAX_BUSY_RETRIES = 12;
+
+	@Override
+	public void earlyStartup() {
+		if (!MarketplaceClientUi.prefetchCatalogs()) {
+			return;
+		}
+		new Job(Messages.CatalogPrefetcher_prefetchingCatalogs) {
+
+			private int retries;
+
+			{
+				setPriority(DECORATE);
+				setUser(false);
+				setSystem(true);
+			}
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				if (isBusy(this) && retries++ < MAX_BUSY_RETRIES) {
+					schedule(BUSY_RETRY_DELAY);
+					return Status.OK_STATUS;
+				}
+				try {
+					prefetch(monitor);
+				} catch (CoreException e) {
+					if (e.getStatus().getSeverity() == IStatus.CANCEL) {
+						return Status.CANCEL_STATUS;
+					}
+					//not worth bothering anyone - the wizard will try again and report problems
+					MarketplaceClientUi.log(IStatus.INFO, e.getMessage(), e);
+				}
+				return Status.OK_STATUS;
+			}
+		}.schedule(STARTUP_DELAY);
+	}
+
+	private static boolean isBusy(Job self) {
+		for (Job job : Job.getJobManager().find(null)) {
+			if (job != self && (job.getState() == Job.RUNNING || job.getState() == Job.WAITING)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void prefetch(IProgressMonitor monitor) throws CoreException {
+		ICatalogService catalogService = ServiceHelper.getMarketplaceServiceLocator().getCatalogService();
+		if (!(catalogService instanceof CachingCatalogService)) {
+			//without a cache, the wizard would request the catalogs again anyway
+			return;
+		}
+		CachingCatalogService cachingCatalogService = (CachingCatalogService) catalogService;
+		if (cachingCatalogService.getCachedCatalogs() != null) {
+			return;
+		}
+		List<? extends ICatalog> catalogs = cachingCatalogService.listCatalogs(monitor);
+		for (ICatalog catalog : catalogs) {
+			AbstractMarketplaceWizardCommand.retrieveCatalogResources(catalog, DownloadScheduler.PRIORITY_BACKGROUND);
+		}
+	}
+}
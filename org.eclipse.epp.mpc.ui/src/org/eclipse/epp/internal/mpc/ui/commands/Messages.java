@@ -18,6 +18,8 @@ import org.eclipse.osgi.util.NLS;
 class Messages extends NLS {
 	private static final String BUNDLE_NAME = "org.eclipse.epp.internal.mpc.ui.commands.messages"; //$NON-NLS-1$
 
+	public static String CatalogPrefetcher_prefetchingCatalogs;
+
 	public static String MarketplaceWizardCommand_allCategories;
 
 	public static String MarketplaceWizardCommand_allMarkets;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -18,13 +18,22 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.epp.internal.mpc.core.util.URLUtil;
+import org.eclipse.epp.internal.mpc.ui.catalog.UpdateSiteChecker;
 import org.eclipse.equinox.internal.p2.discovery.model.CatalogItem;
 import org.eclipse.equinox.p2.core.ProvisionException;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
@@ -42,6 +51,8 @@ public abstract class AbstractProvisioningOperation implements IRunnableWithProg
 
 	protected static final String P2_FEATURE_GROUP_SUFFIX = ".feature.group"; //$NON-NLS-1$
 
+	private static final int MAX_CONCURRENT_LOADS = 4;
+
 	protected final List<CatalogItem> items;
 
 	protected final ProvisioningUI provisioningUI;
@@ -63,7 +74,7 @@ public abstract class AbstractProvisioningOperation implements IRunnableWithProg
 		// tell p2 that it's okay to use these repositories
 		ProvisioningSession session = ProvisioningUI.getDefaultUI().getSession();
 		RepositoryTracker repositoryTracker = ProvisioningUI.getDefaultUI().getRepositoryTracker();
-		repositoryLocations = new HashSet<>();
+		repositoryLocations = new LinkedHashSet<>();
 		if (addedRepositoryLocations == null) {
 			addedRepositoryLocations = new HashSet<>();
 		}
@@ -85,16 +96,71 @@ public abstract class AbstractProvisioningOperation implements IRunnableWithProg
 		}
 
 		// fetch meta-data for these repositories
-		ArrayList<IMetadataRepository> repositories = new ArrayList<>();
-		monitor.setWorkRemaining(repositories.size());
 		IMetadataRepositoryManager manager = (IMetadataRepositoryManager) session.getProvisioningAgent().getService(
 				IMetadataRepositoryManager.SERVICE_NAME);
-		for (URI uri : repositoryLocations) {
-			checkCancelled(monitor);
-			IMetadataRepository repository = manager.loadRepository(uri, monitor.newChild(1));
-			repositories.add(repository);
+		return loadRepositories(manager, new ArrayList<>(repositoryLocations), monitor);
+	}
+
+	/**
+	 * Load the given repositories concurrently, with at most {@link #MAX_CONCURRENT_LOADS} loads at a time. The
+	 * repositories are returned in the order of the given locations. Cancelling the monitor or a failing load cancels
+	 * the remaining loads.
+	 */
+	private List<IMetadataRepository> loadRepositories(final IMetadataRepositoryManager manager, List<URI> locations,
+			final SubMonitor monitor) throws ProvisionException {
+		monitor.setWorkRemaining(locations.size());
+		List<IMetadataRepository> repositories = new ArrayList<>(locations.size());
+		if (locations.isEmpty()) {
+			return repositories;
+		}
+		//SubMonitor isn't thread-safe, so the loads only report to the monitor through cancellation
+		final IProgressMonitor loadMonitor = new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled() || monitor.isCanceled();
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(locations.size(), MAX_CONCURRENT_LOADS));
+		try {
+			List<Future<IMetadataRepository>> loads = new ArrayList<>(locations.size());
+			for (final URI uri : locations) {
+				loads.add(executor.submit(() -> manager.loadRepository(uri, loadMonitor)));
+			}
+			for (Future<IMetadataRepository> load : loads) {
+				repositories.add(getLoadedRepository(load, monitor));
+				monitor.worked(1);
+			}
+			return repositories;
+		} finally {
+			loadMonitor.setCanceled(true);
+			executor.shutdownNow();
+		}
+	}
+
+	private IMetadataRepository getLoadedRepository(Future<IMetadataRepository> load, IProgressMonitor monitor)
+			throws ProvisionException {
+		try {
+			while (true) {
+				checkCancelled(monitor);
+				try {
+					return load.get(100, TimeUnit.MILLISECONDS);
+				} catch (TimeoutException e) {
+					//check for cancellation again
+				}
+			}
+		} catch (InterruptedException e) {
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof ProvisionException) {
+				throw (ProvisionException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
 		}
-		return repositories;
 	}
 
 	/**
@@ -111,15 +177,16 @@ public abstract class AbstractProvisioningOperation implements IRunnableWithProg
 		for (final IMetadataRepository repository : repositories) {
 			checkCancelled(monitor);
 			final Set<String> installableUnitIdsThisRepository = getDescriptorIds(repository);
+			if (installableUnitIdsThisRepository.isEmpty()) {
+				monitor.worked(1);
+				continue;
+			}
 
-			IQuery<IInstallableUnit> query = QueryUtil.createLatestQuery(QueryUtil.createIUGroupQuery());
+			IQuery<IInstallableUnit> query = QueryUtil
+					.createLatestQuery(UpdateSiteChecker.createFeatureGroupQuery(installableUnitIdsThisRepository));
 			IQueryResult<IInstallableUnit> result = repository.query(query, monitor.newChild(1));
-
 			for (IInstallableUnit iu : result) {
-				String id = iu.getId();
-				if (installableUnitIdsThisRepository.contains(id)) {
-					installableUnits.add(iu);
-				}
+				installableUnits.add(iu);
 			}
 		}
 		return installableUnits;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 Tasktop Technologies and others.
+ * Copyright (c) 2009, 2026 Tasktop Technologies and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -124,6 +124,10 @@ public class ProfileChangeOperationComputer extends AbstractProvisioningOperatio
 
 	private String errorMessage;
 
+	private ResolutionCache resolutionCache = ResolutionCache.getDefault();
+
+	private boolean interactive = true;
+
 	/**
 	 * @param operationType
 	 *            the type of operation to perform
@@ -254,6 +258,26 @@ public class ProfileChangeOperationComputer extends AbstractProvisioningOperatio
 		return errorMessage;
 	}
 
+	public OperationType getOperationType() {
+		return operationType;
+	}
+
+	/**
+	 * Set the cache for resolved operations, or null to always resolve from scratch. By default, the
+	 * {@link ResolutionCache#getDefault() shared cache} is used.
+	 */
+	public void setResolutionCache(ResolutionCache resolutionCache) {
+		this.resolutionCache = resolutionCache;
+	}
+
+	/**
+	 * A computer that isn't interactive never asks the user how to proceed, e.g. when resolving a selection
+	 * speculatively in the background. It fails instead.
+	 */
+	public void setInteractive(boolean interactive) {
+		this.interactive = interactive;
+	}
+
 	private IInstallableUnit[] computeInstalledIus(IInstallableUnit[] ius) {
 		List<IInstallableUnit> installedIus = new ArrayList<>(ius.length);
 		Map<String, IInstallableUnit> iUsById = MarketplaceClientUi.computeInstalledIUsById(new NullProgressMonitor());
@@ -279,17 +303,17 @@ public class ProfileChangeOperationComputer extends AbstractProvisioningOperatio
 
 	private ProfileChangeOperation resolveInstall(IProgressMonitor monitor, final IInstallableUnit[] ius,
 			URI[] repositories) throws CoreException {
-		return resolve(monitor, ius1 -> provisioningUI.getInstallOperation(ius1, null), ius, repositories);
+		return resolve(monitor, ius1 -> provisioningUI.getInstallOperation(ius1, null), ius, null, repositories);
 	}
 
 	private ProfileChangeOperation resolveUninstall(IProgressMonitor monitor, final IInstallableUnit[] ius,
 			URI[] repositories) throws CoreException {
-		return resolve(monitor, ius1 -> provisioningUI.getUninstallOperation(ius1, null), ius, repositories);
+		return resolve(monitor, ius1 -> provisioningUI.getUninstallOperation(ius1, null), ius, null, repositories);
 	}
 
 	private ProfileChangeOperation resolveUpdate(IProgressMonitor monitor, final IInstallableUnit[] ius,
 			URI[] repositories) throws CoreException {
-		return resolve(monitor, ius1 -> provisioningUI.getUpdateOperation(ius1, null), ius, repositories);
+		return resolve(monitor, ius1 -> provisioningUI.getUpdateOperation(ius1, null), ius, null, repositories);
 	}
 
 	private ProfileChangeOperation resolveChange(IProgressMonitor monitor, IInstallableUnit[] ius,
@@ -308,11 +332,11 @@ public class ProfileChangeOperationComputer extends AbstractProvisioningOperatio
 
 			operation.add(uninstallOperation).add(installOperation);
 			return operation;
-		}, ius, repositories);
+		}, ius, uninstallIUs, repositories);
 	}
 
 	private ProfileChangeOperation resolve(IProgressMonitor monitor, ProfileChangeOperationFactory operationFactory,
-			IInstallableUnit[] ius, URI[] repositories) throws CoreException {
+			IInstallableUnit[] ius, IInstallableUnit[] uninstallIUs, URI[] repositories) throws CoreException {
 		List<IInstallableUnit> installableUnits = Arrays.asList(ius);
 		List<ResolutionStrategy> strategies = new ArrayList<>(2);
 		switch (resolutionStrategy) {
@@ -347,13 +371,27 @@ public class ProfileChangeOperationComputer extends AbstractProvisioningOperatio
 			if (repositoryLocations.equals(previousRepositoryLocations)) {
 				continue;
 			}
-			operation = operationFactory.create(installableUnits);
-			if (!repositoryLocations.isEmpty()) {
-				URI[] locations = repositoryLocations.toArray(new URI[repositoryLocations.size()]);
-				operation.getProvisioningContext().setMetadataRepositories(locations);
-				operation.getProvisioningContext().setArtifactRepositories(locations);
+			ResolutionCache.Key cacheKey = resolutionCache == null ? null
+					: ResolutionCache.createKey(session, provisioningUI.getProfileId(), operationType, ius,
+							uninstallIUs, repositoryLocations);
+			operation = cacheKey == null ? null : resolutionCache.get(cacheKey);
+			if (operation == null) {
+				operation = operationFactory.create(installableUnits);
+				if (!repositoryLocations.isEmpty()) {
+					URI[] locations = repositoryLocations.toArray(new URI[repositoryLocations.size()]);
+					operation.getProvisioningContext().setMetadataRepositories(locations);
+					operation.getProvisioningContext().setArtifactRepositories(locations);
+				}
+				resolveModal(subMonitor.newChild(workPerStrategy), operation);
+				checkCancelled(subMonitor);
+				if (cacheKey != null) {
+					//only successful resolutions are kept
+					resolutionCache.put(cacheKey, operation);
+				}
+			} else {
+				//resolved before for the same profile state
+				subMonitor.worked(workPerStrategy);
 			}
-			resolveModal(subMonitor.newChild(workPerStrategy), operation);
 			if (operation.getResolutionResult() != null
 					&& operation.getResolutionResult().getSeverity() != IStatus.ERROR) {
 				break;
@@ -515,6 +553,10 @@ public class ProfileChangeOperationComputer extends AbstractProvisioningOperatio
 		}
 
 		if (message.length() > 0) {
+			if (!interactive) {
+				throw new CoreException(new Status(IStatus.ERROR, MarketplaceClientUi.BUNDLE_ID, NLS.bind(
+						Messages.ProvisioningOperation_unavailableSolutions, detailedMessage), null));
+			}
 			// instead of aborting here we ask the user if they wish to proceed anyways
 			final boolean[] okayToProceed = new boolean[1];
 			final String finalMessage = message;
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.operations;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.epp.internal.mpc.ui.operations.ProfileChangeOperationComputer.OperationType;
+import org.eclipse.equinox.p2.engine.IProfile;
+import org.eclipse.equinox.p2.engine.IProfileRegistry;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.operations.ProfileChangeOperation;
+import org.eclipse.equinox.p2.operations.ProvisioningSession;
+
+/**
+ * Remembers resolved profile change operations, so the planner doesn't have to run again for a selection that has been
+ * resolved before. Operations are keyed by the operation type, the installable units to install and uninstall, the
+ * repositories used for the resolution and the profile's timestamp, so any change to the profile invalidates them.
+ * <p>
+ * Only the most recently used operations are kept, since resolved plans can be big. Failed resolutions aren't kept.
+ */
+public class ResolutionCache {
+
+	private static final int MAX_ENTRIES = 8;
+
+	private static ResolutionCache defaultCache;
+
+	/**
+	 * Identifies a resolution.
+	 */
+	public static final class Key {
+
+		private final OperationType operationType;
+
+		private final Set<IInstallableUnit> installableUnits;
+
+		private final Set<IInstallableUnit> uninstallableUnits;
+
+		private final Set<URI> repositories;
+
+		private final String profileId;
+
+		private final long profileTimestamp;
+
+		private final int hashCode;
+
+		Key(OperationType operationType, Collection<IInstallableUnit> installableUnits,
+				Collection<IInstallableUnit> uninstallableUnits, Collection<URI> repositories, String profileId,
+				long profileTimestamp) {
+			this.operationType = operationType;
+			this.installableUnits = unmodifiableSet(installableUnits);
+			this.uninstallableUnits = unmodifiableSet(uninstallableUnits);
+			this.repositories = unmodifiableSet(repositories);
+			this.profileId = profileId;
+			this.profileTimestamp = profileTimestamp;
+			this.hashCode = Objects.hash(operationType, this.installableUnits, this.uninstallableUnits,
+					this.repositories, profileId, profileTimestamp);
+		}
+
+		private static <T> Set<T> unmodifiableSet(Collection<T> values) {
+			return values == null ? Collections.<T> emptySet() : Collections.unmodifiableSet(new HashSet<>(values));
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return hashCode == other.hashCode && operationType == other.operationType
+					&& profileTimestamp == other.profileTimestamp && Objects.equals(profileId, other.profileId)
+					&& installableUnits.equals(other.installableUnits)
+					&& uninstallableUnits.equals(other.uninstallableUnits) && repositories.equals(other.repositories);
+		}
+	}
+
+	private final Map<Key, ProfileChangeOperation> operations = new LinkedHashMap<Key, ProfileChangeOperation>(16,
+			0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, ProfileChangeOperation> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/**
+	 * @return the cache shared by all marketplace wizards
+	 */
+	public static synchronized ResolutionCache getDefault() {
+		if (defaultCache == null) {
+			defaultCache = new ResolutionCache();
+		}
+		return defaultCache;
+	}
+
+	/**
+	 * Create the key for resolving the given installable units against the given repositories in the current state of
+	 * the profile.
+	 *
+	 * @return the key, or null if the profile doesn't exist
+	 */
+	public static Key createKey(ProvisioningSession session, String profileId, OperationType operationType,
+			IInstallableUnit[] installableUnits, IInstallableUnit[] uninstallableUnits, Collection<URI> repositories) {
+		IProfileRegistry profileRegistry = (IProfileRegistry) session.getProvisioningAgent()
+				.getService(IProfileRegistry.SERVICE_NAME);
+		IProfile profile = profileRegistry == null ? null : profileRegistry.getProfile(profileId);
+		if (profile == null) {
+			return null;
+		}
+		return new Key(operationType, installableUnits == null ? null : Arrays.asList(installableUnits),
+				uninstallableUnits == null ? null : Arrays.asList(uninstallableUnits), repositories, profileId,
+				profile.getTimestamp());
+	}
+
+	/**
+	 * @return the resolved operation, or null if there is none for the key
+	 */
+	public synchronized ProfileChangeOperation get(Key key) {
+		return operations.get(key);
+	}
+
+	/**
+	 * Remember a resolved operation. Operations that failed to resolve or were cancelled aren't kept, so they are
+	 * resolved again on the next attempt, e.g. once an unreachable repository is back.
+	 */
+	public synchronized void put(Key key, ProfileChangeOperation operation) {
+		IStatus result = operation.getResolutionResult();
+		if (result != null && result.getSeverity() < IStatus.ERROR) {
+			operations.put(key, operation);
+		}
+	}
+
+	public synchronized void clear() {
+		operations.clear();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -19,6 +19,9 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.graphics.Rectangle;
 import org.osgi.framework.Version;
 
@@ -93,6 +96,135 @@ public class Util {
 		return scaledImage;
 	}
 
+	/**
+	 * Scale image data to a size that conforms to the given maximums while maintaining its original aspect ratio. Unlike
+	 * {@link #scaleImage(Image, int, int, Color)}, this doesn't need a device, so it can be used in a background thread.
+	 * Each new pixel is averaged from the pixels it covers, so downscaled images don't lose detail.
+	 *
+	 * @param data
+	 *            the image data to scale
+	 * @param maxWidth
+	 *            the maximum width of the new image
+	 * @param maxHeight
+	 *            the maximum height of the new image
+	 * @param background
+	 *            background color used in place of transparency, or null to keep the transparency
+	 * @return the new image data
+	 */
+	public static ImageData scaleImageData(ImageData data, int maxWidth, int maxHeight, RGB background) {
+		int width = data.width;
+		int height = data.height;
+		float widthRatio = ((float) width) / maxWidth;
+		float heightRatio = ((float) height) / maxHeight;
+		int newWidth;
+		int newHeight;
+		if (widthRatio > heightRatio) {
+			newWidth = maxWidth;
+			newHeight = Math.max(1, Math.min(maxHeight, (int) (height / widthRatio)));
+		} else {
+			newWidth = Math.max(1, Math.min(maxWidth, (int) (width / heightRatio)));
+			newHeight = maxHeight;
+		}
+
+		//read the source as non-premultiplied ARGB
+		int[] argb = new int[width * height];
+		int[] pixels = new int[width];
+		byte[] alphas = new byte[width];
+		PaletteData palette = data.palette;
+		//map the raw pixel values ourselves, since PaletteData.getRGB() creates an RGB for every pixel
+		int[] indexedColors = null;
+		if (!palette.isDirect) {
+			indexedColors = new int[palette.colors.length];
+			for (int i = 0; i < indexedColors.length; i++) {
+				RGB rgb = palette.colors[i];
+				indexedColors[i] = (rgb.red << 16) | (rgb.green << 8) | rgb.blue;
+			}
+		}
+		for (int y = 0; y < height; y++) {
+			data.getPixels(0, y, width, pixels, 0);
+			data.getAlphas(0, y, width, alphas, 0);
+			for (int x = 0; x < width; x++) {
+				int pixel = pixels[x];
+				int alpha = alphas[x] & 0xFF;
+				if (data.transparentPixel != -1 && pixel == data.transparentPixel) {
+					alpha = 0;
+				} else if (data.alpha != -1) {
+					alpha = alpha * data.alpha / 255;
+				}
+				int rgb;
+				if (indexedColors == null) {
+					rgb = (colorComponent(pixel, palette.redMask, palette.redShift) << 16)
+							| (colorComponent(pixel, palette.greenMask, palette.greenShift) << 8)
+							| colorComponent(pixel, palette.blueMask, palette.blueShift);
+				} else {
+					rgb = pixel < indexedColors.length ? indexedColors[pixel] : 0;
+				}
+				argb[y * width + x] = (alpha << 24) | rgb;
+			}
+		}
+
+		ImageData scaled = new ImageData(newWidth, newHeight, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		int[] newPixels = new int[newWidth];
+		byte[] newAlphas = null;
+		if (background == null) {
+			newAlphas = new byte[newWidth];
+			scaled.alphaData = new byte[newWidth * newHeight];
+		}
+		double xScale = ((double) width) / newWidth;
+		double yScale = ((double) height) / newHeight;
+		for (int newY = 0; newY < newHeight; newY++) {
+			double y0 = newY * yScale;
+			double y1 = Math.min(height, y0 + yScale);
+			for (int newX = 0; newX < newWidth; newX++) {
+				double x0 = newX * xScale;
+				double x1 = Math.min(width, x0 + xScale);
+				//weight each covered source pixel by its covered area and its alpha
+				double red = 0, green = 0, blue = 0, alpha = 0, area = 0;
+				for (int y = (int) y0; y < y1; y++) {
+					double yWeight = Math.min(y1, y + 1) - Math.max(y0, y);
+					for (int x = (int) x0; x < x1; x++) {
+						double weight = yWeight * (Math.min(x1, x + 1) - Math.max(x0, x));
+						int color = argb[y * width + x];
+						double colorWeight = weight * (color >>> 24);
+						red += colorWeight * ((color >> 16) & 0xFF);
+						green += colorWeight * ((color >> 8) & 0xFF);
+						blue += colorWeight * (color & 0xFF);
+						alpha += colorWeight;
+						area += weight;
+					}
+				}
+				int r = 0, g = 0, b = 0;
+				if (alpha > 0) {
+					r = (int) Math.round(red / alpha);
+					g = (int) Math.round(green / alpha);
+					b = (int) Math.round(blue / alpha);
+				}
+				int a = area > 0 ? (int) Math.round(alpha / area) : 0;
+				if (background != null) {
+					r = (r * a + background.red * (255 - a)) / 255;
+					g = (g * a + background.green * (255 - a)) / 255;
+					b = (b * a + background.blue * (255 - a)) / 255;
+				} else {
+					newAlphas[newX] = (byte) a;
+				}
+				newPixels[newX] = (r << 16) | (g << 8) | b;
+			}
+			scaled.setPixels(0, newY, newWidth, newPixels, 0);
+			if (newAlphas != null) {
+				scaled.setAlphas(0, newY, newWidth, newAlphas, 0);
+			}
+		}
+		return scaled;
+	}
+
+	/**
+	 * Extract a color component from a pixel of a direct palette, like {@link PaletteData#getRGB(int)} does.
+	 */
+	private static int colorComponent(int pixel, int mask, int shift) {
+		int component = pixel & mask;
+		return (shift < 0 ? component >>> -shift : component << shift) & 0xFF;
+	}
+
 	/**
 	 * Compute the message type of the given status.
 	 *
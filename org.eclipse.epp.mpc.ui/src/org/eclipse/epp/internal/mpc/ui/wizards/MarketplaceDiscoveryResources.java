@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@
 package org.eclipse.epp.internal.mpc.ui.wizards;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -23,8 +24,11 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
+import org.eclipse.epp.internal.mpc.ui.catalog.DownloadScheduler;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceCatalogSource;
+import org.eclipse.epp.internal.mpc.ui.catalog.ResourceProvider;
 import org.eclipse.epp.internal.mpc.ui.catalog.ResourceProvider.ResourceFuture;
+import org.eclipse.epp.internal.mpc.ui.wizards.ScaledImageCache.Lease;
 import org.eclipse.equinox.internal.p2.discovery.AbstractCatalogSource;
 import org.eclipse.equinox.internal.p2.discovery.model.Icon;
 import org.eclipse.equinox.internal.p2.ui.discovery.wizards.DiscoveryResources;
@@ -34,7 +38,11 @@ import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.jface.resource.LocalResourceManager;
 import org.eclipse.jface.resource.ResourceManager;
 import org.eclipse.swt.SWTException;
+import org.eclipse.swt.events.DisposeEvent;
+import org.eclipse.swt.events.DisposeListener;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 
 /**
@@ -108,11 +116,25 @@ public class MarketplaceDiscoveryResources extends DiscoveryResources {
 
 	public void setImage(final ImageReceiver receiver, final AbstractCatalogSource discoverySource,
 			final String imagePath, Image fallbackImage) {
+		setImage(receiver, discoverySource, imagePath, fallbackImage, null);
+	}
+
+	/**
+	 * Provide the image at the given path to the receiver. If the image is still being downloaded, the fallback image is
+	 * provided first and the download is moved ahead of prefetched resources.
+	 *
+	 * @param owner
+	 *            the control showing the image, or null. If the owner is disposed before the image has been downloaded,
+	 *            the download is cancelled unless someone else needs it.
+	 */
+	public void setImage(final ImageReceiver receiver, final AbstractCatalogSource discoverySource,
+			final String imagePath, Image fallbackImage, Control owner) {
 		if (imagePath != null && imagePath.length() > 0) {
 			Image image = null;
+			ResourceFuture resource = null;
 			if (discoverySource instanceof MarketplaceCatalogSource) {
 				MarketplaceCatalogSource marketplaceSource = (MarketplaceCatalogSource) discoverySource;
-				ResourceFuture resource = marketplaceSource.getResourceProvider().getResource(imagePath);
+				resource = retrieveImage(marketplaceSource.getResourceProvider(), imagePath);
 				if (resource != null) {
 					URL localURL = resource.getLocalURL();
 					if (localURL != null) {
@@ -130,9 +152,16 @@ public class MarketplaceDiscoveryResources extends DiscoveryResources {
 			}
 			if (image != null) {
 				receiver.setImage(image);
+				return;
 			} else if (fallbackImage != null) {
 				receiver.setImage(fallbackImage);
 			}
+			if (resource != null) {
+				if (!resource.isDone()) {
+					provideImageWhenDone(receiver, imagePath, resource, owner);
+				}
+				return;
+			}
 			new Job(Messages.MarketplaceDiscoveryResources_retrievingImage) {
 
 				{
@@ -171,6 +200,169 @@ public class MarketplaceDiscoveryResources extends DiscoveryResources {
 		}
 	}
 
+	/**
+	 * Provide the image at the given path to the receiver, scaled to fit into the given size. Decoding and scaling
+	 * happen in the background, and the scaled image is shared with all other controls on the display that show the
+	 * same image in the same size. The fallback image is provided until the scaled image is available.
+	 *
+	 * @param background
+	 *            background color used in place of transparency, or null to keep the transparency
+	 * @param owner
+	 *            the control showing the image. The scaled image is released when the owner is disposed, and must not
+	 *            be used afterwards.
+	 * @see ScaledImageCache
+	 */
+	public void setScaledImage(final ImageReceiver receiver, final AbstractCatalogSource discoverySource,
+			final String imagePath, int maxWidth, int maxHeight, RGB background, Image fallbackImage,
+			final Control owner) {
+		if (fallbackImage != null) {
+			receiver.setImage(fallbackImage);
+		}
+		if (imagePath == null || imagePath.length() == 0 || owner.isDisposed()) {
+			return;
+		}
+		final ScaledImageRequest request = new ScaledImageRequest(receiver, maxWidth, maxHeight, background, owner);
+		if (discoverySource instanceof MarketplaceCatalogSource) {
+			MarketplaceCatalogSource marketplaceSource = (MarketplaceCatalogSource) discoverySource;
+			final ResourceFuture resource = retrieveImage(marketplaceSource.getResourceProvider(), imagePath);
+			if (resource == null) {
+				return;
+			}
+			if (resource.isDone()) {
+				request.acquire(resource.getLocalURL());
+				return;
+			}
+			Runnable listener = () -> request.acquireAsync(resource.getLocalURL());
+			resource.acquire();
+			owner.addDisposeListener(e -> {
+				resource.removeDoneListener(listener);
+				resource.release();
+			});
+			resource.addDoneListener(listener);
+			return;
+		}
+		new Job(Messages.MarketplaceDiscoveryResources_retrievingImage) {
+
+			{
+				setPriority(INTERACTIVE);
+				setUser(false);
+				setSystem(true);
+			}
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					request.acquireAsync(discoverySource.getResource(imagePath));
+				} catch (Exception e) {
+					MarketplaceClientUi.log(IStatus.WARNING, Messages.MarketplaceDiscoveryResources_FailedCreatingImage,
+							imagePath, discoverySource.getId(), e);
+					return Status.CANCEL_STATUS;//we don't want any additional logging or error popups...
+				}
+				return Status.OK_STATUS;
+			}
+		}.schedule();
+	}
+
+	private class ScaledImageRequest implements DisposeListener {
+
+		private final ImageReceiver receiver;
+
+		private final int maxWidth;
+
+		private final int maxHeight;
+
+		private final RGB background;
+
+		private final Control owner;
+
+		private Lease lease;
+
+		ScaledImageRequest(ImageReceiver receiver, int maxWidth, int maxHeight, RGB background, Control owner) {
+			this.receiver = receiver;
+			this.maxWidth = maxWidth;
+			this.maxHeight = maxHeight;
+			this.background = background;
+			this.owner = owner;
+		}
+
+		void acquireAsync(final URL url) {
+			if (url == null || display.isDisposed()) {
+				return;
+			}
+			try {
+				display.asyncExec(() -> acquire(url));
+			} catch (SWTException ex) {
+				//disposed in the meantime
+			}
+		}
+
+		void acquire(URL url) {
+			if (url == null || owner.isDisposed() || lease != null) {
+				return;
+			}
+			owner.addDisposeListener(this);
+			lease = ScaledImageCache.getInstance(display).acquire(url, maxWidth, maxHeight, background, image -> {
+				if (!owner.isDisposed()) {
+					receiver.setImage(image);
+				}
+			});
+		}
+
+		@Override
+		public void widgetDisposed(DisposeEvent e) {
+			if (lease != null) {
+				lease.release();
+				lease = null;
+			}
+		}
+	}
+
+	private ResourceFuture retrieveImage(ResourceProvider resourceProvider, String imagePath) {
+		ResourceFuture resource = resourceProvider.getResource(imagePath);
+		if (resource == null || resource.isCancelled()) {
+			//not prefetched, or cancelled because the items that needed it were disposed
+			try {
+				resource = resourceProvider.retrieveResource(imagePath, imagePath, DownloadScheduler.PRIORITY_VISIBLE);
+			} catch (IOException | URISyntaxException e) {
+				MarketplaceClientUi.log(IStatus.WARNING, Messages.MarketplaceDiscoveryResources_LoadImageError,
+						imagePath, e);
+				return null;
+			}
+		} else {
+			resource.prioritize(DownloadScheduler.PRIORITY_VISIBLE);
+		}
+		return resource;
+	}
+
+	private void provideImageWhenDone(final ImageReceiver receiver, final String imagePath,
+			final ResourceFuture resource, final Control owner) {
+		Runnable listener = () -> {
+			if (display.isDisposed()) {
+				return;
+			}
+			URL localURL = resource.getLocalURL();
+			if (localURL != null) {
+				display.asyncExec(() -> {
+					if (owner != null && owner.isDisposed()) {
+						return;
+					}
+					Image image = safeCreateImage(imagePath, localURL);
+					if (image != null) {
+						receiver.setImage(image);
+					}
+				});
+			}
+		};
+		if (owner != null) {
+			resource.acquire();
+			owner.addDisposeListener(e -> {
+				resource.removeDoneListener(listener);
+				resource.release();
+			});
+		}
+		resource.addDoneListener(listener);
+	}
+
 	private Image safeCreateImage(String imagePath, URL url) {
 		try {
 			ImageDescriptor descriptor = ImageDescriptor.createFromURL(url);
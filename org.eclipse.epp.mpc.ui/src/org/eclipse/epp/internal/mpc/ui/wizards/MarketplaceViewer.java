@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -31,10 +31,12 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.epp.internal.mpc.core.MarketplaceClientCore;
 import org.eclipse.epp.internal.mpc.core.model.Identifiable;
 import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceCatalog;
+import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceCatalog.UpdateCheck;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceCategory;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceCategory.Contents;
 import org.eclipse.epp.internal.mpc.ui.catalog.MarketplaceDiscoveryStrategy;
@@ -76,6 +78,7 @@ import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.jface.window.IShellProvider;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.ScrolledComposite;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.graphics.Rectangle;
@@ -231,10 +234,14 @@ public class MarketplaceViewer extends CatalogViewer {
 
 	private IDiscoveryItemFactory discoveryItemFactory;
 
+	private VirtualItemController virtualItems;
+
 	private MarketplaceDiscoveryResources discoveryResources;
 
 	private boolean inUpdate;
 
+	private Job updateCheckJob;
+
 	private Composite header;
 
 	private final LoginListener loginListener = new LoginListener() {
@@ -457,6 +464,17 @@ public class MarketplaceViewer extends CatalogViewer {
 		return item;
 	}
 
+	/**
+	 * Only plain marketplace entries are virtualized. Banners and user actions are few, and some of them have side
+	 * effects on creation.
+	 */
+	private static boolean isVirtualItem(Object element) {
+		if (element instanceof CatalogItem && !(element instanceof UserActionCatalogItem)) {
+			return !(((CatalogItem) element).getData() instanceof CatalogDescriptor);
+		}
+		return false;
+	}
+
 	private BrowseCatalogItem createBrowseItem(CatalogItem catalogItem, Composite parent) {
 		CatalogDescriptor catalogDescriptor = (CatalogDescriptor) catalogItem.getData();
 		return new BrowseCatalogItem(parent, getResources(), shellProvider, browser,
@@ -645,8 +663,14 @@ public class MarketplaceViewer extends CatalogViewer {
 	protected IStatus refreshFavorites() {
 		IStatus status;
 		try {
+			final Job previousUpdateCheck = cancelUpdateCheck();
 			final IStatus[] result = new IStatus[1];
-			context.run(true, true, monitor -> result[0] = getCatalog().refreshUserFavorites(monitor));
+			context.run(true, true, monitor -> {
+				if (previousUpdateCheck != null) {
+					previousUpdateCheck.join();
+				}
+				result[0] = getCatalog().refreshUserFavorites(monitor);
+			});
 			status = result[0];
 		} catch (InvocationTargetException e) {
 			status = computeStatus(e, Messages.MarketplaceViewer_unexpectedException);
@@ -665,8 +689,13 @@ public class MarketplaceViewer extends CatalogViewer {
 		try {
 			final ContentType queryType = contentType;
 			queryContentType = queryType;
+			final Job previousUpdateCheck = cancelUpdateCheck();
 			final IStatus[] result = new IStatus[1];
 			context.run(true, true, monitor -> {
+				if (previousUpdateCheck != null) {
+					//the update check works on the catalog's discovery strategies, so let it stop before they are reused
+					previousUpdateCheck.join();
+				}
 				switch (queryType) {
 				case POPULAR:
 					result[0] = getCatalog().popular(monitor);
@@ -709,12 +738,13 @@ public class MarketplaceViewer extends CatalogViewer {
 					}
 					break;
 				}
-				if (!monitor.isCanceled() && result[0] != null && result[0].getSeverity() != IStatus.CANCEL) {
-					getCatalog().checkForUpdates(monitor);
-				}
 				MarketplaceViewer.this.getControl().getDisplay().syncExec(() -> updateViewer(queryData.queryText));
 			});
 
+			if (result[0] != null && result[0].getSeverity() != IStatus.CANCEL) {
+				//show the results right away and add the update badges once the update sites have been checked
+				scheduleUpdateCheck();
+			}
 			if (result[0] != null && !result[0].isOK() && result[0].getSeverity() != IStatus.CANCEL) {
 				MarketplaceClientUi.handle(result[0],
 						(result[0].getSeverity() > IStatus.WARNING ? StatusManager.SHOW | StatusManager.BLOCK : 0)
@@ -734,6 +764,106 @@ public class MarketplaceViewer extends CatalogViewer {
 		}
 	}
 
+	/**
+	 * Check the current items for updates in the background. The check works on copies of the items. When done, its
+	 * results are applied to the items on the UI thread, which refreshes their install and update state in place and
+	 * shows the update banner. A running check is cancelled by the next query.
+	 */
+	private void scheduleUpdateCheck() {
+		final Control control = getControl();
+		if (control == null || control.isDisposed()) {
+			return;
+		}
+		final MarketplaceCatalog catalog = getCatalog();
+		final List<CatalogItem> items = new ArrayList<>(catalog.getItems());
+		final UpdateCheck updateCheck = catalog.newUpdateCheck();
+		Job job = new Job(Messages.MarketplaceViewer_checkingForUpdates) {
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				catalog.checkForUpdates(updateCheck, monitor);
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				final Job thisJob = this;
+				if (!control.isDisposed()) {
+					control.getDisplay().asyncExec(() -> {
+						//ignore results for a query that has been replaced in the meantime
+						if (updateCheckJob == thisJob && !control.isDisposed()) {
+							updateCheckJob = null;
+							catalog.applyUpdates(updateCheck);
+							if (addUpdateItem(catalog)) {
+								runUpdate(() -> getViewer().refresh());
+							} else {
+								refreshItems(items);
+							}
+						}
+					});
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		//queries and update checks take turns on the catalog's discovery strategies
+		job.setRule(catalog.getSchedulingRule());
+		job.setSystem(true);
+		job.setPriority(Job.DECORATE);
+		updateCheckJob = job;
+		job.schedule();
+	}
+
+	/**
+	 * Cancel the running update check, if any.
+	 *
+	 * @return the cancelled job or null if there was none
+	 */
+	private Job cancelUpdateCheck() {
+		Job job = updateCheckJob;
+		updateCheckJob = null;
+		if (job != null) {
+			job.cancel();
+		}
+		return job;
+	}
+
+	/**
+	 * Show the update banner for the catalog's available updates, unless the user has dismissed it for these updates.
+	 *
+	 * @return true if the banner has been added or changed
+	 */
+	private boolean addUpdateItem(MarketplaceCatalog catalog) {
+		List<MarketplaceNodeCatalogItem> availableUpdates = catalog.getAvailableUpdates();
+		if (availableUpdates == null || availableUpdates.isEmpty()
+				|| !getWizard().shouldShowUpdateBanner(calculateAvailableUpdatesKey(availableUpdates))) {
+			return false;
+		}
+		boolean added = false;
+		for (AbstractDiscoveryStrategy discoveryStrategy : catalog.getDiscoveryStrategies()) {
+			if (discoveryStrategy instanceof MarketplaceDiscoveryStrategy) {
+				MarketplaceDiscoveryStrategy marketplaceDiscoveryStrategy = (MarketplaceDiscoveryStrategy) discoveryStrategy;
+				for (CatalogCategory catalogCategory : catalog.getCategories()) {
+					if (catalogCategory instanceof MarketplaceCategory
+							&& ((MarketplaceCategory) catalogCategory).getContents() != Contents.INSTALLED) {
+						marketplaceDiscoveryStrategy.addUpdateItem(catalog.getItems(),
+								(MarketplaceCategory) catalogCategory, availableUpdates);
+						added = true;
+					}
+				}
+			}
+		}
+		return added;
+	}
+
+	private void refreshItems(List<CatalogItem> items) {
+		final StructuredViewer viewer = getViewer();
+		runUpdate(() -> {
+			for (CatalogItem item : items) {
+				if (item instanceof MarketplaceNodeCatalogItem && viewer.testFindItem(item) != null) {
+					viewer.refresh(item);
+				}
+			}
+		});
+	}
+
 	private String getTagQuery(String queryText) {
 		if (queryText != null && queryText.toLowerCase().startsWith(QUERY_TAG_KEYWORD)) {
 			String tag = queryText.substring(QUERY_TAG_KEYWORD.length()).trim();
@@ -967,9 +1097,28 @@ public class MarketplaceViewer extends CatalogViewer {
 			viewer = new ControlListViewer(container, SWT.NONE) {
 				@Override
 				protected ControlListItem<?> doCreateItem(Composite parent, Object element) {
+					if (virtualItems != null && isVirtualItem(element)) {
+						return virtualItems.createItem(parent, element);
+					}
 					return doCreateViewerItem(parent, element);
 				}
 			};
+			if (MarketplaceClientUi.useVirtualItems() && viewer.getControl() instanceof ScrolledComposite) {
+				virtualItems = new VirtualItemController((ScrolledComposite) viewer.getControl(),
+						new VirtualItemController.ItemFactory() {
+					@Override
+					public ControlListItem<?> createItem(Composite parent, Object element) {
+						return doCreateViewerItem(parent, element);
+					}
+
+					@Override
+					public void refreshItem(ControlListItem<?> item) {
+						if (item instanceof AbstractMarketplaceDiscoveryItem) {
+							((AbstractMarketplaceDiscoveryItem<?>) item).refresh();
+						}
+					}
+				});
+			}
 			viewer.setContentProvider(superViewer.getContentProvider());
 			viewer.setFilters(superViewer.getFilters());
 
@@ -978,7 +1127,10 @@ public class MarketplaceViewer extends CatalogViewer {
 		viewer.setComparator(null);
 
 		discoveryResources = new MarketplaceDiscoveryResources(container.getDisplay());
-		viewer.getControl().addDisposeListener(e -> discoveryResources.dispose());
+		viewer.getControl().addDisposeListener(e -> {
+			cancelUpdateCheck();
+			discoveryResources.dispose();
+		});
 
 		super.getResources().dispose();
 
@@ -1026,6 +1178,8 @@ public class MarketplaceViewer extends CatalogViewer {
 
 	@Override
 	public void updateCatalog() {
+		//the catalog checks for updates itself while it is updated
+		cancelUpdateCheck();
 		if (getWizard().wantInitializeInitialSelection()) {
 			try {
 				getWizard().initializeInitialSelection();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -45,6 +45,8 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobManager;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.preferences.ConfigurationScope;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
@@ -61,6 +63,7 @@ import org.eclipse.epp.internal.mpc.ui.commands.MarketplaceWizardCommand;
 import org.eclipse.epp.internal.mpc.ui.operations.AbstractProvisioningOperation;
 import org.eclipse.epp.internal.mpc.ui.operations.ProfileChangeOperationComputer;
 import org.eclipse.epp.internal.mpc.ui.operations.ProfileChangeOperationComputer.OperationType;
+import org.eclipse.epp.internal.mpc.ui.operations.ResolutionCache;
 import org.eclipse.epp.internal.mpc.ui.wizards.MarketplaceViewer.ContentType;
 import org.eclipse.epp.internal.mpc.ui.wizards.SelectionModel.CatalogItemEntry;
 import org.eclipse.epp.internal.mpc.ui.wizards.SelectionModel.FeatureEntry;
@@ -134,6 +137,24 @@ public class MarketplaceWizard extends DiscoveryWizard implements InstallProfile
 
 	private static final String DEBUG_NEWS_URL = MarketplaceClientUi.BUNDLE_ID + "/news/url"; //$NON-NLS-1$
 
+	private static final long SPECULATIVE_RESOLUTION_DELAY = 500;
+
+	/**
+	 * Serializes resolutions, so a canceled background resolution that is still finishing doesn't remove repositories
+	 * that the next resolution relies on.
+	 */
+	private static final ISchedulingRule RESOLUTION_RULE = new ISchedulingRule() {
+		@Override
+		public boolean contains(ISchedulingRule rule) {
+			return rule == this;
+		}
+
+		@Override
+		public boolean isConflicting(ISchedulingRule rule) {
+			return rule == this;
+		}
+	};
+
 	public static class WizardState {
 		private ContentType contentType;
 
@@ -225,6 +246,8 @@ public class MarketplaceWizard extends DiscoveryWizard implements InstallProfile
 
 	private String errorMessage;
 
+	private Job speculativeResolutionJob;
+
 	private WizardState initialState;
 
 	private boolean openFavoritesBannerShown;
@@ -250,6 +273,7 @@ public class MarketplaceWizard extends DiscoveryWizard implements InstallProfile
 			public void selectionChanged() {
 				super.selectionChanged();
 				profileChangeOperation = null;
+				scheduleSpeculativeResolution();
 			}
 		};
 	}
@@ -276,6 +300,7 @@ public class MarketplaceWizard extends DiscoveryWizard implements InstallProfile
 	public void resetProfileChangeOperation() {
 		profileChangeOperation = null;
 		currentJREPlan = null;
+		scheduleSpeculativeResolution();
 	}
 
 	void initializeInitialSelection() throws CoreException {
@@ -577,6 +602,7 @@ public class MarketplaceWizard extends DiscoveryWizard implements InstallProfile
 
 	@Override
 	public void dispose() {
+		cancelSpeculativeResolution();
 		removeAddedRepositoryLocations();
 		if (getConfiguration().getCatalogDescriptor() != null) {
 			// remember the catalog for next time.
@@ -772,57 +798,29 @@ public class MarketplaceWizard extends DiscoveryWizard implements InstallProfile
 			ProfileChangeOperationComputer provisioningOperation = null;
 			try {
 				final Map<CatalogItem, Operation> itemToOperation = getSelectionModel().getItemToSelectedOperation();
-				final Set<CatalogItem> selectedItems = getSelectionModel().getSelectedCatalogItems();
-				OperationType operationType = null;
-				for (Map.Entry<CatalogItem, Operation> entry : itemToOperation.entrySet()) {
-					if (!selectedItems.contains(entry.getKey())) {
-						continue;
-					}
-					OperationType entryOperationType = OperationType.map(entry.getValue());
-					if (entryOperationType != null) {
-						if (operationType == null || operationType == OperationType.UPDATE || entryOperationType == OperationType.CHANGE) {
-							operationType = entryOperationType;
-						}
-					}
+				try {
+					provisioningOperation = createProfileChangeOperationComputer(withRemediation);
+				} catch (URISyntaxException e) {
+					throw new InvocationTargetException(e);
 				}
-				Map<FeatureEntry, Operation> featureEntries = getSelectionModel().getFeatureEntryToOperation(false,
-						false);
-				if (operationType == OperationType.CHANGE || operationType == OperationType.UPDATE) {
-					Set<OperationType> featureOperations = EnumSet.noneOf(OperationType.class);
-					for (Entry<FeatureEntry, Operation> entry : featureEntries.entrySet()) {
-						OperationType operation = OperationType.map(entry.getValue());
-						if (operation != null) {
-							featureOperations.add(operation);
-						}
+				final OperationType operationType = provisioningOperation.getOperationType();
+				final ProfileChangeOperationComputer computer = provisioningOperation;
+				final Job speculativeResolution = speculativeResolutionJob;
+				speculativeResolutionJob = null;
+				wizardContainer.run(true, true, monitor -> {
+					if (speculativeResolution != null) {
+						//wait for a running pre-resolution of the same selection to finish - its plan is cached
+						speculativeResolution.wakeUp();
+						speculativeResolution.join(0, monitor);
 					}
-					if (featureOperations.contains(OperationType.INSTALL)
-							&& featureOperations.contains(OperationType.UPDATE)) {
-						//just perform install instead, which covers update
-						featureOperations.remove(OperationType.UPDATE);
-					}
-					if (featureOperations.size() == 1) {
-						operationType = featureOperations.iterator().next();
-					}
-				}
-				URI dependenciesRepository = null;
-				if (getConfiguration().getCatalogDescriptor().getDependenciesRepository() != null) {
+					IJobManager jobManager = Job.getJobManager();
+					jobManager.beginRule(RESOLUTION_RULE, monitor);
 					try {
-						dependenciesRepository = getConfiguration().getCatalogDescriptor()
-								.getDependenciesRepository()
-								.toURI();
-					} catch (URISyntaxException e) {
-						throw new InvocationTargetException(e);
+						computer.run(monitor);
+					} finally {
+						jobManager.endRule(RESOLUTION_RULE);
 					}
-				}
-				provisioningOperation = new ProfileChangeOperationComputer(
-						operationType,
-						selectedItems,
-						featureEntries.keySet(),
-						dependenciesRepository,
-						getConfiguration().getCatalogDescriptor().isInstallFromAllRepositories() ? ProfileChangeOperationComputer.ResolutionStrategy.FALLBACK_STRATEGY
-								: ProfileChangeOperationComputer.ResolutionStrategy.SELECTED_REPOSITORIES,
-								withRemediation);
-				wizardContainer.run(true, true, provisioningOperation);
+				});
 
 				profileChangeOperation = provisioningOperation.getOperation();
 				operationIUs = provisioningOperation.getIus();
@@ -903,6 +901,107 @@ public class MarketplaceWizard extends DiscoveryWizard implements InstallProfile
 		}
 	}
 
+	/**
+	 * Create the computer for the operation that corresponds to the current selection.
+	 */
+	private ProfileChangeOperationComputer createProfileChangeOperationComputer(boolean computeRemediation)
+			throws URISyntaxException {
+		final Map<CatalogItem, Operation> itemToOperation = getSelectionModel().getItemToSelectedOperation();
+		final Set<CatalogItem> selectedItems = getSelectionModel().getSelectedCatalogItems();
+		OperationType operationType = null;
+		for (Map.Entry<CatalogItem, Operation> entry : itemToOperation.entrySet()) {
+			if (!selectedItems.contains(entry.getKey())) {
+				continue;
+			}
+			OperationType entryOperationType = OperationType.map(entry.getValue());
+			if (entryOperationType != null) {
+				if (operationType == null || operationType == OperationType.UPDATE || entryOperationType == OperationType.CHANGE) {
+					operationType = entryOperationType;
+				}
+			}
+		}
+		Map<FeatureEntry, Operation> featureEntries = getSelectionModel().getFeatureEntryToOperation(false,
+				false);
+		if (operationType == OperationType.CHANGE || operationType == OperationType.UPDATE) {
+			Set<OperationType> featureOperations = EnumSet.noneOf(OperationType.class);
+			for (Entry<FeatureEntry, Operation> entry : featureEntries.entrySet()) {
+				OperationType operation = OperationType.map(entry.getValue());
+				if (operation != null) {
+					featureOperations.add(operation);
+				}
+			}
+			if (featureOperations.contains(OperationType.INSTALL)
+					&& featureOperations.contains(OperationType.UPDATE)) {
+				//just perform install instead, which covers update
+				featureOperations.remove(OperationType.UPDATE);
+			}
+			if (featureOperations.size() == 1) {
+				operationType = featureOperations.iterator().next();
+			}
+		}
+		URI dependenciesRepository = null;
+		if (getConfiguration().getCatalogDescriptor().getDependenciesRepository() != null) {
+			dependenciesRepository = getConfiguration().getCatalogDescriptor().getDependenciesRepository().toURI();
+		}
+		return new ProfileChangeOperationComputer(
+				operationType,
+				selectedItems,
+				featureEntries.keySet(),
+				dependenciesRepository,
+				getConfiguration().getCatalogDescriptor().isInstallFromAllRepositories() ? ProfileChangeOperationComputer.ResolutionStrategy.FALLBACK_STRATEGY
+						: ProfileChangeOperationComputer.ResolutionStrategy.SELECTED_REPOSITORIES,
+						computeRemediation);
+	}
+
+	/**
+	 * Start resolving the current selection in the background, so the plan is already known when the user confirms
+	 * it. The resolved plans are kept in the {@link ResolutionCache}. Repositories added for the resolution are removed
+	 * again when done. A canceled resolution may still be finishing; the {@link #RESOLUTION_RULE} keeps the next one
+	 * from starting before it is done.
+	 */
+	private void scheduleSpeculativeResolution() {
+		cancelSpeculativeResolution();
+		if (!getSelectionModel().computeProvisioningOperationViable()) {
+			return;
+		}
+		final ProfileChangeOperationComputer computer;
+		try {
+			computer = createProfileChangeOperationComputer(false);
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			//resolved interactively later on
+			return;
+		}
+		computer.setInteractive(false);
+		Job job = new Job(Messages.MarketplaceWizard_resolvingSelection) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				try {
+					computer.run(monitor);
+				} catch (InvocationTargetException e) {
+					//problems are reported when the selection is resolved for real
+				} catch (InterruptedException e) {
+					return Status.CANCEL_STATUS;
+				} finally {
+					AbstractProvisioningOperation.removeRepositoryLocations(computer.getAddedRepositoryLocations());
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		job.setSystem(true);
+		job.setPriority(Job.LONG);
+		job.setRule(RESOLUTION_RULE);
+		speculativeResolutionJob = job;
+		//give the user a moment to finish changing the selection
+		job.schedule(SPECULATIVE_RESOLUTION_DELAY);
+	}
+
+	private void cancelSpeculativeResolution() {
+		if (speculativeResolutionJob != null) {
+			speculativeResolutionJob.cancel();
+			speculativeResolutionJob = null;
+		}
+	}
+
 	private void removeAddedRepositoryLocations() {
 		AbstractProvisioningOperation.removeRepositoryLocations(addedRepositoryLocations);
 		addedRepositoryLocations = null;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2018 The Eclipse Foundation and others.
+ * Copyright (c) 2010, 2026 The Eclipse Foundation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v2.0
  * which accompanies this distribution, and is available at
@@ -220,6 +220,8 @@ class Messages extends NLS {
 
 	public static String MarketplacePage_switchCatalog_link;
 
+	public static String MarketplaceViewer_checkingForUpdates;
+
 	public static String MarketplaceViewer_Could_not_change_find_text;
 
 	public static String MarketplaceViewer_featured;
@@ -242,6 +244,8 @@ class Messages extends NLS {
 
 	public static String MarketplaceWizard_ProvisioningOperationCancelled;
 
+	public static String MarketplaceWizard_resolvingSelection;
+
 	public static String MarketplaceWizard_UnableToInstallSolutions;
 
 	public static String MarketplaceWizardDialog_Confirm;
@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.wizards;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.epp.internal.mpc.ui.MarketplaceClientUi;
+import org.eclipse.epp.internal.mpc.ui.util.Util;
+import org.eclipse.epp.internal.mpc.ui.wizards.MarketplaceDiscoveryResources.ImageReceiver;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageDataProvider;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Decoded and scaled images, shared by everything on a display that shows the same image in the same size.
+ * <p>
+ * Images are decoded and scaled in the background, so only the final {@link Image} is created on the UI thread. Each
+ * image is scaled from the original data for every zoom level it is shown at, so it stays sharp on high-DPI monitors.
+ * They are reference counted: each {@link #acquire(URL, int, int, RGB, ImageReceiver) acquire} must be matched by a
+ * {@link Lease#release() release}. A few images that are no longer used are kept around in case they are needed again
+ * soon, e.g. when a list is refreshed. All images are disposed with the display.
+ * <p>
+ * All methods must be called on the UI thread.
+ */
+public class ScaledImageCache {
+
+	private static final String DISPLAY_DATA_KEY = ScaledImageCache.class.getName();
+
+	private static final int MAX_UNUSED_IMAGES = 32;
+
+	/**
+	 * Images that are at least this close to the requested width are used as they are, to avoid blurring them.
+	 */
+	private static final float MIN_UNSCALED_WIDTH_RATIO = 0.8f;
+
+	private static final class Key {
+
+		private final String url;
+
+		private final int maxWidth;
+
+		private final int maxHeight;
+
+		private final RGB background;
+
+		Key(String url, int maxWidth, int maxHeight, RGB background) {
+			this.url = url;
+			this.maxWidth = maxWidth;
+			this.maxHeight = maxHeight;
+			this.background = background;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(url, maxWidth, maxHeight, background);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return maxWidth == other.maxWidth && maxHeight == other.maxHeight && url.equals(other.url)
+					&& Objects.equals(background, other.background);
+		}
+	}
+
+	/**
+	 * Scales the original image data for each zoom level. The data for the primary monitor's zoom level is scaled when
+	 * the provider is created, in the background for downloaded images. Other zoom levels are scaled when the image is
+	 * first shown at them.
+	 */
+	private static final class ScaledImageDataProvider implements ImageDataProvider {
+
+		private final ImageData source;
+
+		private final Key key;
+
+		private final ImageData data;
+
+		private final Map<Integer, ImageData> zoomedData = new HashMap<>();
+
+		ScaledImageDataProvider(ImageData source, Key key, int zoom) {
+			this.source = source;
+			this.key = key;
+			this.data = scale(source, key);
+			getImageData(zoom);
+		}
+
+		@Override
+		public synchronized ImageData getImageData(int zoom) {
+			if (zoom == 100) {
+				return data;
+			}
+			return zoomedData.computeIfAbsent(zoom, z -> {
+				//keep the size of the image at 100% in proportion, so it takes the same space at every zoom level
+				int width = Math.max(1, data.width * z / 100);
+				int height = Math.max(1, data.height * z / 100);
+				if (source.width == width && source.height == height) {
+					return source;
+				}
+				return Util.scaleImageData(source, width, height, key.background);
+			});
+		}
+	}
+
+	private static final class Entry {
+
+		private final Key key;
+
+		private Image image;
+
+		private boolean failed;
+
+		private int references;
+
+		private final List<Lease> waiting = new ArrayList<>();
+
+		Entry(Key key) {
+			this.key = key;
+		}
+	}
+
+	/**
+	 * A reference to a cached image.
+	 */
+	public final class Lease {
+
+		private Entry entry;
+
+		private final ImageReceiver receiver;
+
+		private Lease(Entry entry, ImageReceiver receiver) {
+			this.entry = entry;
+			this.receiver = receiver;
+		}
+
+		/**
+		 * Release the image. It must not be used afterwards.
+		 */
+		public void release() {
+			Entry entry = this.entry;
+			if (entry == null) {
+				return;
+			}
+			this.entry = null;
+			ScaledImageCache.this.release(entry, this);
+		}
+	}
+
+	private final Display display;
+
+	private final Map<Key, Entry> entries = new HashMap<>();
+
+	private final Map<Key, Entry> unused = new LinkedHashMap<>(16, 0.75f, true);
+
+	private boolean disposed;
+
+	ScaledImageCache(Display display) {
+		this.display = display;
+	}
+
+	/**
+	 * @return the cache for the given display, which is disposed with the display
+	 */
+	public static ScaledImageCache getInstance(Display display) {
+		ScaledImageCache cache = (ScaledImageCache) display.getData(DISPLAY_DATA_KEY);
+		if (cache == null) {
+			cache = new ScaledImageCache(display);
+			display.setData(DISPLAY_DATA_KEY, cache);
+			display.disposeExec(cache::dispose);
+		}
+		return cache;
+	}
+
+	/**
+	 * Get the image at the given URL, scaled to fit into the given size. The receiver is called right away if the
+	 * image is available already, otherwise as soon as it has been loaded. It isn't called if the image can't be
+	 * loaded or the lease is released before.
+	 *
+	 * @param background
+	 *            background color used in place of transparency, or null to keep the transparency
+	 * @return the lease, which has to be released once the image isn't used anymore
+	 */
+	public Lease acquire(URL url, int maxWidth, int maxHeight, RGB background, ImageReceiver receiver) {
+		return acquire(new Key(url.toString(), maxWidth, maxHeight, background), entry -> load(entry, url), receiver);
+	}
+
+	/**
+	 * Get the given image, scaled to fit into the given size. This is meant for small images that are loaded already,
+	 * like those of an image registry. They are scaled right away, so the receiver is called before this returns.
+	 *
+	 * @param id
+	 *            identifies the image, e.g. a registry key with a scheme that sets it apart from URLs
+	 * @param image
+	 *            the image to scale. It is not used after this returns, and not disposed by the cache.
+	 * @param background
+	 *            background color used in place of transparency, or null to keep the transparency
+	 * @return the lease, which has to be released once the image isn't used anymore
+	 */
+	public Lease acquire(String id, Image image, int maxWidth, int maxHeight, RGB background, ImageReceiver receiver) {
+		return acquire(new Key(id, maxWidth, maxHeight, background), entry -> {
+			ScaledImageDataProvider data = null;
+			try {
+				//scale from the image's best data for the monitor, rather than the data at 100%
+				int zoom = getZoom();
+				data = new ScaledImageDataProvider(image.getImageData(zoom), entry.key, zoom);
+			} catch (SWTException ex) {
+				MarketplaceClientUi.log(IStatus.WARNING, Messages.MarketplaceDiscoveryResources_LoadImageError, id,
+						ex);
+			}
+			loaded(entry, data);
+		}, receiver);
+	}
+
+	private Lease acquire(Key key, Consumer<Entry> loader, ImageReceiver receiver) {
+		Entry entry = entries.get(key);
+		boolean load = false;
+		if (entry == null) {
+			entry = unused.remove(key);
+			if (entry == null) {
+				entry = new Entry(key);
+				load = true;
+			}
+			entries.put(key, entry);
+		}
+		entry.references++;
+		Lease lease = new Lease(entry, receiver);
+		if (entry.image != null) {
+			receiver.setImage(entry.image);
+		} else if (!entry.failed) {
+			entry.waiting.add(lease);
+			if (load) {
+				loader.accept(entry);
+			}
+		}
+		return lease;
+	}
+
+	/**
+	 * @return the zoom level of the primary monitor, for which images are scaled ahead of time
+	 */
+	private int getZoom() {
+		return display.getPrimaryMonitor().getZoom();
+	}
+
+	/**
+	 * Scale the image data for 100% unless it is close enough to the requested size already.
+	 */
+	private static ImageData scale(ImageData data, Key key) {
+		if (data.width > key.maxWidth || data.height > key.maxHeight
+				|| data.width < MIN_UNSCALED_WIDTH_RATIO * key.maxWidth) {
+			return Util.scaleImageData(data, key.maxWidth, key.maxHeight, key.background);
+		}
+		return data;
+	}
+
+	private void release(Entry entry, Lease lease) {
+		entry.waiting.remove(lease);
+		if (--entry.references > 0) {
+			return;
+		}
+		if (entries.get(entry.key) == entry) {
+			entries.remove(entry.key);
+		}
+		if (entry.image != null && !disposed) {
+			unused.put(entry.key, entry);
+			for (Iterator<Entry> i = unused.values().iterator(); unused.size() > MAX_UNUSED_IMAGES && i.hasNext();) {
+				Entry eldest = i.next();
+				i.remove();
+				eldest.image.dispose();
+			}
+		}
+	}
+
+	private void load(final Entry entry, final URL url) {
+		final Key key = entry.key;
+		final int zoom = getZoom();
+		new Job(Messages.MarketplaceDiscoveryResources_retrievingImage) {
+
+			{
+				setPriority(INTERACTIVE);
+				setUser(false);
+				setSystem(true);
+			}
+
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				ScaledImageDataProvider data = null;
+				try (InputStream in = url.openStream()) {
+					data = new ScaledImageDataProvider(new ImageData(in), key, zoom);
+				} catch (Exception e) {
+					MarketplaceClientUi.log(IStatus.WARNING, Messages.MarketplaceDiscoveryResources_LoadImageError,
+							url, e);
+					data = null;
+				}
+				final ScaledImageDataProvider loadedData = data;
+				if (!display.isDisposed()) {
+					try {
+						display.asyncExec(() -> loaded(entry, loadedData));
+					} catch (SWTException ex) {
+						//disposed in the meantime
+					}
+				}
+				return Status.OK_STATUS;
+			}
+		}.schedule();
+	}
+
+	private void loaded(Entry entry, ScaledImageDataProvider data) {
+		if (disposed || entry.references == 0) {
+			//not needed anymore
+			return;
+		}
+		if (data != null) {
+			try {
+				entry.image = new Image(display, data);
+			} catch (SWTException ex) {
+				MarketplaceClientUi.log(IStatus.WARNING, Messages.MarketplaceDiscoveryResources_LoadImageError,
+						entry.key.url, ex);
+			}
+		}
+		entry.failed = entry.image == null;
+		List<Lease> waiting = new ArrayList<>(entry.waiting);
+		entry.waiting.clear();
+		if (entry.image != null) {
+			for (Lease lease : waiting) {
+				lease.receiver.setImage(entry.image);
+			}
+		}
+	}
+
+	private void dispose() {
+		disposed = true;
+		for (Entry entry : entries.values()) {
+			disposeImage(entry);
+		}
+		for (Entry entry : unused.values()) {
+			disposeImage(entry);
+		}
+		entries.clear();
+		unused.clear();
+	}
+
+	private static void disposeImage(Entry entry) {
+		if (entry.image != null && !entry.image.isDisposed()) {
+			entry.image.dispose();
+		}
+		entry.waiting.clear();
+	}
+}
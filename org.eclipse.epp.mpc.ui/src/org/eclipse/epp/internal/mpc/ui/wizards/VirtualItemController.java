@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2026 The Eclipse Foundation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     The Eclipse Foundation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.epp.internal.mpc.ui.wizards;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.epp.internal.mpc.ui.css.StyleHelper;
+import org.eclipse.equinox.internal.p2.ui.discovery.util.ControlListItem;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.ScrolledComposite;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.ScrollBar;
+
+/**
+ * Virtualizes the items of a scrolled control list, so only rows in or near the viewport have real item controls.
+ * <p>
+ * The viewer gets a stable row item for every element, which only holds the real item control while the row is in
+ * or near the viewport. Empty rows keep the height they had when their content was released, or an estimated height
+ * if they have never been shown. As the list is scrolled, rows coming close to the viewport get their content created,
+ * and rows that have moved far out of it release it again. This keeps the number of native widgets bounded by the
+ * viewport size instead of the number of rows, while the viewer's own items stay valid for refreshes and selection.
+ */
+public class VirtualItemController {
+
+	public interface ItemFactory {
+
+		/**
+		 * Create the real item control for the given element.
+		 */
+		ControlListItem<?> createItem(Composite parent, Object element);
+
+		/**
+		 * Refresh an item created by {@link #createItem(Composite, Object)}, when the viewer refreshes its row.
+		 */
+		void refreshItem(ControlListItem<?> item);
+	}
+
+	/**
+	 * Number of leading rows that get real items right away, so the first page doesn't flash empty rows
+	 */
+	private static final int EAGER_ITEMS = 8;
+
+	private static final int DEFAULT_ITEM_HEIGHT = 110;
+
+	/**
+	 * Rows within this many viewport heights above or below the viewport get real items
+	 */
+	private static final int CREATE_DISTANCE = 1;
+
+	/**
+	 * Items further than this many viewport heights away from the viewport are released. This is larger than
+	 * {@link #CREATE_DISTANCE}, so items aren't recreated when scrolling back and forth a little.
+	 */
+	private static final int RELEASE_DISTANCE = 3;
+
+	/**
+	 * The row item known to the viewer. It stays in place for the lifetime of the row, while the real item is
+	 * created in it and released again.
+	 */
+	private class VirtualItem extends ControlListItem<Object> {
+
+		private ControlListItem<?> item;
+
+		private int height;
+
+		private int colorIndex = -1;
+
+		VirtualItem(Composite parent, Object element, int height) {
+			super(parent, SWT.NONE, element);
+			this.height = height;
+			setLayout(new FillLayout());
+			new StyleHelper().on(this).addClass("MarketplaceItem"); //$NON-NLS-1$
+		}
+
+		boolean isRealized() {
+			return item != null && !item.isDisposed();
+		}
+
+		void realize() {
+			if (isRealized()) {
+				return;
+			}
+			item = factory.createItem(this, getData());
+			if (colorIndex != -1) {
+				item.updateColors(colorIndex);
+			}
+			layout(true);
+		}
+
+		void release() {
+			if (isRealized()) {
+				height = getSize().y;
+				item.dispose();
+			}
+			item = null;
+		}
+
+		@Override
+		public Point computeSize(int wHint, int hHint, boolean changed) {
+			if (isRealized()) {
+				return super.computeSize(wHint, hHint, changed);
+			}
+			return new Point(wHint == SWT.DEFAULT ? 0 : wHint, hHint == SWT.DEFAULT ? height : hHint);
+		}
+
+		@Override
+		public void updateColors(int index) {
+			super.updateColors(index);
+			colorIndex = index;
+			if (isRealized()) {
+				item.updateColors(index);
+			}
+		}
+
+		@Override
+		protected void refresh() {
+			//released rows are up to date once they are created again
+			if (isRealized()) {
+				factory.refreshItem(item);
+			}
+		}
+	}
+
+	private final ScrolledComposite scrolled;
+
+	private final ItemFactory factory;
+
+	private final Listener updateListener = e -> scheduleUpdate();
+
+	private Composite content;
+
+	private int estimatedItemHeight = DEFAULT_ITEM_HEIGHT;
+
+	private boolean updatePending;
+
+	public VirtualItemController(ScrolledComposite scrolled, ItemFactory factory) {
+		this.scrolled = scrolled;
+		this.factory = factory;
+		scrolled.addListener(SWT.Resize, updateListener);
+		ScrollBar verticalBar = scrolled.getVerticalBar();
+		if (verticalBar != null) {
+			verticalBar.addListener(SWT.Selection, updateListener);
+		}
+	}
+
+	/**
+	 * Create the row item for the given element. The caller decides which rows can be virtualized.
+	 */
+	public ControlListItem<?> createItem(Composite parent, Object element) {
+		hookContent(parent);
+		VirtualItem item = new VirtualItem(parent, element, estimatedItemHeight);
+		if (parent.getChildren().length <= EAGER_ITEMS) {
+			item.realize();
+		} else {
+			scheduleUpdate();
+		}
+		return item;
+	}
+
+	private void hookContent(Composite parent) {
+		if (content == parent) {
+			return;
+		}
+		if (content != null && !content.isDisposed()) {
+			content.removeListener(SWT.Move, updateListener);
+			content.removeListener(SWT.Resize, updateListener);
+		}
+		content = parent;
+		//the content is moved when scrolling, both by the user and programmatically, e.g. to reveal an item
+		content.addListener(SWT.Move, updateListener);
+		content.addListener(SWT.Resize, updateListener);
+	}
+
+	private void scheduleUpdate() {
+		if (updatePending || scrolled.isDisposed()) {
+			return;
+		}
+		updatePending = true;
+		scrolled.getDisplay().asyncExec(this::update);
+	}
+
+	private void update() {
+		updatePending = false;
+		if (scrolled.isDisposed() || content == null || content.isDisposed() || scrolled.getContent() != content) {
+			return;
+		}
+		int viewportHeight = scrolled.getClientArea().height;
+		if (viewportHeight <= 0 || !scrolled.isVisible()) {
+			return;
+		}
+		int top = scrolled.getOrigin().y;
+		int bottom = top + viewportHeight;
+		int createTop = top - CREATE_DISTANCE * viewportHeight;
+		int createBottom = bottom + CREATE_DISTANCE * viewportHeight;
+		int releaseTop = top - RELEASE_DISTANCE * viewportHeight;
+		int releaseBottom = bottom + RELEASE_DISTANCE * viewportHeight;
+
+		Control focusControl = scrolled.getDisplay().getFocusControl();
+		List<Control> changed = new ArrayList<>();
+		long measuredHeight = 0;
+		int measuredItems = 0;
+		for (Control child : content.getChildren()) {
+			if (child.isDisposed() || !(child instanceof VirtualItem)) {
+				continue;
+			}
+			VirtualItem item = (VirtualItem) child;
+			Rectangle bounds = item.getBounds();
+			int childTop = bounds.y;
+			int childBottom = bounds.y + bounds.height;
+			if (!item.isRealized()) {
+				if (childBottom >= createTop && childTop <= createBottom) {
+					item.realize();
+					changed.add(item);
+				}
+			} else if ((childBottom < releaseTop || childTop > releaseBottom) && !contains(item, focusControl)) {
+				item.release();
+				changed.add(item);
+			} else if (bounds.height > 0) {
+				measuredHeight += bounds.height;
+				measuredItems++;
+			}
+		}
+		if (measuredItems > 0) {
+			estimatedItemHeight = (int) (measuredHeight / measuredItems);
+		}
+		if (!changed.isEmpty()) {
+			content.setRedraw(false);
+			try {
+				content.layout(changed.toArray(new Control[changed.size()]));
+				updateSize();
+			} finally {
+				content.setRedraw(true);
+			}
+		}
+	}
+
+	private void updateSize() {
+		//rows can change their height when their item is created or released, so the scrolled area may have changed
+		Point origin = scrolled.getOrigin();
+		Point size = content.computeSize(scrolled.getClientArea().width, SWT.DEFAULT);
+		content.setSize(size);
+		scrolled.setMinSize(size);
+		scrolled.setOrigin(origin);
+	}
+
+	private static boolean contains(Control item, Control control) {
+		for (Control c = control; c != null; c = c.getParent()) {
+			if (c == item) {
+				return true;
+			}
+		}
+		return false;
+	}
+}